@@ -0,0 +1,254 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sparklingminds.adt.map.benchmark.PerformantMapBenchmarkSuite.KeyDistribution;
+import com.sparklingminds.adt.map.benchmark.PerformantMapBenchmarkSuite.KeySet;
+import com.sparklingminds.adt.map.benchmark.PerformantMapBenchmarkSuite.MapType;
+
+/**
+ * PerformantMapBenchmark is the JMH port of the PerformantMapBenchmarkSuite.
+ * It measures the same operations on the same maps, sizes and key
+ * distributions, which are JMH parameters here, and takes its keys and its
+ * lookup sequences from the same KeySet, so that the results of both harnesses
+ * can be compared. Unlike the MicroBenchmark harness, JMH forks a fresh JVM
+ * for every combination of parameters, and its gc profiler reports the bytes
+ * allocated per operation as gc.alloc.rate.norm: <br>
+ * <br>
+ * <i> java -jar target/benchmarks.jar PerformantMapBenchmark -prof gc -p
+ * map=PERFORMANT,HASH_MAP -p size=1000000 </i> <br>
+ * <br>
+ * getHit, getMiss and putOverwrite perform one lookup per operation, walking
+ * the lookup sequence of the key set. putNew, remove and iteration perform one
+ * operation per mapping of a map of the parameter size, so their scores are
+ * those of a whole map and have to be divided by the size; putNew includes the
+ * rehashes needed to grow from the default capacity, and remove runs on a map
+ * filled before every invocation, whose allocations the gc profiler counts
+ * with those of remove. The COLLIDING distribution turns every
+ * lookup of a chained map into a linear scan, so it is not measured by default
+ * and it is rejected for sizes above 10000: <br>
+ * <br>
+ * <i> java -jar target/benchmarks.jar PerformantMapBenchmark -p
+ * distribution=COLLIDING -p size=10,1000 </i>
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantMapBenchmarkSuite
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PerformantMapBenchmark {
+
+	private static final int MAXIMUM_COLLIDING_SIZE = 10_000;
+
+	/**
+	 * The map under benchmark; all of the maps by default.
+	 */
+	@Param
+	public MapType map;
+
+	/**
+	 * The distribution of the keys.
+	 */
+	@Param({ "UNIFORM", "ZIPFIAN" })
+	public KeyDistribution distribution;
+
+	/**
+	 * The number of mappings of the map.
+	 */
+	@Param({ "10", "1000", "100000", "1000000" })
+	public int size;
+
+	private KeySet keySet;
+
+	private Map<String, String> filledMap;
+
+	private int query;
+
+	/**
+	 * The map emptied by remove, filled again before every invocation. It is a
+	 * state of its own, so that only remove pays for a setup per invocation.
+	 */
+	@State(Scope.Thread)
+	public static class RemovedMap {
+
+		Map<String, String> map;
+
+		/**
+		 * Fills the map for the next invocation of remove.
+		 *
+		 * @param benchmark the benchmark state holding the keys
+		 */
+		@Setup(Level.Invocation)
+		public void setUp(PerformantMapBenchmark benchmark) {
+
+			map = benchmark.fill(benchmark.map.create());
+
+		}
+
+	}
+
+	/**
+	 * Creates the keys and fills the map read by the lookups and the iteration.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		if (distribution == KeyDistribution.COLLIDING && size > MAXIMUM_COLLIDING_SIZE) {
+
+			throw new IllegalArgumentException(
+					"The COLLIDING distribution is limited to " + MAXIMUM_COLLIDING_SIZE + " keys");
+
+		}
+
+		keySet = new KeySet(distribution, size);
+
+		filledMap = fill(map.create());
+
+	}
+
+	/**
+	 * Looks up a present key.
+	 *
+	 * @return the value of the key
+	 */
+	@Benchmark
+	public String getHit() {
+
+		return filledMap.get(keySet.keys[nextQuery()]);
+
+	}
+
+	/**
+	 * Looks up an absent key.
+	 *
+	 * @return null
+	 */
+	@Benchmark
+	public String getMiss() {
+
+		return filledMap.get(keySet.missingKeys[nextQuery()]);
+
+	}
+
+	/**
+	 * Puts the keys into an empty map of the default capacity.
+	 *
+	 * @return the filled map
+	 */
+	@Benchmark
+	public Map<String, String> putNew() {
+
+		return fill(map.create());
+
+	}
+
+	/**
+	 * Puts a present key with its value.
+	 *
+	 * @return the previous value of the key
+	 */
+	@Benchmark
+	public String putOverwrite() {
+
+		String key = keySet.keys[nextQuery()];
+
+		return filledMap.put(key, key);
+
+	}
+
+	/**
+	 * Removes every key of a filled map.
+	 *
+	 * @param removedMap the filled map
+	 * @param blackhole  consumes the removed values
+	 */
+	@Benchmark
+	public void remove(RemovedMap removedMap, Blackhole blackhole) {
+
+		for (String key : keySet.keys) {
+
+			blackhole.consume(removedMap.map.remove(key));
+
+		}
+
+	}
+
+	/**
+	 * Iterates over the entry set of the map.
+	 *
+	 * @return the sum of the lengths of the values
+	 */
+	@Benchmark
+	public long iteration() {
+
+		long sum = 0;
+
+		for (Map.Entry<String, String> entry : filledMap.entrySet()) {
+
+			sum += entry.getValue().length();
+
+		}
+
+		return sum;
+
+	}
+
+	/**
+	 * Searches the map for an absent value.
+	 *
+	 * @return false
+	 */
+	@Benchmark
+	public boolean containsValue() {
+
+		return filledMap.containsValue(keySet.missingKeys[0]);
+
+	}
+
+	private int nextQuery() {
+
+		int[] queries = keySet.queries;
+
+		if (++query == queries.length) {
+
+			query = 0;
+
+		}
+
+		return queries[query];
+
+	}
+
+	private Map<String, String> fill(Map<String, String> newMap) {
+
+		for (String key : keySet.keys) {
+
+			newMap.put(key, key);
+
+		}
+
+		return newMap;
+
+	}
+
+}
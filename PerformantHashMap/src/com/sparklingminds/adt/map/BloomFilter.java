@@ -1,12 +1,41 @@
 package com.sparklingminds.adt.map;
 
-import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-
-public class BloomFilter {
-	private byte[] set;
+import java.util.Arrays;
+
+/**
+ * BloomFilter is the probabilistic membership structure behind
+ * PerformantHashMap.mightContain(Key k). <br>
+ * <br>
+ * The filter is a bit set packed into a long array, so every bit of the
+ * filter costs one bit of memory. It is normally sized from the number of
+ * elements it is expected to hold and the false positive probability it should
+ * have once it holds them: for n expected insertions and a false positive
+ * probability p it uses m = -n ln(p) / (ln 2)^2 bits and k = (m / n) ln 2 hash
+ * functions, which is the optimum for that m and n. The false positive rate of
+ * a filter that receives more insertions than it was sized for grows beyond p.
+ * Subclasses such as the CountingBloomFilter may reserve more than one bit
+ * for every position. <br>
+ * <br>
+ * The k bit positions of an element are derived from a single 64-bit hash:
+ * the hash code of the element is passed through a 64-bit mixing finalizer,
+ * the result is split into two 32-bit halves h1 and h2, and the i-th position
+ * is h1 + i * h2 (Kirsch-Mitzenmacher double hashing), with h2 forced odd so
+ * that it is never zero. Neither add nor contains allocates any memory, and no
+ * cryptographic digest is computed. <br>
+ * <br>
+ * A BloomFilter is serializable; its bits are written as the packed long
+ * words that hold them.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class BloomFilter implements java.io.Serializable {
+
+	private static final long serialVersionUID = 662498820763181265L;
+
+	private static final long MAXIMUM_BIT_SIZE = Integer.MAX_VALUE;
+
+	private long[] set;
 
 	private int keySize;
 
@@ -14,45 +43,92 @@ public class BloomFilter {
 
 	private int size;
 
-	private MessageDigest md;
-
+	/**
+	 * Constructs an empty BloomFilter with the specified number of bits and hash
+	 * functions.
+	 * 
+	 * @param capacity the number of bits of the filter
+	 * @param k        the number of hash functions
+	 * @throws IllegalArgumentException if the number of bits or hash functions is
+	 *                                  not positive
+	 */
 	public BloomFilter(int capacity, int k) {
 
-		setSize = capacity;
+		this(capacity, k, 1);
 
-		set = new byte[setSize];
+	}
 
-		keySize = k;
+	/**
+	 * Constructs an empty BloomFilter with the specified number of positions and
+	 * hash functions, reserving the specified number of bits for every position.
+	 * 
+	 * @param capacity        the number of positions of the filter
+	 * @param k               the number of hash functions
+	 * @param bitsPerPosition the number of bits reserved for every position
+	 * @throws IllegalArgumentException if the number of positions or hash
+	 *                                  functions is not positive
+	 */
+	protected BloomFilter(int capacity, int k, int bitsPerPosition) {
 
-		size = 0;
+		if (capacity <= 0 || k <= 0) {
 
-		try {
+			throw new IllegalArgumentException();
 
-			md = MessageDigest.getInstance("MD5");
+		}
 
-		} catch (NoSuchAlgorithmException e) {
+		setSize = capacity;
 
-			throw new IllegalArgumentException("Error : MD5 Hash not found");
+		set = new long[(int) (((long) setSize * bitsPerPosition + 63) >>> 6)];
 
-		}
+		keySize = k;
 
-	}
+		size = 0;
 
-	public void clear() {
+	}
 
-		set = new byte[setSize];
+	/**
+	 * Constructs an empty BloomFilter sized for the specified number of insertions
+	 * and false positive probability. The number of bits is capped at
+	 * Integer.MAX_VALUE (256 MB).
+	 * 
+	 * @param expectedInsertions the number of elements the filter is expected to
+	 *                           hold
+	 * @param fpp                the desired false positive probability once the
+	 *                           filter holds the expected number of elements
+	 * @throws IllegalArgumentException if the expected insertions are not positive
+	 *                                  or the probability is not between 0 and 1
+	 */
+	public BloomFilter(long expectedInsertions, double fpp) {
+
+		this(expectedInsertions, fpp, 1);
 
-		size = 0;
+	}
 
-		try {
+	/**
+	 * Constructs an empty BloomFilter sized for the specified number of insertions
+	 * and false positive probability, reserving the specified number of bits for
+	 * every position.
+	 * 
+	 * @param expectedInsertions the number of elements the filter is expected to
+	 *                           hold
+	 * @param fpp                the desired false positive probability once the
+	 *                           filter holds the expected number of elements
+	 * @param bitsPerPosition    the number of bits reserved for every position
+	 * @throws IllegalArgumentException if the expected insertions are not positive
+	 *                                  or the probability is not between 0 and 1
+	 */
+	protected BloomFilter(long expectedInsertions, double fpp, int bitsPerPosition) {
+
+		this(getOptimalBitSize(expectedInsertions, fpp),
+				getOptimalHashCount(expectedInsertions, getOptimalBitSize(expectedInsertions, fpp)), bitsPerPosition);
 
-			md = MessageDigest.getInstance("MD5");
+	}
 
-		} catch (NoSuchAlgorithmException e) {
+	public void clear() {
 
-			throw new IllegalArgumentException("Error : MD5 Hash not found");
+		Arrays.fill(set, 0L);
 
-		}
+		size = 0;
 
 	}
 
@@ -68,25 +144,75 @@ public class BloomFilter {
 
 	}
 
-	private int getHash(int i) {
+	/**
+	 * Returns the number of bits of this filter.
+	 * 
+	 * @return the number of bits of this filter
+	 */
+	public int getBitSize() {
 
-		md.reset();
+		return setSize;
 
-		byte[] bytes = ByteBuffer.allocate(4).putInt(i).array();
+	}
 
-		md.update(bytes, 0, bytes.length);
+	/**
+	 * Returns the number of hash functions of this filter.
+	 * 
+	 * @return the number of hash functions of this filter
+	 */
+	public int getHashCount() {
 
-		return Math.abs(new BigInteger(1, md.digest()).intValue()) % (set.length - 1);
+		return keySize;
 
 	}
 
 	public void add(Object obj) {
 
-		int[] tmpset = getSetArray(obj);
+		addHash(hash64(obj.hashCode()));
+
+	}
+
+	/**
+	 * Adds the specified primitive value to this filter without boxing it. The
+	 * value is hashed directly, so a value added with this method must also be
+	 * tested with contains(long value).
+	 * 
+	 * @param value the value to add
+	 */
+	public void add(long value) {
+
+		addHash(hash64(value));
+
+	}
+
+	public boolean contains(Object obj) {
+
+		return containsHash(hash64(obj.hashCode()));
+
+	}
+
+	/**
+	 * Returns true if the specified primitive value might have been added to this
+	 * filter with add(long value).
+	 * 
+	 * @param value the value to test
+	 * @return false if the value has certainly not been added, true otherwise
+	 */
+	public boolean contains(long value) {
 
-		for (int i : tmpset) {
+		return containsHash(hash64(value));
 
-			set[i] = 1;
+	}
+
+	private void addHash(long hash) {
+
+		int h1 = (int) hash;
+
+		int h2 = (int) (hash >>> 32) | 1;
+
+		for (int i = 0; i < keySize; i++) {
+
+			setPosition(getIndex(h1 + i * h2));
 
 		}
 
@@ -94,13 +220,15 @@ public class BloomFilter {
 
 	}
 
-	public boolean contains(Object obj) {
+	private boolean containsHash(long hash) {
+
+		int h1 = (int) hash;
 
-		int[] tmpset = getSetArray(obj);
+		int h2 = (int) (hash >>> 32) | 1;
 
-		for (int i : tmpset) {
+		for (int i = 0; i < keySize; i++) {
 
-			if (set[i] != 1) {
+			if (!isPositionSet(getIndex(h1 + i * h2))) {
 
 				return false;
 
@@ -112,20 +240,136 @@ public class BloomFilter {
 
 	}
 
-	private int[] getSetArray(Object obj) {
+	/**
+	 * Marks the specified position as set.
+	 * 
+	 * @param position the position to set
+	 */
+	protected void setPosition(int position) {
+
+		set[position >>> 6] |= 1L << position;
+
+	}
+
+	/**
+	 * Returns true if the specified position is set.
+	 * 
+	 * @param position the position to test
+	 * @return true if the specified position is set
+	 */
+	protected boolean isPositionSet(int position) {
+
+		return (set[position >>> 6] & (1L << position)) != 0;
+
+	}
+
+	/**
+	 * Returns the number of bits reserved for every position of this filter.
+	 * 
+	 * @return the number of bits of every position
+	 */
+	protected int getBitsPerPosition() {
+
+		return 1;
+
+	}
+
+	/**
+	 * Returns the words backing the positions of this filter.
+	 * 
+	 * @return the words backing the positions of this filter
+	 */
+	protected final long[] getWords() {
+
+		return set;
+
+	}
+
+	/**
+	 * Returns the position of the i-th hash function for the element with the
+	 * specified 64-bit hash.
+	 * 
+	 * @param hash the 64-bit hash of the element
+	 * @param i    the index of the hash function
+	 * @return the position of the i-th hash function
+	 */
+	protected final int getPosition(long hash, int i) {
+
+		return getIndex((int) hash + i * ((int) (hash >>> 32) | 1));
+
+	}
+
+	/**
+	 * Changes the number of elements recorded in this filter by the specified
+	 * amount.
+	 * 
+	 * @param delta the amount to add to the number of elements
+	 */
+	protected final void addToSize(int delta) {
+
+		size += delta;
+
+	}
+
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+
+		s.defaultReadObject();
+
+		// The words have to hold every position at the width of the subclass.
+		if (set == null || setSize <= 0 || keySize <= 0
+				|| ((long) set.length << 6) < (long) setSize * getBitsPerPosition()) {
+
+			throw new java.io.InvalidObjectException("Illegal BloomFilter");
+
+		}
+
+	}
+
+	private int getIndex(int combinedHash) {
+
+		return (combinedHash & 0x7FFFFFFF) % setSize;
+
+	}
+
+	/**
+	 * Mixes the specified value into a 64-bit hash with good avalanche behaviour
+	 * (the finalizer of the 64-bit MurmurHash3).
+	 * 
+	 * @param value the value to mix
+	 * @return the 64-bit hash of the value
+	 */
+	static long hash64(long value) {
 
-		int[] tmpset = new int[keySize];
+		value ^= value >>> 33;
 
-		tmpset[0] = getHash(obj.hashCode());
+		value *= 0xff51afd7ed558ccdL;
 
-		for (int i = 1; i < keySize; i++) {
+		value ^= value >>> 33;
 
-			tmpset[i] = (getHash(tmpset[i - 1]));
+		value *= 0xc4ceb9fe1a85ec53L;
+
+		return value ^ (value >>> 33);
+
+	}
+
+	private static int getOptimalBitSize(long expectedInsertions, double fpp) {
+
+		if (expectedInsertions <= 0 || !(fpp > 0 && fpp < 1)) {
+
+			throw new IllegalArgumentException();
 
 		}
 
-		return tmpset;
+		double bits = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+
+		return (int) Math.max(64, Math.min(MAXIMUM_BIT_SIZE, (long) Math.ceil(bits)));
+
+	}
+
+	private static int getOptimalHashCount(long expectedInsertions, int bitSize) {
+
+		return Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
 
 	}
 
-}
\ No newline at end of file
+}
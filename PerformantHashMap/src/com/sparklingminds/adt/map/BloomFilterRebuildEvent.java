@@ -0,0 +1,43 @@
+package com.sparklingminds.adt.map;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * BloomFilterRebuildEvent is the flight recorder event of a rebuild of the
+ * bloom filter of a PerformantHashMap. <br>
+ * <br>
+ * The bloom filter is resized together with the table, and the rebuilt filter
+ * is filled as the map entries are moved into the new table. The event starts
+ * when the new filter is allocated and is committed when the previous filter
+ * is dropped, so for an incremental rehash its duration spans the whole
+ * migration.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+@Name("com.sparklingminds.adt.map.BloomFilterRebuild")
+@Label("PerformantHashMap Bloom Filter Rebuild")
+@Category({ "Sparkling Minds", "PerformantHashMap" })
+@Description("A rebuild of the bloom filter of a PerformantHashMap")
+final class BloomFilterRebuildEvent extends jdk.jfr.Event {
+
+	@Label("Old Expected Insertions")
+	@Description("The number of keys the previous bloom filter was sized for")
+	int oldExpectedInsertions;
+
+	@Label("New Expected Insertions")
+	@Description("The number of keys the rebuilt bloom filter is sized for")
+	int newExpectedInsertions;
+
+	@Label("False Positive Probability")
+	@Description("The false positive probability the bloom filter is sized for")
+	double falsePositiveProbability;
+
+	@Label("Entry Count")
+	@Description("The number of mappings in the map when the rebuild started")
+	int entryCount;
+
+}
@@ -0,0 +1,55 @@
+package com.sparklingminds.adt.map;
+
+/**
+ * ChainReorderPolicy is the self-organizing heuristic that a PerformantHashMap
+ * applies to the chain of a bucket whenever the get(Key k) method finds a map
+ * entry which is not at the head of the chain. Reordering moves frequently
+ * accessed map entries towards the head of their chains and shortens later
+ * lookups of the same keys, but it turns every such read into a write to the
+ * map. <br>
+ * <br>
+ * The policies differ in how quickly they respond to the access pattern and
+ * in how much they write per access. TRANSPOSE moves an entry by one position
+ * per access and is therefore slow to promote an entry, but also slow to
+ * demote it again. MOVE_TO_FRONT promotes an entry to the head on its first
+ * access, which adapts immediately to changes in the query distribution but
+ * lets a single access to a cold key push a hot key back. FREQUENCY_COUNT keeps
+ * every chain sorted by the number of accesses to its entries, which is the
+ * best order for a stable, skewed query distribution but is slow to forget
+ * keys that were hot in the past. NONE never reorders, so get performs no
+ * writes at all. <br>
+ * <br>
+ * The buckets of a PerformantHashMap which have been converted to trees are
+ * ordered by their keys and are never reordered, whatever the policy.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#setChainReorderPolicy(ChainReorderPolicy)
+ */
+public enum ChainReorderPolicy {
+
+	/**
+	 * The chains are never reordered; get is a pure read of the map.
+	 */
+	NONE,
+
+	/**
+	 * An accessed map entry swaps its key and value with those of its
+	 * predecessor. This is the default policy.
+	 */
+	TRANSPOSE,
+
+	/**
+	 * An accessed map entry is unlinked from its position and relinked at the
+	 * head of its chain. The entry objects keep their keys and values.
+	 */
+	MOVE_TO_FRONT,
+
+	/**
+	 * Every map entry counts its accesses and an accessed map entry is relinked
+	 * in front of the first entry of its chain with an equal or lower count, so
+	 * the chains stay sorted by access frequency.
+	 */
+	FREQUENCY_COUNT
+
+}
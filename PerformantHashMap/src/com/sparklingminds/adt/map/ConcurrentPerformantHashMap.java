@@ -0,0 +1,1507 @@
+package com.sparklingminds.adt.map;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentPerformantHashMap is the thread safe sibling of PerformantHashMap.
+ * It implements the ConcurrentMap interface and, like PerformantHashMap, uses
+ * separate chaining over a table of buckets, but it is designed so that any
+ * number of threads can use it at the same time without external
+ * synchronization. Unlike PerformantHashMap, and like every ConcurrentMap in
+ * the JDK, it permits neither null keys nor null values. <br>
+ * <br>
+ * Retrieval operations (get and containsKey) never lock and never write to
+ * shared memory: buckets are read with volatile semantics and the chain of map
+ * entries in a bucket is only ever modified in ways that keep a concurrent
+ * reader's traversal valid. In particular there is no self-organizing
+ * heuristic, since reordering a chain on every read would turn every reader
+ * into a writer. Update operations lock only the head entry of the bucket they
+ * modify (an empty bucket is filled with a single compare-and-set), so threads
+ * updating different buckets never contend with each other. <br>
+ * <br>
+ * The table has a power of two capacity and is doubled once the number of
+ * mappings exceeds three quarters of it. Resizing is cooperative: the buckets
+ * of the old table are split into ranges that are claimed by whichever threads
+ * arrive, and every thread that runs into a bucket that has already been moved
+ * while updating the map helps to move the remaining ranges before it retries.
+ * Moved buckets are replaced with a forwarding marker, so retrievals keep
+ * working throughout the resize by following the marker to the new table. <br>
+ * <br>
+ * Iterators and the collection views are weakly consistent: they never throw
+ * ConcurrentModificationException, they traverse every mapping that existed
+ * when the iterator was created exactly once and they may, but are not
+ * guaranteed to, reflect modifications made after that. Aggregate status
+ * methods such as size and isEmpty are only estimates while the map is being
+ * concurrently updated.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap
+ */
+public class ConcurrentPerformantHashMap<K, V> extends AbstractMap<K, V>
+		implements ConcurrentMap<K, V>, java.io.Serializable {
+
+	private static final long serialVersionUID = 562498820763181265L;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private static final int MIN_TRANSFER_STRIDE = 16;
+
+	private static final int MOVED = -1;
+
+	private static final int HASH_BITS = 0x7FFFFFFF;
+
+	private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+	private static final VarHandle BUCKET = MethodHandles.arrayElementVarHandle(Node[].class);
+
+	private static final VarHandle SIZE_CONTROL;
+
+	static {
+
+		try {
+
+			SIZE_CONTROL = MethodHandles.lookup().findVarHandle(ConcurrentPerformantHashMap.class, "sizeControl",
+					int.class);
+
+		} catch (ReflectiveOperationException e) {
+
+			throw new ExceptionInInitializerError(e);
+
+		}
+
+	}
+
+	private transient volatile Node<K, V>[] performantMap;
+
+	private transient volatile Resize<K, V> resize;
+
+	/*
+	 * The number of mappings at which the next resize starts, or -1 while a
+	 * thread is setting up a resize that it has claimed.
+	 */
+	private transient volatile int sizeControl;
+
+	private transient LongAdder mapEntrySize;
+
+	private transient Set<Map.Entry<K, V>> entrySet;
+
+	private transient Set<K> keySet;
+
+	private transient Collection<V> valueSet;
+
+	/**
+	 * Constructs an empty ConcurrentPerformantHashMap with the default initial
+	 * capacity (16).
+	 */
+	public ConcurrentPerformantHashMap() {
+
+		this(DEFAULT_CAPACITY);
+
+	}
+
+	/**
+	 * Constructs an empty ConcurrentPerformantHashMap with a capacity large enough
+	 * to hold the specified number of mappings without resizing.
+	 *
+	 * @param initialCapacity the number of mappings to size the table for
+	 * @throws IllegalArgumentException if the initial capacity is negative
+	 */
+	public ConcurrentPerformantHashMap(int initialCapacity) {
+
+		if (initialCapacity < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		initialize(initialCapacity);
+
+	}
+
+	/**
+	 * Constructs a new ConcurrentPerformantHashMap with the same mappings as the
+	 * specified Map.
+	 *
+	 * @param m the map whose mappings are to be placed in this map
+	 * @throws NullPointerException if the specified map is null or contains a null
+	 *                              key or value
+	 */
+	public ConcurrentPerformantHashMap(Map<? extends K, ? extends V> m) {
+
+		if (m == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		initialize(m.size());
+
+		putAll(m);
+
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	@Override
+	public int size() {
+
+		long size = mapEntrySize.sum();
+
+		return size < 0 ? 0 : (size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size);
+
+	}
+
+	/**
+	 * Returns true if this map contains no key-value mappings.
+	 *
+	 * @return true if this map contains no key-value mappings
+	 */
+	@Override
+	public boolean isEmpty() {
+
+		return mapEntrySize.sum() <= 0;
+
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key. This
+	 * method never blocks.
+	 *
+	 * @param key the key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key.
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+
+		return get(key) != null;
+
+	}
+
+	/**
+	 * Returns true if this map maps one or more keys to the specified value. This
+	 * method requires a full traversal of the map.
+	 *
+	 * @param value whose presence in this map is to be tested
+	 * @return true if this map maps one or more keys to the specified value
+	 * @throws NullPointerException if the specified value is null
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+
+		if (value == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		Traverser traverser = new Traverser();
+
+		while (traverser.hasNext()) {
+
+			Object nodeValue = traverser.next().value;
+
+			if (nodeValue == value || value.equals(nodeValue)) {
+
+				return true;
+
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this map
+	 * contains no mapping for the key. This method never blocks and never writes
+	 * to shared memory.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the value to which the specified key is mapped, or null if this map
+	 *         contains no mapping for the key
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public V get(Object key) {
+
+		int hash = spread(key.hashCode());
+
+		Node<K, V>[] table = performantMap;
+
+		while (true) {
+
+			Node<K, V> currentPosition = bucketAt(table, hash & (table.length - 1));
+
+			if (currentPosition == null) {
+
+				return null;
+
+			}
+
+			if (currentPosition.hash == MOVED) {
+
+				table = ((ForwardingNode<K, V>) currentPosition).nextTable;
+
+				continue;
+
+			}
+
+			while (currentPosition != null) {
+
+				K currentKey = currentPosition.key;
+
+				if (currentPosition.hash == hash && (currentKey == key || key.equals(currentKey))) {
+
+					return currentPosition.value;
+
+				}
+
+				currentPosition = currentPosition.next;
+
+			}
+
+			return null;
+
+		}
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or the specified
+	 * default value if this map contains no mapping for the key.
+	 *
+	 * @param key          the key whose associated value is to be returned
+	 * @param defaultValue the value to return if this map contains no mapping for
+	 *                     the key
+	 * @return the value to which the specified key is mapped, or the default value
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+
+		V value = get(key);
+
+		return value == null ? defaultValue : value;
+
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map. If the map
+	 * previously contained a mapping for the key, the old value is replaced.
+	 *
+	 * @param key   the key with which the specified value is to be associated
+	 * @param value the value to be associated with the specified key
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key
+	 * @throws NullPointerException if the specified key or value is null
+	 */
+	@Override
+	public V put(K key, V value) {
+
+		return putValue(key, value, false);
+
+	}
+
+	/**
+	 * If the specified key is not already associated with a value, associates it
+	 * with the specified value. The check and the insertion are performed
+	 * atomically.
+	 *
+	 * @param key   the key with which the specified value is to be associated
+	 * @param value the value to be associated with the specified key
+	 * @return the previous value associated with the key, or null if there was no
+	 *         mapping for the key
+	 * @throws NullPointerException if the specified key or value is null
+	 */
+	@Override
+	public V putIfAbsent(K key, V value) {
+
+		return putValue(key, value, true);
+
+	}
+
+	/**
+	 * Copies all of the mappings from the specified map to this map.
+	 *
+	 * @param m the mappings to be stored in this map
+	 * @throws NullPointerException if the specified map is null or contains a null
+	 *                              key or value
+	 */
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+
+		if (m == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		for (Entry<? extends K, ? extends V> me : m.entrySet()) {
+
+			putValue(me.getKey(), me.getValue(), false);
+
+		}
+
+	}
+
+	/**
+	 * Removes the mapping for the specified key from this map if present.
+	 *
+	 * @param key whose mapping is to be removed from the map
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public V remove(Object key) {
+
+		return replaceNode(key, null, null);
+
+	}
+
+	/**
+	 * Removes the entry for a key only if it is currently mapped to the specified
+	 * value.
+	 *
+	 * @param key   the key whose mapping is to be removed
+	 * @param value the value expected to be associated with the key
+	 * @return true if the value was removed
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public boolean remove(Object key, Object value) {
+
+		if (key == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		return value != null && replaceNode(key, null, value) != null;
+
+	}
+
+	/**
+	 * Replaces the entry for a key only if it is currently mapped to the specified
+	 * value.
+	 *
+	 * @param key      the key with which the specified value is associated
+	 * @param oldValue the value expected to be associated with the key
+	 * @param newValue the value to be associated with the key
+	 * @return true if the value was replaced
+	 * @throws NullPointerException if any of the arguments is null
+	 */
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+
+		if (key == null || oldValue == null || newValue == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		return replaceNode(key, newValue, oldValue) != null;
+
+	}
+
+	/**
+	 * Replaces the entry for a key only if it is currently mapped to some value.
+	 *
+	 * @param key   the key with which the specified value is associated
+	 * @param value the value to be associated with the key
+	 * @return the previous value associated with the key, or null if there was no
+	 *         mapping for the key
+	 * @throws NullPointerException if the specified key or value is null
+	 */
+	@Override
+	public V replace(K key, V value) {
+
+		if (key == null || value == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		return replaceNode(key, value, null);
+
+	}
+
+	/**
+	 * Removes all of the mappings from this map.
+	 */
+	@Override
+	public void clear() {
+
+		Node<K, V>[] table = performantMap;
+
+		int index = 0;
+
+		while (index < table.length) {
+
+			Node<K, V> head = bucketAt(table, index);
+
+			if (head == null) {
+
+				index++;
+
+			} else if (head.hash == MOVED) {
+
+				table = helpResize(head);
+
+				index = 0;
+
+			} else {
+
+				synchronized (head) {
+
+					if (bucketAt(table, index) == head) {
+
+						long removed = 0;
+
+						for (Node<K, V> node = head; node != null; node = node.next) {
+
+							removed++;
+
+						}
+
+						setBucketAt(table, index, null);
+
+						mapEntrySize.add(-removed);
+
+						index++;
+
+					}
+
+				}
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Returns a Set view of the keys contained in this map. The set is backed by
+	 * the map and supports element removal, but not the add or addAll operations.
+	 * Its iterators are weakly consistent.
+	 *
+	 * @return a set view of the keys contained in this map
+	 */
+	@Override
+	public Set<K> keySet() {
+
+		if (keySet == null) {
+
+			keySet = new ConcurrentKeySet();
+
+		}
+
+		return keySet;
+
+	}
+
+	/**
+	 * Returns a Collection view of the values contained in this map. The collection
+	 * is backed by the map and supports element removal, but not the add or addAll
+	 * operations. Its iterators are weakly consistent.
+	 *
+	 * @return a view of the values contained in this map
+	 */
+	@Override
+	public Collection<V> values() {
+
+		if (valueSet == null) {
+
+			valueSet = new ConcurrentValueCollection();
+
+		}
+
+		return valueSet;
+
+	}
+
+	/**
+	 * Returns a Set view of the mappings contained in this map. The set is backed
+	 * by the map and supports element removal, but not the add or addAll
+	 * operations. Its iterators are weakly consistent.
+	 *
+	 * @return a set view of the mappings contained in this map
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+
+		if (entrySet == null) {
+
+			entrySet = new ConcurrentEntrySet();
+
+		}
+
+		return entrySet;
+
+	}
+
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+
+		s.defaultWriteObject();
+
+		Traverser traverser = new Traverser();
+
+		while (traverser.hasNext()) {
+
+			Node<K, V> node = traverser.next();
+
+			s.writeObject(node.key);
+
+			s.writeObject(node.value);
+
+		}
+
+		s.writeObject(null);
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+
+		s.defaultReadObject();
+
+		initialize(DEFAULT_CAPACITY);
+
+		K key;
+
+		while ((key = (K) s.readObject()) != null) {
+
+			putValue(key, (V) s.readObject(), false);
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private void initialize(int expectedSize) {
+
+		int capacity = tableSizeFor(expectedSize + (expectedSize >>> 1) + 1);
+
+		performantMap = (Node<K, V>[]) new Node<?, ?>[capacity];
+
+		sizeControl = threshold(capacity);
+
+		mapEntrySize = new LongAdder();
+
+	}
+
+	private V putValue(K key, V value, boolean onlyIfAbsent) {
+
+		if (key == null || value == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		int hash = spread(key.hashCode());
+
+		Node<K, V>[] table = performantMap;
+
+		while (true) {
+
+			int index = hash & (table.length - 1);
+
+			Node<K, V> head = bucketAt(table, index);
+
+			if (head == null) {
+
+				if (casBucketAt(table, index, null, new Node<K, V>(hash, key, value, null))) {
+
+					break;
+
+				}
+
+			} else if (head.hash == MOVED) {
+
+				table = helpResize(head);
+
+			} else {
+
+				V oldValue = null;
+
+				boolean isLocked = false;
+
+				synchronized (head) {
+
+					if (bucketAt(table, index) == head) {
+
+						isLocked = true;
+
+						Node<K, V> currentPosition = head;
+
+						while (true) {
+
+							K currentKey = currentPosition.key;
+
+							if (currentPosition.hash == hash && (currentKey == key || key.equals(currentKey))) {
+
+								oldValue = currentPosition.value;
+
+								if (!onlyIfAbsent) {
+
+									currentPosition.value = value;
+
+								}
+
+								break;
+
+							}
+
+							if (currentPosition.next == null) {
+
+								currentPosition.next = new Node<K, V>(hash, key, value, null);
+
+								break;
+
+							}
+
+							currentPosition = currentPosition.next;
+
+						}
+
+					}
+
+				}
+
+				if (isLocked) {
+
+					if (oldValue != null) {
+
+						return oldValue;
+
+					}
+
+					break;
+
+				}
+
+			}
+
+		}
+
+		mapEntrySize.increment();
+
+		if (mapEntrySize.sum() >= sizeControl) {
+
+			startResize();
+
+		}
+
+		return null;
+
+	}
+
+	/*
+	 * Replaces the value of the mapping for the key with the specified value, or
+	 * removes the mapping if the value is null. When expectedValue is not null the
+	 * mapping is only changed if it currently maps to expectedValue.
+	 */
+	private V replaceNode(Object key, V value, Object expectedValue) {
+
+		int hash = spread(key.hashCode());
+
+		Node<K, V>[] table = performantMap;
+
+		while (true) {
+
+			int index = hash & (table.length - 1);
+
+			Node<K, V> head = bucketAt(table, index);
+
+			if (head == null) {
+
+				return null;
+
+			}
+
+			if (head.hash == MOVED) {
+
+				table = helpResize(head);
+
+				continue;
+
+			}
+
+			V oldValue = null;
+
+			boolean isLocked = false;
+
+			synchronized (head) {
+
+				if (bucketAt(table, index) == head) {
+
+					isLocked = true;
+
+					Node<K, V> previousPosition = null;
+
+					for (Node<K, V> currentPosition = head; currentPosition != null; currentPosition = currentPosition.next) {
+
+						K currentKey = currentPosition.key;
+
+						if (currentPosition.hash == hash && (currentKey == key || key.equals(currentKey))) {
+
+							V currentValue = currentPosition.value;
+
+							if (expectedValue == null || expectedValue == currentValue
+									|| expectedValue.equals(currentValue)) {
+
+								oldValue = currentValue;
+
+								if (value != null) {
+
+									currentPosition.value = value;
+
+								} else if (previousPosition != null) {
+
+									previousPosition.next = currentPosition.next;
+
+								} else {
+
+									setBucketAt(table, index, currentPosition.next);
+
+								}
+
+							}
+
+							break;
+
+						}
+
+						previousPosition = currentPosition;
+
+					}
+
+				}
+
+			}
+
+			if (isLocked) {
+
+				if (oldValue != null && value == null) {
+
+					mapEntrySize.decrement();
+
+				}
+
+				return oldValue;
+
+			}
+
+		}
+
+	}
+
+	private void startResize() {
+
+		int threshold = sizeControl;
+
+		Node<K, V>[] table = performantMap;
+
+		if (threshold < 0 || table.length >= MAXIMUM_CAPACITY || mapEntrySize.sum() < threshold) {
+
+			Resize<K, V> pending = resize;
+
+			if (pending != null) {
+
+				transfer(pending);
+
+			}
+
+			return;
+
+		}
+
+		if (!SIZE_CONTROL.compareAndSet(this, threshold, -1)) {
+
+			return;
+
+		}
+
+		if (table != performantMap) {
+
+			// Another resize completed between reading the table and the claim.
+			sizeControl = threshold(performantMap.length);
+
+			return;
+
+		}
+
+		Resize<K, V> newResize = new Resize<K, V>(table);
+
+		resize = newResize;
+
+		transfer(newResize);
+
+	}
+
+	private Node<K, V>[] helpResize(Node<K, V> head) {
+
+		ForwardingNode<K, V> forwardingNode = (ForwardingNode<K, V>) head;
+
+		Resize<K, V> pending = resize;
+
+		if (pending != null && pending.nextTable == forwardingNode.nextTable) {
+
+			transfer(pending);
+
+		}
+
+		return forwardingNode.nextTable;
+
+	}
+
+	private void transfer(Resize<K, V> resize) {
+
+		int n = resize.table.length;
+
+		while (true) {
+
+			int end = resize.transferIndex.get();
+
+			if (end <= 0) {
+
+				return;
+
+			}
+
+			int start = Math.max(0, end - resize.stride);
+
+			if (!resize.transferIndex.compareAndSet(end, start)) {
+
+				continue;
+
+			}
+
+			for (int i = end - 1; i >= start; i--) {
+
+				transferBucket(resize, i);
+
+			}
+
+			if (resize.transferredBuckets.addAndGet(end - start) == n) {
+
+				performantMap = resize.nextTable;
+
+				this.resize = null;
+
+				sizeControl = resize.nextTable.length >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE
+						: threshold(resize.nextTable.length);
+
+				return;
+
+			}
+
+		}
+
+	}
+
+	private void transferBucket(Resize<K, V> resize, int index) {
+
+		Node<K, V>[] table = resize.table;
+
+		int n = table.length;
+
+		while (true) {
+
+			Node<K, V> head = bucketAt(table, index);
+
+			if (head == null) {
+
+				if (casBucketAt(table, index, null, resize.forwardingNode)) {
+
+					return;
+
+				}
+
+				continue;
+
+			}
+
+			synchronized (head) {
+
+				if (bucketAt(table, index) != head) {
+
+					continue;
+
+				}
+
+				// The old chain is copied, never relinked, so readers that are still
+				// traversing it see a consistent list.
+				Node<K, V> low = null;
+
+				Node<K, V> high = null;
+
+				for (Node<K, V> node = head; node != null; node = node.next) {
+
+					if ((node.hash & n) == 0) {
+
+						low = new Node<K, V>(node.hash, node.key, node.value, low);
+
+					} else {
+
+						high = new Node<K, V>(node.hash, node.key, node.value, high);
+
+					}
+
+				}
+
+				setBucketAt(resize.nextTable, index, low);
+
+				setBucketAt(resize.nextTable, index + n, high);
+
+				setBucketAt(table, index, resize.forwardingNode);
+
+				return;
+
+			}
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V> bucketAt(Node<K, V>[] table, int index) {
+
+		return (Node<K, V>) BUCKET.getVolatile(table, index);
+
+	}
+
+	private static <K, V> boolean casBucketAt(Node<K, V>[] table, int index, Node<K, V> expected,
+			Node<K, V> node) {
+
+		return BUCKET.compareAndSet(table, index, expected, node);
+
+	}
+
+	private static <K, V> void setBucketAt(Node<K, V>[] table, int index, Node<K, V> node) {
+
+		BUCKET.setVolatile(table, index, node);
+
+	}
+
+	private static int spread(int hashCode) {
+
+		hashCode ^= hashCode >>> 16;
+
+		hashCode *= 0x85ebca6b;
+
+		hashCode ^= hashCode >>> 13;
+
+		hashCode *= 0xc2b2ae35;
+
+		return (hashCode ^ (hashCode >>> 16)) & HASH_BITS;
+
+	}
+
+	private static int threshold(int capacity) {
+
+		return capacity - (capacity >>> 2);
+
+	}
+
+	private static int tableSizeFor(int capacity) {
+
+		if (capacity >= MAXIMUM_CAPACITY) {
+
+			return MAXIMUM_CAPACITY;
+
+		}
+
+		return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(capacity - 1) << 1);
+
+	}
+
+	static class Node<K, V> {
+
+		final int hash;
+
+		final K key;
+
+		volatile V value;
+
+		volatile Node<K, V> next;
+
+		Node(int hash, K key, V value, Node<K, V> next) {
+
+			this.hash = hash;
+
+			this.key = key;
+
+			this.value = value;
+
+			this.next = next;
+
+		}
+
+	}
+
+	static final class ForwardingNode<K, V> extends Node<K, V> {
+
+		final Node<K, V>[] nextTable;
+
+		ForwardingNode(Node<K, V>[] nextTable) {
+
+			super(MOVED, null, null, null);
+
+			this.nextTable = nextTable;
+
+		}
+
+	}
+
+	/*
+	 * The state of one resize. Threads only ever claim bucket ranges through the
+	 * state object they started with, so a thread that is late to help can never
+	 * claim buckets of a later resize.
+	 */
+	static final class Resize<K, V> {
+
+		final Node<K, V>[] table;
+
+		final Node<K, V>[] nextTable;
+
+		final ForwardingNode<K, V> forwardingNode;
+
+		final AtomicInteger transferIndex;
+
+		final AtomicInteger transferredBuckets;
+
+		final int stride;
+
+		@SuppressWarnings("unchecked")
+		Resize(Node<K, V>[] table) {
+
+			int n = table.length;
+
+			this.table = table;
+
+			this.nextTable = (Node<K, V>[]) new Node<?, ?>[n << 1];
+
+			this.forwardingNode = new ForwardingNode<K, V>(nextTable);
+
+			this.transferIndex = new AtomicInteger(n);
+
+			this.transferredBuckets = new AtomicInteger();
+
+			this.stride = Math.max(MIN_TRANSFER_STRIDE, (n >>> 3) / NCPU);
+
+		}
+
+	}
+
+	/*
+	 * Walks the map bucket by bucket. A bucket of the starting table that has
+	 * been moved is read from the buckets of the next table that its entries were
+	 * split into, so every mapping present when the traversal started is seen
+	 * exactly once.
+	 */
+	class Traverser implements Iterator<Node<K, V>> {
+
+		private final Node<K, V>[] table = performantMap;
+
+		private final List<Node<K, V>> buffer = new ArrayList<Node<K, V>>();
+
+		private int bufferIndex;
+
+		private int index;
+
+		private Node<K, V> lastReturned;
+
+		Traverser() {
+
+			advance();
+
+		}
+
+		@Override
+		public boolean hasNext() {
+
+			return bufferIndex < buffer.size();
+
+		}
+
+		@Override
+		public Node<K, V> next() {
+
+			if (bufferIndex >= buffer.size()) {
+
+				throw new NoSuchElementException();
+
+			}
+
+			lastReturned = buffer.get(bufferIndex++);
+
+			if (bufferIndex == buffer.size()) {
+
+				advance();
+
+			}
+
+			return lastReturned;
+
+		}
+
+		@Override
+		public void remove() {
+
+			if (lastReturned == null) {
+
+				throw new IllegalStateException();
+
+			}
+
+			ConcurrentPerformantHashMap.this.remove(lastReturned.key);
+
+			lastReturned = null;
+
+		}
+
+		private void advance() {
+
+			buffer.clear();
+
+			bufferIndex = 0;
+
+			while (buffer.isEmpty() && index < table.length) {
+
+				collect(table, index++);
+
+			}
+
+		}
+
+		private void collect(Node<K, V>[] table, int index) {
+
+			Node<K, V> head = bucketAt(table, index);
+
+			if (head != null && head.hash == MOVED) {
+
+				Node<K, V>[] nextTable = ((ForwardingNode<K, V>) head).nextTable;
+
+				collect(nextTable, index);
+
+				collect(nextTable, index + table.length);
+
+				return;
+
+			}
+
+			for (Node<K, V> node = head; node != null; node = node.next) {
+
+				buffer.add(node);
+
+			}
+
+		}
+
+	}
+
+	final class ConcurrentEntry implements Map.Entry<K, V> {
+
+		private final K key;
+
+		private V value;
+
+		ConcurrentEntry(K key, V value) {
+
+			this.key = key;
+
+			this.value = value;
+
+		}
+
+		@Override
+		public K getKey() {
+
+			return key;
+
+		}
+
+		@Override
+		public V getValue() {
+
+			return value;
+
+		}
+
+		@Override
+		public V setValue(V value) {
+
+			if (value == null) {
+
+				throw new NullPointerException();
+
+			}
+
+			V oldValue = this.value;
+
+			this.value = value;
+
+			put(key, value);
+
+			return oldValue;
+
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			if (!(o instanceof Map.Entry)) {
+
+				return false;
+
+			}
+
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+
+			return key.equals(e.getKey()) && value.equals(e.getValue());
+
+		}
+
+		@Override
+		public int hashCode() {
+
+			return key.hashCode() ^ value.hashCode();
+
+		}
+
+		@Override
+		public String toString() {
+
+			return key + "=" + value;
+
+		}
+
+	}
+
+	final class ConcurrentEntrySet extends java.util.AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+
+			Traverser traverser = new Traverser();
+
+			return new Iterator<Map.Entry<K, V>>() {
+
+				@Override
+				public boolean hasNext() {
+
+					return traverser.hasNext();
+
+				}
+
+				@Override
+				public Map.Entry<K, V> next() {
+
+					Node<K, V> node = traverser.next();
+
+					return new ConcurrentEntry(node.key, node.value);
+
+				}
+
+				@Override
+				public void remove() {
+
+					traverser.remove();
+
+				}
+
+			};
+
+		}
+
+		@Override
+		public boolean contains(Object o) {
+
+			if (!(o instanceof Map.Entry)) {
+
+				return false;
+
+			}
+
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+
+			Object value = e.getKey() == null ? null : get(e.getKey());
+
+			return value != null && value.equals(e.getValue());
+
+		}
+
+		@Override
+		public boolean remove(Object o) {
+
+			if (!(o instanceof Map.Entry)) {
+
+				return false;
+
+			}
+
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+
+			return e.getKey() != null && ConcurrentPerformantHashMap.this.remove(e.getKey(), e.getValue());
+
+		}
+
+		@Override
+		public int size() {
+
+			return ConcurrentPerformantHashMap.this.size();
+
+		}
+
+		@Override
+		public void clear() {
+
+			ConcurrentPerformantHashMap.this.clear();
+
+		}
+
+	}
+
+	final class ConcurrentKeySet extends java.util.AbstractSet<K> {
+
+		@Override
+		public Iterator<K> iterator() {
+
+			Traverser traverser = new Traverser();
+
+			return new Iterator<K>() {
+
+				@Override
+				public boolean hasNext() {
+
+					return traverser.hasNext();
+
+				}
+
+				@Override
+				public K next() {
+
+					return traverser.next().key;
+
+				}
+
+				@Override
+				public void remove() {
+
+					traverser.remove();
+
+				}
+
+			};
+
+		}
+
+		@Override
+		public boolean contains(Object o) {
+
+			return containsKey(o);
+
+		}
+
+		@Override
+		public boolean remove(Object o) {
+
+			return ConcurrentPerformantHashMap.this.remove(o) != null;
+
+		}
+
+		@Override
+		public int size() {
+
+			return ConcurrentPerformantHashMap.this.size();
+
+		}
+
+		@Override
+		public void clear() {
+
+			ConcurrentPerformantHashMap.this.clear();
+
+		}
+
+	}
+
+	final class ConcurrentValueCollection extends java.util.AbstractCollection<V> {
+
+		@Override
+		public Iterator<V> iterator() {
+
+			Traverser traverser = new Traverser();
+
+			return new Iterator<V>() {
+
+				@Override
+				public boolean hasNext() {
+
+					return traverser.hasNext();
+
+				}
+
+				@Override
+				public V next() {
+
+					return traverser.next().value;
+
+				}
+
+				@Override
+				public void remove() {
+
+					traverser.remove();
+
+				}
+
+			};
+
+		}
+
+		@Override
+		public boolean contains(Object o) {
+
+			return containsValue(o);
+
+		}
+
+		@Override
+		public int size() {
+
+			return ConcurrentPerformantHashMap.this.size();
+
+		}
+
+		@Override
+		public void clear() {
+
+			ConcurrentPerformantHashMap.this.clear();
+
+		}
+
+	}
+
+}
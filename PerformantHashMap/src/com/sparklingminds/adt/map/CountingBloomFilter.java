@@ -0,0 +1,143 @@
+package com.sparklingminds.adt.map;
+
+/**
+ * CountingBloomFilter is a BloomFilter that supports removal. Every position of
+ * the filter is a 4-bit counter instead of a single bit, sixteen counters
+ * packed into every long. Adding an element increments its k counters and
+ * removing it decrements them again, so, unlike a plain BloomFilter, the
+ * filter does not fill up with the bits of elements that have long been
+ * removed. A counter that reaches 15 sticks at 15 and is never decremented,
+ * which can only cause false positives, never false negatives. <br>
+ * <br>
+ * Only elements that have been added may be removed; removing an element that
+ * was never added can introduce false negatives. A counting filter needs four
+ * times the memory of a plain BloomFilter with the same false positive
+ * probability.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class CountingBloomFilter extends BloomFilter {
+
+	private static final long serialVersionUID = 762498820763181265L;
+
+	private static final long COUNTER_MASK = 0xFL;
+
+	private static final int BITS_PER_COUNTER = 4;
+
+	/**
+	 * Constructs an empty CountingBloomFilter with the specified number of
+	 * counters and hash functions.
+	 * 
+	 * @param capacity the number of counters of the filter
+	 * @param k        the number of hash functions
+	 * @throws IllegalArgumentException if the number of counters or hash
+	 *                                  functions is not positive
+	 */
+	public CountingBloomFilter(int capacity, int k) {
+
+		super(capacity, k, BITS_PER_COUNTER);
+
+	}
+
+	/**
+	 * Constructs an empty CountingBloomFilter sized for the specified number of
+	 * insertions and false positive probability.
+	 * 
+	 * @param expectedInsertions the number of elements the filter is expected to
+	 *                           hold
+	 * @param fpp                the desired false positive probability once the
+	 *                           filter holds the expected number of elements
+	 * @throws IllegalArgumentException if the expected insertions are not positive
+	 *                                  or the probability is not between 0 and 1
+	 */
+	public CountingBloomFilter(long expectedInsertions, double fpp) {
+
+		super(expectedInsertions, fpp, BITS_PER_COUNTER);
+
+	}
+
+	/**
+	 * Removes the specified element, which must have been added before, from this
+	 * filter.
+	 * 
+	 * @param obj the element to remove
+	 */
+	public void remove(Object obj) {
+
+		removeHash(hash64(obj.hashCode()));
+
+	}
+
+	/**
+	 * Removes the specified primitive value, which must have been added before
+	 * with add(long value), from this filter.
+	 * 
+	 * @param value the value to remove
+	 */
+	public void remove(long value) {
+
+		removeHash(hash64(value));
+
+	}
+
+	private void removeHash(long hash) {
+
+		int keySize = getHashCount();
+
+		for (int i = 0; i < keySize; i++) {
+
+			decrement(getPosition(hash, i));
+
+		}
+
+		addToSize(-1);
+
+	}
+
+	@Override
+	protected int getBitsPerPosition() {
+
+		return BITS_PER_COUNTER;
+
+	}
+
+	@Override
+	protected void setPosition(int position) {
+
+		long[] words = getWords();
+
+		int shift = (position & 15) << 2;
+
+		if (((words[position >>> 4] >>> shift) & COUNTER_MASK) != COUNTER_MASK) {
+
+			words[position >>> 4] += 1L << shift;
+
+		}
+
+	}
+
+	@Override
+	protected boolean isPositionSet(int position) {
+
+		return ((getWords()[position >>> 4] >>> ((position & 15) << 2)) & COUNTER_MASK) != 0;
+
+	}
+
+	private void decrement(int position) {
+
+		long[] words = getWords();
+
+		int shift = (position & 15) << 2;
+
+		long counter = (words[position >>> 4] >>> shift) & COUNTER_MASK;
+
+		if (counter != 0 && counter != COUNTER_MASK) {
+
+			words[position >>> 4] -= 1L << shift;
+
+		}
+
+	}
+
+}
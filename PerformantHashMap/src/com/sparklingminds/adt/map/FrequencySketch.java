@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * The counters and their periodic halving in this file are derived from
+ * com.github.benmanes.caffeine.cache.FrequencySketch of the Caffeine library
+ * (https://github.com/ben-manes/caffeine). They were modified by Gaive Gandhi
+ * to select the counters with the double hashing of the BloomFilter.
+ */
+package com.sparklingminds.adt.map;
+
+import java.util.Arrays;
+
+/**
+ * FrequencySketch is the count-min sketch with which the PerformantCache
+ * estimates how often every key has been accessed recently. <br>
+ * <br>
+ * The sketch is a table of 4-bit counters, sixteen counters packed into every
+ * long, like the counters of the CountingBloomFilter. The four counters of a
+ * key are selected by the same double hashing as the positions of a
+ * BloomFilter: the hash code of the key is passed through the 64-bit mixing
+ * finalizer of the BloomFilter and the i-th counter is h1 + i * h2. Recording
+ * an access increments the four counters, which stick at 15, and the estimated
+ * frequency of a key is the smallest of its counters. <br>
+ * <br>
+ * So that the sketch forgets the keys that were popular in the past, all of
+ * its counters are halved once it has recorded ten times as many accesses as
+ * it is sized for. Halving touches every counter, but it happens only once in
+ * that many accesses, so recording an access takes constant amortized time.
+ * <br>
+ * <br>
+ * The packed counters, the sample size and the halving are adapted from the
+ * FrequencySketch of the Caffeine library and are distributed under the Apache
+ * License, Version 2.0; see the NOTICE file.
+ *
+ * @author Ben Manes
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantCache
+ */
+final class FrequencySketch {
+
+	private static final int HASH_COUNT = 4;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 26;
+
+	private static final long ONE_MASK = 0x1111111111111111L;
+
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private long[] table;
+
+	private int counterMask;
+
+	private int capacity;
+
+	private int sampleSize;
+
+	private int size;
+
+	/**
+	 * Constructs an empty FrequencySketch sized for the specified number of keys.
+	 *
+	 * @param capacity the number of keys whose frequencies are estimated
+	 */
+	FrequencySketch(long capacity) {
+
+		ensureCapacity(capacity);
+
+	}
+
+	/**
+	 * Grows this sketch, if it is sized for fewer than the specified number of
+	 * keys. The recorded frequencies are discarded when the sketch grows.
+	 *
+	 * @param capacity the number of keys whose frequencies are estimated
+	 */
+	void ensureCapacity(long capacity) {
+
+		int newCapacity = (int) Math.max(16, Math.min(MAXIMUM_CAPACITY, capacity));
+
+		if (table != null && newCapacity <= this.capacity) {
+
+			return;
+
+		}
+
+		// Eight counters for every key, rounded up to a power of two.
+		int counters = Integer.highestOneBit(newCapacity - 1) << 4;
+
+		this.capacity = counters >>> 3;
+
+		table = new long[counters >>> 4];
+
+		counterMask = counters - 1;
+
+		sampleSize = 10 * this.capacity;
+
+		size = 0;
+
+	}
+
+	/**
+	 * Returns the estimated number of recent accesses to the specified key, at
+	 * most 15.
+	 *
+	 * @param key the key
+	 * @return the estimated frequency of the key
+	 */
+	int frequency(Object key) {
+
+		long hash = BloomFilter.hash64(key.hashCode());
+
+		int h1 = (int) hash;
+
+		int h2 = (int) (hash >>> 32) | 1;
+
+		int frequency = Integer.MAX_VALUE;
+
+		for (int i = 0; i < HASH_COUNT; i++) {
+
+			int counter = (h1 + i * h2) & counterMask;
+
+			frequency = Math.min(frequency, (int) (table[counter >>> 4] >>> ((counter & 15) << 2)) & 0xF);
+
+		}
+
+		return frequency;
+
+	}
+
+	/**
+	 * Records an access to the specified key.
+	 *
+	 * @param key the key
+	 */
+	void increment(Object key) {
+
+		long hash = BloomFilter.hash64(key.hashCode());
+
+		int h1 = (int) hash;
+
+		int h2 = (int) (hash >>> 32) | 1;
+
+		boolean isIncremented = false;
+
+		for (int i = 0; i < HASH_COUNT; i++) {
+
+			int counter = (h1 + i * h2) & counterMask;
+
+			int shift = (counter & 15) << 2;
+
+			if (((table[counter >>> 4] >>> shift) & 0xF) != 0xF) {
+
+				table[counter >>> 4] += 1L << shift;
+
+				isIncremented = true;
+
+			}
+
+		}
+
+		if (isIncremented && ++size == sampleSize) {
+
+			reset();
+
+		}
+
+	}
+
+	/**
+	 * Discards all of the recorded frequencies.
+	 */
+	void clear() {
+
+		Arrays.fill(table, 0L);
+
+		size = 0;
+
+	}
+
+	private void reset() {
+
+		int oddCounters = 0;
+
+		for (int i = 0; i < table.length; i++) {
+
+			oddCounters += Long.bitCount(table[i] & ONE_MASK);
+
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+
+		}
+
+		// Halving truncates the odd counters, and every recorded access spans four
+		// counters, so a quarter of the truncated counters is subtracted before
+		// the number of recorded accesses is halved along with the counters.
+		size = (size - (oddCounters >>> 2)) >>> 1;
+
+	}
+
+}
@@ -0,0 +1,630 @@
+package com.sparklingminds.adt.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * FrozenPerformantHashMap is an immutable Map built from the mappings of a
+ * PerformantHashMap by its freeze method, for maps that are built once and
+ * then only read, such as reference data and routing tables. <br>
+ * <br>
+ * The mappings are stored in dense arrays of exactly as many slots as there
+ * are mappings, placed by a minimal perfect hash function built with
+ * the compress, hash and displace (CHD) algorithm. The hash code of every key
+ * is mixed with a seed into a 64-bit hash, whose high bits select one of about
+ * size / 2 buckets. The buckets are placed in decreasing order of size: for
+ * every bucket holding two or more keys the smallest displacement is searched
+ * that sends all of its keys, hashed again together with the displacement, to
+ * slots that are still free, and every bucket holding a single key is given a
+ * free slot directly, recorded as a negative displacement. A lookup therefore
+ * computes the hash, reads the displacement of its bucket and probes the one
+ * slot it leads to. Every slot holds the hash code of its key, which turns away
+ * an absent key without touching the key in the slot, next to the key and the
+ * value, which are interleaved in one array so that a hit reads them together:
+ * exactly one slot probe and at most one equals, with no empty slots, no chains
+ * and no map entry objects. The map needs about 14 bytes per mapping besides
+ * the keys and values themselves (two references, the hash code and half an
+ * int of displacement), where a PerformantHashMap needs a map entry and a
+ * bucket for every mapping. <br>
+ * <br>
+ * No hash function can separate keys whose hash codes are equal, so a key
+ * whose hash code is shared with a key already placed, as well as the null
+ * key, is kept in a small PerformantHashMap next to the arrays instead. Such a
+ * key leads to the slot of the placed key with its hash code, so only a lookup
+ * that finds its own hash code in the slot but not its key consults the
+ * overflow map, which is not even allocated unless there are such keys. <br>
+ * <br>
+ * The map permits null keys and null values. All of its modifying operations
+ * throw an UnsupportedOperationException, and since it is never modified,
+ * lookups may be performed by any number of threads concurrently once it has
+ * been safely published. The entries of its entry set are immutable.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#freeze()
+ */
+public class FrozenPerformantHashMap<K, V> extends AbstractMap<K, V> implements java.io.Serializable {
+
+	private static final long serialVersionUID = 462498820763181265L;
+
+	private static final int MAXIMUM_DISPLACEMENT = 1 << 16;
+
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+	private static final long DISPLACEMENT_MULTIPLIER = 0xC6A4A7935BD1E995L;
+
+	private static final int ABSENT = -1;
+
+	private static final int OVERFLOW = -2;
+
+	private Object[] mappings;
+
+	private int[] hashCodes;
+
+	private int mapEntrySize;
+
+	private int[] displacements;
+
+	private long seed;
+
+	private PerformantHashMap<K, V> overflow;
+
+	private transient Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * Constructs a FrozenPerformantHashMap holding the specified mappings, whose
+	 * keys have to be distinct. The arrays are taken over by the map.
+	 *
+	 * @param sourceKeys   the keys of the mappings
+	 * @param sourceValues the values of the mappings
+	 * @param size         the number of mappings in the arrays
+	 */
+	@SuppressWarnings("unchecked")
+	FrozenPerformantHashMap(Object[] sourceKeys, Object[] sourceValues, int size) {
+
+		int[] hashCodes = new int[size];
+
+		int hashedSize = 0;
+
+		for (int i = 0; i < size; i++) {
+
+			if (sourceKeys[i] != null) {
+
+				hashCodes[hashedSize++] = sourceKeys[i].hashCode();
+
+			}
+
+		}
+
+		int[] sharedHashCodes = getSharedHashCodes(Arrays.copyOf(hashCodes, hashedSize));
+
+		boolean[] isSharedHashCodePlaced = new boolean[sharedHashCodes.length];
+
+		// The keys that cannot be placed are moved into the overflow map, and the
+		// others are compacted towards the front of the arrays.
+		int placedSize = 0;
+
+		for (int i = 0, j = 0; i < size; i++) {
+
+			Object key = sourceKeys[i];
+
+			int hashCode = key == null ? 0 : hashCodes[j++];
+
+			int sharedIndex = key == null ? -1 : Arrays.binarySearch(sharedHashCodes, hashCode);
+
+			if (key == null || (sharedIndex >= 0 && isSharedHashCodePlaced[sharedIndex])) {
+
+				if (overflow == null) {
+
+					overflow = new PerformantHashMap<K, V>();
+
+					overflow.setChainReorderPolicy(ChainReorderPolicy.NONE);
+
+				}
+
+				overflow.put((K) key, (V) sourceValues[i]);
+
+			} else {
+
+				if (sharedIndex >= 0) {
+
+					isSharedHashCodePlaced[sharedIndex] = true;
+
+				}
+
+				sourceKeys[placedSize] = key;
+
+				sourceValues[placedSize] = sourceValues[i];
+
+				hashCodes[placedSize] = hashCode;
+
+				placedSize++;
+
+			}
+
+		}
+
+		// A bucket whose keys cannot be placed within MAXIMUM_DISPLACEMENT tries
+		// is practically impossible; the build is then simply repeated with
+		// another seed and more, and therefore smaller, buckets.
+		int[] slots = new int[placedSize];
+
+		for (int attempt = 0; displacements == null; attempt++) {
+
+			seed = attempt * SEED_INCREMENT;
+
+			int bucketCount = (int) Math.max(1, Math.min(placedSize, (long) placedSize * (2 + attempt) / 4));
+
+			displacements = place(hashCodes, placedSize, seed, bucketCount, slots);
+
+		}
+
+		mapEntrySize = placedSize;
+
+		mappings = new Object[2 * placedSize];
+
+		this.hashCodes = new int[placedSize];
+
+		for (int i = 0; i < placedSize; i++) {
+
+			mappings[2 * slots[i]] = sourceKeys[i];
+
+			mappings[2 * slots[i] + 1] = sourceValues[i];
+
+			this.hashCodes[slots[i]] = hashCodes[i];
+
+		}
+
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	@Override
+	public int size() {
+
+		return mapEntrySize + (overflow == null ? 0 : overflow.size());
+
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key.
+	 *
+	 * @param key the key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+
+		int slot = findSlot(key);
+
+		return slot >= 0 || (slot == OVERFLOW && overflow.containsKey(key));
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this map
+	 * contains no mapping for the key.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the value to which the specified key is mapped, or null if this map
+	 *         contains no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+
+		int slot = findSlot(key);
+
+		if (slot >= 0) {
+
+			return (V) mappings[2 * slot + 1];
+
+		}
+
+		return slot == OVERFLOW ? overflow.get(key) : null;
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or the default value
+	 * if this map contains no mapping for the key.
+	 *
+	 * @param key          the key whose associated value is to be returned
+	 * @param defaultValue the value to return if there is no mapping for the key
+	 * @return the value to which the specified key is mapped, or the default
+	 *         value
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+
+		int slot = findSlot(key);
+
+		if (slot >= 0) {
+
+			return (V) mappings[2 * slot + 1];
+
+		}
+
+		return slot == OVERFLOW ? overflow.getOrDefault(key, defaultValue) : defaultValue;
+
+	}
+
+	/**
+	 * Returns true if this map maps one or more keys to the specified value. This
+	 * scans all of the values.
+	 *
+	 * @param value the value whose presence in this map is to be tested
+	 * @return true if this map maps one or more keys to the specified value
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+
+		for (int i = 1; i < mappings.length; i += 2) {
+
+			Object candidate = mappings[i];
+
+			if (value == null ? candidate == null : value.equals(candidate)) {
+
+				return true;
+
+			}
+
+		}
+
+		return overflow != null && overflow.containsValue(value);
+
+	}
+
+	/**
+	 * Performs the given action for every mapping of this map, in slot order.
+	 *
+	 * @param action the action to be performed for every mapping
+	 * @throws NullPointerException if the action is null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+
+		if (action == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		for (int i = 0; i < mappings.length; i += 2) {
+
+			action.accept((K) mappings[i], (V) mappings[i + 1]);
+
+		}
+
+		if (overflow != null) {
+
+			overflow.forEach(action);
+
+		}
+
+	}
+
+	/**
+	 * Returns a Set view of the mappings contained in this map. The set and its
+	 * entries cannot be modified.
+	 *
+	 * @return a set view of the mappings contained in this map
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+
+		if (entrySet == null) {
+
+			entrySet = new FrozenEntrySet();
+
+		}
+
+		return entrySet;
+
+	}
+
+	/*
+	 * Returns the slot holding the key, OVERFLOW if the key can only be in the
+	 * overflow map, or ABSENT. This is the whole lookup: one hash, one
+	 * displacement, one slot and at most one equals.
+	 */
+	private int findSlot(Object key) {
+
+		if (key == null) {
+
+			return overflow == null ? ABSENT : OVERFLOW;
+
+		}
+
+		if (mapEntrySize == 0) {
+
+			return ABSENT;
+
+		}
+
+		int hashCode = key.hashCode();
+
+		long hash = hash(hashCode, seed);
+
+		int displacement = displacements[getBucket(hash, displacements.length)];
+
+		int slot = displacement < 0 ? -displacement - 1 : getSlot(hash, displacement, mapEntrySize);
+
+		if (hashCodes[slot] != hashCode) {
+
+			return ABSENT;
+
+		}
+
+		Object candidate = mappings[2 * slot];
+
+		if (candidate == key || key.equals(candidate)) {
+
+			return slot;
+
+		}
+
+		return overflow == null ? ABSENT : OVERFLOW;
+
+	}
+
+	/*
+	 * Finds a displacement for every bucket and stores the slot of every key, or
+	 * returns null if a bucket cannot be placed. The keys are grouped by bucket
+	 * and the buckets are ordered by decreasing size with counting sorts, so the
+	 * build takes linear time apart from the displacement search.
+	 */
+	private static int[] place(int[] hashCodes, int size, long seed, int bucketCount, int[] slots) {
+
+		long[] hashes = new long[size];
+
+		int[] bucketStart = new int[bucketCount + 1];
+
+		for (int i = 0; i < size; i++) {
+
+			hashes[i] = hash(hashCodes[i], seed);
+
+			bucketStart[getBucket(hashes[i], bucketCount) + 1]++;
+
+		}
+
+		int maximumBucketSize = 0;
+
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+
+			maximumBucketSize = Math.max(maximumBucketSize, bucketStart[bucket + 1]);
+
+			bucketStart[bucket + 1] += bucketStart[bucket];
+
+		}
+
+		int[] bucketKeys = new int[size];
+
+		int[] bucketEnd = Arrays.copyOf(bucketStart, bucketCount);
+
+		for (int i = 0; i < size; i++) {
+
+			bucketKeys[bucketEnd[getBucket(hashes[i], bucketCount)]++] = i;
+
+		}
+
+		int[] sizeStart = new int[maximumBucketSize + 2];
+
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+
+			sizeStart[maximumBucketSize - (bucketStart[bucket + 1] - bucketStart[bucket]) + 1]++;
+
+		}
+
+		for (int i = 0; i <= maximumBucketSize; i++) {
+
+			sizeStart[i + 1] += sizeStart[i];
+
+		}
+
+		int[] buckets = new int[bucketCount];
+
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+
+			buckets[sizeStart[maximumBucketSize - (bucketStart[bucket + 1] - bucketStart[bucket])]++] = bucket;
+
+		}
+
+		int[] displacements = new int[bucketCount];
+
+		boolean[] isOccupied = new boolean[size];
+
+		int freeSlot = 0;
+
+		for (int bucket : buckets) {
+
+			int start = bucketStart[bucket];
+
+			int end = bucketStart[bucket + 1];
+
+			if (end - start == 0) {
+
+				break;
+
+			}
+
+			if (end - start == 1) {
+
+				while (isOccupied[freeSlot]) {
+
+					freeSlot++;
+
+				}
+
+				isOccupied[freeSlot] = true;
+
+				slots[bucketKeys[start]] = freeSlot;
+
+				displacements[bucket] = -freeSlot - 1;
+
+				continue;
+
+			}
+
+			int displacement = 0;
+
+			while (!tryDisplacement(hashes, bucketKeys, start, end, displacement, isOccupied, slots)) {
+
+				if (++displacement == MAXIMUM_DISPLACEMENT) {
+
+					return null;
+
+				}
+
+			}
+
+			displacements[bucket] = displacement;
+
+		}
+
+		return displacements;
+
+	}
+
+	private static boolean tryDisplacement(long[] hashes, int[] bucketKeys, int start, int end, int displacement,
+			boolean[] isOccupied, int[] slots) {
+
+		for (int i = start; i < end; i++) {
+
+			int slot = getSlot(hashes[bucketKeys[i]], displacement, isOccupied.length);
+
+			if (isOccupied[slot]) {
+
+				// The slots taken by the keys of this bucket are given back, which
+				// also catches two keys of the bucket sharing a slot.
+				for (int j = start; j < i; j++) {
+
+					isOccupied[slots[bucketKeys[j]]] = false;
+
+				}
+
+				return false;
+
+			}
+
+			isOccupied[slot] = true;
+
+			slots[bucketKeys[i]] = slot;
+
+		}
+
+		return true;
+
+	}
+
+	/*
+	 * Returns the hash codes that occur more than once, in ascending order.
+	 */
+	private static int[] getSharedHashCodes(int[] hashCodes) {
+
+		Arrays.sort(hashCodes);
+
+		int[] sharedHashCodes = new int[hashCodes.length / 2];
+
+		int count = 0;
+
+		for (int i = 1; i < hashCodes.length; i++) {
+
+			if (hashCodes[i] == hashCodes[i - 1] && (count == 0 || sharedHashCodes[count - 1] != hashCodes[i])) {
+
+				sharedHashCodes[count++] = hashCodes[i];
+
+			}
+
+		}
+
+		return Arrays.copyOf(sharedHashCodes, count);
+
+	}
+
+	private static long hash(int hashCode, long seed) {
+
+		return BloomFilter.hash64(hashCode ^ seed);
+
+	}
+
+	private static int getBucket(long hash, int bucketCount) {
+
+		return (int) (((hash >>> 32) * bucketCount) >>> 32);
+
+	}
+
+	private static int getSlot(long hash, int displacement, int size) {
+
+		return (int) (((BloomFilter.hash64(hash + displacement * DISPLACEMENT_MULTIPLIER) >>> 32) * size) >>> 32);
+
+	}
+
+	final class FrozenEntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+
+			return new FrozenIterator();
+
+		}
+
+		@Override
+		public int size() {
+
+			return FrozenPerformantHashMap.this.size();
+
+		}
+
+	}
+
+	final class FrozenIterator implements Iterator<Map.Entry<K, V>> {
+
+		private int nextSlot;
+
+		private final Iterator<Map.Entry<K, V>> overflowIterator = overflow == null ? null
+				: overflow.entrySet().iterator();
+
+		@Override
+		public boolean hasNext() {
+
+			return nextSlot < mapEntrySize || (overflowIterator != null && overflowIterator.hasNext());
+
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Map.Entry<K, V> next() {
+
+			if (nextSlot < mapEntrySize) {
+
+				int slot = nextSlot++;
+
+				return new SimpleImmutableEntry<K, V>((K) mappings[2 * slot], (V) mappings[2 * slot + 1]);
+
+			}
+
+			if (overflowIterator == null) {
+
+				throw new NoSuchElementException();
+
+			}
+
+			return new SimpleImmutableEntry<K, V>(overflowIterator.next());
+
+		}
+
+	}
+
+}
@@ -0,0 +1,646 @@
+package com.sparklingminds.adt.map;
+
+import java.util.Arrays;
+
+/**
+ * LongObjectPerformantHashMap is a hash table mapping primitive long keys to
+ * object values. It is the primitive specialization of
+ * PerformantHashMap&lt;Long, V&gt;: the keys are stored in a long array and the
+ * values in a parallel object array, instead of boxed Long keys held by linked
+ * map entries, so get, put and remove allocate no memory at all and a lookup
+ * reads two adjacent arrays instead of following entry pointers. It permits
+ * null values and is not synchronized. <br>
+ * <br>
+ * The table uses open addressing with linear probing over a power of two
+ * number of slots. The key 0 marks an empty slot; a mapping for the key 0 is
+ * therefore not stored in the table but in separate fields next to it. The
+ * keys are spread with a 64-bit mixing finalizer before they are reduced to a
+ * slot, so sequential ids do not cluster. A removal moves the following keys of
+ * its probe sequence back into the freed slot (backward shift deletion), so the
+ * table never accumulates tombstones. When the number of mappings exceeds the
+ * capacity multiplied by the load factor, the capacity is doubled. <br>
+ * <br>
+ * Exactly like PerformantHashMap, the map can optionally maintain a counting
+ * bloom filter over its keys, which is queried with mightContain(long key).
+ * The keys are recorded without boxing, and the bloom filter is rebuilt for the
+ * new capacity whenever the table grows.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap
+ * @see LongLongPerformantHashMap
+ * @see IntIntPerformantHashMap
+ */
+public class LongObjectPerformantHashMap<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final double DEFAULT_BLOOM_FILTER_FPP = 0.01;
+
+	private long[] keys;
+
+	private Object[] values;
+
+	private int mask;
+
+	private int threshold;
+
+	private int mapEntrySize;
+
+	private boolean hasZeroKey;
+
+	private V zeroValue;
+
+	private float loadFactor;
+
+	private boolean isBloomFilter;
+
+	private CountingBloomFilter bloomFilter;
+
+	/**
+	 * Constructs an empty LongObjectPerformantHashMap with the default initial
+	 * capacity (16), the default load factor (0.75) and without a bloom filter.
+	 */
+	public LongObjectPerformantHashMap() {
+
+		this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, false);
+
+	}
+
+	/**
+	 * Constructs an empty LongObjectPerformantHashMap with the specified initial
+	 * capacity and the default load factor (0.75).
+	 *
+	 * @param initialCapacity the number of mappings to size the table for
+	 * @param isBloomFilter   true if a bloom filter is to be maintained for the
+	 *                        keys
+	 * @throws IllegalArgumentException if the initial capacity is negative
+	 */
+	public LongObjectPerformantHashMap(int initialCapacity, boolean isBloomFilter) {
+
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, isBloomFilter);
+
+	}
+
+	/**
+	 * Constructs an empty LongObjectPerformantHashMap with the specified initial
+	 * capacity and load factor.
+	 *
+	 * @param initialCapacity the number of mappings to size the table for
+	 * @param loadFactor      the load factor, which must be below 1 since an open
+	 *                        addressing table needs empty slots
+	 * @param isBloomFilter   true if a bloom filter is to be maintained for the
+	 *                        keys
+	 * @throws IllegalArgumentException if the initial capacity is negative or the
+	 *                                  load factor is not between 0 and 1
+	 */
+	public LongObjectPerformantHashMap(int initialCapacity, float loadFactor, boolean isBloomFilter) {
+
+		if (initialCapacity < 0 || !(loadFactor > 0 && loadFactor < 1)) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		this.loadFactor = loadFactor;
+
+		this.isBloomFilter = isBloomFilter;
+
+		allocate(getCapacity(initialCapacity, loadFactor));
+
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	public int size() {
+
+		return mapEntrySize;
+
+	}
+
+	/**
+	 * Returns true if this map contains no key-value mappings.
+	 *
+	 * @return true if this map contains no key-value mappings
+	 */
+	public boolean isEmpty() {
+
+		return mapEntrySize == 0;
+
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key.
+	 *
+	 * @param key the key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key
+	 */
+	public boolean containsKey(long key) {
+
+		if (key == 0) {
+
+			return hasZeroKey;
+
+		}
+
+		return findSlot(key) >= 0;
+
+	}
+
+	/**
+	 * Returns true if this map maps one or more keys to the specified value.
+	 *
+	 * @param value whose presence in this map is to be tested
+	 * @return true if this map maps one or more keys to the specified value
+	 */
+	public boolean containsValue(Object value) {
+
+		if (hasZeroKey && (value == null ? zeroValue == null : value.equals(zeroValue))) {
+
+			return true;
+
+		}
+
+		for (int i = 0; i < keys.length; i++) {
+
+			if (keys[i] != 0 && (value == null ? values[i] == null : value.equals(values[i]))) {
+
+				return true;
+
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this map
+	 * contains no mapping for the key.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the value to which the specified key is mapped, or null if this map
+	 *         contains no mapping for the key
+	 */
+	public V get(long key) {
+
+		return getOrDefault(key, null);
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or the specified
+	 * default value if this map contains no mapping for the key.
+	 *
+	 * @param key          the key whose associated value is to be returned
+	 * @param defaultValue the value to return if the key has no mapping
+	 * @return the value to which the specified key is mapped, or the default
+	 *         value if this map contains no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(long key, V defaultValue) {
+
+		if (key == 0) {
+
+			return hasZeroKey ? zeroValue : defaultValue;
+
+		}
+
+		int slot = findSlot(key);
+
+		return slot >= 0 ? (V) values[slot] : defaultValue;
+
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map. If the
+	 * map previously contained a mapping for the key, the old value is replaced.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with the key, or null if there was no
+	 *         mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+
+		if (key == 0) {
+
+			V oldValue = zeroValue;
+
+			zeroValue = value;
+
+			if (!hasZeroKey) {
+
+				hasZeroKey = true;
+
+				mapEntrySize++;
+
+				addToBloomFilter(key);
+
+				return null;
+
+			}
+
+			return oldValue;
+
+		}
+
+		int slot = getSlot(key);
+
+		while (keys[slot] != 0) {
+
+			if (keys[slot] == key) {
+
+				V oldValue = (V) values[slot];
+
+				values[slot] = value;
+
+				return oldValue;
+
+			}
+
+			slot = (slot + 1) & mask;
+
+		}
+
+		keys[slot] = key;
+
+		values[slot] = value;
+
+		mapEntrySize++;
+
+		addToBloomFilter(key);
+
+		if (mapEntrySize > threshold) {
+
+			rehash(keys.length << 1);
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Removes the mapping for the specified key from this map if present.
+	 *
+	 * @param key key whose mapping is to be removed from the map
+	 * @return the previous value associated with the key, or null if there was no
+	 *         mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+
+		if (key == 0) {
+
+			if (!hasZeroKey) {
+
+				return null;
+
+			}
+
+			V oldValue = zeroValue;
+
+			hasZeroKey = false;
+
+			zeroValue = null;
+
+			mapEntrySize--;
+
+			removeFromBloomFilter(key);
+
+			return oldValue;
+
+		}
+
+		int slot = findSlot(key);
+
+		if (slot < 0) {
+
+			return null;
+
+		}
+
+		V oldValue = (V) values[slot];
+
+		shiftKeys(slot);
+
+		mapEntrySize--;
+
+		removeFromBloomFilter(key);
+
+		return oldValue;
+
+	}
+
+	/**
+	 * Removes all of the mappings from this map.
+	 */
+	public void clear() {
+
+		Arrays.fill(keys, 0L);
+
+		Arrays.fill(values, null);
+
+		hasZeroKey = false;
+
+		zeroValue = null;
+
+		mapEntrySize = 0;
+
+		if (isBloomFilter) {
+
+			bloomFilter.clear();
+
+		}
+
+	}
+
+	/**
+	 * Returns a new array containing all of the keys of this map, in no particular
+	 * order.
+	 *
+	 * @return an array containing all of the keys of this map
+	 */
+	public long[] keys() {
+
+		long[] result = new long[mapEntrySize];
+
+		int index = 0;
+
+		if (hasZeroKey) {
+
+			result[index++] = 0;
+
+		}
+
+		for (int i = 0; i < keys.length; i++) {
+
+			if (keys[i] != 0) {
+
+				result[index++] = keys[i];
+
+			}
+
+		}
+
+		return result;
+
+	}
+
+	/**
+	 * Performs the specified action for each mapping of this map, without boxing
+	 * the keys or values.
+	 *
+	 * @param action the action to be performed for each mapping
+	 * @throws NullPointerException if the specified action is null
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(LongObjectConsumer<? super V> action) {
+
+		if (action == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		if (hasZeroKey) {
+
+			action.accept(0, zeroValue);
+
+		}
+
+		for (int i = 0; i < keys.length; i++) {
+
+			if (keys[i] != 0) {
+
+				action.accept(keys[i], (V) values[i]);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Returns true if this map might contain a mapping for the specified key,
+	 * without accessing the map. The bloom filter never returns false for a key
+	 * that has a mapping.
+	 *
+	 * @param key the key whose presence in this map is to be tested
+	 * @return false if this map certainly contains no mapping for the key
+	 * @throws UnsupportedOperationException if bloom filter is not enabled for this
+	 *                                       LongObjectPerformantHashMap instance
+	 */
+	public boolean mightContain(long key) {
+
+		if (!isBloomFilter) {
+
+			throw new UnsupportedOperationException();
+
+		}
+
+		return bloomFilter.contains(key);
+
+	}
+
+	/**
+	 * An action on a mapping of a LongObjectPerformantHashMap.
+	 *
+	 * @param <V> the type of the values
+	 */
+	@FunctionalInterface
+	public interface LongObjectConsumer<V> {
+
+		/**
+		 * Performs this action on the specified mapping.
+		 *
+		 * @param key   the key of the mapping
+		 * @param value the value of the mapping
+		 */
+		void accept(long key, V value);
+
+	}
+
+	private int findSlot(long key) {
+
+		int slot = getSlot(key);
+
+		long slotKey;
+
+		while ((slotKey = keys[slot]) != 0) {
+
+			if (slotKey == key) {
+
+				return slot;
+
+			}
+
+			slot = (slot + 1) & mask;
+
+		}
+
+		return -1;
+
+	}
+
+	/*
+	 * Closes the gap left at the specified slot by moving back every following
+	 * key of the probe sequence that may occupy it.
+	 */
+	private void shiftKeys(int slot) {
+
+		int last;
+
+		while (true) {
+
+			slot = ((last = slot) + 1) & mask;
+
+			long key;
+
+			while (true) {
+
+				if ((key = keys[slot]) == 0) {
+
+					keys[last] = 0;
+
+					values[last] = null;
+
+					return;
+
+				}
+
+				int home = getSlot(key);
+
+				if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+
+					break;
+
+				}
+
+				slot = (slot + 1) & mask;
+
+			}
+
+			keys[last] = key;
+
+			values[last] = values[slot];
+
+		}
+
+	}
+
+	private void rehash(int capacity) {
+
+		if (keys.length >= MAXIMUM_CAPACITY) {
+
+			throw new IllegalStateException("LongObjectPerformantHashMap cannot grow beyond " + MAXIMUM_CAPACITY);
+
+		}
+
+		long[] oldKeys = keys;
+
+		Object[] oldValues = values;
+
+		allocate(capacity);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+
+			long key = oldKeys[i];
+
+			if (key != 0) {
+
+				int slot = getSlot(key);
+
+				while (keys[slot] != 0) {
+
+					slot = (slot + 1) & mask;
+
+				}
+
+				keys[slot] = key;
+
+				values[slot] = oldValues[i];
+
+				addToBloomFilter(key);
+
+			}
+
+		}
+
+		if (hasZeroKey) {
+
+			addToBloomFilter(0);
+
+		}
+
+	}
+
+	private void allocate(int capacity) {
+
+		keys = new long[capacity];
+
+		values = new Object[capacity];
+
+		mask = capacity - 1;
+
+		threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+
+		if (isBloomFilter) {
+
+			bloomFilter = new CountingBloomFilter(Math.max(threshold, 1), DEFAULT_BLOOM_FILTER_FPP);
+
+		}
+
+	}
+
+	private void addToBloomFilter(long key) {
+
+		if (isBloomFilter) {
+
+			bloomFilter.add(key);
+
+		}
+
+	}
+
+	private void removeFromBloomFilter(long key) {
+
+		if (isBloomFilter) {
+
+			bloomFilter.remove(key);
+
+		}
+
+	}
+
+	private int getSlot(long key) {
+
+		return (int) BloomFilter.hash64(key) & mask;
+
+	}
+
+	private static int getCapacity(int expectedSize, float loadFactor) {
+
+		long capacity = Math.max(DEFAULT_CAPACITY, (long) Math.ceil(expectedSize / loadFactor) + 1);
+
+		if (capacity >= MAXIMUM_CAPACITY) {
+
+			return MAXIMUM_CAPACITY;
+
+		}
+
+		return Integer.highestOneBit((int) capacity - 1) << 1;
+
+	}
+
+}
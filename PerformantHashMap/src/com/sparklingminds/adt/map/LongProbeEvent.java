@@ -0,0 +1,53 @@
+package com.sparklingminds.adt.map;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * LongProbeEvent is the flight recorder event of a lookup in a
+ * PerformantHashMap that compared the key with more map entries than the long
+ * probe threshold of the map. <br>
+ * <br>
+ * The probe length is only measured while the event is enabled in a running
+ * recording, by walking the bucket a second time. A chain is never longer than
+ * the treeify threshold, so while the long probe threshold of the map is at
+ * least the treeify threshold, only the lookups in treeified buckets are
+ * measured, and the event can be left enabled in production.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#setLongProbeThreshold(int)
+ */
+@Name("com.sparklingminds.adt.map.LongProbe")
+@Label("PerformantHashMap Long Probe")
+@Category({ "Sparkling Minds", "PerformantHashMap" })
+@Description("A lookup in a PerformantHashMap that probed more map entries than the long probe threshold")
+final class LongProbeEvent extends jdk.jfr.Event {
+
+	@Label("Operation")
+	@Description("The operation that looked up the key: get, put or remove")
+	String operation;
+
+	@Label("Probe Length")
+	@Description("The number of map entries compared with the key")
+	int probeLength;
+
+	@Label("Threshold")
+	@Description("The long probe threshold of the map")
+	int threshold;
+
+	@Label("Capacity")
+	@Description("The number of buckets of the table that was searched")
+	int capacity;
+
+	@Label("Bucket Index")
+	@Description("The index of the bucket that was searched")
+	int bucketIndex;
+
+	@Label("Tree Bin")
+	@Description("True if the bucket was treeified")
+	boolean treeBin;
+
+}
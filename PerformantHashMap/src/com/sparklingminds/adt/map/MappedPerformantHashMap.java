@@ -0,0 +1,665 @@
+package com.sparklingminds.adt.map;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * MappedPerformantHashMap is a read-only Map served straight from a snapshot
+ * file written by PerformantHashMap.snapshotTo(Path path, ...). It is obtained
+ * from PerformantHashMap.openSnapshot(Path path, ...), which maps the file into
+ * memory with FileChannel.map and reads nothing but its header, so opening a
+ * snapshot takes the same time whatever the number of mappings. The pages of
+ * the file are loaded lazily by the operating system as lookups touch them,
+ * and nothing is ever deserialized except the keys and values handed out by
+ * the map. <br>
+ * <br>
+ * A snapshot file consists of a header, a hash table and a record region, all
+ * little endian:
+ * <ul>
+ * <li>the header (32 bytes): the magic number 0x50484D53, the format version,
+ * the number of slots of the hash table (a power of two), the number of
+ * mappings, the file offset of the record region and its length</li>
+ * <li>the hash table: 16 bytes per slot holding the hash of the encoded key
+ * (0 for an empty slot), the length of the record and its file offset. The
+ * table uses open addressing with linear probing and is at most 3/4 full.</li>
+ * <li>the record region: for every mapping, the length of the encoded key, the
+ * length of the encoded value, the encoded key and the encoded value. The
+ * region is mapped in segments of 1 GB and no record crosses a segment
+ * boundary.</li>
+ * </ul>
+ * Keys and values are converted to bytes by the PerformantCodecs passed to
+ * snapshotTo, and the same codecs have to be passed to openSnapshot. Two keys
+ * are equal for this map if and only if their encodings are equal, and the
+ * hash of a key is computed from its encoding exactly as in the
+ * OffHeapPerformantHashMap. <br>
+ * <br>
+ * The map does not permit null keys, and all of its modifying operations throw
+ * an UnsupportedOperationException. Lookups may be performed by any number of
+ * threads concurrently. Closing the map unmaps the file immediately, so it must
+ * not be closed while lookups are still in progress; every operation on a
+ * closed map throws an IllegalStateException.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap
+ * @see OffHeapPerformantHashMap
+ */
+public class MappedPerformantHashMap<K, V> extends AbstractMap<K, V> implements Closeable {
+
+	private static final int MAGIC = 0x50484D53;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 32;
+
+	private static final int SLOT_SIZE = 16;
+
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 26;
+
+	private static final int SEGMENT_SHIFT = 30;
+
+	private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+	private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+	private final PerformantCodec<K> keyCodec;
+
+	private final PerformantCodec<V> valueCodec;
+
+	private final int mapEntrySize;
+
+	private final int mask;
+
+	private final long dataOffset;
+
+	private final ThreadLocal<ByteBuffer> keyBuffer;
+
+	private ByteBuffer slots;
+
+	private ByteBuffer[] segments;
+
+	private volatile boolean isClosed;
+
+	private Set<Map.Entry<K, V>> entrySet;
+
+	private MappedPerformantHashMap(PerformantCodec<K> keyCodec, PerformantCodec<V> valueCodec, int mapEntrySize,
+			int capacity, long dataOffset, ByteBuffer slots, ByteBuffer[] segments) {
+
+		this.keyCodec = keyCodec;
+
+		this.valueCodec = valueCodec;
+
+		this.mapEntrySize = mapEntrySize;
+
+		this.mask = capacity - 1;
+
+		this.dataOffset = dataOffset;
+
+		this.slots = slots;
+
+		this.segments = segments;
+
+		this.keyBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN));
+
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	@Override
+	public int size() {
+
+		ensureOpen();
+
+		return mapEntrySize;
+
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key.
+	 *
+	 * @param key the key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+
+		return findSlot(key) >= 0;
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this map
+	 * contains no mapping for the key.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the decoded value to which the specified key is mapped, or null if
+	 *         this map contains no mapping for the key
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public V get(Object key) {
+
+		int slot = findSlot(key);
+
+		return slot < 0 ? null : decode(valueCodec, slots.getLong(slot * SLOT_SIZE + 8), false);
+
+	}
+
+	/**
+	 * Returns a Set view of the mappings contained in this map. The keys and values
+	 * of its entries are decoded from the snapshot as the iterator reaches them.
+	 * The set cannot be modified.
+	 *
+	 * @return a set view of the mappings contained in this map
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+
+		if (entrySet == null) {
+
+			entrySet = new MappedEntrySet();
+
+		}
+
+		return entrySet;
+
+	}
+
+	/**
+	 * Unmaps the snapshot file. Closing a map that is already closed has no effect.
+	 */
+	@Override
+	public void close() {
+
+		if (!isClosed) {
+
+			isClosed = true;
+
+			OffHeapPerformantHashMap.free(slots);
+
+			for (ByteBuffer segment : segments) {
+
+				OffHeapPerformantHashMap.free(segment);
+
+			}
+
+			slots = null;
+
+			segments = null;
+
+		}
+
+	}
+
+	/*
+	 * Writes the snapshot of the specified map to the specified file. The
+	 * snapshot is written to a temporary file next to it, which then replaces the
+	 * file, so a reader never maps a partially written snapshot.
+	 */
+	static <K, V> void write(Map<K, V> map, Path path, PerformantCodec<K> keyCodec, PerformantCodec<V> valueCodec)
+			throws IOException {
+
+		if (path == null || keyCodec == null || valueCodec == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		int capacity = getCapacity(map.size());
+
+		int mask = capacity - 1;
+
+		long dataOffset = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+
+		Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			MappedByteBuffer slots = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE,
+					(long) capacity * SLOT_SIZE);
+
+			slots.order(ByteOrder.LITTLE_ENDIAN);
+
+			ByteBuffer keyBuffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+
+			ByteBuffer valueBuffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+
+			ByteBuffer output = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+			long outputOffset = dataOffset;
+
+			long recordOffset = dataOffset;
+
+			int entries = 0;
+
+			for (Map.Entry<K, V> entry : map.entrySet()) {
+
+				if (entry.getKey() == null || entry.getValue() == null) {
+
+					throw new NullPointerException();
+
+				}
+
+				keyBuffer = encode(keyCodec, entry.getKey(), keyBuffer);
+
+				valueBuffer = encode(valueCodec, entry.getValue(), valueBuffer);
+
+				int keyLength = keyBuffer.position();
+
+				int valueLength = valueBuffer.position();
+
+				long recordLength = (long) RECORD_HEADER_SIZE + keyLength + valueLength;
+
+				if (recordLength > SEGMENT_SIZE) {
+
+					throw new IOException("Record of " + recordLength + " bytes exceeds the segment size");
+
+				}
+
+				long segmentRemaining = SEGMENT_SIZE - ((recordOffset - dataOffset) & (SEGMENT_SIZE - 1));
+
+				if (recordLength > segmentRemaining || output.remaining() < recordLength) {
+
+					outputOffset = flush(channel, output, outputOffset);
+
+					if (recordLength > segmentRemaining) {
+
+						recordOffset += segmentRemaining;
+
+						outputOffset = recordOffset;
+
+					}
+
+					if (output.capacity() < recordLength) {
+
+						output = ByteBuffer.allocate((int) recordLength).order(ByteOrder.LITTLE_ENDIAN);
+
+					}
+
+				}
+
+				output.putInt(keyLength);
+
+				output.putInt(valueLength);
+
+				output.put(keyBuffer.array(), 0, keyLength);
+
+				output.put(valueBuffer.array(), 0, valueLength);
+
+				int hash = OffHeapPerformantHashMap.getHash(keyBuffer, keyLength);
+
+				int slot = hash & mask;
+
+				while (slots.getInt(slot * SLOT_SIZE) != 0) {
+
+					slot = (slot + 1) & mask;
+
+				}
+
+				slots.putInt(slot * SLOT_SIZE, hash);
+
+				slots.putInt(slot * SLOT_SIZE + 4, (int) recordLength);
+
+				slots.putLong(slot * SLOT_SIZE + 8, recordOffset);
+
+				recordOffset += recordLength;
+
+				entries++;
+
+			}
+
+			flush(channel, output, outputOffset);
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+			header.putInt(MAGIC).putInt(VERSION).putInt(capacity).putInt(entries);
+
+			header.putLong(dataOffset).putLong(recordOffset - dataOffset);
+
+			flush(channel, header, 0);
+
+			slots.force();
+
+			channel.force(true);
+
+			OffHeapPerformantHashMap.free(slots);
+
+		}
+
+		try {
+
+			Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		} catch (AtomicMoveNotSupportedException e) {
+
+			Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+
+		}
+
+	}
+
+	/*
+	 * Maps the specified snapshot file, reading nothing but its header.
+	 */
+	static <K, V> MappedPerformantHashMap<K, V> open(Path path, PerformantCodec<K> keyCodec,
+			PerformantCodec<V> valueCodec) throws IOException {
+
+		if (path == null || keyCodec == null || valueCodec == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+			while (header.hasRemaining()) {
+
+				if (channel.read(header, header.position()) < 0) {
+
+					throw new EOFException("Truncated PerformantHashMap snapshot: " + path);
+
+				}
+
+			}
+
+			int magic = header.getInt(0);
+
+			int version = header.getInt(4);
+
+			int capacity = header.getInt(8);
+
+			int entries = header.getInt(12);
+
+			long dataOffset = header.getLong(16);
+
+			long dataLength = header.getLong(24);
+
+			if (magic != MAGIC || version != VERSION || capacity <= 0 || capacity > MAXIMUM_CAPACITY
+					|| Integer.bitCount(capacity) != 1 || entries < 0 || entries >= capacity
+					|| dataOffset != HEADER_SIZE + (long) capacity * SLOT_SIZE || dataLength < 0
+					|| dataOffset + dataLength > channel.size()) {
+
+				throw new IOException("Not a valid PerformantHashMap snapshot: " + path);
+
+			}
+
+			ByteBuffer slots = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) capacity * SLOT_SIZE)
+					.order(ByteOrder.LITTLE_ENDIAN);
+
+			ByteBuffer[] segments = new ByteBuffer[(int) ((dataLength + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+
+			for (int i = 0; i < segments.length; i++) {
+
+				long offset = (long) i << SEGMENT_SHIFT;
+
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + offset,
+						Math.min(SEGMENT_SIZE, dataLength - offset)).order(ByteOrder.LITTLE_ENDIAN);
+
+			}
+
+			return new MappedPerformantHashMap<K, V>(keyCodec, valueCodec, entries, capacity, dataOffset, slots,
+					segments);
+
+		}
+
+	}
+
+	private int findSlot(Object key) {
+
+		ensureOpen();
+
+		if (key == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		@SuppressWarnings("unchecked")
+		ByteBuffer buffer = encode(keyCodec, (K) key, keyBuffer.get());
+
+		keyBuffer.set(buffer);
+
+		int keyLength = buffer.position();
+
+		int hash = OffHeapPerformantHashMap.getHash(buffer, keyLength);
+
+		int slot = hash & mask;
+
+		int slotHash;
+
+		while ((slotHash = slots.getInt(slot * SLOT_SIZE)) != 0) {
+
+			if (slotHash == hash && isKeyEqual(slots.getLong(slot * SLOT_SIZE + 8), buffer, keyLength)) {
+
+				return slot;
+
+			}
+
+			slot = (slot + 1) & mask;
+
+		}
+
+		return -1;
+
+	}
+
+	private boolean isKeyEqual(long recordOffset, ByteBuffer buffer, int keyLength) {
+
+		long offset = recordOffset - dataOffset;
+
+		ByteBuffer segment = segments[(int) (offset >>> SEGMENT_SHIFT)];
+
+		int position = (int) (offset & (SEGMENT_SIZE - 1));
+
+		if (segment.getInt(position) != keyLength) {
+
+			return false;
+
+		}
+
+		position += RECORD_HEADER_SIZE;
+
+		int i = 0;
+
+		for (; i + 8 <= keyLength; i += 8) {
+
+			if (segment.getLong(position + i) != buffer.getLong(i)) {
+
+				return false;
+
+			}
+
+		}
+
+		for (; i < keyLength; i++) {
+
+			if (segment.get(position + i) != buffer.get(i)) {
+
+				return false;
+
+			}
+
+		}
+
+		return true;
+
+	}
+
+	private <T> T decode(PerformantCodec<T> codec, long recordOffset, boolean isKey) {
+
+		long offset = recordOffset - dataOffset;
+
+		ByteBuffer segment = segments[(int) (offset >>> SEGMENT_SHIFT)].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+		int position = (int) (offset & (SEGMENT_SIZE - 1));
+
+		int keyLength = segment.getInt(position);
+
+		int start = position + RECORD_HEADER_SIZE + (isKey ? 0 : keyLength);
+
+		segment.limit(start + (isKey ? keyLength : segment.getInt(position + 4))).position(start);
+
+		return codec.decode(segment);
+
+	}
+
+	private void ensureOpen() {
+
+		if (isClosed) {
+
+			throw new IllegalStateException("MappedPerformantHashMap is closed");
+
+		}
+
+	}
+
+	private static <T> ByteBuffer encode(PerformantCodec<T> codec, T value, ByteBuffer buffer) {
+
+		while (true) {
+
+			buffer.clear();
+
+			try {
+
+				codec.encode(value, buffer);
+
+				return buffer;
+
+			} catch (BufferOverflowException e) {
+
+				buffer = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+
+			}
+
+		}
+
+	}
+
+	private static long flush(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+
+		buffer.flip();
+
+		while (buffer.hasRemaining()) {
+
+			offset += channel.write(buffer, offset);
+
+		}
+
+		buffer.clear();
+
+		return offset;
+
+	}
+
+	private static int getCapacity(int expectedSize) {
+
+		long capacity = Math.max(2, (long) expectedSize * 4 / 3 + 1);
+
+		if (capacity > MAXIMUM_CAPACITY) {
+
+			throw new IllegalStateException("A snapshot holds at most " + (MAXIMUM_CAPACITY / 4 * 3) + " mappings");
+
+		}
+
+		return Integer.highestOneBit((int) capacity - 1) << 1;
+
+	}
+
+	final class MappedEntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+
+			return new MappedIterator();
+
+		}
+
+		@Override
+		public int size() {
+
+			return MappedPerformantHashMap.this.size();
+
+		}
+
+	}
+
+	final class MappedIterator implements Iterator<Map.Entry<K, V>> {
+
+		private int nextSlot;
+
+		MappedIterator() {
+
+			ensureOpen();
+
+			nextSlot = advance(0);
+
+		}
+
+		@Override
+		public boolean hasNext() {
+
+			return nextSlot <= mask;
+
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+
+			ensureOpen();
+
+			if (nextSlot > mask) {
+
+				throw new NoSuchElementException();
+
+			}
+
+			long recordOffset = slots.getLong(nextSlot * SLOT_SIZE + 8);
+
+			nextSlot = advance(nextSlot + 1);
+
+			return new SimpleImmutableEntry<K, V>(decode(keyCodec, recordOffset, true),
+					decode(valueCodec, recordOffset, false));
+
+		}
+
+		private int advance(int slot) {
+
+			while (slot <= mask && slots.getInt(slot * SLOT_SIZE) == 0) {
+
+				slot++;
+
+			}
+
+			return slot;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,1081 @@
+package com.sparklingminds.adt.map;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * OffHeapPerformantHashMap is a hash table based implementation of the Map
+ * interface that keeps its keys, its values and its hash table outside of the
+ * Java heap, in direct memory. It is meant for very large lookup tables: a
+ * PerformantHashMap holding millions of mappings consists of millions of map
+ * entries, keys and values that the garbage collector has to trace, whereas an
+ * OffHeapPerformantHashMap of any size consists of a handful of heap objects,
+ * so the garbage collection time stays flat no matter how big the map grows.
+ * It does not permit null keys or null values and is not synchronized. <br>
+ * <br>
+ * Keys and values are converted to bytes by a key PerformantCodec and a value
+ * PerformantCodec passed to the constructor, and two keys are equal for this
+ * map if and only if their encodings are equal. Every mapping is stored as a
+ * record holding the encoded key and value, appended to one of a list of
+ * direct memory chunks (16 MB each by default). The hash table is a single
+ * direct buffer of 16 byte slots using open addressing with linear probing;
+ * each slot holds the hash of the encoded key and the address and length of
+ * its record, so a lookup compares the stored hash before it compares any key
+ * bytes, and growing the table never touches the records. <br>
+ * <br>
+ * get decodes a new value object on every call and put and remove decode the
+ * value they replace, exactly as the values of the collection views are
+ * decoded, so the objects handed out by this map are copies: modifying them
+ * does not modify the map. A put that replaces a value with one whose
+ * encoding is not longer overwrites the record in place; otherwise the old
+ * record becomes garbage. The chunks are compacted once the garbage exceeds
+ * both one chunk and the memory of the live records. The hash table is doubled
+ * when the number of mappings exceeds 3/4 of its slots; since a direct buffer
+ * is limited to 2 GB, the map holds at most 3/4 * 2^26 (about 50 million)
+ * mappings. <br>
+ * <br>
+ * The direct memory of the map is released when the map is closed. Closing
+ * frees the memory immediately, without waiting for the garbage collector;
+ * every operation on a closed map throws an IllegalStateException. The
+ * iterators of the collection views are fail-fast on a best-effort basis, and
+ * they do not support removal.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantCodec
+ * @see PerformantHashMap
+ */
+public class OffHeapPerformantHashMap<K, V> extends AbstractMap<K, V> implements Closeable {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 26;
+
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+	private static final int SLOT_SIZE = 16;
+
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	private static final Object UNSAFE;
+
+	private static final Method INVOKE_CLEANER;
+
+	static {
+
+		Object unsafe = null;
+
+		Method invokeCleaner = null;
+
+		try {
+
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+
+			theUnsafe.setAccessible(true);
+
+			unsafe = theUnsafe.get(null);
+
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+
+		} catch (ReflectiveOperationException | RuntimeException e) {
+
+			unsafe = null;
+
+			invokeCleaner = null;
+
+		}
+
+		UNSAFE = unsafe;
+
+		INVOKE_CLEANER = invokeCleaner;
+
+	}
+
+	private final PerformantCodec<K> keyCodec;
+
+	private final PerformantCodec<V> valueCodec;
+
+	private final int chunkSize;
+
+	private ByteBuffer slots;
+
+	private int mask;
+
+	private int threshold;
+
+	private List<ByteBuffer> chunks;
+
+	private int chunkPosition;
+
+	private long usedBytes;
+
+	private long liveBytes;
+
+	private ByteBuffer keyBuffer;
+
+	private ByteBuffer valueBuffer;
+
+	private int mapEntrySize;
+
+	private int modCount;
+
+	private boolean isClosed;
+
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * Constructs an empty OffHeapPerformantHashMap with the specified codecs, the
+	 * default initial capacity (16) and the default chunk size (16 MB).
+	 *
+	 * @param keyCodec   the codec of the keys
+	 * @param valueCodec the codec of the values
+	 * @throws NullPointerException if a codec is null
+	 */
+	public OffHeapPerformantHashMap(PerformantCodec<K> keyCodec, PerformantCodec<V> valueCodec) {
+
+		this(keyCodec, valueCodec, DEFAULT_CAPACITY, DEFAULT_CHUNK_SIZE);
+
+	}
+
+	/**
+	 * Constructs an empty OffHeapPerformantHashMap with the specified codecs and
+	 * initial capacity and the default chunk size (16 MB).
+	 *
+	 * @param keyCodec        the codec of the keys
+	 * @param valueCodec      the codec of the values
+	 * @param initialCapacity the number of mappings to size the table for
+	 * @throws NullPointerException     if a codec is null
+	 * @throws IllegalArgumentException if the initial capacity is negative
+	 */
+	public OffHeapPerformantHashMap(PerformantCodec<K> keyCodec, PerformantCodec<V> valueCodec,
+			int initialCapacity) {
+
+		this(keyCodec, valueCodec, initialCapacity, DEFAULT_CHUNK_SIZE);
+
+	}
+
+	/**
+	 * Constructs an empty OffHeapPerformantHashMap with the specified codecs,
+	 * initial capacity and chunk size.
+	 *
+	 * @param keyCodec        the codec of the keys
+	 * @param valueCodec      the codec of the values
+	 * @param initialCapacity the number of mappings to size the table for
+	 * @param chunkSize       the size in bytes of the direct memory chunks holding
+	 *                        the records; a record larger than a chunk gets a
+	 *                        chunk of its own
+	 * @throws NullPointerException     if a codec is null
+	 * @throws IllegalArgumentException if the initial capacity is negative or the
+	 *                                  chunk size is not positive
+	 */
+	public OffHeapPerformantHashMap(PerformantCodec<K> keyCodec, PerformantCodec<V> valueCodec,
+			int initialCapacity, int chunkSize) {
+
+		if (keyCodec == null || valueCodec == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		if (initialCapacity < 0 || chunkSize <= 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		this.keyCodec = keyCodec;
+
+		this.valueCodec = valueCodec;
+
+		this.chunkSize = chunkSize;
+
+		this.chunks = new ArrayList<ByteBuffer>();
+
+		this.keyBuffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+
+		this.valueBuffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+
+		allocateSlots(getCapacity(initialCapacity));
+
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	@Override
+	public int size() {
+
+		ensureOpen();
+
+		return mapEntrySize;
+
+	}
+
+	/**
+	 * Returns true if this map contains no key-value mappings.
+	 *
+	 * @return true if this map contains no key-value mappings
+	 */
+	@Override
+	public boolean isEmpty() {
+
+		return size() == 0;
+
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key.
+	 *
+	 * @param key the key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+
+		return findSlot(key) >= 0;
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this map
+	 * contains no mapping for the key.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return a copy of the value to which the specified key is mapped, or null
+	 *         if this map contains no mapping for the key
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public V get(Object key) {
+
+		int slot = findSlot(key);
+
+		return slot < 0 ? null : decodeValue(getAddress(slot));
+
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map. If the
+	 * map previously contained a mapping for the key, the old value is replaced.
+	 *
+	 * @param key   the key with which the specified value is to be associated
+	 * @param value the value to be associated with the specified key
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key
+	 * @throws NullPointerException if the specified key or value is null
+	 */
+	@Override
+	public V put(K key, V value) {
+
+		if (value == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		int slot = findSlot(key);
+
+		int keyLength = keyBuffer.position();
+
+		int hash = getHash(keyLength);
+
+		int valueLength = encodeValue(value);
+
+		int recordLength = RECORD_HEADER_SIZE + keyLength + valueLength;
+
+		if (slot >= 0) {
+
+			long address = getAddress(slot);
+
+			V oldValue = decodeValue(address);
+
+			if (recordLength <= slots.getInt(getSlotOffset(slot) + 4)) {
+
+				writeValue(address, keyLength, valueLength);
+
+			} else {
+
+				liveBytes -= slots.getInt(getSlotOffset(slot) + 4);
+
+				setSlot(slot, hash, recordLength, writeRecord(keyLength, valueLength));
+
+				compactIfNeeded();
+
+			}
+
+			return oldValue;
+
+		}
+
+		if (mapEntrySize >= threshold) {
+
+			rehash(getCapacity(slots.capacity() / SLOT_SIZE));
+
+		}
+
+		slot = hash & mask;
+
+		while (slots.getInt(getSlotOffset(slot)) != 0) {
+
+			slot = (slot + 1) & mask;
+
+		}
+
+		setSlot(slot, hash, recordLength, writeRecord(keyLength, valueLength));
+
+		mapEntrySize++;
+
+		modCount++;
+
+		return null;
+
+	}
+
+	/**
+	 * Removes the mapping for the specified key from this map if present.
+	 *
+	 * @param key whose mapping is to be removed from the map
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key
+	 * @throws NullPointerException if the specified key is null
+	 */
+	@Override
+	public V remove(Object key) {
+
+		int slot = findSlot(key);
+
+		if (slot < 0) {
+
+			return null;
+
+		}
+
+		V oldValue = decodeValue(getAddress(slot));
+
+		liveBytes -= slots.getInt(getSlotOffset(slot) + 4);
+
+		shiftSlots(slot);
+
+		mapEntrySize--;
+
+		modCount++;
+
+		compactIfNeeded();
+
+		return oldValue;
+
+	}
+
+	/**
+	 * Removes all of the mappings from this map and releases the direct memory of
+	 * its records. The map will be empty after this call returns.
+	 */
+	@Override
+	public void clear() {
+
+		ensureOpen();
+
+		freeChunks(chunks);
+
+		chunks = new ArrayList<ByteBuffer>();
+
+		usedBytes = 0;
+
+		liveBytes = 0;
+
+		for (int offset = 0; offset < slots.capacity(); offset += SLOT_SIZE) {
+
+			slots.putInt(offset, 0);
+
+		}
+
+		mapEntrySize = 0;
+
+		modCount++;
+
+	}
+
+	/**
+	 * Returns a Set view of the mappings contained in this map. The set is backed
+	 * by the map, so changes to the map are reflected in the set. The keys and
+	 * values of its entries are decoded copies, and setValue on an entry writes
+	 * the new value through to the map. The set does not support removal.
+	 *
+	 * @return a set view of the mappings contained in this map
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+
+		if (entrySet == null) {
+
+			entrySet = new OffHeapEntrySet();
+
+		}
+
+		return entrySet;
+
+	}
+
+	/**
+	 * Returns the number of bytes of direct memory held by this map, for the hash
+	 * table and the record chunks.
+	 *
+	 * @return the number of bytes of direct memory held by this map
+	 */
+	public long getOffHeapBytes() {
+
+		ensureOpen();
+
+		long bytes = slots.capacity();
+
+		for (ByteBuffer chunk : chunks) {
+
+			bytes += chunk.capacity();
+
+		}
+
+		return bytes;
+
+	}
+
+	/**
+	 * Releases the direct memory of this map. Closing a map that is already closed
+	 * has no effect.
+	 */
+	@Override
+	public void close() {
+
+		if (!isClosed) {
+
+			isClosed = true;
+
+			freeChunks(chunks);
+
+			free(slots);
+
+			chunks = null;
+
+			slots = null;
+
+			mapEntrySize = 0;
+
+			modCount++;
+
+		}
+
+	}
+
+	private int findSlot(Object key) {
+
+		ensureOpen();
+
+		if (key == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		@SuppressWarnings("unchecked")
+		int keyLength = encodeKey((K) key);
+
+		int hash = getHash(keyLength);
+
+		int slot = hash & mask;
+
+		int slotHash;
+
+		while ((slotHash = slots.getInt(getSlotOffset(slot))) != 0) {
+
+			if (slotHash == hash && isKeyEqual(getAddress(slot), keyLength)) {
+
+				return slot;
+
+			}
+
+			slot = (slot + 1) & mask;
+
+		}
+
+		return -1;
+
+	}
+
+	private boolean isKeyEqual(long address, int keyLength) {
+
+		ByteBuffer chunk = chunks.get((int) (address >>> 32));
+
+		int position = (int) address;
+
+		if (chunk.getInt(position) != keyLength) {
+
+			return false;
+
+		}
+
+		position += RECORD_HEADER_SIZE;
+
+		int i = 0;
+
+		for (; i + 8 <= keyLength; i += 8) {
+
+			if (chunk.getLong(position + i) != keyBuffer.getLong(i)) {
+
+				return false;
+
+			}
+
+		}
+
+		for (; i < keyLength; i++) {
+
+			if (chunk.get(position + i) != keyBuffer.get(i)) {
+
+				return false;
+
+			}
+
+		}
+
+		return true;
+
+	}
+
+	/*
+	 * Closes the gap left at the specified slot by moving back every following
+	 * slot of the probe sequence that may occupy it.
+	 */
+	private void shiftSlots(int slot) {
+
+		int last;
+
+		while (true) {
+
+			slot = ((last = slot) + 1) & mask;
+
+			int hash;
+
+			while (true) {
+
+				if ((hash = slots.getInt(getSlotOffset(slot))) == 0) {
+
+					slots.putInt(getSlotOffset(last), 0);
+
+					return;
+
+				}
+
+				int home = hash & mask;
+
+				if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+
+					break;
+
+				}
+
+				slot = (slot + 1) & mask;
+
+			}
+
+			setSlot(last, hash, slots.getInt(getSlotOffset(slot) + 4), getAddress(slot));
+
+		}
+
+	}
+
+	private void rehash(int capacity) {
+
+		if (capacity > MAXIMUM_CAPACITY || slots.capacity() / SLOT_SIZE >= MAXIMUM_CAPACITY) {
+
+			throw new IllegalStateException(
+					"OffHeapPerformantHashMap cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+
+		}
+
+		ByteBuffer oldSlots = slots;
+
+		allocateSlots(capacity);
+
+		for (int offset = 0; offset < oldSlots.capacity(); offset += SLOT_SIZE) {
+
+			int hash = oldSlots.getInt(offset);
+
+			if (hash != 0) {
+
+				int slot = hash & mask;
+
+				while (slots.getInt(getSlotOffset(slot)) != 0) {
+
+					slot = (slot + 1) & mask;
+
+				}
+
+				setSlot(slot, hash, oldSlots.getInt(offset + 4), oldSlots.getLong(offset + 8));
+
+			}
+
+		}
+
+		free(oldSlots);
+
+	}
+
+	/*
+	 * Copies the live records into fresh chunks once the garbage left behind by
+	 * removed and replaced records exceeds both a chunk and the live records.
+	 */
+	private void compactIfNeeded() {
+
+		long garbageBytes = usedBytes - liveBytes;
+
+		if (garbageBytes <= chunkSize || garbageBytes <= liveBytes) {
+
+			return;
+
+		}
+
+		List<ByteBuffer> oldChunks = chunks;
+
+		chunks = new ArrayList<ByteBuffer>();
+
+		usedBytes = 0;
+
+		for (int slot = 0; slot <= mask; slot++) {
+
+			int offset = getSlotOffset(slot);
+
+			if (slots.getInt(offset) != 0) {
+
+				long address = slots.getLong(offset + 8);
+
+				ByteBuffer oldChunk = oldChunks.get((int) (address >>> 32));
+
+				int position = (int) address;
+
+				int length = RECORD_HEADER_SIZE + oldChunk.getInt(position) + oldChunk.getInt(position + 4);
+
+				long newAddress = allocateRecord(length);
+
+				ByteBuffer source = oldChunk.duplicate();
+
+				source.limit(position + length).position(position);
+
+				ByteBuffer target = chunks.get((int) (newAddress >>> 32)).duplicate();
+
+				target.position((int) newAddress);
+
+				target.put(source);
+
+				slots.putInt(offset + 4, length);
+
+				slots.putLong(offset + 8, newAddress);
+
+			}
+
+		}
+
+		liveBytes = usedBytes;
+
+		freeChunks(oldChunks);
+
+	}
+
+	private long writeRecord(int keyLength, int valueLength) {
+
+		int recordLength = RECORD_HEADER_SIZE + keyLength + valueLength;
+
+		long address = allocateRecord(recordLength);
+
+		ByteBuffer chunk = chunks.get((int) (address >>> 32));
+
+		int position = (int) address;
+
+		chunk.putInt(position, keyLength);
+
+		chunk.put(position + RECORD_HEADER_SIZE, keyBuffer.array(), 0, keyLength);
+
+		writeValue(address, keyLength, valueLength);
+
+		liveBytes += recordLength;
+
+		return address;
+
+	}
+
+	private void writeValue(long address, int keyLength, int valueLength) {
+
+		ByteBuffer chunk = chunks.get((int) (address >>> 32));
+
+		int position = (int) address;
+
+		chunk.putInt(position + 4, valueLength);
+
+		chunk.put(position + RECORD_HEADER_SIZE + keyLength, valueBuffer.array(), 0, valueLength);
+
+	}
+
+	private long allocateRecord(int length) {
+
+		int last = chunks.size() - 1;
+
+		if (last < 0 || chunks.get(last).capacity() - chunkPosition < length) {
+
+			chunks.add(ByteBuffer.allocateDirect(Math.max(chunkSize, length)).order(ByteOrder.LITTLE_ENDIAN));
+
+			chunkPosition = 0;
+
+			last++;
+
+		}
+
+		long address = ((long) last << 32) | chunkPosition;
+
+		chunkPosition += length;
+
+		usedBytes += length;
+
+		return address;
+
+	}
+
+	private V decodeValue(long address) {
+
+		ByteBuffer chunk = chunks.get((int) (address >>> 32)).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+		int position = (int) address;
+
+		int start = position + RECORD_HEADER_SIZE + chunk.getInt(position);
+
+		chunk.limit(start + chunk.getInt(position + 4)).position(start);
+
+		return valueCodec.decode(chunk);
+
+	}
+
+	private K decodeKey(long address) {
+
+		ByteBuffer chunk = chunks.get((int) (address >>> 32)).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+		int position = (int) address;
+
+		int start = position + RECORD_HEADER_SIZE;
+
+		chunk.limit(start + chunk.getInt(position)).position(start);
+
+		return keyCodec.decode(chunk);
+
+	}
+
+	private int encodeKey(K key) {
+
+		while (true) {
+
+			keyBuffer.clear();
+
+			try {
+
+				keyCodec.encode(key, keyBuffer);
+
+				return keyBuffer.position();
+
+			} catch (BufferOverflowException e) {
+
+				keyBuffer = ByteBuffer.allocate(keyBuffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+
+			}
+
+		}
+
+	}
+
+	private int encodeValue(V value) {
+
+		while (true) {
+
+			valueBuffer.clear();
+
+			try {
+
+				valueCodec.encode(value, valueBuffer);
+
+				return valueBuffer.position();
+
+			} catch (BufferOverflowException e) {
+
+				valueBuffer = ByteBuffer.allocate(valueBuffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+
+			}
+
+		}
+
+	}
+
+	private int getHash(int keyLength) {
+
+		return getHash(keyBuffer, keyLength);
+
+	}
+
+	/*
+	 * Hashes the encoded key held at the start of the specified little endian
+	 * buffer. The hash is never 0, which marks an empty slot.
+	 */
+	static int getHash(ByteBuffer buffer, int keyLength) {
+
+		long hash = keyLength;
+
+		int i = 0;
+
+		for (; i + 8 <= keyLength; i += 8) {
+
+			hash = Long.rotateLeft((hash ^ buffer.getLong(i)) * 0x9E3779B97F4A7C15L, 31);
+
+		}
+
+		for (; i < keyLength; i++) {
+
+			hash = (hash ^ (buffer.get(i) & 0xFF)) * 0x100000001B3L;
+
+		}
+
+		int result = (int) BloomFilter.hash64(hash);
+
+		return result == 0 ? 1 : result;
+
+	}
+
+	private void setSlot(int slot, int hash, int recordLength, long address) {
+
+		int offset = getSlotOffset(slot);
+
+		slots.putInt(offset, hash);
+
+		slots.putInt(offset + 4, recordLength);
+
+		slots.putLong(offset + 8, address);
+
+	}
+
+	private long getAddress(int slot) {
+
+		return slots.getLong(getSlotOffset(slot) + 8);
+
+	}
+
+	private void allocateSlots(int capacity) {
+
+		slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+		mask = capacity - 1;
+
+		threshold = capacity / 4 * 3;
+
+	}
+
+	private void ensureOpen() {
+
+		if (isClosed) {
+
+			throw new IllegalStateException("OffHeapPerformantHashMap is closed");
+
+		}
+
+	}
+
+	private static int getSlotOffset(int slot) {
+
+		return slot * SLOT_SIZE;
+
+	}
+
+	private static int getCapacity(int expectedSize) {
+
+		long capacity = Math.max(DEFAULT_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+
+		if (capacity >= MAXIMUM_CAPACITY) {
+
+			return MAXIMUM_CAPACITY;
+
+		}
+
+		return Integer.highestOneBit((int) capacity - 1) << 1;
+
+	}
+
+	private static void freeChunks(List<ByteBuffer> chunks) {
+
+		for (ByteBuffer chunk : chunks) {
+
+			free(chunk);
+
+		}
+
+	}
+
+	/*
+	 * Frees a direct buffer immediately where the platform allows it, otherwise
+	 * leaves it to the garbage collector.
+	 */
+	static void free(ByteBuffer buffer) {
+
+		if (INVOKE_CLEANER != null) {
+
+			try {
+
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+
+			} catch (ReflectiveOperationException e) {
+
+				// the buffer is released when it is garbage collected
+
+			}
+
+		}
+
+	}
+
+	/*
+	 * A mapping of the map, decoded when the iterator reaches it.
+	 */
+	final class OffHeapEntry extends SimpleEntry<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		OffHeapEntry(K key, V value) {
+
+			super(key, value);
+
+		}
+
+		@Override
+		public V setValue(V value) {
+
+			put(getKey(), value);
+
+			return super.setValue(value);
+
+		}
+
+	}
+
+	final class OffHeapEntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+
+			return new OffHeapIterator();
+
+		}
+
+		@Override
+		public int size() {
+
+			return OffHeapPerformantHashMap.this.size();
+
+		}
+
+		@Override
+		public boolean contains(Object o) {
+
+			if (!(o instanceof Map.Entry)) {
+
+				return false;
+
+			}
+
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+
+			if (entry.getKey() == null) {
+
+				return false;
+
+			}
+
+			V value = get(entry.getKey());
+
+			return value != null && value.equals(entry.getValue());
+
+		}
+
+	}
+
+	final class OffHeapIterator implements Iterator<Map.Entry<K, V>> {
+
+		private int nextSlot;
+
+		private int expectedModCount;
+
+		OffHeapIterator() {
+
+			ensureOpen();
+
+			expectedModCount = modCount;
+
+			nextSlot = advance(0);
+
+		}
+
+		@Override
+		public boolean hasNext() {
+
+			return nextSlot <= mask;
+
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+
+			if (modCount != expectedModCount) {
+
+				throw new ConcurrentModificationException();
+
+			}
+
+			if (nextSlot > mask) {
+
+				throw new NoSuchElementException();
+
+			}
+
+			long address = getAddress(nextSlot);
+
+			OffHeapEntry entry = new OffHeapEntry(decodeKey(address), decodeValue(address));
+
+			nextSlot = advance(nextSlot + 1);
+
+			return entry;
+
+		}
+
+		private int advance(int slot) {
+
+			while (slot <= mask && slots.getInt(getSlotOffset(slot)) == 0) {
+
+				slot++;
+
+			}
+
+			return slot;
+
+		}
+
+	}
+
+}
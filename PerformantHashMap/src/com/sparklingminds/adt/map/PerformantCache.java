@@ -0,0 +1,785 @@
+/*
+ * Copyright 2014 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * The eviction and admission of this file (evict and admit) are derived from
+ * com.github.benmanes.caffeine.cache.BoundedLocalCache of the Caffeine library
+ * (https://github.com/ben-manes/caffeine). They were modified by Gaive Gandhi
+ * to run on the regions of a single-threaded cache backed by a
+ * PerformantHashMap.
+ */
+package com.sparklingminds.adt.map;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PerformantCache is a bounded cache built on a PerformantHashMap. It holds at
+ * most a maximum number of entries, or entries of at most a maximum total
+ * weight, and evicts entries using the W-TinyLFU policy once the maximum is
+ * exceeded. <br>
+ * <br>
+ * W-TinyLFU splits the cache into two regions. A new entry is first placed in
+ * a small admission window, which holds 1 percent of the maximum and is evicted
+ * in least recently used order. The entries evicted from the window are
+ * candidates for the main region, which holds the remaining 99 percent and is
+ * a segmented LRU: a probation segment for the entries that have been accessed
+ * once in the main region and a protected segment, holding up to 80 percent of
+ * the main region, for the entries that have been accessed again. The least
+ * recently used entry of the probation segment is the victim of the main
+ * region. A candidate only replaces the victim if it has been accessed more
+ * often recently, as estimated by a FrequencySketch that records every read
+ * and write of the cache. This keeps a burst of keys that are accessed only
+ * once from flushing the frequently accessed keys out of the cache, while the
+ * window still gives new keys the chance to build up a frequency, so the cache
+ * comes close to the optimal hit rate on skewed (for example Zipfian) traffic
+ * as well as on traffic with a high recency bias. A candidate that is
+ * accessed often but not more often than the victim is admitted at random
+ * once in 128 times, so that keys crafted to collide in the sketch cannot
+ * keep their victims in the cache forever. <br>
+ * <br>
+ * The entries of every region are kept in doubly linked lists in access
+ * order, so every get and put reorders a constant number of list nodes and
+ * increments a constant number of sketch counters; the sketch periodically
+ * halves its counters, which takes constant amortized time. The cache keeps
+ * its entries in a PerformantHashMap whose chains are not reordered, since
+ * the access order is tracked by the lists. <br>
+ * <br>
+ * The cache counts its hits, misses and evictions. Neither null keys nor null
+ * values are permitted. Note that this implementation is not synchronized;
+ * every access, including get, modifies the cache and has to be synchronized
+ * externally if the cache is shared by several threads. <br>
+ * <br>
+ * The eviction from the main region and the admission of candidates, including
+ * the random admission that guards against hash flooding, are adapted from the
+ * BoundedLocalCache of the Caffeine library and are distributed under the
+ * Apache License, Version 2.0; see the NOTICE file.
+ *
+ * @author Ben Manes
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see FrequencySketch
+ */
+public class PerformantCache<K, V> {
+
+	private static final int WINDOW = 0;
+
+	private static final int PROBATION = 1;
+
+	private static final int PROTECTED = 2;
+
+	private static final double MAIN_PERCENTAGE = 0.99;
+
+	private static final double PROTECTED_PERCENTAGE = 0.80;
+
+	private static final int ADMIT_HASH_FLOODING_THRESHOLD = 6;
+
+	private static final Weigher<Object, Object> SINGLETON_WEIGHER = (key, value) -> 1;
+
+	private final PerformantHashMap<K, Node<K, V>> data;
+
+	private final FrequencySketch sketch;
+
+	private final Weigher<? super K, ? super V> weigher;
+
+	private final long maximum;
+
+	private final long windowMaximum;
+
+	private final long protectedMaximum;
+
+	private final AccessQueue<K, V> window;
+
+	private final AccessQueue<K, V> probation;
+
+	private final AccessQueue<K, V> protectedQueue;
+
+	private long weightedSize;
+
+	private long windowWeight;
+
+	private long protectedWeight;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	private long evictionWeight;
+
+	/**
+	 * Computes the weight of a cache entry, which counts towards the maximum
+	 * weight of a PerformantCache.
+	 *
+	 * @param <K> the type of the keys
+	 * @param <V> the type of the values
+	 */
+	@FunctionalInterface
+	public interface Weigher<K, V> {
+
+		/**
+		 * Returns the weight of the entry with the specified key and value.
+		 *
+		 * @param key   the key of the entry
+		 * @param value the value of the entry
+		 * @return the non-negative weight of the entry
+		 */
+		int weigh(K key, V value);
+
+	}
+
+	/**
+	 * Constructs an empty PerformantCache holding at most the specified number of
+	 * entries.
+	 *
+	 * @param maximumSize the maximum number of entries
+	 * @throws IllegalArgumentException if the maximum size is not positive
+	 */
+	public PerformantCache(long maximumSize) {
+
+		this(maximumSize, SINGLETON_WEIGHER, false);
+
+	}
+
+	/**
+	 * Constructs an empty PerformantCache holding entries of at most the specified
+	 * total weight, where the weight of every entry is computed by the specified
+	 * weigher when the entry is put.
+	 *
+	 * @param maximumWeight the maximum total weight of the entries
+	 * @param weigher       the weigher of the entries
+	 * @throws IllegalArgumentException if the maximum weight is not positive
+	 * @throws NullPointerException     if the weigher is null
+	 */
+	public PerformantCache(long maximumWeight, Weigher<? super K, ? super V> weigher) {
+
+		this(maximumWeight, weigher, true);
+
+	}
+
+	private PerformantCache(long maximum, Weigher<? super K, ? super V> weigher, boolean isWeighted) {
+
+		if (maximum <= 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		if (weigher == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		this.maximum = maximum;
+
+		this.weigher = weigher;
+
+		this.windowMaximum = maximum - (long) (maximum * MAIN_PERCENTAGE);
+
+		this.protectedMaximum = (long) ((maximum - windowMaximum) * PROTECTED_PERCENTAGE);
+
+		// The number of entries of a weighted cache is not known in advance, and a
+		// large cache may never fill up, so the map and the sketch are sized for
+		// a bounded number of entries and grow with the cache.
+		long expectedSize = isWeighted ? 16 : Math.min(maximum, 1 << 20);
+
+		data = new PerformantHashMap<K, Node<K, V>>((int) (expectedSize * 4 / 3 + 1), 0.75f, false);
+
+		data.setChainReorderPolicy(ChainReorderPolicy.NONE);
+
+		sketch = new FrequencySketch(expectedSize);
+
+		window = new AccessQueue<K, V>();
+
+		probation = new AccessQueue<K, V>();
+
+		protectedQueue = new AccessQueue<K, V>();
+
+	}
+
+	/**
+	 * Returns the value cached for the specified key, or null if the cache
+	 * contains no entry for the key. The access is recorded as a hit or a miss.
+	 *
+	 * @param key the key whose cached value is to be returned
+	 * @return the cached value, or null
+	 * @throws NullPointerException if the key is null
+	 */
+	public V get(Object key) {
+
+		if (key == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		sketch.increment(key);
+
+		Node<K, V> node = data.get(key);
+
+		if (node == null) {
+
+			missCount++;
+
+			return null;
+
+		}
+
+		hitCount++;
+
+		onAccess(node);
+
+		return node.value;
+
+	}
+
+	/**
+	 * Caches the specified value for the specified key, replacing the value cached
+	 * for the key before, if any. If the cache then exceeds its maximum, entries
+	 * are evicted, possibly including the new entry.
+	 *
+	 * @param key   the key with which the value is to be cached
+	 * @param value the value to be cached
+	 * @return the value previously cached for the key, or null
+	 * @throws NullPointerException     if the key or value is null
+	 * @throws IllegalArgumentException if the weigher returns a negative weight
+	 */
+	public V put(K key, V value) {
+
+		if (key == null || value == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		int weight = weigher.weigh(key, value);
+
+		if (weight < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		sketch.increment(key);
+
+		Node<K, V> node = data.get(key);
+
+		V oldValue = null;
+
+		if (node != null) {
+
+			oldValue = node.value;
+
+			int delta = weight - node.weight;
+
+			node.value = value;
+
+			node.weight = weight;
+
+			weightedSize += delta;
+
+			if (node.queue == WINDOW) {
+
+				windowWeight += delta;
+
+			} else if (node.queue == PROTECTED) {
+
+				protectedWeight += delta;
+
+			}
+
+			onAccess(node);
+
+		} else {
+
+			node = new Node<K, V>(key, value, weight);
+
+			data.put(key, node);
+
+			sketch.ensureCapacity(data.size());
+
+			window.add(node);
+
+			windowWeight += weight;
+
+			weightedSize += weight;
+
+		}
+
+		evict();
+
+		return oldValue;
+
+	}
+
+	/**
+	 * Removes the entry for the specified key from the cache, if present. A
+	 * removal is not counted as an eviction.
+	 *
+	 * @param key the key whose entry is to be removed
+	 * @return the value cached for the key, or null
+	 * @throws NullPointerException if the key is null
+	 */
+	public V remove(Object key) {
+
+		if (key == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		Node<K, V> node = data.remove(key);
+
+		if (node == null) {
+
+			return null;
+
+		}
+
+		unlink(node);
+
+		return node.value;
+
+	}
+
+	/**
+	 * Returns true if the cache contains an entry for the specified key. The check
+	 * is not recorded as an access.
+	 *
+	 * @param key the key whose presence in the cache is to be tested
+	 * @return true if the cache contains an entry for the key
+	 * @throws NullPointerException if the key is null
+	 */
+	public boolean containsKey(Object key) {
+
+		if (key == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		return data.containsKey(key);
+
+	}
+
+	/**
+	 * Returns the number of entries in the cache.
+	 *
+	 * @return the number of entries in the cache
+	 */
+	public int size() {
+
+		return data.size();
+
+	}
+
+	/**
+	 * Returns the total weight of the entries in the cache, which is their number
+	 * unless the cache was constructed with a weigher.
+	 *
+	 * @return the total weight of the entries in the cache
+	 */
+	public long getWeightedSize() {
+
+		return weightedSize;
+
+	}
+
+	/**
+	 * Returns the maximum number, or maximum total weight, of the entries in the
+	 * cache.
+	 *
+	 * @return the maximum of the cache
+	 */
+	public long getMaximum() {
+
+		return maximum;
+
+	}
+
+	/**
+	 * Removes all of the entries from the cache and discards the recorded access
+	 * frequencies. The hit, miss and eviction counts are kept.
+	 */
+	public void clear() {
+
+		data.clear();
+
+		window.clear();
+
+		probation.clear();
+
+		protectedQueue.clear();
+
+		sketch.clear();
+
+		weightedSize = 0;
+
+		windowWeight = 0;
+
+		protectedWeight = 0;
+
+	}
+
+	/**
+	 * Returns the number of calls to get that found an entry.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHitCount() {
+
+		return hitCount;
+
+	}
+
+	/**
+	 * Returns the number of calls to get that found no entry.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMissCount() {
+
+		return missCount;
+
+	}
+
+	/**
+	 * Returns the ratio of hits to calls to get, or 1 if get has not been called.
+	 *
+	 * @return the hit rate of the cache
+	 */
+	public double getHitRate() {
+
+		long requestCount = hitCount + missCount;
+
+		return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+
+	}
+
+	/**
+	 * Returns the number of entries that have been evicted because the cache
+	 * exceeded its maximum.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+
+		return evictionCount;
+
+	}
+
+	/**
+	 * Returns the total weight of the entries that have been evicted because the
+	 * cache exceeded its maximum.
+	 *
+	 * @return the total weight of the evictions
+	 */
+	public long getEvictionWeight() {
+
+		return evictionWeight;
+
+	}
+
+	/**
+	 * Resets the hit, miss and eviction counts to zero.
+	 */
+	public void resetStats() {
+
+		hitCount = 0;
+
+		missCount = 0;
+
+		evictionCount = 0;
+
+		evictionWeight = 0;
+
+	}
+
+	private void onAccess(Node<K, V> node) {
+
+		if (node.queue == WINDOW) {
+
+			window.moveToBack(node);
+
+		} else if (node.queue == PROBATION) {
+
+			probation.remove(node);
+
+			protectedQueue.add(node);
+
+			node.queue = PROTECTED;
+
+			protectedWeight += node.weight;
+
+			// The least recently used protected entries make room for the promoted
+			// entry and are given another chance in the probation segment.
+			while (protectedWeight > protectedMaximum) {
+
+				Node<K, V> demoted = protectedQueue.first;
+
+				protectedQueue.remove(demoted);
+
+				protectedWeight -= demoted.weight;
+
+				probation.add(demoted);
+
+				demoted.queue = PROBATION;
+
+			}
+
+		} else {
+
+			protectedQueue.moveToBack(node);
+
+		}
+
+	}
+
+	private void evict() {
+
+		// The entries overflowing the window become candidates at the back of the
+		// probation segment.
+		Node<K, V> candidate = null;
+
+		while (windowWeight > windowMaximum) {
+
+			Node<K, V> node = window.first;
+
+			window.remove(node);
+
+			windowWeight -= node.weight;
+
+			probation.add(node);
+
+			node.queue = PROBATION;
+
+			if (candidate == null) {
+
+				candidate = node;
+
+			}
+
+		}
+
+		while (weightedSize > maximum) {
+
+			Node<K, V> victim = probation.first;
+
+			if (victim == candidate) {
+
+				// Only candidates are left in the probation segment, so the first
+				// candidate competes with the least recently used protected entry.
+				victim = protectedQueue.first;
+
+			}
+
+			if (victim == null) {
+
+				victim = candidate != null ? candidate : window.first;
+
+			}
+
+			if (candidate == null) {
+
+				evictEntry(victim);
+
+			} else if (victim == candidate || candidate.weight > maximum
+					|| !admit(candidate.key, victim.key)) {
+
+				Node<K, V> rejected = candidate;
+
+				candidate = candidate.next;
+
+				evictEntry(rejected);
+
+			} else {
+
+				candidate = candidate.next;
+
+				evictEntry(victim);
+
+			}
+
+		}
+
+	}
+
+	private boolean admit(K candidateKey, K victimKey) {
+
+		int candidateFrequency = sketch.frequency(candidateKey);
+
+		int victimFrequency = sketch.frequency(victimKey);
+
+		if (candidateFrequency > victimFrequency) {
+
+			return true;
+
+		}
+
+		if (candidateFrequency < ADMIT_HASH_FLOODING_THRESHOLD) {
+
+			return false;
+
+		}
+
+		return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+
+	}
+
+	private void evictEntry(Node<K, V> node) {
+
+		data.remove(node.key);
+
+		unlink(node);
+
+		evictionCount++;
+
+		evictionWeight += node.weight;
+
+	}
+
+	private void unlink(Node<K, V> node) {
+
+		if (node.queue == WINDOW) {
+
+			window.remove(node);
+
+			windowWeight -= node.weight;
+
+		} else if (node.queue == PROBATION) {
+
+			probation.remove(node);
+
+		} else {
+
+			protectedQueue.remove(node);
+
+			protectedWeight -= node.weight;
+
+		}
+
+		weightedSize -= node.weight;
+
+	}
+
+	private static final class Node<K, V> {
+
+		private final K key;
+
+		private V value;
+
+		private int weight;
+
+		private int queue;
+
+		private Node<K, V> prev;
+
+		private Node<K, V> next;
+
+		private Node(K key, V value, int weight) {
+
+			this.key = key;
+
+			this.value = value;
+
+			this.weight = weight;
+
+			this.queue = WINDOW;
+
+		}
+
+	}
+
+	/*
+	 * A doubly linked list of cache entries from the least to the most recently
+	 * used.
+	 */
+	private static final class AccessQueue<K, V> {
+
+		private Node<K, V> first;
+
+		private Node<K, V> last;
+
+		private void add(Node<K, V> node) {
+
+			node.prev = last;
+
+			node.next = null;
+
+			if (last == null) {
+
+				first = node;
+
+			} else {
+
+				last.next = node;
+
+			}
+
+			last = node;
+
+		}
+
+		private void remove(Node<K, V> node) {
+
+			if (node.prev == null) {
+
+				first = node.next;
+
+			} else {
+
+				node.prev.next = node.next;
+
+			}
+
+			if (node.next == null) {
+
+				last = node.prev;
+
+			} else {
+
+				node.next.prev = node.prev;
+
+			}
+
+			node.prev = null;
+
+			node.next = null;
+
+		}
+
+		private void moveToBack(Node<K, V> node) {
+
+			if (node != last) {
+
+				remove(node);
+
+				add(node);
+
+			}
+
+		}
+
+		private void clear() {
+
+			first = null;
+
+			last = null;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.sparklingminds.adt.map;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * PerformantCodec converts the keys or values of an OffHeapPerformantHashMap
+ * to and from the bytes that are stored outside of the Java heap. <br>
+ * <br>
+ * The map treats two keys as equal if and only if their encodings are equal,
+ * so a key codec must encode equal keys to identical bytes. Codecs for the
+ * common key and value types are provided as constants of this interface.
+ *
+ * @param <T> the type of the encoded objects
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see OffHeapPerformantHashMap
+ */
+public interface PerformantCodec<T> {
+
+	/**
+	 * Encodes a String as its UTF-8 bytes.
+	 */
+	PerformantCodec<String> STRING = new PerformantCodec<String>() {
+
+		@Override
+		public void encode(String value, ByteBuffer buffer) {
+
+			buffer.put(value.getBytes(StandardCharsets.UTF_8));
+
+		}
+
+		@Override
+		public String decode(ByteBuffer buffer) {
+
+			byte[] bytes = new byte[buffer.remaining()];
+
+			buffer.get(bytes);
+
+			return new String(bytes, StandardCharsets.UTF_8);
+
+		}
+
+	};
+
+	/**
+	 * Encodes a Long as 8 bytes.
+	 */
+	PerformantCodec<Long> LONG = new PerformantCodec<Long>() {
+
+		@Override
+		public void encode(Long value, ByteBuffer buffer) {
+
+			buffer.putLong(value);
+
+		}
+
+		@Override
+		public Long decode(ByteBuffer buffer) {
+
+			return buffer.getLong();
+
+		}
+
+	};
+
+	/**
+	 * Encodes an Integer as 4 bytes.
+	 */
+	PerformantCodec<Integer> INTEGER = new PerformantCodec<Integer>() {
+
+		@Override
+		public void encode(Integer value, ByteBuffer buffer) {
+
+			buffer.putInt(value);
+
+		}
+
+		@Override
+		public Integer decode(ByteBuffer buffer) {
+
+			return buffer.getInt();
+
+		}
+
+	};
+
+	/**
+	 * Stores a byte array as it is.
+	 */
+	PerformantCodec<byte[]> BYTE_ARRAY = new PerformantCodec<byte[]>() {
+
+		@Override
+		public void encode(byte[] value, ByteBuffer buffer) {
+
+			buffer.put(value);
+
+		}
+
+		@Override
+		public byte[] decode(ByteBuffer buffer) {
+
+			byte[] bytes = new byte[buffer.remaining()];
+
+			buffer.get(bytes);
+
+			return bytes;
+
+		}
+
+	};
+
+	/**
+	 * Writes the encoding of the specified object into the specified buffer,
+	 * starting at its position and advancing it. If the remaining space of the
+	 * buffer is too small, the method must throw the BufferOverflowException of
+	 * the buffer; the map then retries with a larger buffer.
+	 *
+	 * @param value  the object to encode, never null
+	 * @param buffer the buffer to write the encoding into
+	 * @throws java.nio.BufferOverflowException if the buffer is too small
+	 */
+	void encode(T value, ByteBuffer buffer);
+
+	/**
+	 * Reads an object from the remaining bytes of the specified buffer, which are
+	 * exactly the bytes written by encode.
+	 *
+	 * @param buffer the buffer holding the encoding between its position and its
+	 *               limit
+	 * @return the decoded object
+	 */
+	T decode(ByteBuffer buffer);
+
+}
@@ -3,13 +3,36 @@
  */
 package com.sparklingminds.adt.map;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import jdk.jfr.FlightRecorder;
 
 /**
  * 
@@ -29,8 +52,8 @@ import java.util.Set;
  * The PerformantHashMap implementation provides multiple times better
  * performance than HashMap for the Keys which are <b> most frequently accessed
  * </b> using the get(Key k) operation. It implements a <i> self-organizing
- * heuristic (using the transpose method) </i> when accessing a map entry for a
- * Key using the get(Key k) method. This technique involves swapping an accessed
+ * heuristic (using the transpose method by default) </i> when accessing a map
+ * entry for a Key using the get(Key k) method. This technique involves swapping an accessed
  * map entry with its predecessor. Therefore, if any map entry is accessed, it
  * is swapped with the map entry in front unless it is the head node, thereby
  * increasing its priority. This algorithm is space efficient and is more likely
@@ -38,7 +61,10 @@ import java.util.Set;
  * transpose method is more cautious. i.e. it will take many accesses to move
  * the element to the head of the list. This method also does not allow for
  * rapid response to changes in the query distributions on the map entries in
- * the list. <br>
+ * the list. The heuristic can be replaced by any other ChainReorderPolicy using
+ * the setChainReorderPolicy method: moving an accessed map entry to the front
+ * of its chain, keeping the chains sorted by access counts, or not reordering
+ * the chains at all, which makes get a pure read of the map. <br>
  * <br>
  * In addition, the PerformantHashMap also has an option to enable
  * implementation of a <b> Bloom Filter </b> to check for the availability of a
@@ -52,17 +78,28 @@ import java.util.Set;
  * mightContain(Key k) method may occasionally return true even if the map entry
  * for the Key is not in the map. Please note, that the bloom filter will never
  * return false negatives i.e. it will never return false even if a map entry
- * for a Key is available in the map. The PerformantHashMap with the bloom
- * filter enabled guarantees false positive errors to be always <b> less than 1
- * percent </b>. It is advised to enable bloom filter for a PerformantHashMap
- * only if there is a requirement and the map size is not extremely large as the
- * bloom filter data structure occupies additional memory space. <br>
+ * for a Key is available in the map. The bloom filter is sized from the number
+ * of expected insertions and the desired false positive probability, both of
+ * which can be passed to the constructor; by default it is sized for the
+ * capacity of the map and a false positive probability of <b> 1 percent </b>.
+ * Whenever a rehash grows the map beyond the number of insertions the bloom
+ * filter was sized for, the bloom filter is rebuilt for the new capacity, so
+ * the false positive probability stays at the configured value. The bloom
+ * filter is a counting bloom filter: every key is recorded in 4-bit counters
+ * which are decremented again when the key is removed from the map, so the
+ * bloom filter stays effective under heavy insert and remove churn instead of
+ * slowly filling up with the keys of removed entries. It occupies about 38
+ * bits per expected insertion at 1 percent and 58 bits at 0.1 percent, in
+ * addition to the memory of the map itself. <br>
  * <br>
  * Iteration over collection views requires time proportional to the "capacity"
  * of the PerformantHashMap instance (the number of buckets) plus its size (the
  * number of key-value mappings). Thus, it's very important not to set the
  * initial capacity too high (or the load factor too low) if iteration
- * performance is important. <br>
+ * performance is important. The spliterators of the collection views split
+ * the table into ranges of buckets, so a parallel stream over a view is
+ * processed by all cores, and the spliterator that has not been split reports
+ * the exact size of the map. <br>
  * <br>
  * An instance of PerformantHashMap has three parameters that affect its
  * performance: initial capacity, load factor and bloom filter. The capacity is
@@ -72,7 +109,12 @@ import java.util.Set;
  * automatically increased. When the number of entries in the hash table exceeds
  * the product of the load factor and the current capacity, the hash table is
  * rehashed (that is, internal data structures are rebuilt) so that the hash
- * table has approximately twice the number of buckets. The bloom filter flag
+ * table has approximately twice the number of buckets. Conversely, when
+ * removals leave the hash table less than a quarter as full as the load factor
+ * allows, it is rehashed into a table half as full, though never below its
+ * initial capacity, so the capacity follows the number of entries without
+ * resizing back and forth. The trimToSize and ensureCapacity methods shrink
+ * and grow the capacity explicitly. The bloom filter flag
  * decides whether the bloom filter has to be enabled or not for a particular
  * instance of the PerformantHashMap. <br>
  * <br>
@@ -89,10 +131,16 @@ import java.util.Set;
  * If many mappings are to be stored in a PerformantHashMap instance, creating
  * it with a sufficiently large capacity will allow the mappings to be stored
  * more efficiently than letting it perform automatic rehashing as needed to
- * grow the table. Note that using many keys with the same hashCode() is a sure
- * way to slow down performance of any hash table. To ameliorate impact, when
- * keys are Comparable, this class may use comparison order among keys to help
- * break ties. <br>
+ * grow the table. A very large map is best created by one of the bulkLoad
+ * methods, which size the table once for all of the mappings and fill disjoint
+ * ranges of buckets in parallel. Note that using many keys with the same hashCode() is a sure
+ * way to slow down performance of any hash table. To ameliorate impact, a
+ * bucket whose chain grows beyond eight map entries is indexed by a balanced
+ * (AVL) tree bin over its chain, ordered by the hash codes of the keys and,
+ * when the keys are Comparable, by their natural order, so that a lookup in it
+ * takes logarithmic instead of linear time. The map entries stay in the chain
+ * and the bin is dropped when removals shrink it to a few entries. The
+ * self-organizing heuristic only applies to the buckets which are chains. <br>
  * <br>
  * Note that this implementation is not synchronized. If multiple threads access
  * a performant hash map concurrently, and at least one of the threads modifies
@@ -107,6 +155,57 @@ import java.util.Set;
  * <br>
  * <i> Map m = Collections.synchronizedMap(new HashMap(...)); </i> <br>
  * <br>
+ * Because of the self-organizing heuristic even the get operation modifies
+ * the map, so every access, not only the structural modifications, has to be
+ * synchronized. Where the map is shared by many threads, the
+ * ConcurrentPerformantHashMap, which offers lock-free retrievals and per-bucket
+ * locking for updates, should be used instead. <br>
+ * <br>
+ * The mappings of a PerformantHashMap can be made to expire, either a fixed
+ * time after they were put (setExpireAfterWrite), a fixed time after they were
+ * last put or read (setExpireAfterAccess), or after a time to live given for
+ * the individual mapping (put(Key k, Value v, long timeToLive, TimeUnit
+ * unit)). An expired mapping is never returned by get, containsKey or remove.
+ * The expiration times are kept in a hierarchical timing wheel, which every
+ * get, put and remove advances to the current time: the mappings whose
+ * expiration has passed are then removed in batches, in constant amortized
+ * time per mapping and without scanning the map. Because the timing wheel
+ * expires mappings with a granularity of about a second, the size of the map
+ * and its iterators may still include mappings that expired less than a second
+ * ago. The expiration times are not serialized; a deserialized map gives its
+ * mappings the full lifetime of its expiration setting. <br>
+ * <br>
+ * The PerformantHashMap can record statistics of its operations, once they are
+ * enabled by setStatisticsEnabled: probe length histograms of get, put and
+ * remove, the number and duration of rehashes, and the lookups that the bloom
+ * filter answered or answered wrongly. The stats method returns a snapshot of
+ * them together with the occupancy of the buckets, and registerMBean publishes
+ * them through JMX. While the statistics are disabled, the operations only pay
+ * a null check. Independently of the statistics, the map commits flight
+ * recorder events for its rehashes, its bloom filter rebuilds and the lookups
+ * that probe more map entries than setLongProbeThreshold allows, whenever they
+ * are enabled in a running recording. <br>
+ * <br>
+ * A map whose keys come from untrusted input can be protected from hash
+ * flooding by setSeededHash, which hashes String keys by their characters with
+ * SipHash under a random seed of the map and mixes the seed into the hash codes
+ * of other keys, so that colliding keys cannot be crafted in advance. <br>
+ * <br>
+ * A map that is built once and then only read can be turned into a
+ * FrozenPerformantHashMap by freeze, an immutable copy whose lookups go
+ * through a minimal perfect hash function into dense arrays of keys and
+ * values. <br>
+ * <br>
+ * A PerformantHashMap is serialized as a flat stream: its configuration, the
+ * number of mappings and then the key and value of every mapping, followed by
+ * the bit-packed words of the bloom filter if it is enabled. Deserialization
+ * allocates the table for the number of mappings up front and rebuilds it in a
+ * single pass, without rehashing, without searching the buckets for
+ * duplicate keys and without recomputing the bloom filter, and it keeps the
+ * order that the self-organizing heuristic has given to every bucket. The seed
+ * of a map with seeded hashing is not serialized: the deserialized map draws a
+ * new one and builds its bloom filter from the keys instead of reading it. <br>
+ * <br>
  * The iterators returned by all of this class's "collection view methods" are
  * fail-fast: if the map is structurally modified at any time after the iterator
  * is created, in any way except through the iterator's own remove method, the
@@ -131,30 +230,90 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 
 	private static final long serialVersionUID = 362498820763181265L;
 
-	private Object[] performantMap;
+	private static final int REHASH_STEP_BUCKETS = 8;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private static final double DEFAULT_BLOOM_FILTER_FPP = 0.01;
 
-	private int mapEntrySize;
+	private static final int BULK_LOAD_CHUNK_SIZE = 1 << 12;
+
+	private static final Object[] EMPTY_TABLE = {};
+
+	private transient Object[] performantMap;
+
+	private transient int mapEntrySize;
 
 	private int mapSize;
 
-	private int listSize;
+	private int minimumMapSize;
+
+	private transient int listSize;
 
 	private float loadFactor;
 
-	private Set<Map.Entry<K, V>> entrySet;
+	private transient Set<Map.Entry<K, V>> entrySet;
 
-	private Set<K> keySet;
+	private transient Set<K> keySet;
 
-	private Set<V> valueSet;
+	private transient Set<V> valueSet;
 
 	private boolean isBloomFilter;
 
-	private BloomFilter bloomFilter;
+	private transient CountingBloomFilter bloomFilter;
+
+	private int bloomFilterExpectedInsertions;
+
+	private double bloomFilterFpp;
+
+	private boolean isIncrementalRehash;
+
+	private transient Object[] oldPerformantMap;
+
+	private transient int oldMapSize;
+
+	private transient int rehashIndex;
+
+	private transient int rehashPauseCount;
+
+	private transient int rehashPauseMapEntrySize;
+
+	private transient CountingBloomFilter oldBloomFilter;
+
+	private boolean isPowerOfTwoCapacity;
+
+	private boolean isSeededHash;
+
+	private transient long hashSeed0;
+
+	private transient long hashSeed1;
+
+	private ChainReorderPolicy chainReorderPolicy;
+
+	private long expireAfterWriteNanos;
+
+	private long expireAfterAccessNanos;
+
+	private transient PerformantTimerWheel timerWheel;
+
+	private transient PerformantHashMapStatsCounter statistics;
+
+	private transient ObjectName objectName;
+
+	private transient volatile PerformantHashMapStats publishedStats;
+
+	private int longProbeThreshold;
+
+	private transient RehashEvent rehashEvent;
+
+	private transient BloomFilterRebuildEvent bloomFilterRebuildEvent;
 
 	{
 
 		mapSize = 16;
 
+		minimumMapSize = 16;
+
 		loadFactor = 0.75f;
 
 		listSize = 0;
@@ -163,6 +322,16 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 
 		bloomFilter = null;
 
+		isIncrementalRehash = false;
+
+		oldPerformantMap = null;
+
+		isPowerOfTwoCapacity = false;
+
+		chainReorderPolicy = ChainReorderPolicy.TRANSPOSE;
+
+		longProbeThreshold = PerformantTreeBin.TREEIFY_THRESHOLD;
+
 	}
 
 	/**
@@ -184,58 +353,171 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 	 */
 	public PerformantHashMap(int initialCapacity, boolean isBloomFilter) {
 
-		if (initialCapacity < 0) {
-
-			throw new IllegalArgumentException();
-
-		}
+		this(initialCapacity, 0.75f, isBloomFilter);
 
-		if (isBloomFilter) {
+	}
 
-			bloomFilter = new BloomFilter((mapSize * 10), 7);
+	/**
+	 * Constructs an empty PerformantHashMap with the specified initial capacity,
+	 * load factor and a flag for bloom filter.
+	 * 
+	 * @param initialCapacity the initial capacity
+	 * @param loadFactor      the load factor
+	 * @param isBloomFilter   the flag for bloom filter
+	 * @throws IllegalArgumentException if the initial capacity is negative or the
+	 *                                  load factor is non-positive
+	 */
+	public PerformantHashMap(int initialCapacity, float loadFactor, boolean isBloomFilter) {
 
-		}
+		this(initialCapacity, loadFactor, isBloomFilter, false, false);
 
-		this.mapSize = initialCapacity;
+	}
 
-		this.isBloomFilter = isBloomFilter;
+	/**
+	 * Constructs an empty PerformantHashMap with the specified initial capacity,
+	 * load factor, a flag for bloom filter and a flag for incremental rehashing.
+	 * <br>
+	 * <br>
+	 * When incremental rehashing is enabled, crossing the load factor does not
+	 * rebuild the whole table within a single put. Instead a table of twice the
+	 * capacity is allocated next to the current one and every subsequent get, put
+	 * or remove migrates a small, bounded number of buckets from the old table to
+	 * the new one. Until the migration finishes, lookups consult both tables and
+	 * iterators walk the remaining buckets of the old table before the new one, so
+	 * the worst case latency of put stays flat as the map grows, at the price of
+	 * holding both tables in memory for the duration of the migration. While an
+	 * iterator walks the tables the migration is paused; an iterator that is not
+	 * walked to its end keeps it paused until a mapping is added or removed.
+	 * 
+	 * @param initialCapacity     the initial capacity
+	 * @param loadFactor          the load factor
+	 * @param isBloomFilter       the flag for bloom filter
+	 * @param isIncrementalRehash the flag for incremental rehashing
+	 * @throws IllegalArgumentException if the initial capacity is negative or the
+	 *                                  load factor is non-positive
+	 */
+	public PerformantHashMap(int initialCapacity, float loadFactor, boolean isBloomFilter,
+			boolean isIncrementalRehash) {
 
-		performantMap = new Object[mapSize];
+		this(initialCapacity, loadFactor, isBloomFilter, isIncrementalRehash, false);
 
 	}
 
 	/**
 	 * Constructs an empty PerformantHashMap with the specified initial capacity,
-	 * load factor and a flag for bloom filter.
+	 * load factor, a flag for bloom filter, a flag for incremental rehashing and a
+	 * flag for power of two capacity. <br>
+	 * <br>
+	 * By default the capacity of a PerformantHashMap is grown to the next prime
+	 * number after twice the current capacity and a bucket is selected as the
+	 * remainder of the key's hash code divided by the capacity. With power of two
+	 * capacity enabled, the initial capacity is rounded up to a power of two, the
+	 * table simply doubles on every rehash and a bucket is selected by masking the
+	 * low bits of the hash code after it has been passed through a bit mixing
+	 * (murmur style) finalizer. This replaces the integer division on every
+	 * operation and the prime search on every rehash with a few shifts and
+	 * multiplications, while the mixing step keeps hash codes that only differ in
+	 * their high bits from piling up in the same bucket.
 	 * 
-	 * @param initialCapacity the initial capacity
-	 * @param loadFactor      the load factor
-	 * @param isBloomFilter   the flag for bloom filter
+	 * @param initialCapacity      the initial capacity
+	 * @param loadFactor           the load factor
+	 * @param isBloomFilter        the flag for bloom filter
+	 * @param isIncrementalRehash  the flag for incremental rehashing
+	 * @param isPowerOfTwoCapacity the flag for power of two capacity
 	 * @throws IllegalArgumentException if the initial capacity is negative or the
 	 *                                  load factor is non-positive
 	 */
-	public PerformantHashMap(int initialCapacity, float loadFactor, boolean isBloomFilter) {
+	public PerformantHashMap(int initialCapacity, float loadFactor, boolean isBloomFilter,
+			boolean isIncrementalRehash, boolean isPowerOfTwoCapacity) {
 
-		if (initialCapacity < 0 || loadFactor <= 0) {
+		this(initialCapacity, loadFactor, isBloomFilter, 1, DEFAULT_BLOOM_FILTER_FPP, isIncrementalRehash,
+				isPowerOfTwoCapacity);
 
-			throw new IllegalArgumentException();
+	}
 
-		}
+	/**
+	 * Constructs an empty PerformantHashMap with the specified initial capacity,
+	 * load factor and an enabled bloom filter sized for the specified number of
+	 * insertions and false positive probability. The bloom filter is never sized
+	 * for fewer insertions than the map can hold before its first rehash.
+	 * 
+	 * @param initialCapacity    the initial capacity
+	 * @param loadFactor         the load factor
+	 * @param expectedInsertions the number of keys the bloom filter is sized for
+	 * @param fpp                the desired false positive probability of the
+	 *                           bloom filter
+	 * @throws IllegalArgumentException if the initial capacity is negative, the
+	 *                                  load factor is non-positive, the expected
+	 *                                  insertions are non-positive or the false
+	 *                                  positive probability is not between 0 and
+	 *                                  1
+	 */
+	public PerformantHashMap(int initialCapacity, float loadFactor, int expectedInsertions, double fpp) {
 
-		if (isBloomFilter) {
+		this(initialCapacity, loadFactor, expectedInsertions, fpp, false, false);
+
+	}
+
+	/**
+	 * Constructs an empty PerformantHashMap with the specified initial capacity,
+	 * load factor, an enabled bloom filter sized for the specified number of
+	 * insertions and false positive probability, a flag for incremental rehashing
+	 * and a flag for power of two capacity.
+	 * 
+	 * @param initialCapacity      the initial capacity
+	 * @param loadFactor           the load factor
+	 * @param expectedInsertions   the number of keys the bloom filter is sized
+	 *                             for
+	 * @param fpp                  the desired false positive probability of the
+	 *                             bloom filter
+	 * @param isIncrementalRehash  the flag for incremental rehashing
+	 * @param isPowerOfTwoCapacity the flag for power of two capacity
+	 * @throws IllegalArgumentException if the initial capacity is negative, the
+	 *                                  load factor is non-positive, the expected
+	 *                                  insertions are non-positive or the false
+	 *                                  positive probability is not between 0 and
+	 *                                  1
+	 */
+	public PerformantHashMap(int initialCapacity, float loadFactor, int expectedInsertions, double fpp,
+			boolean isIncrementalRehash, boolean isPowerOfTwoCapacity) {
+
+		this(initialCapacity, loadFactor, true, expectedInsertions, fpp, isIncrementalRehash, isPowerOfTwoCapacity);
+
+	}
+
+	private PerformantHashMap(int initialCapacity, float loadFactor, boolean isBloomFilter, int expectedInsertions,
+			double fpp, boolean isIncrementalRehash, boolean isPowerOfTwoCapacity) {
+
+		if (initialCapacity < 0 || loadFactor <= 0 || expectedInsertions <= 0 || !(fpp > 0 && fpp < 1)) {
 
-			bloomFilter = new BloomFilter((mapSize * 10), 7);
+			throw new IllegalArgumentException();
 
 		}
 
-		this.mapSize = initialCapacity;
+		this.mapSize = isPowerOfTwoCapacity ? getPowerOfTwoCapacity(initialCapacity) : initialCapacity;
+
+		this.minimumMapSize = mapSize;
 
 		this.loadFactor = loadFactor;
 
 		this.isBloomFilter = isBloomFilter;
 
+		this.isIncrementalRehash = isIncrementalRehash;
+
+		this.isPowerOfTwoCapacity = isPowerOfTwoCapacity;
+
 		performantMap = new Object[mapSize];
 
+		if (isBloomFilter) {
+
+			bloomFilterExpectedInsertions = Math.max(expectedInsertions, getThreshold(mapSize));
+
+			bloomFilterFpp = fpp;
+
+			bloomFilter = new CountingBloomFilter(bloomFilterExpectedInsertions, bloomFilterFpp);
+
+		}
+
 	}
 
 	/**
@@ -249,28 +531,168 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 	 */
 	public PerformantHashMap(Map<? extends K, ? extends V> m, boolean isBloomFilter) {
 
-		if (m == null) {
+		this(getInitialCapacity(m), 0.75f, isBloomFilter);
+
+		for (Entry<? extends K, ? extends V> me : m.entrySet()) {
+
+			put(me.getKey(), me.getValue());
+
+		}
+
+	}
+
+	/**
+	 * Returns a new PerformantHashMap holding the mappings of the specified
+	 * stream, loaded in parallel. The map has the default load factor (0.75) and
+	 * a capacity sufficient to hold the mappings. If the stream contains several
+	 * mappings for a key, the map holds the last of them in encounter order.
+	 * 
+	 * @param entries       the mappings to be placed in the map
+	 * @param isBloomFilter the flag for bloom filter
+	 * @return the loaded map
+	 * @throws NullPointerException if the specified stream or any of its mappings
+	 *                              is null
+	 * @see #bulkLoad(Spliterator, long, float, boolean, boolean, ForkJoinPool)
+	 */
+	public static <K, V> PerformantHashMap<K, V> bulkLoad(Stream<? extends Map.Entry<? extends K, ? extends V>> entries,
+			boolean isBloomFilter) {
+
+		if (entries == null) {
 
 			throw new NullPointerException();
 
 		}
 
-		if (isBloomFilter) {
+		return bulkLoad(entries.spliterator(), 0, isBloomFilter);
+
+	}
+
+	/**
+	 * Returns a new PerformantHashMap holding the mappings returned by the
+	 * specified iterator. The map has the default load factor (0.75) and a
+	 * capacity sufficient to hold the mappings, or the specified number of
+	 * mappings if it is larger. The iterator is drained by a single thread, but
+	 * the mappings are still linked into the table in parallel.
+	 * 
+	 * @param entries       the mappings to be placed in the map
+	 * @param sizeHint      the number of mappings the map is expected to hold,
+	 *                      or 0 if it is not known
+	 * @param isBloomFilter the flag for bloom filter
+	 * @return the loaded map
+	 * @throws NullPointerException     if the specified iterator or any of its
+	 *                                  mappings is null
+	 * @throws IllegalArgumentException if the size hint is negative
+	 * @see #bulkLoad(Spliterator, long, float, boolean, boolean, ForkJoinPool)
+	 */
+	public static <K, V> PerformantHashMap<K, V> bulkLoad(
+			Iterator<? extends Map.Entry<? extends K, ? extends V>> entries, long sizeHint, boolean isBloomFilter) {
 
-			bloomFilter = new BloomFilter((mapSize * 10), 7);
+		if (entries == null) {
+
+			throw new NullPointerException();
 
 		}
 
-		this.isBloomFilter = isBloomFilter;
+		return bulkLoad(Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED), sizeHint, isBloomFilter);
 
-		performantMap = new Object[mapSize];
+	}
 
-		for (Entry<? extends K, ? extends V> me : m.entrySet()) {
+	/**
+	 * Returns a new PerformantHashMap holding the mappings of the specified
+	 * spliterator, loaded in parallel by the common ForkJoinPool. The map has the
+	 * default load factor (0.75) and a capacity sufficient to hold the mappings,
+	 * or the specified number of mappings if it is larger.
+	 * 
+	 * @param entries       the mappings to be placed in the map
+	 * @param sizeHint      the number of mappings the map is expected to hold,
+	 *                      or 0 if it is not known
+	 * @param isBloomFilter the flag for bloom filter
+	 * @return the loaded map
+	 * @throws NullPointerException     if the specified spliterator or any of its
+	 *                                  mappings is null
+	 * @throws IllegalArgumentException if the size hint is negative
+	 * @see #bulkLoad(Spliterator, long, float, boolean, boolean, ForkJoinPool)
+	 */
+	public static <K, V> PerformantHashMap<K, V> bulkLoad(
+			Spliterator<? extends Map.Entry<? extends K, ? extends V>> entries, long sizeHint, boolean isBloomFilter) {
 
-			put(me.getKey(), me.getValue());
+		return bulkLoad(entries, sizeHint, 0.75f, isBloomFilter, false, ForkJoinPool.commonPool());
+
+	}
+
+	/**
+	 * Returns a new PerformantHashMap with the specified load factor, flag for
+	 * bloom filter and flag for power of two capacity, holding the mappings of the
+	 * specified spliterator, loaded in parallel by the specified ForkJoinPool.
+	 * <br>
+	 * <br>
+	 * Loading a map through put probes the table for every key and rehashes it
+	 * every time the map doubles. A bulk load instead buffers the mappings, which
+	 * are drained in parallel if the spliterator can be split, and sizes the table
+	 * and the bloom filter once for the number of buffered mappings, or the
+	 * specified number of mappings if it is larger, so the map is never rehashed
+	 * while it is loaded. The table is then divided into as many ranges of
+	 * buckets as the pool has threads, times four. In parallel, every chunk of
+	 * the buffer computes the hashes of its keys and counts the mappings falling
+	 * into every range, and the mappings are then scattered, in encounter order,
+	 * into one contiguous run per range. Finally every range is filled by its own
+	 * task; as the ranges are disjoint, the tasks link their map entries into the
+	 * table without any synchronization. If the spliterator contains several
+	 * mappings for a key, the map holds the last of them in encounter order.
+	 * Long chains are treeified as they are filled. The keys are recorded in the
+	 * bloom filter by a single thread after the table has been filled, as the
+	 * counters of different keys share words of the filter. <br>
+	 * <br>
+	 * The buffer holds a reference to every mapping and a map entry is created
+	 * for every mapping, so a bulk load temporarily needs about twice the memory
+	 * of a map that is loaded through put.
+	 * 
+	 * @param entries              the mappings to be placed in the map
+	 * @param sizeHint             the number of mappings the map is expected to
+	 *                             hold, or 0 if it is not known
+	 * @param loadFactor           the load factor
+	 * @param isBloomFilter        the flag for bloom filter
+	 * @param isPowerOfTwoCapacity the flag for power of two capacity
+	 * @param pool                 the pool by which the map is loaded
+	 * @return the loaded map
+	 * @throws NullPointerException     if the specified spliterator, any of its
+	 *                                  mappings or the pool is null
+	 * @throws IllegalArgumentException if the size hint is negative or the load
+	 *                                  factor is non-positive
+	 */
+	public static <K, V> PerformantHashMap<K, V> bulkLoad(
+			Spliterator<? extends Map.Entry<? extends K, ? extends V>> entries, long sizeHint, float loadFactor,
+			boolean isBloomFilter, boolean isPowerOfTwoCapacity, ForkJoinPool pool) {
+
+		if (entries == null || pool == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		if (sizeHint < 0 || !(loadFactor > 0)) {
+
+			throw new IllegalArgumentException();
 
 		}
 
+		// The stream is run inside the pool, so that a parallel stream splits its
+		// work among the threads of the pool rather than of the common pool.
+		Object[] source = pool.submit(() -> StreamSupport.stream(entries, true).toArray()).join();
+
+		long expectedSize = Math.max(sizeHint, source.length);
+
+		int initialCapacity = (int) Math.min(MAXIMUM_CAPACITY, expectedSize / loadFactor + 1);
+
+		int expectedInsertions = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, expectedSize));
+
+		PerformantHashMap<K, V> map = new PerformantHashMap<K, V>(initialCapacity, loadFactor, isBloomFilter,
+				expectedInsertions, DEFAULT_BLOOM_FILTER_FPP, false, isPowerOfTwoCapacity);
+
+		map.load(source, pool);
+
+		return map;
+
 	}
 
 	/**
@@ -303,39 +725,52 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 	 * @param key the key whose presence in this map is to be tested
 	 * @return true if this map contains a mapping for the specified key.
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public boolean containsKey(Object key) {
 
-		if (isBloomFilter == true && !mightContain((K) key)) {
+		int hash = hash(key);
+
+		if (isBloomFilter == true && !mightContain(key, hash)) {
+
+			if (statistics != null) {
+
+				statistics.recordBloomFilterNegative();
+
+			}
 
 			return false;
 
 		} else {
 
-			int index = getBucketIndex((K) key);
+			PerformantHashMapEntry<K, V> entry = null;
 
-			PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) performantMap[index];
+			if (oldPerformantMap != null) {
 
-			while (currentPosition != null) {
+				rehashStep();
 
-				if (key == null && currentPosition.getKey() == null) {
+			}
 
-					return true;
+			if (oldPerformantMap != null) {
 
-				} else if (key != null && key.equals(currentPosition.getKey())) {
+				entry = getEntry(oldPerformantMap, getBucketIndex(hash, oldMapSize), hash, key);
 
-					return true;
+			}
 
-				}
+			if (entry == null) {
 
-				currentPosition = currentPosition.getNext();
+				entry = getEntry(performantMap, getBucketIndex(hash, mapSize), hash, key);
 
 			}
 
-		}
+			if (statistics != null && entry == null && isBloomFilter == true && key != null) {
 
-		return false;
+				statistics.recordBloomFilterFalsePositive();
+
+			}
+
+			return entry != null && (entry.getTimer() == null || !entry.getTimer().isExpired(System.nanoTime()));
+
+		}
 
 	}
 
@@ -345,15 +780,27 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 	 * @param value whose presence in this map is to be tested
 	 * @return true if this map maps one or more keys to the specified value
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public boolean containsValue(Object value) {
 
+		if (oldPerformantMap != null && containsValue(oldPerformantMap, value)) {
+
+			return true;
+
+		}
+
+		return containsValue(performantMap, value);
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean containsValue(Object[] performantMap, Object value) {
+
 		for (int i = 0; i < performantMap.length; i++) {
 
 			if (performantMap[i] != null) {
 
-				PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) performantMap[i];
+				PerformantHashMapEntry<K, V> currentPosition = PerformantTreeBin.first(performantMap[i]);
 
 				while (currentPosition != null) {
 
@@ -396,83 +843,122 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 	 * @return the value to which the specified key is mapped, or null if this map
 	 *         contains no mapping for the key
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public V get(Object key) {
 
-		if (isBloomFilter == true && !mightContain((K) key)) {
+		PerformantHashMapEntry<K, V> entry = findLiveEntry(key);
+
+		return entry == null ? null : entry.getValue();
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or the specified
+	 * default value if this map contains no mapping for the key.
+	 * 
+	 * @param key          the key whose associated value is to be returned
+	 * @param defaultValue the default mapping of the key
+	 * @return the value to which the specified key is mapped, or the default
+	 *         value if this map contains no mapping for the key
+	 */
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+
+		PerformantHashMapEntry<K, V> entry = findLiveEntry(key);
+
+		return entry == null ? defaultValue : entry.getValue();
+
+	}
+
+	private PerformantHashMapEntry<K, V> findLiveEntry(Object key) {
+
+		int hash = hash(key);
+
+		if (isBloomFilter == true && !mightContain(key, hash)) {
+
+			if (statistics != null) {
+
+				statistics.recordBloomFilterNegative();
+
+			}
 
 			return null;
 
-		} else {
+		}
 
-			int index = getBucketIndex((K) key);
+		long now = timerWheel == null ? 0 : expireEntries();
 
-			PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) performantMap[index];
+		// Lookups advance the migration as well, so a map that is mostly read does
+		// not hold on to both tables.
+		if (oldPerformantMap != null) {
 
-			PerformantHashMapEntry<K, V> previousPosition = null;
+			rehashStep();
 
-			while (currentPosition != null) {
+		}
 
-				if (key == null && currentPosition.getKey() == null) {
+		PerformantHashMapEntry<K, V> entry = null;
 
-					return currentPosition.getValue();
+		int probes = 0;
 
-				}
+		if (oldPerformantMap != null) {
 
-				if (!key.equals(currentPosition.getKey())) {
+			int index = getBucketIndex(hash, oldMapSize);
 
-					previousPosition = currentPosition;
+			if (statistics != null) {
 
-				}
+				probes += getProbeLength(oldPerformantMap, index, hash, key);
 
-				if (previousPosition == null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() == null) {
+			}
 
-					return currentPosition.getValue();
+			checkProbeLength("get", oldPerformantMap, index, hash, key);
 
-				} else if (previousPosition == null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() != null) {
+			entry = findEntry(oldPerformantMap, index, hash, key);
 
-					return currentPosition.getValue();
+		}
 
-				} else if (previousPosition != null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() != null) {
+		if (entry == null) {
 
-					K tempKey = previousPosition.getKey();
-					V tempValue = previousPosition.getValue();
+			int index = getBucketIndex(hash, mapSize);
 
-					previousPosition.setKey(currentPosition.getKey());
-					previousPosition.setValue(currentPosition.getValue());
+			if (statistics != null) {
 
-					currentPosition.setKey(tempKey);
-					currentPosition.setValue(tempValue);
+				probes += getProbeLength(performantMap, index, hash, key);
 
-					return previousPosition.getValue();
+			}
 
-				} else if (previousPosition != null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() == null) {
+			checkProbeLength("get", performantMap, index, hash, key);
 
-					K tempKey = previousPosition.getKey();
-					V tempValue = previousPosition.getValue();
+			entry = findEntry(performantMap, index, hash, key);
 
-					previousPosition.setKey(currentPosition.getKey());
-					previousPosition.setValue(currentPosition.getValue());
+		}
 
-					currentPosition.setKey(tempKey);
-					currentPosition.setValue(tempValue);
+		if (statistics != null) {
 
-					return previousPosition.getValue();
+			statistics.recordGet(probes);
 
-				}
+			if (entry == null && isBloomFilter == true && key != null) {
 
-				currentPosition = currentPosition.getNext();
+				statistics.recordBloomFilterFalsePositive();
 
 			}
 
 		}
 
-		return null;
+		if (entry != null && isExpired(entry, now)) {
+
+			removeEntry(hash, key);
+
+			return null;
+
+		}
+
+		if (entry != null) {
+
+			refreshExpiration(entry, now);
+
+		}
+
+		return entry;
 
 	}
 
@@ -486,562 +972,3801 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 	 *         mapping for key. (A null return can also indicate that the map
 	 *         previously associated null with key.)
 	 */
-	@SuppressWarnings({ "unchecked", "deprecation" })
 	@Override
 	public V put(K key, V value) {
 
-		int bucketIndex = getBucketIndex(key);
+		return putValue(key, value, -1L);
 
-		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) performantMap[bucketIndex];
+	}
 
-		if (containsKey(key)) {
+	/**
+	 * Associates the specified value with the specified key in this map, where
+	 * the mapping expires once the specified time to live has passed, whatever the
+	 * expiration setting of the map. If the map previously contained a mapping for
+	 * the key, the old value is replaced.
+	 * 
+	 * @param key        the key with which the specified value is to be
+	 *                   associated
+	 * @param value      the value to be associated with the specified key
+	 * @param timeToLive the time after which the mapping expires
+	 * @param unit       the unit of the time to live
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key. (A null return can also indicate that the map
+	 *         previously associated null with key.)
+	 * @throws IllegalArgumentException if the time to live is not positive
+	 * @throws NullPointerException     if the unit is null
+	 */
+	public V put(K key, V value, long timeToLive, TimeUnit unit) {
 
-			while (currentPosition != null) {
+		if (timeToLive <= 0) {
 
-				if (key == null && currentPosition.getKey() == null) {
+			throw new IllegalArgumentException();
 
-					currentPosition.setValue(value);
+		}
 
-					return currentPosition.getValue();
+		if (unit == null) {
 
-				} else if (currentPosition.getKey().equals(key)) {
+			throw new NullPointerException();
 
-					currentPosition.setValue(value);
+		}
 
-					return currentPosition.getValue();
-				}
+		ensureTimerWheel();
 
-				currentPosition = currentPosition.getNext();
+		return putValue(key, value, unit.toNanos(timeToLive));
 
-			}
+	}
 
-		} else {
+	private V putValue(K key, V value, long timeToLiveNanos) {
 
-			float totalNoOfMapEntry = new Integer(listSize).floatValue();
+		long now = timerWheel == null ? 0 : expireEntries();
 
-			float sizeOfPerformantMap = new Integer(mapSize).floatValue();
+		int hash = hash(key);
 
-			float calculatedloadFactor = (totalNoOfMapEntry / sizeOfPerformantMap);
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
 
-			boolean isHashingRequired = (calculatedloadFactor >= loadFactor);
+		if (entry != null) {
 
-			if (isHashingRequired) {
+			V oldValue = entry.setValue(value);
 
-				rehash();
+			// An entry that has expired but has not been removed yet is reused for
+			// the new mapping.
+			boolean isExpired = isExpired(entry, now);
 
-			}
+			scheduleExpiration(entry, now, timeToLiveNanos);
 
-			bucketIndex = getBucketIndex(key);
+			return isExpired ? null : oldValue;
 
-			listSize++;
+		}
 
-			currentPosition = (PerformantHashMapEntry<K, V>) performantMap[bucketIndex];
+		addEntry(hash, key, value, now, timeToLiveNanos);
 
-			PerformantHashMapEntry<K, V> newPeformantMapEntry = new PerformantHashMapEntry<K, V>(key, value);
+		return null;
 
-			newPeformantMapEntry.setNext(currentPosition);
+	}
 
-			performantMap[bucketIndex] = newPeformantMapEntry;
+	/**
+	 * If the specified key is not already associated with a value (or is mapped
+	 * to null), associates it with the specified value and returns null, else
+	 * returns the current value.
+	 * 
+	 * @param key   the key with which the specified value is to be associated
+	 * @param value the value to be associated with the specified key
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key
+	 */
+	@Override
+	public V putIfAbsent(K key, V value) {
 
-			mapEntrySize++;
+		long now = timerWheel == null ? 0 : expireEntries();
 
-			if (isBloomFilter == true && key != null) {
+		int hash = hash(key);
 
-				bloomFilter.add(key);
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
 
-			}
+		if (entry != null && !isExpired(entry, now) && entry.getValue() != null) {
+
+			refreshExpiration(entry, now);
 
-			return ((PerformantHashMapEntry<K, V>) performantMap[bucketIndex]).getValue();
+			return entry.getValue();
 
 		}
 
+		setEntryValue(entry, hash, key, value, now);
+
 		return null;
 
 	}
 
 	/**
-	 * Copies all of the mappings from the specified map to this map. These mappings
-	 * will replace any mappings that this map had for any of the keys currently in
-	 * the specified map.
+	 * If the specified key is not already associated with a value (or is mapped
+	 * to null), attempts to compute its value using the specified mapping
+	 * function and enters it into this map unless it is null. If the mapping
+	 * function modifies this map, a ConcurrentModificationException is thrown.
 	 * 
-	 * @param m the mappings to be stored in this map
-	 * @throws NullPointerException if the specified map is null
+	 * @param key             the key with which the specified value is to be
+	 *                        associated
+	 * @param mappingFunction the function to compute a value
+	 * @return the current (existing or computed) value associated with the
+	 *         specified key, or null if the computed value is null
+	 * @throws NullPointerException            if the mapping function is null
+	 * @throws ConcurrentModificationException if the mapping function modified
+	 *                                         this map
 	 */
 	@Override
-	public void putAll(Map<? extends K, ? extends V> m) {
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
 
-		if (m == null) {
+		if (mappingFunction == null) {
 
 			throw new NullPointerException();
 
 		}
 
-		for (Entry<? extends K, ? extends V> me : m.entrySet()) {
+		long now = timerWheel == null ? 0 : expireEntries();
 
-			put(me.getKey(), me.getValue());
+		int hash = hash(key);
+
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
+
+		if (entry != null && !isExpired(entry, now) && entry.getValue() != null) {
+
+			refreshExpiration(entry, now);
+
+			return entry.getValue();
+
+		}
+
+		int expectedMapEntrySize = mapEntrySize;
+
+		V value = mappingFunction.apply(key);
+
+		checkForComodification(expectedMapEntrySize);
+
+		if (value != null) {
+
+			setEntryValue(entry, hash, key, value, now);
 
 		}
 
+		return value;
+
 	}
 
 	/**
-	 * Removes the mapping for the specified key from this map if present.
+	 * If the value for the specified key is present and non-null, attempts to
+	 * compute a new mapping given the key and its current mapped value. If the
+	 * function returns null, the mapping is removed. If the remapping function
+	 * modifies this map, a ConcurrentModificationException is thrown.
 	 * 
-	 * @param key whose mapping is to be removed from the map
-	 * @return the previous value associated with key, or null if there was no
-	 *         mapping for key. (A null return can also indicate that the map
-	 *         previously associated null with key.)
+	 * @param key               the key with which the specified value is to be
+	 *                          associated
+	 * @param remappingFunction the function to compute a value
+	 * @return the new value associated with the specified key, or null if none
+	 * @throws NullPointerException            if the remapping function is null
+	 * @throws ConcurrentModificationException if the remapping function modified
+	 *                                         this map
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
-	public V remove(Object key) {
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
 
-		if (isBloomFilter == true && !mightContain((K) key)) {
+		if (remappingFunction == null) {
 
-			return null;
+			throw new NullPointerException();
 
-		} else {
+		}
 
-			int index = getBucketIndex((K) key);
+		long now = timerWheel == null ? 0 : expireEntries();
 
-			PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) performantMap[index];
+		int hash = hash(key);
 
-			PerformantHashMapEntry<K, V> previousPosition = null;
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
 
-			while (currentPosition != null) {
+		if (entry == null || isExpired(entry, now) || entry.getValue() == null) {
 
-				if (key == null && currentPosition.getKey() == null) {
+			return null;
 
-					performantMap[index] = currentPosition.getNext();
+		}
 
-					mapEntrySize--;
+		int expectedMapEntrySize = mapEntrySize;
 
-					return currentPosition.getValue();
+		V value = remappingFunction.apply(key, entry.getValue());
 
-				}
+		checkForComodification(expectedMapEntrySize);
 
-				if (!key.equals(currentPosition.getKey())) {
+		if (value == null) {
 
-					previousPosition = currentPosition;
+			removeEntry(hash, key);
 
-				}
+			shrinkIfRequired();
 
-				if (previousPosition == null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() == null) {
+		} else {
 
-					performantMap[index] = null;
+			setEntryValue(entry, hash, key, value, now);
 
-					mapEntrySize--;
+		}
 
-					return currentPosition.getValue();
+		return value;
 
-				} else if (previousPosition == null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() != null) {
+	}
 
-					performantMap[index] = currentPosition.getNext();
+	/**
+	 * Attempts to compute a mapping for the specified key and its current mapped
+	 * value (or null if there is no current mapping). If the function returns
+	 * null, the mapping is removed (or remains absent if initially absent). If the
+	 * remapping function modifies this map, a ConcurrentModificationException is
+	 * thrown.
+	 * 
+	 * @param key               the key with which the specified value is to be
+	 *                          associated
+	 * @param remappingFunction the function to compute a value
+	 * @return the new value associated with the specified key, or null if none
+	 * @throws NullPointerException            if the remapping function is null
+	 * @throws ConcurrentModificationException if the remapping function modified
+	 *                                         this map
+	 */
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
 
-					mapEntrySize--;
+		if (remappingFunction == null) {
 
-					return currentPosition.getValue();
+			throw new NullPointerException();
 
-				} else if (previousPosition != null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() != null) {
+		}
 
-					previousPosition.setNext(currentPosition.getNext());
+		long now = timerWheel == null ? 0 : expireEntries();
 
-					mapEntrySize--;
+		int hash = hash(key);
 
-					return currentPosition.getValue();
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
 
-				} else if (previousPosition != null && key.equals(currentPosition.getKey())
-						&& currentPosition.getNext() == null) {
+		boolean isPresent = entry != null && !isExpired(entry, now);
 
-					previousPosition.setNext(null);
+		int expectedMapEntrySize = mapEntrySize;
 
-					mapEntrySize--;
+		V value = remappingFunction.apply(key, isPresent ? entry.getValue() : null);
 
-					return currentPosition.getValue();
+		checkForComodification(expectedMapEntrySize);
 
-				}
+		if (value != null) {
 
-				currentPosition = currentPosition.getNext();
+			setEntryValue(entry, hash, key, value, now);
 
-			}
+		} else if (isPresent) {
+
+			removeEntry(hash, key);
+
+			shrinkIfRequired();
 
 		}
 
-		return null;
+		return value;
 
 	}
 
 	/**
-	 * Removes all of the mappings from this map. The map will be empty after this
-	 * call returns.
+	 * If the specified key is not already associated with a value or is
+	 * associated with null, associates it with the specified non-null value.
+	 * Otherwise, replaces the associated value with the results of the specified
+	 * remapping function, or removes the mapping if the result is null. If the
+	 * remapping function modifies this map, a ConcurrentModificationException is
+	 * thrown.
+	 * 
+	 * @param key               the key with which the resulting value is to be
+	 *                          associated
+	 * @param value             the non-null value to be merged with the existing
+	 *                          value associated with the key or, if no existing
+	 *                          value or a null value is associated with the
+	 *                          key, to be associated with the key
+	 * @param remappingFunction the function to recompute a value if present
+	 * @return the new value associated with the specified key, or null if no
+	 *         value is associated with the key
+	 * @throws NullPointerException            if the value or the remapping
+	 *                                         function is null
+	 * @throws ConcurrentModificationException if the remapping function modified
+	 *                                         this map
 	 */
 	@Override
-	public void clear() {
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
 
-		mapEntrySize = 0;
+		if (value == null || remappingFunction == null) {
 
-		listSize = 0;
+			throw new NullPointerException();
 
-		loadFactor = 0.75f;
+		}
 
-		mapSize = 16;
+		long now = timerWheel == null ? 0 : expireEntries();
 
-		performantMap = new Object[mapSize];
+		int hash = hash(key);
 
-	}
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
 
-	/**
-	 * Returns a Set view of the keys contained in this map. The set is backed by
-	 * the map, so changes to the map are reflected in the set, and vice-versa. If
-	 * the map is modified while an iteration over the set is in progress (except
-	 * through the iterator's own remove operation), the results of the iteration
-	 * are undefined. The set supports element removal, which removes the
-	 * corresponding mapping from the map, via the Iterator.remove, Set.remove and
-	 * clear operations. It does not support the add or addAll operations.
-	 * 
-	 * @return a set view of the keys contained in this map
-	 */
-	@Override
-	public Set<K> keySet() {
+		if (entry == null || isExpired(entry, now) || entry.getValue() == null) {
 
-		if (keySet == null) {
+			setEntryValue(entry, hash, key, value, now);
 
-			keySet = new PerformantKeySet();
+			return value;
 
 		}
 
-		return keySet;
-	}
+		int expectedMapEntrySize = mapEntrySize;
 
-	/**
-	 * Returns a Collection view of the values contained in this map. The collection
-	 * is backed by the map, so changes to the map are reflected in the collection,
-	 * and vice-versa. If the map is modified while an iteration over the collection
-	 * is in progress (except through the iterator's own remove operation), the
-	 * results of the iteration are undefined. The collection supports element
-	 * removal, which removes the corresponding mapping from the map, via the
-	 * Iterator.remove, Collection.remove and clear operations. It does not support
-	 * the add or addAll operations.
-	 * 
-	 * @return a view of the values contained in this map
-	 */
-	@Override
-	public Collection<V> values() {
+		V newValue = remappingFunction.apply(entry.getValue(), value);
 
-		if (valueSet == null) {
+		checkForComodification(expectedMapEntrySize);
 
-			valueSet = new PerformantValueSet();
+		if (newValue == null) {
+
+			removeEntry(hash, key);
+
+			shrinkIfRequired();
+
+		} else {
+
+			setEntryValue(entry, hash, key, newValue, now);
 
 		}
 
-		return valueSet;
+		return newValue;
 
 	}
 
 	/**
-	 * Returns a Set view of the mappings contained in this map. The set is backed
-	 * by the map, so changes to the map are reflected in the set, and vice-versa.
-	 * If the map is modified while an iteration over the set is in progress (except
-	 * through the iterator's own remove operation, or through the setValue
-	 * operation on a map entry returned by the iterator) the results of the
-	 * iteration are undefined. The set supports element removal, which removes the
-	 * corresponding mapping from the map, via the Iterator.remove, Set.remove and
-	 * clear operations. It does not support the add or addAll operations.
+	 * Replaces the entry for the specified key only if it is currently mapped to
+	 * some value.
 	 * 
-	 * @return a set view of the mappings contained in this map
+	 * @param key   the key with which the specified value is associated
+	 * @param value the value to be associated with the specified key
+	 * @return the previous value associated with the specified key, or null if
+	 *         there was no mapping for the key
 	 */
 	@Override
-	public Set<Entry<K, V>> entrySet() {
+	public V replace(K key, V value) {
 
-		if (entrySet == null) {
+		long now = timerWheel == null ? 0 : expireEntries();
 
-			entrySet = new PerformantEntrySet();
+		int hash = hash(key);
+
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
+
+		if (entry == null || isExpired(entry, now)) {
+
+			return null;
 
 		}
 
-		return entrySet;
+		V oldValue = entry.setValue(value);
+
+		scheduleExpiration(entry, now, -1L);
+
+		return oldValue;
 
 	}
 
 	/**
-	 * Returns true if this map contains a mapping for the specified key. Since
-	 * bloom filter is a probabilistic data structure, there is a below 1 percent
-	 * chance of false positive errors i.e. the method returns true even if the map
-	 * does not contain an entry for the specified key. There are no chances of a
-	 * bloom filter emitting false negative errors i.e. it will never return false
-	 * for an existing map entry for a specified Key.
+	 * Replaces the entry for the specified key only if currently mapped to the
+	 * specified value.
 	 * 
-	 * @param key the key whose presence in this map is to be tested
-	 * @return true if this map contains a mapping for the specified key.
-	 * @throws UnsupportedOperationException if bloom filter is not enabled for this
-	 *                                       PerformantHashMap instance
+	 * @param key      the key with which the specified value is associated
+	 * @param oldValue the value expected to be associated with the specified key
+	 * @param newValue the value to be associated with the specified key
+	 * @return true if the value was replaced
 	 */
-	public boolean mightContain(K key) {
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
 
-		if (!isBloomFilter) {
+		long now = timerWheel == null ? 0 : expireEntries();
 
-			throw new UnsupportedOperationException();
+		int hash = hash(key);
 
-		}
+		PerformantHashMapEntry<K, V> entry = getEntryForUpdate(hash, key);
 
-		if (key != null) {
+		if (entry == null || isExpired(entry, now) || !Objects.equals(entry.getValue(), oldValue)) {
 
-			return bloomFilter.contains(key);
+			return false;
 
 		}
 
+		entry.setValue(newValue);
+
+		scheduleExpiration(entry, now, -1L);
+
 		return true;
 
 	}
 
 	/**
-	 * Returns a shallow copy of this PerformantHashMap instance: the keys and
-	 * values themselves are not cloned.
+	 * Performs the specified action for each mapping of this map. The table is
+	 * walked directly, without creating an iterator.
 	 * 
-	 * @return a shallow copy of this map
+	 * @param action the action to be performed for each mapping
+	 * @throws NullPointerException            if the action is null
+	 * @throws ConcurrentModificationException if the action added or removed a
+	 *                                         mapping
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
-	public Object clone() throws CloneNotSupportedException {
+	public void forEach(BiConsumer<? super K, ? super V> action) {
 
-		PerformantHashMap<K, V> result;
+		if (action == null) {
 
-		try {
+			throw new NullPointerException();
 
-			result = (PerformantHashMap<K, V>) super.clone();
+		}
 
-		} catch (CloneNotSupportedException e) {
+		int expectedMapEntrySize = mapEntrySize;
 
-			throw new CloneNotSupportedException();
+		// The remaining buckets of the old table are walked before the current
+		// table, with the migration paused in between.
+		boolean isRehashPaused = pauseRehash();
+
+		if (oldPerformantMap != null) {
+
+			forEach(oldPerformantMap, rehashIndex, action);
 
 		}
 
-		result.putAll(this);
+		forEach(performantMap, 0, action);
 
-		return result;
+		if (isRehashPaused) {
 
-	}
+			resumeRehash();
 
-	@SuppressWarnings("unchecked")
-	private void rehash() {
+		}
 
-		Object[] temp;
+		checkForComodification(expectedMapEntrySize);
 
-		try {
+	}
 
-			mapSize = 2 * mapSize;
+	@SuppressWarnings("unchecked")
+	private void forEach(Object[] table, int index, BiConsumer<? super K, ? super V> action) {
 
-			mapSize = getNextPrime(mapSize);
+		for (int i = index; i < table.length; i++) {
 
-			listSize = 0;
+			for (PerformantHashMapEntry<K, V> entry = PerformantTreeBin.first(table[i]); entry != null; entry = entry
+					.getNext()) {
 
-			mapEntrySize = 0;
+				action.accept(entry.getKey(), entry.getValue());
 
-			temp = performantMap;
+			}
 
-			performantMap = new Object[mapSize];
+		}
 
-			if (isBloomFilter) {
+	}
 
-				bloomFilter.clear();
+	/**
+	 * Replaces the value of each mapping with the result of invoking the specified
+	 * function on the mapping. The table is walked directly, without creating an
+	 * iterator.
+	 * 
+	 * @param function the function to apply to each mapping
+	 * @throws NullPointerException            if the function is null
+	 * @throws ConcurrentModificationException if the function added or removed a
+	 *                                         mapping
+	 */
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
 
-				bloomFilter = new BloomFilter((mapSize * 10), 7);
+		if (function == null) {
 
-			}
+			throw new NullPointerException();
 
-			for (Object headNode : temp) {
+		}
 
-				PerformantHashMapEntry<K, V> perfMapEntryHeadNode = (PerformantHashMapEntry<K, V>) headNode;
+		int expectedMapEntrySize = mapEntrySize;
 
-				while (perfMapEntryHeadNode != null) {
+		boolean isRehashPaused = pauseRehash();
 
-					put(perfMapEntryHeadNode.getKey(), perfMapEntryHeadNode.getValue());
+		if (oldPerformantMap != null) {
 
-					perfMapEntryHeadNode = perfMapEntryHeadNode.getNext();
+			replaceAll(oldPerformantMap, rehashIndex, function);
 
-				}
+		}
 
-			}
+		replaceAll(performantMap, 0, function);
 
-		} catch (Exception e) {
+		if (isRehashPaused) {
 
-			e.printStackTrace();
+			resumeRehash();
 
 		}
 
-	}
+		checkForComodification(expectedMapEntrySize);
 
-	private int getNextPrime(int number) {
+	}
 
-		try {
+	@SuppressWarnings("unchecked")
+	private void replaceAll(Object[] table, int index, BiFunction<? super K, ? super V, ? extends V> function) {
 
-			while (true) {
+		for (int i = index; i < table.length; i++) {
 
-				boolean isPrime = true;
+			for (PerformantHashMapEntry<K, V> entry = PerformantTreeBin.first(table[i]); entry != null; entry = entry
+					.getNext()) {
 
-				number = number + 1;
+				entry.setValue(function.apply(entry.getKey(), entry.getValue()));
 
-				int sqrt = (int) Math.sqrt(number);
+			}
 
-				for (int i = 2; i <= sqrt; i++) {
+		}
 
-					if (number % i == 0) {
+	}
 
-						isPrime = false;
+	/*
+	 * Returns the entry for the key, which may have expired, or null. The bucket
+	 * of the key is migrated first, so the entry can only be in the current table
+	 * and a new entry for the key can be added to it by addEntry. While the
+	 * migration is paused, the entry is looked up in the old table first and a
+	 * new entry is added to the current table all the same.
+	 */
+	private PerformantHashMapEntry<K, V> getEntryForUpdate(int hash, K key) {
 
-						break;
+		boolean isRehashPaused = isRehashPaused();
 
-					}
+		if (oldPerformantMap != null && !isRehashPaused) {
 
-				}
+			migrateBucket(getBucketIndex(hash, oldMapSize));
 
-				if (isPrime) {
+			rehashStep();
 
-					return number;
+		}
 
-				}
+		// A key the bloom filter has never seen is not searched for at all.
+		if (isBloomFilter == true && key != null && !mightContain(key, hash)) {
 
-			}
+			if (statistics != null) {
 
-		} catch (Exception e) {
+				statistics.recordBloomFilterNegative();
 
-			e.printStackTrace();
+				statistics.recordPut(0);
 
-		}
+			}
 
-		return 0;
-	}
+			return null;
 
-	private int getBucketIndex(K key) {
+		}
 
-		if (key == null) {
+		Object[] table = performantMap;
 
-			return 0;
+		int index = getBucketIndex(hash, mapSize);
 
-		}
+		if (isRehashPaused) {
 
-		int hashCode = key.hashCode();
+			int oldIndex = getBucketIndex(hash, oldMapSize);
 
-		try {
+			if (getEntry(oldPerformantMap, oldIndex, hash, key) != null) {
 
-			return Math.abs(hashCode) % mapSize;
+				table = oldPerformantMap;
 
-		} catch (ArithmeticException e) {
+				index = oldIndex;
 
-			e.printStackTrace();
+			}
 
 		}
 
-		return 0;
-
-	}
+		checkProbeLength("put", table, index, hash, key);
 
-	final class PerformantEntrySet extends java.util.AbstractSet<Map.Entry<K, V>> {
+		PerformantHashMapEntry<K, V> entry = getEntry(table, index, hash, key);
 
-		@Override
-		public Iterator<Map.Entry<K, V>> iterator() {
+		if (statistics != null) {
 
-			return new PerformantEntryIterator();
+			statistics.recordPut(getProbeLength(table, index, hash, key));
 
-		}
+			if (entry == null && isBloomFilter == true && key != null) {
 
-		@Override
-		public int size() {
+				statistics.recordBloomFilterFalsePositive();
 
-			return mapEntrySize;
+			}
 
 		}
 
+		return entry;
+
 	}
 
-	final class PerformantKeySet extends java.util.AbstractSet<K> {
+	/*
+	 * Adds an entry for a key that the map does not contain, growing the table
+	 * first if the load factor has been reached.
+	 */
+	@SuppressWarnings("unchecked")
+	private void addEntry(int hash, K key, V value, long now, long timeToLiveNanos) {
 
-		@Override
-		public Iterator<K> iterator() {
+		boolean isHashingRequired = (listSize >= loadFactor * mapSize);
 
-			return new PerformantKeyIterator();
+		if (isHashingRequired) {
+
+			resize(getNextCapacity(mapSize));
 
 		}
 
+		int bucketIndex = getBucketIndex(hash, mapSize);
+
+		listSize++;
+
+		PerformantHashMapEntry<K, V> newPeformantMapEntry = new PerformantHashMapEntry<K, V>(hash, key, value);
+
+		if (PerformantTreeBin.isTreeBin(performantMap[bucketIndex])) {
+
+			PerformantTreeBin.addEntry(performantMap, bucketIndex, newPeformantMapEntry);
+
+		} else {
+
+			newPeformantMapEntry.setNext((PerformantHashMapEntry<K, V>) performantMap[bucketIndex]);
+
+			performantMap[bucketIndex] = newPeformantMapEntry;
+
+			// Only the hashes cached in the entries are looked at, and at most
+			// TREEIFY_THRESHOLD of them.
+			treeifyIfRequired(performantMap, bucketIndex);
+
+		}
+
+		mapEntrySize++;
+
+		if (isBloomFilter == true && key != null) {
+
+			bloomFilter.add(getBloomFilterHash(key, hash));
+
+		}
+
+		scheduleExpiration(newPeformantMapEntry, now, timeToLiveNanos);
+
+	}
+
+	/*
+	 * Sets the value of the entry returned by getEntryForUpdate, or adds an entry
+	 * if there was none. Like put, the entry gets the default lifetime.
+	 */
+	private void setEntryValue(PerformantHashMapEntry<K, V> entry, int hash, K key, V value, long now) {
+
+		if (entry == null) {
+
+			addEntry(hash, key, value, now, -1L);
+
+		} else {
+
+			entry.setValue(value);
+
+			scheduleExpiration(entry, now, -1L);
+
+		}
+
+	}
+
+	private void checkForComodification(int expectedMapEntrySize) {
+
+		if (expectedMapEntrySize != mapEntrySize) {
+
+			throw new ConcurrentModificationException();
+
+		}
+
+	}
+
+	/**
+	 * Copies all of the mappings from the specified map to this map. These mappings
+	 * will replace any mappings that this map had for any of the keys currently in
+	 * the specified map.
+	 * 
+	 * @param m the mappings to be stored in this map
+	 * @throws NullPointerException if the specified map is null
+	 */
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+
+		if (m == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		for (Entry<? extends K, ? extends V> me : m.entrySet()) {
+
+			put(me.getKey(), me.getValue());
+
+		}
+
+	}
+
+	/**
+	 * Removes the mapping for the specified key from this map if present.
+	 * 
+	 * @param key whose mapping is to be removed from the map
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key. (A null return can also indicate that the map
+	 *         previously associated null with key.)
+	 */
+	@Override
+	public V remove(Object key) {
+
+		long now = timerWheel == null ? 0 : expireEntries();
+
+		PerformantHashMapEntry<K, V> entry = removeEntry(hash(key), key);
+
+		if (entry == null) {
+
+			return null;
+
+		}
+
+		shrinkIfRequired();
+
+		if (isExpired(entry, now)) {
+
+			return null;
+
+		}
+
+		return entry.getValue();
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private PerformantHashMapEntry<K, V> removeEntry(int hash, Object key) {
+
+		if (isBloomFilter == true && !mightContain(key, hash)) {
+
+			if (statistics != null) {
+
+				statistics.recordBloomFilterNegative();
+
+				statistics.recordRemove(0);
+
+			}
+
+			return null;
+
+		} else {
+
+			Object[] table = performantMap;
+
+			int index = getBucketIndex(hash, mapSize);
+
+			if (oldPerformantMap != null) {
+
+				if (!isRehashPaused()) {
+
+					migrateBucket(getBucketIndex(hash, oldMapSize));
+
+					rehashStep();
+
+				} else if (getEntry(oldPerformantMap, getBucketIndex(hash, oldMapSize), hash, key) != null) {
+
+					// An iterator is walking the tables, so the entry is removed from
+					// the old table instead of migrating its bucket.
+					table = oldPerformantMap;
+
+					index = getBucketIndex(hash, oldMapSize);
+
+				}
+
+			}
+
+			if (statistics != null) {
+
+				statistics.recordRemove(getProbeLength(table, index, hash, key));
+
+			}
+
+			checkProbeLength("remove", table, index, hash, key);
+
+			PerformantHashMapEntry<K, V> currentPosition = null;
+
+			PerformantHashMapEntry<K, V> previousPosition = null;
+
+			if (PerformantTreeBin.isTreeBin(table[index])) {
+
+				currentPosition = PerformantTreeBin.removeEntry(table, index, hash, key);
+
+			} else {
+
+				currentPosition = (PerformantHashMapEntry<K, V>) table[index];
+
+				while (currentPosition != null) {
+
+					if (isMatch(currentPosition, hash, key)) {
+
+						if (previousPosition == null) {
+
+							table[index] = currentPosition.getNext();
+
+						} else {
+
+							previousPosition.setNext(currentPosition.getNext());
+
+						}
+
+						break;
+
+					}
+
+					previousPosition = currentPosition;
+
+					currentPosition = currentPosition.getNext();
+
+				}
+
+			}
+
+			if (currentPosition != null) {
+
+				mapEntrySize--;
+
+				listSize--;
+
+				// Unless the migration is paused, the bucket of the key has been
+				// migrated above, so the key is recorded in the current bloom
+				// filter even while it is being rebuilt. The key of an entry left in
+				// the old table is still recorded in the old bloom filter only.
+				if (isBloomFilter == true && key != null) {
+
+					CountingBloomFilter filter = table == performantMap || oldBloomFilter == null ? bloomFilter
+							: oldBloomFilter;
+
+					filter.remove(getBloomFilterHash(key, hash));
+
+				}
+
+				if (currentPosition.getTimer() != null) {
+
+					timerWheel.cancel(currentPosition.getTimer());
+
+				}
+
+				return currentPosition;
+
+			}
+
+			if (statistics != null && isBloomFilter == true && key != null) {
+
+				statistics.recordBloomFilterFalsePositive();
+
+			}
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Increases the capacity of this map, if necessary, so that it can hold at
+	 * least the specified number of mappings without being rehashed. The table
+	 * is also never shrunk automatically below this capacity, until trimToSize is
+	 * called.
+	 * 
+	 * @param minCapacity the number of mappings the map has to hold
+	 * @throws IllegalArgumentException if the number of mappings is negative
+	 */
+	public void ensureCapacity(int minCapacity) {
+
+		if (minCapacity < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		int newMapSize = getCapacity(minCapacity);
+
+		minimumMapSize = Math.max(minimumMapSize, newMapSize);
+
+		if (newMapSize > mapSize) {
+
+			resize(newMapSize);
+
+		}
+
+	}
+
+	/**
+	 * Trims the capacity of this map to the smallest capacity at which its
+	 * mappings stay below the load factor, and releases any capacity reserved by
+	 * ensureCapacity. If the bloom filter is enabled and sized for more keys than
+	 * the trimmed table can hold, it is rebuilt for the trimmed table as well.
+	 * The table is rebuilt at once, even if incremental rehashing is enabled.
+	 */
+	public void trimToSize() {
+
+		completeRehash();
+
+		int newMapSize = getCapacity(mapEntrySize);
+
+		minimumMapSize = Math.min(minimumMapSize, newMapSize);
+
+		boolean isBloomFilterTrimmed = isBloomFilter && getThreshold(newMapSize) < bloomFilterExpectedInsertions;
+
+		if (newMapSize >= mapSize && !isBloomFilterTrimmed) {
+
+			return;
+
+		}
+
+		// The new bloom filter is filled by the rehash, which records the key of
+		// every map entry it moves while an old bloom filter is set.
+		if (isBloomFilterTrimmed) {
+
+			rebuildBloomFilter(getThreshold(newMapSize));
+
+		}
+
+		rehash(newMapSize);
+
+	}
+
+	/**
+	 * Removes all of the mappings from this map. The map will be empty after this
+	 * call returns. The table goes back to the capacity the map was created with,
+	 * or to the capacity reserved by ensureCapacity if that is larger, and the
+	 * load factor is kept.
+	 */
+	@Override
+	public void clear() {
+
+		mapEntrySize = 0;
+
+		listSize = 0;
+
+		mapSize = minimumMapSize;
+
+		performantMap = new Object[mapSize];
+
+		finishRehash();
+
+		if (isBloomFilter) {
+
+			bloomFilter.clear();
+
+		}
+
+		if (timerWheel != null) {
+
+			timerWheel.clear();
+
+		}
+
+	}
+
+	/**
+	 * Returns a Set view of the keys contained in this map. The set is backed by
+	 * the map, so changes to the map are reflected in the set, and vice-versa. If
+	 * the map is modified while an iteration over the set is in progress (except
+	 * through the iterator's own remove operation), the results of the iteration
+	 * are undefined. The set supports element removal, which removes the
+	 * corresponding mapping from the map, via the Iterator.remove, Set.remove and
+	 * clear operations. It does not support the add or addAll operations.
+	 * 
+	 * @return a set view of the keys contained in this map
+	 */
+	@Override
+	public Set<K> keySet() {
+
+		if (keySet == null) {
+
+			keySet = new PerformantKeySet();
+
+		}
+
+		return keySet;
+	}
+
+	/**
+	 * Returns a Collection view of the values contained in this map. The collection
+	 * is backed by the map, so changes to the map are reflected in the collection,
+	 * and vice-versa. If the map is modified while an iteration over the collection
+	 * is in progress (except through the iterator's own remove operation), the
+	 * results of the iteration are undefined. The collection supports element
+	 * removal, which removes the corresponding mapping from the map, via the
+	 * Iterator.remove, Collection.remove and clear operations. It does not support
+	 * the add or addAll operations.
+	 * 
+	 * @return a view of the values contained in this map
+	 */
+	@Override
+	public Collection<V> values() {
+
+		if (valueSet == null) {
+
+			valueSet = new PerformantValueSet();
+
+		}
+
+		return valueSet;
+
+	}
+
+	/**
+	 * Returns a Set view of the mappings contained in this map. The set is backed
+	 * by the map, so changes to the map are reflected in the set, and vice-versa.
+	 * If the map is modified while an iteration over the set is in progress (except
+	 * through the iterator's own remove operation, or through the setValue
+	 * operation on a map entry returned by the iterator) the results of the
+	 * iteration are undefined. The set supports element removal, which removes the
+	 * corresponding mapping from the map, via the Iterator.remove, Set.remove and
+	 * clear operations. It does not support the add or addAll operations.
+	 * 
+	 * @return a set view of the mappings contained in this map
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+
+		if (entrySet == null) {
+
+			entrySet = new PerformantEntrySet();
+
+		}
+
+		return entrySet;
+
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key. Since
+	 * bloom filter is a probabilistic data structure, there is a below 1 percent
+	 * chance of false positive errors i.e. the method returns true even if the map
+	 * does not contain an entry for the specified key. There are no chances of a
+	 * bloom filter emitting false negative errors i.e. it will never return false
+	 * for an existing map entry for a specified Key.
+	 * 
+	 * @param key the key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key.
+	 * @throws UnsupportedOperationException if bloom filter is not enabled for this
+	 *                                       PerformantHashMap instance
+	 */
+	public boolean mightContain(K key) {
+
+		if (!isBloomFilter) {
+
+			throw new UnsupportedOperationException();
+
+		}
+
+		return mightContain(key, hash(key));
+
+	}
+
+	private boolean mightContain(Object key, int hash) {
+
+		if (key != null) {
+
+			long bloomFilterHash = getBloomFilterHash(key, hash);
+
+			if (oldBloomFilter != null && oldBloomFilter.contains(bloomFilterHash)) {
+
+				return true;
+
+			}
+
+			return bloomFilter.contains(bloomFilterHash);
+
+		}
+
+		return true;
+
+	}
+
+	/*
+	 * Returns the value the bloom filter hashes for the key. Without seeded
+	 * hashing this is the hash code of the key, which the filter hashes exactly
+	 * like the key itself, so the filters of existing streams stay valid; with
+	 * seeded hashing it is the seeded hash of the map, so keys crafted to collide
+	 * in the table do not share their filter positions either.
+	 */
+	private long getBloomFilterHash(Object key, int hash) {
+
+		return isSeededHash ? hash : key.hashCode();
+
+	}
+
+	/**
+	 * Returns the self-organizing heuristic applied to the chains of this map when
+	 * a map entry is accessed using the get(Key k) method.
+	 * 
+	 * @return the chain reorder policy of this map
+	 */
+	public ChainReorderPolicy getChainReorderPolicy() {
+
+		return chainReorderPolicy;
+
+	}
+
+	/**
+	 * Sets the self-organizing heuristic applied to the chains of this map when a
+	 * map entry is accessed using the get(Key k) method. The policy only affects
+	 * subsequent accesses; the chains keep their current order. <br>
+	 * <br>
+	 * With the MOVE_TO_FRONT and FREQUENCY_COUNT policies, get relinks the map
+	 * entries of a chain, so a get while the map is being iterated over may cause
+	 * the iterator to skip or repeat map entries, as with the TRANSPOSE policy.
+	 * Only the NONE policy allows the map to be read while it is iterated over.
+	 * 
+	 * @param chainReorderPolicy the chain reorder policy
+	 * @throws NullPointerException if the policy is null
+	 */
+	public void setChainReorderPolicy(ChainReorderPolicy chainReorderPolicy) {
+
+		if (chainReorderPolicy == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		this.chainReorderPolicy = chainReorderPolicy;
+
+	}
+
+	/**
+	 * Returns an immutable copy of the mappings of this map, laid out for reading
+	 * only. The FrozenPerformantHashMap stores the keys and values in two dense
+	 * arrays placed by a minimal perfect hash function, so every lookup probes
+	 * exactly one slot and calls equals once, and no map entry objects are kept.
+	 * Building it takes time linear in the size of this map, which is left
+	 * unchanged. Mappings that have expired are not copied, and the copy never
+	 * expires its mappings.
+	 * 
+	 * @return a frozen copy of this map
+	 * @see FrozenPerformantHashMap
+	 */
+	@SuppressWarnings("unchecked")
+	public FrozenPerformantHashMap<K, V> freeze() {
+
+		long now = timerWheel == null ? 0 : expireEntries();
+
+		completeRehash();
+
+		Object[] keys = new Object[mapEntrySize];
+
+		Object[] values = new Object[mapEntrySize];
+
+		int size = 0;
+
+		for (int i = 0; i < mapSize; i++) {
+
+			for (PerformantHashMapEntry<K, V> entry = PerformantTreeBin.first(performantMap[i]); entry != null; entry = entry
+					.getNext()) {
+
+				if (!isExpired(entry, now)) {
+
+					keys[size] = entry.getKey();
+
+					values[size] = entry.getValue();
+
+					size++;
+
+				}
+
+			}
+
+		}
+
+		return new FrozenPerformantHashMap<K, V>(keys, values, size);
+
+	}
+
+	/**
+	 * Returns true if this map hashes its keys under a random seed of its own.
+	 * 
+	 * @return true if seeded hashing is enabled
+	 * @see #setSeededHash(boolean)
+	 */
+	public boolean isSeededHash() {
+
+		return isSeededHash;
+
+	}
+
+	/**
+	 * Enables or disables hashing the keys of this map under a random seed of its
+	 * own, as a defence against hash flooding by keys that come from untrusted
+	 * input. <br>
+	 * <br>
+	 * Without a seed a key is placed by its hashCode, so an attacker can craft
+	 * many keys sharing a bucket and turn every operation on them into a walk of
+	 * a long chain or tree. With a seed, String keys are hashed by their
+	 * characters with SipHash-1-3 under a 128-bit key drawn from a SecureRandom,
+	 * and the hash codes of other keys are mixed with the seed, so the keys that
+	 * share a bucket differ from map to map and cannot be predicted. The bloom
+	 * filter hashes the keys by the same seeded hash. Hashing a String by its
+	 * characters takes about one SipHash round per four characters on every
+	 * lookup, where its hash code is cached in the String, but that cost is the
+	 * same for benign and adversarial keys; keys of other types whose hash codes
+	 * are equal still collide. <br>
+	 * <br>
+	 * Every call that changes the setting, and every call that enables it, draws
+	 * a new seed and rehashes the whole map, which also changes its iteration
+	 * order, so it is best called while the map is still empty. The seed is not
+	 * serialized, so that it does not leak through a serialized map: a
+	 * deserialized map draws a new seed of its own.
+	 * 
+	 * @param isSeededHash the flag for seeded hashing
+	 */
+	public void setSeededHash(boolean isSeededHash) {
+
+		if (!isSeededHash && !this.isSeededHash) {
+
+			return;
+
+		}
+
+		completeRehash();
+
+		this.isSeededHash = isSeededHash;
+
+		drawHashSeed();
+
+		if (mapEntrySize == 0) {
+
+			if (isBloomFilter) {
+
+				bloomFilter.clear();
+
+			}
+
+			return;
+
+		}
+
+		reseed();
+
+	}
+
+	/**
+	 * Makes the mappings put into this map from now on expire once the specified
+	 * duration has passed since they were last put. The mappings already in the
+	 * map keep their expiration until they are put again. A duration of 0 turns
+	 * expiration off for the mappings put from now on. This setting replaces a
+	 * previous setExpireAfterAccess.
+	 * 
+	 * @param duration the time after which a mapping expires
+	 * @param unit     the unit of the duration
+	 * @throws IllegalArgumentException if the duration is negative
+	 * @throws NullPointerException     if the unit is null
+	 */
+	public void setExpireAfterWrite(long duration, TimeUnit unit) {
+
+		if (duration < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		expireAfterWriteNanos = unit.toNanos(duration);
+
+		expireAfterAccessNanos = 0;
+
+		if (expireAfterWriteNanos > 0) {
+
+			ensureTimerWheel();
+
+		}
+
+	}
+
+	/**
+	 * Makes the mappings put into this map from now on expire once the specified
+	 * duration has passed since they were last put or returned by get. The
+	 * mappings already in the map keep their expiration until they are put again.
+	 * A duration of 0 turns expiration off for the mappings put from now on. This
+	 * setting replaces a previous setExpireAfterWrite.
+	 * 
+	 * @param duration the time after which a mapping expires unless it is
+	 *                 accessed
+	 * @param unit     the unit of the duration
+	 * @throws IllegalArgumentException if the duration is negative
+	 * @throws NullPointerException     if the unit is null
+	 */
+	public void setExpireAfterAccess(long duration, TimeUnit unit) {
+
+		if (duration < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		expireAfterAccessNanos = unit.toNanos(duration);
+
+		expireAfterWriteNanos = 0;
+
+		if (expireAfterAccessNanos > 0) {
+
+			ensureTimerWheel();
+
+		}
+
+	}
+
+	/**
+	 * Removes the mappings whose expiration has been reached by the timing wheel
+	 * of this map. This happens on every get, put and remove anyway; a map that is
+	 * not accessed for a while can call this method to release the memory of its
+	 * expired mappings.
+	 */
+	public void removeExpiredEntries() {
+
+		if (timerWheel != null) {
+
+			expireEntries();
+
+		}
+
+	}
+
+	/**
+	 * Enables or disables the recording of statistics by this map. While they
+	 * are enabled, get, put, remove and the other operations record the number
+	 * of map entries they probe, the resizes of the table record their number
+	 * and duration, and the lookups answered by the bloom filter record whether
+	 * it was right. Enabling the statistics starts from zero; while they are
+	 * disabled, the only cost to the operations is a null check.
+	 * 
+	 * @param isStatisticsEnabled the flag for statistics
+	 * @see #stats()
+	 */
+	public void setStatisticsEnabled(boolean isStatisticsEnabled) {
+
+		if (!isStatisticsEnabled) {
+
+			statistics = null;
+
+		} else if (statistics == null) {
+
+			statistics = new PerformantHashMapStatsCounter();
+
+		}
+
+	}
+
+	/**
+	 * Returns true if this map records statistics.
+	 * 
+	 * @return true if the statistics are enabled
+	 */
+	public boolean isStatisticsEnabled() {
+
+		return statistics != null;
+
+	}
+
+	/**
+	 * Returns a snapshot of the statistics of this map. The bucket occupancy is
+	 * taken by scanning the table, and the old table while a rehash is in
+	 * progress, which takes time proportional to the capacity of the map; the
+	 * counters are zero unless the statistics are enabled. The snapshot is also
+	 * published to the MXBean of the map.
+	 * 
+	 * @return the statistics of this map
+	 */
+	public PerformantHashMapStats stats() {
+
+		long[] bucketOccupancy = new long[PerformantHashMapStats.HISTOGRAM_SIZE];
+
+		int treeBinCount = getBucketOccupancy(bucketOccupancy);
+
+		PerformantHashMapStats stats = new PerformantHashMapStats(statistics, mapEntrySize, mapSize,
+				bucketOccupancy, treeBinCount);
+
+		publishedStats = stats;
+
+		return stats;
+
+	}
+
+	/**
+	 * Resets the counters of the statistics of this map to zero.
+	 */
+	public void resetStats() {
+
+		if (statistics != null) {
+
+			statistics.reset();
+
+		}
+
+	}
+
+	/**
+	 * Returns the number of map entries a lookup may compare with its key before
+	 * it is recorded as a long probe.
+	 * 
+	 * @return the long probe threshold
+	 * @see #setLongProbeThreshold(int)
+	 */
+	public int getLongProbeThreshold() {
+
+		return longProbeThreshold;
+
+	}
+
+	/**
+	 * Sets the number of map entries a lookup by get, put or remove may compare
+	 * with its key before a com.sparklingminds.adt.map.LongProbe event is
+	 * committed to the running flight recordings. The default is the treeify
+	 * threshold (8). <br>
+	 * <br>
+	 * The probe length is only measured while the event is enabled in a
+	 * recording. Since a chain never holds more map entries than the treeify
+	 * threshold, a threshold at least that high only measures the lookups in
+	 * treeified buckets; a lower threshold walks every chain a second time while
+	 * the event is enabled. The flight recorder events of the rehashes and the
+	 * bloom filter rebuilds are filtered by the duration threshold of the
+	 * recording settings instead.
+	 * 
+	 * @param longProbeThreshold the long probe threshold
+	 * @throws IllegalArgumentException if the threshold is less than 1
+	 */
+	public void setLongProbeThreshold(int longProbeThreshold) {
+
+		if (longProbeThreshold < 1) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		this.longProbeThreshold = longProbeThreshold;
+
+	}
+
+	/**
+	 * Registers a PerformantHashMapMXBean for this map with the platform
+	 * MBeanServer, under the name
+	 * com.sparklingminds.adt.map:type=PerformantHashMap,name=<i>name</i>. The
+	 * MBeanServer holds on to the map until unregisterMBean is called. Registering
+	 * the MXBean does not enable the statistics. <br>
+	 * <br>
+	 * The MXBean is read from the threads of the MBeanServer, which do not
+	 * synchronize with the threads using the map, so it never walks the table.
+	 * The counters are read live from the statistics of the map, and the size
+	 * and capacity are read as they were last written. The bucket occupancy and
+	 * the number of tree bins come from the snapshot last taken by stats, on a
+	 * thread using the map; registerMBean takes the first one, and the map has
+	 * to call stats to bring them up to date.
+	 * 
+	 * @param name the name of the map, unique among the registered maps
+	 * @return the object name under which the MXBean is registered
+	 * @throws JMException          if the name is invalid or already registered
+	 * @throws NullPointerException if the name is null
+	 */
+	public ObjectName registerMBean(String name) throws JMException {
+
+		if (name == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		unregisterMBean();
+
+		stats();
+
+		ObjectName newObjectName = new ObjectName(
+				"com.sparklingminds.adt.map:type=PerformantHashMap,name=" + ObjectName.quote(name));
+
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new PerformantHashMapStatsMXBean(), newObjectName);
+
+		objectName = newObjectName;
+
+		return newObjectName;
+
+	}
+
+	/**
+	 * Unregisters the PerformantHashMapMXBean of this map from the platform
+	 * MBeanServer, if it is registered.
+	 * 
+	 * @throws JMException if the MXBean cannot be unregistered
+	 */
+	public void unregisterMBean() throws JMException {
+
+		if (objectName != null) {
+
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+
+			objectName = null;
+
+		}
+
+	}
+
+	/**
+	 * Writes a snapshot of this map to the specified file, in the fixed on-disk
+	 * layout described in MappedPerformantHashMap: a slot array of hashes and
+	 * offsets followed by a region holding the encoded keys and values. The
+	 * snapshot can be opened again with openSnapshot without deserializing it.
+	 * An existing file is replaced only once the new snapshot is complete.
+	 * 
+	 * @param path       the file to write the snapshot to
+	 * @param keyCodec   the codec encoding the keys
+	 * @param valueCodec the codec encoding the values
+	 * @throws IOException          if the snapshot cannot be written
+	 * @throws NullPointerException if an argument is null or this map contains a
+	 *                              null key or null value
+	 */
+	public void snapshotTo(Path path, PerformantCodec<K> keyCodec, PerformantCodec<V> valueCodec)
+			throws IOException {
+
+		MappedPerformantHashMap.write(this, path, keyCodec, valueCodec);
+
+	}
+
+	/**
+	 * Opens a snapshot written by snapshotTo. The file is memory-mapped and only
+	 * its header is read, so the snapshot is available in constant time whatever
+	 * its size; lookups are served straight from the mapped file, whose pages are
+	 * loaded on demand. The returned map is read-only and should be closed to
+	 * unmap the file.
+	 * 
+	 * @param <K>        the type of the keys
+	 * @param <V>        the type of the values
+	 * @param path       the snapshot file
+	 * @param keyCodec   the codec the keys were encoded with
+	 * @param valueCodec the codec the values were encoded with
+	 * @return a read-only map backed by the snapshot file
+	 * @throws IOException          if the file cannot be mapped or is not a
+	 *                              snapshot
+	 * @throws NullPointerException if an argument is null
+	 */
+	public static <K, V> MappedPerformantHashMap<K, V> openSnapshot(Path path, PerformantCodec<K> keyCodec,
+			PerformantCodec<V> valueCodec) throws IOException {
+
+		return MappedPerformantHashMap.open(path, keyCodec, valueCodec);
+
+	}
+
+	/**
+	 * Returns a shallow copy of this PerformantHashMap instance: the keys and
+	 * values themselves are not cloned. The copy has its own table, bloom filter,
+	 * timer wheel and statistics, keeps the expiration time of every map entry,
+	 * finishes any rehash of this map in a single step and is not registered as
+	 * an MXBean.
+	 * 
+	 * @return a shallow copy of this map
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+
+		PerformantHashMap<K, V> result;
+
+		try {
+
+			result = (PerformantHashMap<K, V>) super.clone();
+
+		} catch (CloneNotSupportedException e) {
+
+			throw new CloneNotSupportedException();
+
+		}
+
+		result.performantMap = new Object[mapSize];
+
+		result.mapEntrySize = 0;
+
+		result.listSize = 0;
+
+		result.entrySet = null;
+
+		result.keySet = null;
+
+		result.valueSet = null;
+
+		result.bloomFilter = null;
+
+		if (isBloomFilter) {
+
+			result.bloomFilter = new CountingBloomFilter(bloomFilterExpectedInsertions, bloomFilterFpp);
+
+		}
+
+		result.oldPerformantMap = null;
+
+		result.oldMapSize = 0;
+
+		result.rehashIndex = 0;
+
+		result.rehashPauseCount = 0;
+
+		result.rehashPauseMapEntrySize = 0;
+
+		result.oldBloomFilter = null;
+
+		result.timerWheel = null;
+
+		result.statistics = statistics == null ? null : new PerformantHashMapStatsCounter();
+
+		result.objectName = null;
+
+		result.publishedStats = null;
+
+		result.rehashEvent = null;
+
+		result.bloomFilterRebuildEvent = null;
+
+		if (timerWheel != null) {
+
+			result.ensureTimerWheel();
+
+		}
+
+		long now = System.nanoTime();
+
+		if (oldPerformantMap != null) {
+
+			result.copyEntries(oldPerformantMap, rehashIndex, now);
+
+		}
+
+		result.copyEntries(performantMap, 0, now);
+
+		for (int i = 0; i < mapSize; i++) {
+
+			result.treeifyIfRequired(result.performantMap, i);
+
+		}
+
+		return result;
+
+	}
+
+	/*
+	 * Pushes a copy of every map entry that has not expired, from the specified
+	 * bucket of the table onwards, onto the head of its bucket of this map. The
+	 * copies are scheduled to expire at the same time as the map entries they
+	 * were copied from. The table of this map has to be large enough for the
+	 * copies already, and the buckets have to be treeified afterwards.
+	 */
+	@SuppressWarnings("unchecked")
+	private void copyEntries(Object[] table, int index, long now) {
+
+		for (int i = index; i < table.length; i++) {
+
+			for (PerformantHashMapEntry<K, V> entry = PerformantTreeBin.first(table[i]); entry != null; entry = entry
+					.getNext()) {
+
+				if (isExpired(entry, now)) {
+
+					continue;
+
+				}
+
+				PerformantHashMapEntry<K, V> copy = new PerformantHashMapEntry<K, V>(entry.getHash(), entry.getKey(),
+						entry.getValue());
+
+				int bucketIndex = getBucketIndex(copy.getHash(), mapSize);
+
+				copy.setNext((PerformantHashMapEntry<K, V>) performantMap[bucketIndex]);
+
+				performantMap[bucketIndex] = copy;
+
+				if (isBloomFilter == true && copy.getKey() != null) {
+
+					bloomFilter.add(getBloomFilterHash(copy.getKey(), copy.getHash()));
+
+				}
+
+				PerformantTimerWheel.Timer timer = entry.getTimer();
+
+				if (timer != null) {
+
+					PerformantTimerWheel.Timer copyTimer = new PerformantTimerWheel.Timer(copy.getKey());
+
+					copy.setTimer(copyTimer);
+
+					timerWheel.schedule(copyTimer, timer.getTime(), timer.getRefreshNanos());
+
+				}
+
+				mapEntrySize++;
+
+				listSize++;
+
+			}
+
+		}
+
+	}
+
+	/*
+	 * Writes the configuration, the number of mappings, every mapping and the
+	 * bloom filter, unless the map hashes under a seed, which is not written and
+	 * without which the filter is of no use. The mappings of a bucket are written from the tail of its
+	 * chain to the head, so that readObject, which pushes every mapping onto the
+	 * head of its bucket, keeps the mappings of a chain in their order.
+	 */
+	@SuppressWarnings("unchecked")
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+
+		completeRehash();
+
+		s.defaultWriteObject();
+
+		s.writeInt(mapEntrySize);
+
+		java.util.ArrayList<PerformantHashMapEntry<K, V>> chain = new java.util.ArrayList<PerformantHashMapEntry<K, V>>();
+
+		for (int i = 0; i < mapSize; i++) {
+
+			PerformantHashMapEntry<K, V> currentPosition = PerformantTreeBin.first(performantMap[i]);
+
+			while (currentPosition != null) {
+
+				chain.add(currentPosition);
+
+				currentPosition = currentPosition.getNext();
+
+			}
+
+			for (int j = chain.size() - 1; j >= 0; j--) {
+
+				s.writeObject(chain.get(j).getKey());
+
+				s.writeObject(chain.get(j).getValue());
+
+			}
+
+			chain.clear();
+
+		}
+
+		if (isBloomFilter && !isSeededHash) {
+
+			s.writeObject(bloomFilter);
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+
+		s.defaultReadObject();
+
+		int entries = s.readInt();
+
+		if (entries < 0 || !(loadFactor > 0) || (isBloomFilter && !(bloomFilterFpp > 0 && bloomFilterFpp < 1))) {
+
+			throw new java.io.InvalidObjectException("Illegal PerformantHashMap header");
+
+		}
+
+		// Streams written before the policy was configurable always transposed.
+		if (chainReorderPolicy == null) {
+
+			chainReorderPolicy = ChainReorderPolicy.TRANSPOSE;
+
+		}
+
+		// The capacity in the stream is not trusted: the table is sized for the
+		// mappings at the load factor, in the capacity mode of the map.
+		mapSize = getCapacity(entries);
+
+		// Streams written before the table could shrink carry no minimum capacity.
+		// A minimum above the table is not trusted either.
+		minimumMapSize = minimumMapSize <= 0 ? Math.min(mapSize, 16) : Math.min(minimumMapSize, mapSize);
+
+		if (isPowerOfTwoCapacity) {
+
+			minimumMapSize = getPowerOfTwoCapacity(minimumMapSize);
+
+		}
+
+		// Streams written before the long probe events carry no threshold.
+		if (longProbeThreshold <= 0) {
+
+			longProbeThreshold = PerformantTreeBin.TREEIFY_THRESHOLD;
+
+		}
+
+		performantMap = new Object[mapSize];
+
+		if (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0) {
+
+			ensureTimerWheel();
+
+		}
+
+		// A seeded map hashes its keys under a seed of its own, so its bloom filter
+		// is built from the keys as they are read.
+		drawHashSeed();
+
+		if (isBloomFilter && isSeededHash) {
+
+			bloomFilterExpectedInsertions = getThreshold(mapSize);
+
+			bloomFilter = new CountingBloomFilter(bloomFilterExpectedInsertions, bloomFilterFpp);
+
+		}
+
+		long now = System.nanoTime();
+
+		for (int i = 0; i < entries; i++) {
+
+			Object key = s.readObject();
+
+			int hash = hash(key);
+
+			if (isBloomFilter && isSeededHash && key != null) {
+
+				bloomFilter.add(getBloomFilterHash(key, hash));
+
+			}
+
+			PerformantHashMapEntry<K, V> entry = new PerformantHashMapEntry<K, V>(hash, key, s.readObject());
+
+			int bucketIndex = getBucketIndex(hash, mapSize);
+
+			entry.setNext((PerformantHashMapEntry<K, V>) performantMap[bucketIndex]);
+
+			performantMap[bucketIndex] = entry;
+
+			scheduleExpiration(entry, now, -1L);
+
+		}
+
+		for (int i = 0; i < mapSize; i++) {
+
+			treeifyIfRequired(performantMap, i);
+
+		}
+
+		mapEntrySize = entries;
+
+		listSize = entries;
+
+		if (isBloomFilter && !isSeededHash) {
+
+			bloomFilter = (CountingBloomFilter) s.readObject();
+
+		}
+
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void load(Object[] source, ForkJoinPool pool) {
+
+		int size = source.length;
+
+		if (size == 0) {
+
+			return;
+
+		}
+
+		int tasks = pool.getParallelism() * 4;
+
+		int chunks = Math.max(1, Math.min(tasks, size / BULK_LOAD_CHUNK_SIZE));
+
+		int ranges = Math.max(1, Math.min(tasks, mapSize));
+
+		PerformantHashMapEntry<K, V>[] loaded = new PerformantHashMapEntry[size];
+
+		int[] rangeOf = new int[size];
+
+		int[][] offsets = new int[chunks][ranges];
+
+		// Every chunk creates the map entries of its mappings and counts how many
+		// of them fall into every range of buckets.
+		pool.invoke(new BulkLoadAction(0, chunks, chunk -> {
+
+			int[] counts = offsets[chunk];
+
+			for (int i = getChunkStart(chunk, chunks, size); i < getChunkStart(chunk + 1, chunks, size); i++) {
+
+				Map.Entry<K, V> me = (Map.Entry<K, V>) source[i];
+
+				int hash = hash(me.getKey());
+
+				loaded[i] = new PerformantHashMapEntry<K, V>(hash, me.getKey(), me.getValue());
+
+				rangeOf[i] = (int) ((long) getBucketIndex(hash, mapSize) * ranges / mapSize);
+
+				counts[rangeOf[i]]++;
+
+			}
+
+		}));
+
+		// The runs of the ranges follow each other, and within the run of a range
+		// the chunks follow each other, so that the encounter order is kept.
+		int[] rangeStart = new int[ranges + 1];
+
+		int offset = 0;
+
+		for (int range = 0; range < ranges; range++) {
+
+			rangeStart[range] = offset;
+
+			for (int chunk = 0; chunk < chunks; chunk++) {
+
+				int count = offsets[chunk][range];
+
+				offsets[chunk][range] = offset;
+
+				offset += count;
+
+			}
+
+		}
+
+		rangeStart[ranges] = offset;
+
+		// The mappings are no longer needed, so the buffer takes the map entries
+		// ordered by range.
+		Object[] sorted = source;
+
+		pool.invoke(new BulkLoadAction(0, chunks, chunk -> {
+
+			int[] chunkOffsets = offsets[chunk];
+
+			for (int i = getChunkStart(chunk, chunks, size); i < getChunkStart(chunk + 1, chunks, size); i++) {
+
+				sorted[chunkOffsets[rangeOf[i]]++] = loaded[i];
+
+			}
+
+		}));
+
+		int[] inserted = new int[ranges];
+
+		pool.invoke(new BulkLoadAction(0, ranges, range -> {
+
+			for (int i = rangeStart[range]; i < rangeStart[range + 1]; i++) {
+
+				if (loadEntry((PerformantHashMapEntry<K, V>) sorted[i])) {
+
+					inserted[range]++;
+
+				}
+
+			}
+
+		}));
+
+		for (int count : inserted) {
+
+			mapEntrySize += count;
+
+		}
+
+		listSize = mapEntrySize;
+
+		if (isBloomFilter) {
+
+			for (int i = 0; i < mapSize; i++) {
+
+				for (PerformantHashMapEntry<K, V> entry = PerformantTreeBin.first(performantMap[i]); entry != null; entry = entry
+						.getNext()) {
+
+					if (entry.getKey() != null) {
+
+						bloomFilter.add(getBloomFilterHash(entry.getKey(), entry.getHash()));
+
+					}
+
+				}
+
+			}
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean loadEntry(PerformantHashMapEntry<K, V> entry) {
+
+		int hash = entry.getHash();
+
+		K key = entry.getKey();
+
+		int bucketIndex = getBucketIndex(hash, mapSize);
+
+		if (PerformantTreeBin.isTreeBin(performantMap[bucketIndex])) {
+
+			PerformantHashMapEntry<K, V> existing = PerformantTreeBin.find(performantMap[bucketIndex], hash, key);
+
+			if (existing != null) {
+
+				existing.setValue(entry.getValue());
+
+				return false;
+
+			}
+
+			PerformantTreeBin.addEntry(performantMap, bucketIndex, entry);
+
+			return true;
+
+		}
+
+		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) performantMap[bucketIndex];
+
+		int chainLength = 0;
+
+		while (currentPosition != null) {
+
+			if (isMatch(currentPosition, hash, key)) {
+
+				currentPosition.setValue(entry.getValue());
+
+				return false;
+
+			}
+
+			chainLength++;
+
+			currentPosition = currentPosition.getNext();
+
+		}
+
+		entry.setNext((PerformantHashMapEntry<K, V>) performantMap[bucketIndex]);
+
+		performantMap[bucketIndex] = entry;
+
+		if (chainLength >= PerformantTreeBin.TREEIFY_THRESHOLD) {
+
+			PerformantTreeBin.treeify(performantMap, bucketIndex);
+
+		}
+
+		return true;
+
+	}
+
+	private static int getChunkStart(int chunk, int chunks, int size) {
+
+		return (int) ((long) chunk * size / chunks);
+
+	}
+
+	private void resize(int newMapSize) {
+
+		if (isIncrementalRehash) {
+
+			startRehash(newMapSize);
+
+		} else {
+
+			rehash(newMapSize);
+
+		}
+
+	}
+
+	/*
+	 * The table is shrunk once it is less than a quarter as full as the load
+	 * factor allows, to a capacity at which it is half as full, so that a map
+	 * whose size moves around a threshold is not resized back and forth. It is
+	 * never shrunk below its initial capacity or the capacity reserved by
+	 * ensureCapacity.
+	 */
+	private void shrinkIfRequired() {
+
+		if (mapSize > minimumMapSize && listSize < getThreshold(mapSize) / 4) {
+
+			int newMapSize = Math.max(minimumMapSize, getCapacity(2L * listSize));
+
+			if (newMapSize < mapSize) {
+
+				resize(newMapSize);
+
+			}
+
+		}
+
+	}
+
+	private void rehash(int newMapSize) {
+
+		completeRehash();
+
+		long start = statistics == null ? 0 : System.nanoTime();
+
+		RehashEvent event = beginRehashEvent(newMapSize, false);
+
+		Object[] temp = performantMap;
+
+		int tempSize = mapSize;
+
+		mapSize = newMapSize;
+
+		listSize = mapEntrySize;
+
+		performantMap = new Object[mapSize];
+
+		startBloomFilterRebuild();
+
+		for (int i = 0; i < tempSize; i++) {
+
+			moveBucket(temp, i);
+
+		}
+
+		finishBloomFilterRebuild();
+
+		if (statistics != null) {
+
+			statistics.recordRehash(System.nanoTime() - start);
+
+		}
+
+		if (event != null) {
+
+			event.commit();
+
+		}
+
+	}
+
+	private void startRehash(int newMapSize) {
+
+		// A migration that is still running when the next resize is due is
+		// finished first, so at most two tables are ever alive at a time.
+		completeRehash();
+
+		rehashEvent = beginRehashEvent(newMapSize, true);
+
+		oldPerformantMap = performantMap;
+
+		oldMapSize = mapSize;
+
+		rehashIndex = 0;
+
+		mapSize = newMapSize;
+
+		listSize = mapEntrySize;
+
+		performantMap = new Object[mapSize];
+
+		startBloomFilterRebuild();
+
+		// The time of the migration is recorded as it happens.
+		if (statistics != null) {
+
+			statistics.recordRehash(0);
+
+		}
+
+	}
+
+	/*
+	 * Draws a new seed from a SecureRandom if seeded hashing is enabled, and
+	 * clears the seed otherwise.
+	 */
+	private void drawHashSeed() {
+
+		if (isSeededHash) {
+
+			SecureRandom random = new SecureRandom();
+
+			hashSeed0 = random.nextLong();
+
+			hashSeed1 = random.nextLong();
+
+		} else {
+
+			hashSeed0 = 0;
+
+			hashSeed1 = 0;
+
+		}
+
+	}
+
+	/*
+	 * Recomputes the hash cached in every map entry after the seed has changed
+	 * and moves the entries into a table of the same size. The bloom filter is
+	 * rebuilt as well, since the positions of every key have changed.
+	 */
+	@SuppressWarnings("unchecked")
+	private void reseed() {
+
+		for (int i = 0; i < mapSize; i++) {
+
+			for (PerformantHashMapEntry<K, V> entry = PerformantTreeBin.first(performantMap[i]); entry != null; entry = entry
+					.getNext()) {
+
+				entry.setHash(hash(entry.getKey()));
+
+			}
+
+		}
+
+		if (isBloomFilter) {
+
+			rebuildBloomFilter(bloomFilterExpectedInsertions);
+
+		}
+
+		rehash(mapSize);
+
+	}
+
+	private void startBloomFilterRebuild() {
+
+		// The bloom filter only has to be rebuilt once the grown table can hold
+		// more keys than the filter was sized for. While it is being rebuilt, the
+		// previous filter keeps answering for the keys that have not been moved.
+		if (isBloomFilter && getThreshold(mapSize) > bloomFilterExpectedInsertions) {
+
+			rebuildBloomFilter(getThreshold(mapSize));
+
+		}
+
+	}
+
+	/*
+	 * Replaces the bloom filter with an empty one sized for the specified number
+	 * of keys. The previous filter is kept as the old bloom filter until the map
+	 * entries have been moved, which adds their keys to the new one.
+	 */
+	private void rebuildBloomFilter(int expectedInsertions) {
+
+		if (FlightRecorder.isInitialized()) {
+
+			BloomFilterRebuildEvent event = new BloomFilterRebuildEvent();
+
+			if (event.isEnabled()) {
+
+				event.begin();
+
+				event.oldExpectedInsertions = bloomFilterExpectedInsertions;
+
+				event.newExpectedInsertions = expectedInsertions;
+
+				event.falsePositiveProbability = bloomFilterFpp;
+
+				event.entryCount = mapEntrySize;
+
+				bloomFilterRebuildEvent = event;
+
+			}
+
+		}
+
+		bloomFilterExpectedInsertions = expectedInsertions;
+
+		oldBloomFilter = bloomFilter;
+
+		bloomFilter = new CountingBloomFilter(bloomFilterExpectedInsertions, bloomFilterFpp);
+
+	}
+
+	private void finishBloomFilterRebuild() {
+
+		oldBloomFilter = null;
+
+		if (bloomFilterRebuildEvent != null) {
+
+			bloomFilterRebuildEvent.commit();
+
+			bloomFilterRebuildEvent = null;
+
+		}
+
+	}
+
+	/*
+	 * Returns a started RehashEvent for a resize of the table to the specified
+	 * size, or null if the event is not enabled in any running recording. The
+	 * event classes are not touched before the flight recorder has been started,
+	 * since registering them takes the flight recorder a few hundred milliseconds.
+	 */
+	private RehashEvent beginRehashEvent(int newMapSize, boolean isIncremental) {
+
+		if (!FlightRecorder.isInitialized()) {
+
+			return null;
+
+		}
+
+		RehashEvent event = new RehashEvent();
+
+		if (!event.isEnabled()) {
+
+			return null;
+
+		}
+
+		event.begin();
+
+		event.oldCapacity = mapSize;
+
+		event.newCapacity = newMapSize;
+
+		event.entryCount = mapEntrySize;
+
+		event.incremental = isIncremental;
+
+		return event;
+
+	}
+
+	private void rehashStep() {
+
+		if (isRehashPaused()) {
+
+			return;
+
+		}
+
+		long start = statistics == null ? 0 : System.nanoTime();
+
+		int movedBuckets = 0;
+
+		int visitedBuckets = 0;
+
+		while (oldPerformantMap != null && movedBuckets < REHASH_STEP_BUCKETS
+				&& visitedBuckets < REHASH_STEP_BUCKETS * 10) {
+
+			if (oldPerformantMap[rehashIndex] != null) {
+
+				moveBucket(oldPerformantMap, rehashIndex);
+
+				movedBuckets++;
+
+			}
+
+			visitedBuckets++;
+
+			if (++rehashIndex == oldMapSize) {
+
+				finishRehash();
+
+			}
+
+		}
+
+		if (statistics != null) {
+
+			statistics.recordRehashTime(System.nanoTime() - start);
+
+		}
+
+	}
+
+	private void completeRehash() {
+
+		if (oldPerformantMap != null) {
+
+			long start = statistics == null ? 0 : System.nanoTime();
+
+			for (int i = rehashIndex; i < oldMapSize; i++) {
+
+				moveBucket(oldPerformantMap, i);
+
+			}
+
+			finishRehash();
+
+			if (statistics != null) {
+
+				statistics.recordRehashTime(System.nanoTime() - start);
+
+			}
+
+		}
+
+	}
+
+	private void finishRehash() {
+
+		oldPerformantMap = null;
+
+		oldMapSize = 0;
+
+		rehashIndex = 0;
+
+		rehashPauseCount = 0;
+
+		finishBloomFilterRebuild();
+
+		if (rehashEvent != null) {
+
+			rehashEvent.commit();
+
+			rehashEvent = null;
+
+		}
+
+	}
+
+	/*
+	 * Pauses the migration while an iterator walks the remaining buckets of the
+	 * old table and then the current table, so that no map entry moves from a
+	 * bucket the iterator has not walked yet to one it has. Returns whether the
+	 * migration was paused, which it is not if there is no old table.
+	 */
+	private boolean pauseRehash() {
+
+		if (oldPerformantMap == null) {
+
+			return false;
+
+		}
+
+		if (!isRehashPaused()) {
+
+			rehashPauseCount = 0;
+
+			rehashPauseMapEntrySize = mapEntrySize;
+
+		}
+
+		rehashPauseCount++;
+
+		return true;
+
+	}
+
+	private void resumeRehash() {
+
+		if (isRehashPaused()) {
+
+			rehashPauseCount--;
+
+		}
+
+	}
+
+	/*
+	 * Adding or removing a mapping makes every iterator fail, so it also ends
+	 * every pause. An iterator that removes a mapping itself pauses the migration
+	 * again.
+	 */
+	private boolean isRehashPaused() {
+
+		return rehashPauseCount > 0 && rehashPauseMapEntrySize == mapEntrySize;
+
+	}
+
+	private void migrateBucket(int oldIndex) {
+
+		if (oldIndex >= rehashIndex) {
+
+			moveBucket(oldPerformantMap, oldIndex);
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private void moveBucket(Object[] table, int index) {
+
+		// The entries of a tree are moved like the entries of any other chain.
+		boolean isTreeBin = PerformantTreeBin.isTreeBin(table[index]);
+
+		PerformantHashMapEntry<K, V> currentPosition = PerformantTreeBin.first(table[index]);
+
+		table[index] = null;
+
+		// The chain is reversed first and its entries are then pushed onto the
+		// heads of their new buckets, which keeps the order established by the
+		// self-organizing heuristic.
+		PerformantHashMapEntry<K, V> reversed = null;
+
+		while (currentPosition != null) {
+
+			PerformantHashMapEntry<K, V> next = currentPosition.getNext();
+
+			currentPosition.setNext(reversed);
+
+			reversed = currentPosition;
+
+			currentPosition = next;
+
+		}
+
+		while (reversed != null) {
+
+			PerformantHashMapEntry<K, V> next = reversed.getNext();
+
+			// The hash is cached in the entry, so no hashCode method is called.
+			int newIndex = getBucketIndex(reversed.getHash(), mapSize);
+
+			if (PerformantTreeBin.isTreeBin(performantMap[newIndex])) {
+
+				PerformantTreeBin.addEntry(performantMap, newIndex, reversed);
+
+			} else {
+
+				reversed.setNext((PerformantHashMapEntry<K, V>) performantMap[newIndex]);
+
+				performantMap[newIndex] = reversed;
+
+				if (isTreeBin) {
+
+					treeifyIfRequired(performantMap, newIndex);
+
+				}
+
+			}
+
+			if (oldBloomFilter != null && reversed.getKey() != null) {
+
+				bloomFilter.add(getBloomFilterHash(reversed.getKey(), reversed.getHash()));
+
+			}
+
+			reversed = next;
+
+		}
+
+	}
+
+	private void ensureTimerWheel() {
+
+		if (timerWheel == null) {
+
+			timerWheel = new PerformantTimerWheel(this::expire);
+
+		}
+
+	}
+
+	private long expireEntries() {
+
+		long now = System.nanoTime();
+
+		timerWheel.advance(now);
+
+		// The expired entries are removed in a batch, so the table is shrunk at
+		// most once per batch.
+		shrinkIfRequired();
+
+		return now;
+
+	}
+
+	private void expire(PerformantTimerWheel.Timer timer) {
+
+		Object key = timer.getKey();
+
+		int hash = hash(key);
+
+		PerformantHashMapEntry<K, V> entry = null;
+
+		if (oldPerformantMap != null) {
+
+			entry = getEntry(oldPerformantMap, getBucketIndex(hash, oldMapSize), hash, key);
+
+		}
+
+		if (entry == null) {
+
+			entry = getEntry(performantMap, getBucketIndex(hash, mapSize), hash, key);
+
+		}
+
+		if (entry != null && entry.getTimer() == timer) {
+
+			removeEntry(hash, key);
+
+		}
+
+	}
+
+	private void refreshExpiration(PerformantHashMapEntry<K, V> entry, long now) {
+
+		PerformantTimerWheel.Timer timer = entry.getTimer();
+
+		if (timer != null && timer.getRefreshNanos() > 0) {
+
+			timerWheel.schedule(timer, now + timer.getRefreshNanos(), timer.getRefreshNanos());
+
+		}
+
+	}
+
+	/*
+	 * Counts the buckets of the current table by the number of map entries they
+	 * hold into the histogram and returns the number of tree bins. While a rehash
+	 * is in progress, the buckets of the old table that still hold map entries
+	 * are counted too; its migrated buckets are not buckets of the map any more.
+	 */
+	private int getBucketOccupancy(long[] histogram) {
+
+		int treeBinCount = getBucketOccupancy(performantMap, 0, histogram);
+
+		if (oldPerformantMap != null) {
+
+			long emptyBuckets = histogram[0];
+
+			treeBinCount += getBucketOccupancy(oldPerformantMap, rehashIndex, histogram);
+
+			histogram[0] = emptyBuckets;
+
+		}
+
+		return treeBinCount;
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private int getBucketOccupancy(Object[] table, int fromIndex, long[] histogram) {
+
+		int treeBinCount = 0;
+
+		for (int i = fromIndex; i < table.length; i++) {
+
+			int entries = 0;
+
+			for (PerformantHashMapEntry<K, V> entry = PerformantTreeBin.first(table[i]); entry != null; entry = entry
+					.getNext()) {
+
+				entries++;
+
+			}
+
+			histogram[Math.min(entries, histogram.length - 1)]++;
+
+			if (PerformantTreeBin.isTreeBin(table[i])) {
+
+				treeBinCount++;
+
+			}
+
+		}
+
+		return treeBinCount;
+
+	}
+
+	private static boolean isExpired(PerformantHashMapEntry<?, ?> entry, long now) {
+
+		return entry.getTimer() != null && entry.getTimer().isExpired(now);
+
+	}
+
+	private void scheduleExpiration(PerformantHashMapEntry<K, V> entry, long now, long timeToLiveNanos) {
+
+		if (timerWheel == null) {
+
+			return;
+
+		}
+
+		long lifetime = timeToLiveNanos;
+
+		long refreshNanos = 0;
+
+		if (lifetime < 0) {
+
+			lifetime = expireAfterWriteNanos > 0 ? expireAfterWriteNanos : expireAfterAccessNanos;
+
+			refreshNanos = expireAfterAccessNanos;
+
+		}
+
+		PerformantTimerWheel.Timer timer = entry.getTimer();
+
+		if (lifetime <= 0) {
+
+			if (timer != null) {
+
+				timerWheel.cancel(timer);
+
+				entry.setTimer(null);
+
+			}
+
+			return;
+
+		}
+
+		if (timer == null) {
+
+			timer = new PerformantTimerWheel.Timer(entry.getKey());
+
+			entry.setTimer(timer);
+
+		}
+
+		timerWheel.schedule(timer, now + lifetime, refreshNanos);
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private void treeifyIfRequired(Object[] table, int index) {
+
+		if (PerformantTreeBin.isTreeBin(table[index])) {
+
+			return;
+
+		}
+
+		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) table[index];
+
+		int chainLength = 0;
+
+		while (currentPosition != null) {
+
+			if (++chainLength > PerformantTreeBin.TREEIFY_THRESHOLD) {
+
+				PerformantTreeBin.treeify(table, index);
+
+				return;
+
+			}
+
+			currentPosition = currentPosition.getNext();
+
+		}
+
+	}
+
+	/*
+	 * Commits a LongProbeEvent if looking up the key in the bucket compares it
+	 * with more map entries than the long probe threshold. A chain is never longer
+	 * than TREEIFY_THRESHOLD, so with the default threshold only tree bins have to
+	 * be walked again, and only while the event is enabled in a recording.
+	 */
+	private void checkProbeLength(String operation, Object[] table, int index, int hash, Object key) {
+
+		Object head = table[index];
+
+		boolean isTreeBin = PerformantTreeBin.isTreeBin(head);
+
+		if (head == null || (!isTreeBin && longProbeThreshold >= PerformantTreeBin.TREEIFY_THRESHOLD)
+				|| !FlightRecorder.isInitialized()) {
+
+			return;
+
+		}
+
+		LongProbeEvent event = new LongProbeEvent();
+
+		if (event.isEnabled()) {
+
+			int probes = getProbeLength(table, index, hash, key);
+
+			if (probes > longProbeThreshold) {
+
+				event.operation = operation;
+
+				event.probeLength = probes;
+
+				event.threshold = longProbeThreshold;
+
+				event.capacity = table.length;
+
+				event.bucketIndex = index;
+
+				event.treeBin = isTreeBin;
+
+				event.commit();
+
+			}
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private int getProbeLength(Object[] table, int index, int hash, Object key) {
+
+		if (PerformantTreeBin.isTreeBin(table[index])) {
+
+			return PerformantTreeBin.getProbeLength(table[index], hash, key);
+
+		}
+
+		int probes = 0;
+
+		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) table[index];
+
+		while (currentPosition != null) {
+
+			probes++;
+
+			if (isMatch(currentPosition, hash, key)) {
+
+				break;
+
+			}
+
+			currentPosition = currentPosition.getNext();
+
+		}
+
+		return probes;
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private PerformantHashMapEntry<K, V> getEntry(Object[] table, int index, int hash, Object key) {
+
+		if (PerformantTreeBin.isTreeBin(table[index])) {
+
+			return PerformantTreeBin.find(table[index], hash, key);
+
+		}
+
+		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) table[index];
+
+		while (currentPosition != null) {
+
+			if (isMatch(currentPosition, hash, key)) {
+
+				return currentPosition;
+
+			}
+
+			currentPosition = currentPosition.getNext();
+
+		}
+
+		return null;
+
+	}
+
+	private PerformantHashMapEntry<K, V> findEntry(Object[] table, int index, int hash, Object key) {
+
+		// The entries of a tree are ordered by their keys, so they are never
+		// reordered.
+		if (PerformantTreeBin.isTreeBin(table[index])) {
+
+			return PerformantTreeBin.find(table[index], hash, key);
+
+		}
+
+		switch (chainReorderPolicy) {
+
+		case TRANSPOSE:
+
+			return transposeEntry(table, index, hash, key);
+
+		case MOVE_TO_FRONT:
+
+			return moveEntryToFront(table, index, hash, key);
+
+		case FREQUENCY_COUNT:
+
+			return countEntry(table, index, hash, key);
+
+		default:
+
+			return getEntry(table, index, hash, key);
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private PerformantHashMapEntry<K, V> transposeEntry(Object[] table, int index, int hash, Object key) {
+
+		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) table[index];
+
+		PerformantHashMapEntry<K, V> previousPosition = null;
+
+		while (currentPosition != null) {
+
+			if (isMatch(currentPosition, hash, key)) {
+
+				if (previousPosition == null) {
+
+					return currentPosition;
+
+				}
+
+				int tempHash = previousPosition.getHash();
+				K tempKey = previousPosition.getKey();
+				V tempValue = previousPosition.getValue();
+				PerformantTimerWheel.Timer tempTimer = previousPosition.getTimer();
+
+				previousPosition.setHash(currentPosition.getHash());
+				previousPosition.setKey(currentPosition.getKey());
+				previousPosition.setValue(currentPosition.getValue());
+				previousPosition.setTimer(currentPosition.getTimer());
+
+				currentPosition.setHash(tempHash);
+				currentPosition.setKey(tempKey);
+				currentPosition.setValue(tempValue);
+				currentPosition.setTimer(tempTimer);
+
+				return previousPosition;
+
+			}
+
+			previousPosition = currentPosition;
+
+			currentPosition = currentPosition.getNext();
+
+		}
+
+		return null;
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private PerformantHashMapEntry<K, V> moveEntryToFront(Object[] table, int index, int hash, Object key) {
+
+		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) table[index];
+
+		PerformantHashMapEntry<K, V> previousPosition = null;
+
+		while (currentPosition != null) {
+
+			if (isMatch(currentPosition, hash, key)) {
+
+				if (previousPosition != null) {
+
+					previousPosition.setNext(currentPosition.getNext());
+
+					currentPosition.setNext((PerformantHashMapEntry<K, V>) table[index]);
+
+					table[index] = currentPosition;
+
+				}
+
+				return currentPosition;
+
+			}
+
+			previousPosition = currentPosition;
+
+			currentPosition = currentPosition.getNext();
+
+		}
+
+		return null;
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private PerformantHashMapEntry<K, V> countEntry(Object[] table, int index, int hash, Object key) {
+
+		PerformantHashMapEntry<K, V> currentPosition = (PerformantHashMapEntry<K, V>) table[index];
+
+		PerformantHashMapEntry<K, V> previousPosition = null;
+
+		while (currentPosition != null) {
+
+			if (isMatch(currentPosition, hash, key)) {
+
+				currentPosition.incrementAccessCount();
+
+				int accessCount = currentPosition.getAccessCount();
+
+				if (previousPosition != null && previousPosition.getAccessCount() <= accessCount) {
+
+					// The entry is relinked in front of the first entry that has not
+					// been accessed more often, which at the latest is its
+					// predecessor.
+					PerformantHashMapEntry<K, V> before = null;
+
+					PerformantHashMapEntry<K, V> position = (PerformantHashMapEntry<K, V>) table[index];
+
+					while (position.getAccessCount() > accessCount) {
+
+						before = position;
+
+						position = position.getNext();
+
+					}
+
+					previousPosition.setNext(currentPosition.getNext());
+
+					currentPosition.setNext(position);
+
+					if (before == null) {
+
+						table[index] = currentPosition;
+
+					} else {
+
+						before.setNext(currentPosition);
+
+					}
+
+				}
+
+				return currentPosition;
+
+			}
+
+			previousPosition = currentPosition;
+
+			currentPosition = currentPosition.getNext();
+
+		}
+
+		return null;
+
+	}
+
+	private int getNextCapacity(int mapSize) {
+
+		if (isPowerOfTwoCapacity) {
+
+			if (mapSize >= MAXIMUM_CAPACITY) {
+
+				throw new IllegalStateException("PerformantHashMap cannot grow beyond " + MAXIMUM_CAPACITY);
+
+			}
+
+			return mapSize << 1;
+
+		}
+
+		return getNextPrime(2 * mapSize);
+
+	}
+
+	/*
+	 * Returns the capacity at which the specified number of entries stays below
+	 * the load factor.
+	 */
+	private int getCapacity(long entries) {
+
+		int initialCapacity = (int) Math.min(MAXIMUM_CAPACITY, entries / loadFactor + 1);
+
+		return isPowerOfTwoCapacity ? getPowerOfTwoCapacity(initialCapacity) : getNextPrime(initialCapacity);
+
+	}
+
+	private int getThreshold(int mapSize) {
+
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(1L, (long) (mapSize * (double) loadFactor)));
+
+	}
+
+	private static int getInitialCapacity(Map<?, ?> m) {
+
+		if (m == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		return Math.max((int) Math.min(MAXIMUM_CAPACITY, m.size() / 0.75f + 1), 16);
+
+	}
+
+	private static int getPowerOfTwoCapacity(int initialCapacity) {
+
+		if (initialCapacity >= MAXIMUM_CAPACITY) {
+
+			return MAXIMUM_CAPACITY;
+
+		}
+
+		return initialCapacity <= 1 ? 1 : Integer.highestOneBit(initialCapacity - 1) << 1;
+
+	}
+
+	private int getNextPrime(int number) {
+
+		try {
+
+			while (true) {
+
+				boolean isPrime = true;
+
+				number = number + 1;
+
+				int sqrt = (int) Math.sqrt(number);
+
+				for (int i = 2; i <= sqrt; i++) {
+
+					if (number % i == 0) {
+
+						isPrime = false;
+
+						break;
+
+					}
+
+				}
+
+				if (isPrime) {
+
+					return number;
+
+				}
+
+			}
+
+		} catch (Exception e) {
+
+			e.printStackTrace();
+
+		}
+
+		return 0;
+	}
+
+	private int hash(Object key) {
+
+		if (key == null) {
+
+			return 0;
+
+		}
+
+		if (isSeededHash) {
+
+			return seededHash(key) & 0x7FFFFFFF;
+
+		}
+
+		int hashCode = key.hashCode();
+
+		// Clearing the sign bit, unlike Math.abs, also maps Integer.MIN_VALUE to a
+		// non-negative bucket index.
+		return isPowerOfTwoCapacity ? spread(hashCode) : hashCode & 0x7FFFFFFF;
+
+	}
+
+	private int getBucketIndex(int hash, int mapSize) {
+
+		if (isPowerOfTwoCapacity) {
+
+			return hash & (mapSize - 1);
+
+		}
+
+		try {
+
+			return hash % mapSize;
+
+		} catch (ArithmeticException e) {
+
+			e.printStackTrace();
+
+		}
+
+		return 0;
+
+	}
+
+	/*
+	 * The cached hashes are compared first, so equals is only called on the
+	 * entries whose keys are likely to be equal to the key.
+	 */
+	private static boolean isMatch(PerformantHashMapEntry<?, ?> entry, int hash, Object key) {
+
+		Object entryKey;
+
+		return entry.getHash() == hash && ((entryKey = entry.getKey()) == key || (key != null && key.equals(entryKey)));
+
+	}
+
+	/*
+	 * Hashes a String by its characters with SipHash under the seed of this map,
+	 * since colliding String hash codes are easy to craft. Any other key has its
+	 * hash code mixed with the seed, which spreads hash codes chosen to share a
+	 * bucket of an unseeded map, although equal hash codes still collide.
+	 */
+	private int seededHash(Object key) {
+
+		if (key instanceof String) {
+
+			long hash = SipHash.hash(hashSeed0, hashSeed1, (String) key);
+
+			return (int) (hash ^ (hash >>> 32));
+
+		}
+
+		return spread(key.hashCode() ^ (int) hashSeed0);
+
+	}
+
+	private static int spread(int hashCode) {
+
+		hashCode ^= hashCode >>> 16;
+
+		hashCode *= 0x85ebca6b;
+
+		hashCode ^= hashCode >>> 13;
+
+		hashCode *= 0xc2b2ae35;
+
+		return hashCode ^ (hashCode >>> 16);
+
+	}
+
+	final class PerformantEntrySet extends java.util.AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+
+			return new PerformantEntryIterator();
+
+		}
+
+		@Override
+		public Spliterator<Map.Entry<K, V>> spliterator() {
+
+			return new PerformantEntrySpliterator(0, -1, 0, 0);
+
+		}
+
+		@Override
+		public int size() {
+
+			return mapEntrySize;
+
+		}
+
+	}
+
+	final class PerformantKeySet extends java.util.AbstractSet<K> {
+
+		@Override
+		public Iterator<K> iterator() {
+
+			return new PerformantKeyIterator();
+
+		}
+
+		@Override
+		public Spliterator<K> spliterator() {
+
+			return new PerformantKeySpliterator(0, -1, 0, 0);
+
+		}
+
+		@Override
+		public int size() {
+
+			return mapEntrySize;
+
+		}
+
+	}
+
+	final class PerformantValueSet extends java.util.AbstractSet<V> {
+
+		@Override
+		public Iterator<V> iterator() {
+
+			return new PerformantValueIterator();
+
+		}
+
+		@Override
+		public Spliterator<V> spliterator() {
+
+			return new PerformantValueSpliterator(0, -1, 0, 0);
+
+		}
+
+		@Override
+		public int size() {
+
+			return mapEntrySize;
+
+		}
+
+	}
+
+	final class PerformantEntryIterator extends HashIterator implements Iterator<Map.Entry<K, V>> {
+
 		@Override
-		public int size() {
+		public boolean hasNext() {
+
+			return hasNextEntry();
+
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+
+			return nextEntry();
+
+		}
+
+	}
+
+	final class PerformantKeyIterator extends HashIterator implements Iterator<K> {
+
+		@Override
+		public boolean hasNext() {
+
+			return hasNextEntry();
+
+		}
+
+		@Override
+		public K next() {
+
+			return nextEntry().getKey();
+
+		}
+
+	}
+
+	final class PerformantValueIterator extends HashIterator implements Iterator<V> {
+
+		@Override
+		public boolean hasNext() {
+
+			return hasNextEntry();
+
+		}
+
+		@Override
+		public V next() {
+
+			return nextEntry().getValue();
+
+		}
+
+	}
+
+	final class PerformantEntrySpliterator extends HashSpliterator implements Spliterator<Map.Entry<K, V>> {
+
+		PerformantEntrySpliterator(int index, int fence, int estimate, int expectedMapEntrySize) {
+
+			super(index, fence, estimate, expectedMapEntrySize);
+
+		}
+
+		@Override
+		public PerformantEntrySpliterator trySplit() {
+
+			int lowIndex = splitLowerHalf();
+
+			return lowIndex < 0 ? null
+					: split(new PerformantEntrySpliterator(lowIndex, index, estimate, expectedMapEntrySize));
+
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action) {
+
+			if (action == null) {
+
+				throw new NullPointerException();
+
+			}
+
+			PerformantHashMapEntry<K, V> pme = advanceEntry();
+
+			if (pme == null) {
+
+				return false;
+
+			}
+
+			action.accept(pme);
+
+			checkForComodification();
+
+			return true;
+
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action) {
+
+			if (action == null) {
+
+				throw new NullPointerException();
+
+			}
+
+			int hi = getFence();
+
+			int i = index;
+
+			PerformantHashMapEntry<K, V> pme = current;
+
+			index = hi;
+
+			current = null;
+
+			while (pme != null || i < hi) {
+
+				if (pme == null) {
+
+					pme = getBucket(i++);
+
+				} else {
+
+					action.accept(pme);
+
+					pme = pme.getNext();
+
+				}
+
+			}
+
+			endTraversal();
+
+			checkForComodification();
+
+		}
+
+		@Override
+		public int characteristics() {
+
+			return (isSized() ? Spliterator.SIZED : 0) | Spliterator.DISTINCT;
+
+		}
+
+	}
+
+	final class PerformantKeySpliterator extends HashSpliterator implements Spliterator<K> {
+
+		PerformantKeySpliterator(int index, int fence, int estimate, int expectedMapEntrySize) {
+
+			super(index, fence, estimate, expectedMapEntrySize);
+
+		}
+
+		@Override
+		public PerformantKeySpliterator trySplit() {
+
+			int lowIndex = splitLowerHalf();
+
+			return lowIndex < 0 ? null
+					: split(new PerformantKeySpliterator(lowIndex, index, estimate, expectedMapEntrySize));
+
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super K> action) {
+
+			if (action == null) {
+
+				throw new NullPointerException();
+
+			}
+
+			PerformantHashMapEntry<K, V> pme = advanceEntry();
+
+			if (pme == null) {
+
+				return false;
+
+			}
+
+			action.accept(pme.getKey());
+
+			checkForComodification();
+
+			return true;
+
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super K> action) {
+
+			if (action == null) {
+
+				throw new NullPointerException();
+
+			}
+
+			int hi = getFence();
+
+			int i = index;
+
+			PerformantHashMapEntry<K, V> pme = current;
+
+			index = hi;
+
+			current = null;
+
+			while (pme != null || i < hi) {
+
+				if (pme == null) {
+
+					pme = getBucket(i++);
+
+				} else {
+
+					action.accept(pme.getKey());
+
+					pme = pme.getNext();
+
+				}
+
+			}
+
+			endTraversal();
+
+			checkForComodification();
+
+		}
+
+		@Override
+		public int characteristics() {
+
+			return (isSized() ? Spliterator.SIZED : 0) | Spliterator.DISTINCT;
+
+		}
+
+	}
+
+	final class PerformantValueSpliterator extends HashSpliterator implements Spliterator<V> {
+
+		PerformantValueSpliterator(int index, int fence, int estimate, int expectedMapEntrySize) {
+
+			super(index, fence, estimate, expectedMapEntrySize);
+
+		}
+
+		@Override
+		public PerformantValueSpliterator trySplit() {
+
+			int lowIndex = splitLowerHalf();
+
+			return lowIndex < 0 ? null
+					: split(new PerformantValueSpliterator(lowIndex, index, estimate, expectedMapEntrySize));
+
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super V> action) {
+
+			if (action == null) {
+
+				throw new NullPointerException();
+
+			}
+
+			PerformantHashMapEntry<K, V> pme = advanceEntry();
+
+			if (pme == null) {
+
+				return false;
+
+			}
+
+			action.accept(pme.getValue());
+
+			checkForComodification();
+
+			return true;
+
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super V> action) {
+
+			if (action == null) {
+
+				throw new NullPointerException();
+
+			}
+
+			int hi = getFence();
+
+			int i = index;
+
+			PerformantHashMapEntry<K, V> pme = current;
+
+			index = hi;
+
+			current = null;
+
+			while (pme != null || i < hi) {
+
+				if (pme == null) {
+
+					pme = getBucket(i++);
+
+				} else {
+
+					action.accept(pme.getValue());
+
+					pme = pme.getNext();
+
+				}
+
+			}
+
+			endTraversal();
+
+			checkForComodification();
+
+		}
+
+		@Override
+		public int characteristics() {
+
+			return (isSized() ? Spliterator.SIZED : 0);
+
+		}
+
+	}
+
+	/*
+	 * The bucket range of a spliterator is bound to the table on first use, so
+	 * that a migration started after the spliterator was created is completed
+	 * first. Splitting halves the range of buckets, and the number of map
+	 * entries is halved as an estimate, so only a spliterator that has not been
+	 * split reports an exact size. The root pauses the migration once, on the
+	 * thread that binds its range, and the spliterators split off from it share
+	 * that pause through an atomic count of the traversals still running, since
+	 * they may be split and traversed by the worker threads of a parallel
+	 * stream. The last traversal to end resumes the migration.
+	 */
+	abstract class HashSpliterator {
+
+		PerformantHashMapEntry<K, V> current;
+
+		int index;
+
+		int fence;
+
+		int estimate;
+
+		int expectedMapEntrySize;
+
+		Object[] oldTable;
+
+		Object[] table;
+
+		AtomicInteger rehashPauseTraversals;
+
+		HashSpliterator(int index, int fence, int estimate, int expectedMapEntrySize) {
+
+			this.index = index;
+
+			this.fence = fence;
 
-			return mapEntrySize;
+			this.estimate = estimate;
+
+			this.expectedMapEntrySize = expectedMapEntrySize;
 
 		}
 
-	}
+		final int getFence() {
 
-	final class PerformantValueSet extends java.util.AbstractSet<V> {
+			if (fence < 0) {
 
-		@Override
-		public Iterator<V> iterator() {
+				estimate = mapEntrySize;
 
-			return new PerformantValueIterator();
+				expectedMapEntrySize = mapEntrySize;
+
+				table = performantMap;
+
+				// While the table is being migrated, the indexes of the buckets of the
+				// old table come before those of the current table.
+				if (oldPerformantMap != null && mapEntrySize > 0) {
+
+					if (pauseRehash()) {
+
+						rehashPauseTraversals = new AtomicInteger(1);
+
+					}
+
+					oldTable = oldPerformantMap;
+
+					index = rehashIndex;
+
+				} else {
+
+					oldTable = EMPTY_TABLE;
+
+				}
+
+				fence = oldTable.length + table.length;
+
+			}
+
+			return fence;
 
 		}
 
-		@Override
-		public int size() {
+		@SuppressWarnings("unchecked")
+		final PerformantHashMapEntry<K, V> getBucket(int index) {
 
-			return mapEntrySize;
+			return PerformantTreeBin.first(index < oldTable.length ? oldTable[index] : table[index - oldTable.length]);
 
 		}
 
-	}
+		/*
+		 * Hands the tables and the pause over to a spliterator split off from this
+		 * one. This spliterator has not ended its traversal yet, so the count
+		 * cannot drop to zero in between.
+		 */
+		final <T extends HashSpliterator> T split(T spliterator) {
 
-	final class PerformantEntryIterator extends HashIterator implements Iterator<Map.Entry<K, V>> {
+			spliterator.oldTable = oldTable;
 
-		@Override
-		public boolean hasNext() {
+			spliterator.table = table;
 
-			return hasNextEntry();
+			if (rehashPauseTraversals != null) {
+
+				rehashPauseTraversals.incrementAndGet();
+
+				spliterator.rehashPauseTraversals = rehashPauseTraversals;
+
+			}
+
+			return spliterator;
 
 		}
 
-		@Override
-		public Map.Entry<K, V> next() {
+		final void endTraversal() {
 
-			return nextEntry();
+			AtomicInteger traversals = rehashPauseTraversals;
+
+			if (traversals != null) {
+
+				rehashPauseTraversals = null;
+
+				if (traversals.decrementAndGet() == 0) {
+
+					resumeRehash();
+
+				}
+
+			}
 
 		}
 
-	}
+		public final long estimateSize() {
 
-	final class PerformantKeyIterator extends HashIterator implements Iterator<K> {
+			getFence();
 
-		@Override
-		public boolean hasNext() {
+			return estimate;
 
-			return hasNextEntry();
+		}
+
+		final boolean isSized() {
+
+			return fence < 0 || estimate == mapEntrySize;
 
 		}
 
-		@Override
-		public K next() {
+		/*
+		 * Hands the lower half of the remaining buckets over to a new spliterator
+		 * and returns its first index, or -1 if the range is too small to split.
+		 */
+		final int splitLowerHalf() {
 
-			return nextEntry().getKey();
+			int hi = getFence();
+
+			int lowIndex = index;
+
+			int middle = (lowIndex + hi) >>> 1;
+
+			if (lowIndex >= middle || current != null) {
+
+				return -1;
+
+			}
+
+			index = middle;
+
+			estimate >>>= 1;
+
+			return lowIndex;
 
 		}
 
-	}
+		final PerformantHashMapEntry<K, V> advanceEntry() {
 
-	final class PerformantValueIterator extends HashIterator implements Iterator<V> {
+			int hi = getFence();
 
-		@Override
-		public boolean hasNext() {
+			while (current == null && index < hi) {
 
-			return hasNextEntry();
+				current = getBucket(index++);
+
+			}
+
+			PerformantHashMapEntry<K, V> pme = current;
+
+			if (pme != null) {
+
+				current = pme.getNext();
+
+			} else {
+
+				endTraversal();
+
+			}
+
+			return pme;
 
 		}
 
-		@Override
-		public V next() {
+		final void checkForComodification() {
 
-			return nextEntry().getValue();
+			if (expectedMapEntrySize != mapEntrySize) {
+
+				throw new ConcurrentModificationException();
+
+			}
 
 		}
 
@@ -1053,25 +4778,72 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 
 		PerformantHashMapEntry<K, V> next;
 
+		Object[] table;
+
 		int index;
 
 		int expectedMapEntrySize;
 
-		@SuppressWarnings("unchecked")
+		boolean isRehashPaused;
+
 		HashIterator() {
 
-			Object[] table = performantMap;
+			expectedMapEntrySize = mapEntrySize;
 
-			index = 0;
+			// While the table is being migrated, the remaining buckets of the old
+			// table are walked first and then the current table.
+			if (oldPerformantMap != null && mapEntrySize > 0) {
 
-			expectedMapEntrySize = mapEntrySize;
+				isRehashPaused = pauseRehash();
+
+				table = oldPerformantMap;
+
+				index = rehashIndex;
+
+			} else {
+
+				table = performantMap;
+
+				index = 0;
+
+			}
 
 			if (table != null && mapEntrySize > 0) {
 
-				do {
+				nextBucket();
+
+			}
+
+		}
+
+		@SuppressWarnings("unchecked")
+		final void nextBucket() {
+
+			while (next == null) {
+
+				if (index < table.length) {
+
+					next = PerformantTreeBin.first(table[index++]);
+
+				} else if (table != performantMap) {
+
+					table = performantMap;
+
+					index = 0;
+
+				} else {
+
+					if (isRehashPaused) {
 
-					// do nothing
-				} while (index < table.length && (next = (PerformantHashMapEntry<K, V>) table[index++]) == null);
+						isRehashPaused = false;
+
+						resumeRehash();
+
+					}
+
+					return;
+
+				}
 
 			}
 
@@ -1083,11 +4855,8 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 
 		}
 
-		@SuppressWarnings("unchecked")
 		public PerformantHashMapEntry<K, V> nextEntry() {
 
-			Object[] table;
-
 			PerformantHashMapEntry<K, V> pme = next;
 
 			if (expectedMapEntrySize != mapEntrySize) {
@@ -1102,13 +4871,9 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 
 			}
 
-			if ((next = (current = pme).getNext()) == null && (table = performantMap) != null) {
+			if ((next = (current = pme).getNext()) == null) {
 
-				do {
-
-					// do nothing
-
-				} while (index < table.length && (next = (PerformantHashMapEntry<K, V>) table[index++]) == null);
+				nextBucket();
 
 			}
 
@@ -1136,10 +4901,210 @@ public class PerformantHashMap<K, V> extends AbstractMap<K, V>
 
 			K key = pme.getKey();
 
-			PerformantHashMap.this.remove(key);
+			// A removal through the iterator never shrinks the table, which would
+			// move the map entries the iterator has not returned yet.
+			removeEntry(hash(key), key);
 
 			expectedMapEntrySize = mapEntrySize;
 
+			if (isRehashPaused) {
+
+				isRehashPaused = pauseRehash();
+
+			}
+
+		}
+
+	}
+
+	/*
+	 * The MXBean of the map. Its counters are read from the current counter of
+	 * the map, so they follow the map as its statistics are enabled and disabled.
+	 * The occupancy of the buckets is taken from the published snapshot, since
+	 * walking the chains could meet them halfway through a move.
+	 */
+	final class PerformantHashMapStatsMXBean implements PerformantHashMapMXBean {
+
+		@Override
+		public int getSize() {
+
+			return mapEntrySize;
+
+		}
+
+		@Override
+		public int getCapacity() {
+
+			return mapSize;
+
+		}
+
+		@Override
+		public boolean isStatisticsEnabled() {
+
+			return statistics != null;
+
+		}
+
+		@Override
+		public long[] getGetProbeHistogram() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? new long[PerformantHashMapStats.HISTOGRAM_SIZE] : counter.getGetProbes();
+
+		}
+
+		@Override
+		public long[] getPutProbeHistogram() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? new long[PerformantHashMapStats.HISTOGRAM_SIZE] : counter.getPutProbes();
+
+		}
+
+		@Override
+		public long[] getRemoveProbeHistogram() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? new long[PerformantHashMapStats.HISTOGRAM_SIZE] : counter.getRemoveProbes();
+
+		}
+
+		@Override
+		public double getMeanGetProbeLength() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? 0.0
+					: PerformantHashMapStats.getMean(counter.getGetProbes(), counter.getGetProbeTotal());
+
+		}
+
+		@Override
+		public double getMeanPutProbeLength() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? 0.0
+					: PerformantHashMapStats.getMean(counter.getPutProbes(), counter.getPutProbeTotal());
+
+		}
+
+		@Override
+		public double getMeanRemoveProbeLength() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? 0.0
+					: PerformantHashMapStats.getMean(counter.getRemoveProbes(), counter.getRemoveProbeTotal());
+
+		}
+
+		@Override
+		public long getRehashCount() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? 0 : counter.getRehashCount();
+
+		}
+
+		@Override
+		public long getRehashTimeNanos() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? 0 : counter.getRehashNanos();
+
+		}
+
+		@Override
+		public long[] getBucketOccupancy() {
+
+			PerformantHashMapStats stats = publishedStats;
+
+			return stats == null ? new long[PerformantHashMapStats.HISTOGRAM_SIZE] : stats.getBucketOccupancy();
+
+		}
+
+		@Override
+		public int getTreeBinCount() {
+
+			PerformantHashMapStats stats = publishedStats;
+
+			return stats == null ? 0 : stats.getTreeBinCount();
+
+		}
+
+		@Override
+		public long getBloomFilterNegatives() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? 0 : counter.getBloomFilterNegatives();
+
+		}
+
+		@Override
+		public long getBloomFilterFalsePositives() {
+
+			PerformantHashMapStatsCounter counter = statistics;
+
+			return counter == null ? 0 : counter.getBloomFilterFalsePositives();
+
+		}
+
+		@Override
+		public void resetStats() {
+
+			PerformantHashMap.this.resetStats();
+
+		}
+
+	}
+
+	/*
+	 * Runs an action for every index of a range, splitting the range in halves
+	 * until every index is handled by its own task.
+	 */
+	private static final class BulkLoadAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+
+		private final int to;
+
+		private final IntConsumer action;
+
+		BulkLoadAction(int from, int to, IntConsumer action) {
+
+			this.from = from;
+
+			this.to = to;
+
+			this.action = action;
+
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from == 1) {
+
+				action.accept(from);
+
+			} else {
+
+				int middle = (from + to) >>> 1;
+
+				invokeAll(new BulkLoadAction(from, middle, action), new BulkLoadAction(middle, to, action));
+
+			}
+
 		}
 
 	}
@@ -14,13 +14,21 @@ public class PerformantHashMapEntry<K, V> implements java.util.Map.Entry<K, V>,
 
 	private static final long serialVersionUID = 262498820763181265L;
 
+	private int hash;
+
 	private Object key;
 
 	private Object value;
 
 	private PerformantHashMapEntry<K, V> next;
 
-	protected PerformantHashMapEntry(Object key, Object value) {
+	private int accessCount;
+
+	private transient PerformantTimerWheel.Timer timer;
+
+	protected PerformantHashMapEntry(int hash, Object key, Object value) {
+
+		this.hash = hash;
 
 		this.key = key;
 
@@ -74,6 +82,18 @@ public class PerformantHashMapEntry<K, V> implements java.util.Map.Entry<K, V>,
 
 	}
 
+	protected int getHash() {
+
+		return hash;
+
+	}
+
+	protected void setHash(int hash) {
+
+		this.hash = hash;
+
+	}
+
 	@SuppressWarnings("unchecked")
 	protected K setKey(K key) {
 
@@ -93,4 +113,32 @@ public class PerformantHashMapEntry<K, V> implements java.util.Map.Entry<K, V>,
 
 	}
 
+	PerformantTimerWheel.Timer getTimer() {
+
+		return timer;
+
+	}
+
+	void setTimer(PerformantTimerWheel.Timer timer) {
+
+		this.timer = timer;
+
+	}
+
+	protected int getAccessCount() {
+
+		return accessCount;
+
+	}
+
+	protected void incrementAccessCount() {
+
+		if (accessCount < Integer.MAX_VALUE) {
+
+			accessCount++;
+
+		}
+
+	}
+
 }
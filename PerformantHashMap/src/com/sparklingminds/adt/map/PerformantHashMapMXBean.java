@@ -0,0 +1,136 @@
+package com.sparklingminds.adt.map;
+
+/**
+ * PerformantHashMapMXBean is the management interface of a PerformantHashMap
+ * registered with the platform MBeanServer by its registerMBean method. The
+ * counters are those of a PerformantHashMapStats snapshot and stay at zero
+ * while the statistics of the map are disabled. The attributes are read
+ * without synchronizing with the threads using the map, so they are only
+ * approximate while the map is being modified. The table is never walked from
+ * the threads of the MBeanServer: the bucket occupancy and the number of tree
+ * bins are those of the snapshot the map last took by its stats method.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#registerMBean(String)
+ * @see PerformantHashMapStats
+ */
+public interface PerformantHashMapMXBean {
+
+	/**
+	 * Returns the number of mappings in the map.
+	 *
+	 * @return the number of mappings
+	 */
+	int getSize();
+
+	/**
+	 * Returns the number of buckets of the table of the map.
+	 *
+	 * @return the capacity of the map
+	 */
+	int getCapacity();
+
+	/**
+	 * Returns true if the map records statistics.
+	 *
+	 * @return true if the statistics are enabled
+	 */
+	boolean isStatisticsEnabled();
+
+	/**
+	 * Returns the number of lookups by get for every probe length.
+	 *
+	 * @return the probe length histogram of get
+	 */
+	long[] getGetProbeHistogram();
+
+	/**
+	 * Returns the number of lookups by put and the other updating methods for
+	 * every probe length.
+	 *
+	 * @return the probe length histogram of put
+	 */
+	long[] getPutProbeHistogram();
+
+	/**
+	 * Returns the number of lookups by remove for every probe length.
+	 *
+	 * @return the probe length histogram of remove
+	 */
+	long[] getRemoveProbeHistogram();
+
+	/**
+	 * Returns the mean probe length of get, or 0 if get has not been recorded.
+	 *
+	 * @return the mean probe length of get
+	 */
+	double getMeanGetProbeLength();
+
+	/**
+	 * Returns the mean probe length of put, or 0 if put has not been recorded.
+	 *
+	 * @return the mean probe length of put
+	 */
+	double getMeanPutProbeLength();
+
+	/**
+	 * Returns the mean probe length of remove, or 0 if remove has not been
+	 * recorded.
+	 *
+	 * @return the mean probe length of remove
+	 */
+	double getMeanRemoveProbeLength();
+
+	/**
+	 * Returns the number of times the table has been resized.
+	 *
+	 * @return the number of rehashes
+	 */
+	long getRehashCount();
+
+	/**
+	 * Returns the total time spent moving map entries into resized tables.
+	 *
+	 * @return the rehash time in nanoseconds
+	 */
+	long getRehashTimeNanos();
+
+	/**
+	 * Returns the number of buckets of the table for every number of map entries
+	 * a bucket can hold, as of the last call to the stats method of the map.
+	 *
+	 * @return the bucket occupancy histogram
+	 */
+	long[] getBucketOccupancy();
+
+	/**
+	 * Returns the number of buckets that are treeified, as of the last call to
+	 * the stats method of the map.
+	 *
+	 * @return the number of tree bins
+	 */
+	int getTreeBinCount();
+
+	/**
+	 * Returns the number of lookups that the bloom filter answered without
+	 * searching the table.
+	 *
+	 * @return the number of bloom filter negatives
+	 */
+	long getBloomFilterNegatives();
+
+	/**
+	 * Returns the number of lookups for which the bloom filter might have
+	 * contained the key, but the table did not.
+	 *
+	 * @return the number of bloom filter false positives
+	 */
+	long getBloomFilterFalsePositives();
+
+	/**
+	 * Resets all of the counters to zero.
+	 */
+	void resetStats();
+
+}
@@ -0,0 +1,282 @@
+package com.sparklingminds.adt.map;
+
+/**
+ * PerformantHashMapStats is an immutable snapshot of the statistics of a
+ * PerformantHashMap, returned by its stats method. <br>
+ * <br>
+ * The probe length histograms count the lookups of get, of put (together with
+ * putIfAbsent, compute, merge and the other updating methods) and of remove by
+ * the number of map entries they compared with the key; slot i counts the
+ * lookups of i probes, and the last slot those of HISTOGRAM_SIZE - 1 or more.
+ * The bucket occupancy histogram counts the buckets of the table by the number
+ * of map entries they hold in the same way; while a rehash is in progress, it
+ * also counts the buckets of the old table that have not been migrated yet. A
+ * bloom filter negative is a lookup that the bloom filter answered without
+ * searching the table, and a bloom filter false positive is a lookup for which
+ * the bloom filter might have contained the key, but the table did not. The
+ * counters are only recorded while the statistics of the map are enabled; the
+ * size, capacity and bucket occupancy are always taken from the table.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#stats()
+ */
+public final class PerformantHashMapStats {
+
+	/**
+	 * The number of slots of the histograms.
+	 */
+	public static final int HISTOGRAM_SIZE = PerformantHashMapStatsCounter.HISTOGRAM_SIZE;
+
+	private final int size;
+
+	private final int capacity;
+
+	private final long[] getProbes;
+
+	private final long[] putProbes;
+
+	private final long[] removeProbes;
+
+	private final long getProbeTotal;
+
+	private final long putProbeTotal;
+
+	private final long removeProbeTotal;
+
+	private final long rehashCount;
+
+	private final long rehashNanos;
+
+	private final long[] bucketOccupancy;
+
+	private final int treeBinCount;
+
+	private final long bloomFilterNegatives;
+
+	private final long bloomFilterFalsePositives;
+
+	PerformantHashMapStats(PerformantHashMapStatsCounter counter, int size, int capacity, long[] bucketOccupancy,
+			int treeBinCount) {
+
+		this.size = size;
+
+		this.capacity = capacity;
+
+		this.bucketOccupancy = bucketOccupancy;
+
+		this.treeBinCount = treeBinCount;
+
+		if (counter == null) {
+
+			counter = new PerformantHashMapStatsCounter();
+
+		}
+
+		getProbes = counter.getGetProbes();
+
+		putProbes = counter.getPutProbes();
+
+		removeProbes = counter.getRemoveProbes();
+
+		getProbeTotal = counter.getGetProbeTotal();
+
+		putProbeTotal = counter.getPutProbeTotal();
+
+		removeProbeTotal = counter.getRemoveProbeTotal();
+
+		rehashCount = counter.getRehashCount();
+
+		rehashNanos = counter.getRehashNanos();
+
+		bloomFilterNegatives = counter.getBloomFilterNegatives();
+
+		bloomFilterFalsePositives = counter.getBloomFilterFalsePositives();
+
+	}
+
+	/**
+	 * Returns the number of mappings in the map.
+	 *
+	 * @return the number of mappings
+	 */
+	public int getSize() {
+
+		return size;
+
+	}
+
+	/**
+	 * Returns the number of buckets of the table of the map.
+	 *
+	 * @return the capacity of the map
+	 */
+	public int getCapacity() {
+
+		return capacity;
+
+	}
+
+	/**
+	 * Returns the number of lookups by get for every probe length.
+	 *
+	 * @return the probe length histogram of get
+	 */
+	public long[] getGetProbeHistogram() {
+
+		return getProbes.clone();
+
+	}
+
+	/**
+	 * Returns the number of lookups by put and the other updating methods for
+	 * every probe length.
+	 *
+	 * @return the probe length histogram of put
+	 */
+	public long[] getPutProbeHistogram() {
+
+		return putProbes.clone();
+
+	}
+
+	/**
+	 * Returns the number of lookups by remove for every probe length.
+	 *
+	 * @return the probe length histogram of remove
+	 */
+	public long[] getRemoveProbeHistogram() {
+
+		return removeProbes.clone();
+
+	}
+
+	/**
+	 * Returns the mean probe length of get, or 0 if get has not been recorded.
+	 *
+	 * @return the mean probe length of get
+	 */
+	public double getMeanGetProbeLength() {
+
+		return getMean(getProbes, getProbeTotal);
+
+	}
+
+	/**
+	 * Returns the mean probe length of put, or 0 if put has not been recorded.
+	 *
+	 * @return the mean probe length of put
+	 */
+	public double getMeanPutProbeLength() {
+
+		return getMean(putProbes, putProbeTotal);
+
+	}
+
+	/**
+	 * Returns the mean probe length of remove, or 0 if remove has not been
+	 * recorded.
+	 *
+	 * @return the mean probe length of remove
+	 */
+	public double getMeanRemoveProbeLength() {
+
+		return getMean(removeProbes, removeProbeTotal);
+
+	}
+
+	/**
+	 * Returns the number of times the table has been resized.
+	 *
+	 * @return the number of rehashes
+	 */
+	public long getRehashCount() {
+
+		return rehashCount;
+
+	}
+
+	/**
+	 * Returns the total time spent moving map entries into resized tables.
+	 *
+	 * @return the rehash time in nanoseconds
+	 */
+	public long getRehashTimeNanos() {
+
+		return rehashNanos;
+
+	}
+
+	/**
+	 * Returns the number of buckets of the table for every number of map entries
+	 * a bucket can hold.
+	 *
+	 * @return the bucket occupancy histogram
+	 */
+	public long[] getBucketOccupancy() {
+
+		return bucketOccupancy.clone();
+
+	}
+
+	/**
+	 * Returns the number of buckets that are treeified.
+	 *
+	 * @return the number of tree bins
+	 */
+	public int getTreeBinCount() {
+
+		return treeBinCount;
+
+	}
+
+	/**
+	 * Returns the number of lookups that the bloom filter answered without
+	 * searching the table.
+	 *
+	 * @return the number of bloom filter negatives
+	 */
+	public long getBloomFilterNegatives() {
+
+		return bloomFilterNegatives;
+
+	}
+
+	/**
+	 * Returns the number of lookups for which the bloom filter might have
+	 * contained the key, but the table did not.
+	 *
+	 * @return the number of bloom filter false positives
+	 */
+	public long getBloomFilterFalsePositives() {
+
+		return bloomFilterFalsePositives;
+
+	}
+
+	@Override
+	public String toString() {
+
+		return "PerformantHashMapStats[size=" + size + ", capacity=" + capacity + ", meanGetProbeLength="
+				+ getMeanGetProbeLength() + ", meanPutProbeLength=" + getMeanPutProbeLength()
+				+ ", meanRemoveProbeLength=" + getMeanRemoveProbeLength() + ", rehashCount=" + rehashCount
+				+ ", rehashTimeNanos=" + rehashNanos + ", treeBinCount=" + treeBinCount + ", bloomFilterNegatives="
+				+ bloomFilterNegatives + ", bloomFilterFalsePositives=" + bloomFilterFalsePositives + "]";
+
+	}
+
+	static double getMean(long[] histogram, long total) {
+
+		long count = 0;
+
+		for (long lookups : histogram) {
+
+			count += lookups;
+
+		}
+
+		return count == 0 ? 0.0 : (double) total / count;
+
+	}
+
+}
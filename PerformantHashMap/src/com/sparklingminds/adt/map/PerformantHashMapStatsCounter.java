@@ -0,0 +1,237 @@
+package com.sparklingminds.adt.map;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PerformantHashMapStatsCounter records the statistics of a PerformantHashMap
+ * while its statistics are enabled. The map only holds a counter while they
+ * are enabled, so a map whose statistics are disabled pays no more than a null
+ * check on its hot path. <br>
+ * <br>
+ * The probe length of a lookup is the number of map entries it compared with
+ * the key: 0 for an empty bucket, 1 for a key found at the head of its chain,
+ * and the length of the chain for a key that is absent. In a treeified bucket
+ * it is the number of tree nodes on the path to the key. The histograms
+ * count the lookups by probe length, the last slot counting all of the lookups
+ * of HISTOGRAM_SIZE - 1 or more probes. <br>
+ * <br>
+ * The counters are LongAdders, so that the MXBean of the map can read and
+ * reset them from the threads of the MBeanServer while the map records into
+ * them. A read taken while the map is being used is not an atomic snapshot of
+ * all the counters.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#setStatisticsEnabled(boolean)
+ */
+final class PerformantHashMapStatsCounter {
+
+	/**
+	 * The number of slots of the probe length and bucket occupancy histograms.
+	 */
+	static final int HISTOGRAM_SIZE = 16;
+
+	private final LongAdder[] getProbes = newHistogram();
+
+	private final LongAdder[] putProbes = newHistogram();
+
+	private final LongAdder[] removeProbes = newHistogram();
+
+	private final LongAdder getProbeTotal = new LongAdder();
+
+	private final LongAdder putProbeTotal = new LongAdder();
+
+	private final LongAdder removeProbeTotal = new LongAdder();
+
+	private final LongAdder rehashCount = new LongAdder();
+
+	private final LongAdder rehashNanos = new LongAdder();
+
+	private final LongAdder bloomFilterNegatives = new LongAdder();
+
+	private final LongAdder bloomFilterFalsePositives = new LongAdder();
+
+	void recordGet(int probes) {
+
+		getProbes[Math.min(probes, HISTOGRAM_SIZE - 1)].increment();
+
+		getProbeTotal.add(probes);
+
+	}
+
+	void recordPut(int probes) {
+
+		putProbes[Math.min(probes, HISTOGRAM_SIZE - 1)].increment();
+
+		putProbeTotal.add(probes);
+
+	}
+
+	void recordRemove(int probes) {
+
+		removeProbes[Math.min(probes, HISTOGRAM_SIZE - 1)].increment();
+
+		removeProbeTotal.add(probes);
+
+	}
+
+	/**
+	 * Records a resize of the table and the time spent on it.
+	 *
+	 * @param nanos the time spent moving map entries in nanoseconds
+	 */
+	void recordRehash(long nanos) {
+
+		rehashCount.increment();
+
+		rehashNanos.add(nanos);
+
+	}
+
+	/**
+	 * Records the time spent migrating map entries for a resize that has already
+	 * been recorded.
+	 *
+	 * @param nanos the time spent moving map entries in nanoseconds
+	 */
+	void recordRehashTime(long nanos) {
+
+		rehashNanos.add(nanos);
+
+	}
+
+	void recordBloomFilterNegative() {
+
+		bloomFilterNegatives.increment();
+
+	}
+
+	void recordBloomFilterFalsePositive() {
+
+		bloomFilterFalsePositives.increment();
+
+	}
+
+	long[] getGetProbes() {
+
+		return sum(getProbes);
+
+	}
+
+	long[] getPutProbes() {
+
+		return sum(putProbes);
+
+	}
+
+	long[] getRemoveProbes() {
+
+		return sum(removeProbes);
+
+	}
+
+	long getGetProbeTotal() {
+
+		return getProbeTotal.sum();
+
+	}
+
+	long getPutProbeTotal() {
+
+		return putProbeTotal.sum();
+
+	}
+
+	long getRemoveProbeTotal() {
+
+		return removeProbeTotal.sum();
+
+	}
+
+	long getRehashCount() {
+
+		return rehashCount.sum();
+
+	}
+
+	long getRehashNanos() {
+
+		return rehashNanos.sum();
+
+	}
+
+	long getBloomFilterNegatives() {
+
+		return bloomFilterNegatives.sum();
+
+	}
+
+	long getBloomFilterFalsePositives() {
+
+		return bloomFilterFalsePositives.sum();
+
+	}
+
+	void reset() {
+
+		reset(getProbes);
+
+		reset(putProbes);
+
+		reset(removeProbes);
+
+		getProbeTotal.reset();
+
+		putProbeTotal.reset();
+
+		removeProbeTotal.reset();
+
+		rehashCount.reset();
+
+		rehashNanos.reset();
+
+		bloomFilterNegatives.reset();
+
+		bloomFilterFalsePositives.reset();
+
+	}
+
+	private static LongAdder[] newHistogram() {
+
+		LongAdder[] histogram = new LongAdder[HISTOGRAM_SIZE];
+
+		for (int i = 0; i < histogram.length; i++) {
+
+			histogram[i] = new LongAdder();
+
+		}
+
+		return histogram;
+
+	}
+
+	private static long[] sum(LongAdder[] histogram) {
+
+		long[] sums = new long[histogram.length];
+
+		for (int i = 0; i < histogram.length; i++) {
+
+			sums[i] = histogram[i].sum();
+
+		}
+
+		return sums;
+
+	}
+
+	private static void reset(LongAdder[] histogram) {
+
+		for (LongAdder slot : histogram) {
+
+			slot.reset();
+
+		}
+
+	}
+
+}
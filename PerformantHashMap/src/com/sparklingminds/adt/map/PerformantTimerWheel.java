@@ -0,0 +1,377 @@
+/*
+ * Copyright 2017 Ben Manes. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This file is derived from com.github.benmanes.caffeine.cache.TimerWheel of
+ * the Caffeine library (https://github.com/ben-manes/caffeine). It was
+ * modified by Gaive Gandhi to expire the entries of a PerformantHashMap
+ * through a Consumer instead of the eviction policy of a cache.
+ */
+package com.sparklingminds.adt.map;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * PerformantTimerWheel is the hierarchical timing wheel which expires the
+ * entries of a PerformantHashMap. <br>
+ * <br>
+ * Every expiring map entry has a timer holding its key and its expiration
+ * time. The timers are kept in five wheels of buckets, where every bucket is a
+ * circular doubly linked list of timers. The buckets of the first wheel each
+ * span about a second, those of the following wheels about a minute, an hour,
+ * a day and almost a week; a timer is placed into the bucket of the finest
+ * wheel that spans its remaining lifetime, selected by the bits of its
+ * expiration time. Scheduling, rescheduling and cancelling a timer therefore
+ * take constant time. <br>
+ * <br>
+ * When the wheel is advanced to the current time, only the buckets of every
+ * wheel whose span has elapsed since the previous advance are visited. A
+ * bucket is detached as a whole; every timer in it that has expired is passed
+ * to the expirer, and every other timer is scheduled again, into a bucket of a
+ * finer wheel. A timer moves down at most once per wheel before it expires, so
+ * expiring an entry takes constant amortized time, and the map is never
+ * scanned. Timers are expired with the granularity of the buckets of the
+ * first wheel, so the map has to check the expiration time of every entry it
+ * finds on its own. <br>
+ * <br>
+ * The wheel, with its bucket counts and spans, is adapted from the TimerWheel
+ * of the Caffeine library and is distributed under the Apache License, Version
+ * 2.0; see the NOTICE file.
+ *
+ * @author Ben Manes
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#setExpireAfterWrite(long, TimeUnit)
+ */
+final class PerformantTimerWheel {
+
+	private static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+
+	private static final long[] SPANS = { getPowerOfTwoCeiling(TimeUnit.SECONDS.toNanos(1)),
+			getPowerOfTwoCeiling(TimeUnit.MINUTES.toNanos(1)), getPowerOfTwoCeiling(TimeUnit.HOURS.toNanos(1)),
+			getPowerOfTwoCeiling(TimeUnit.DAYS.toNanos(1)), BUCKETS[3] * getPowerOfTwoCeiling(TimeUnit.DAYS.toNanos(1)),
+			BUCKETS[3] * getPowerOfTwoCeiling(TimeUnit.DAYS.toNanos(1)) };
+
+	private static final long[] SHIFT = { Long.numberOfTrailingZeros(SPANS[0]), Long.numberOfTrailingZeros(SPANS[1]),
+			Long.numberOfTrailingZeros(SPANS[2]), Long.numberOfTrailingZeros(SPANS[3]),
+			Long.numberOfTrailingZeros(SPANS[4]) };
+
+	private final Timer[][] wheel;
+
+	private final Consumer<Timer> expirer;
+
+	private long nanos;
+
+	/**
+	 * The expiration time of a map entry, linked into a bucket of the wheel.
+	 */
+	static final class Timer {
+
+		private final Object key;
+
+		private long time;
+
+		private long refreshNanos;
+
+		private Timer prev;
+
+		private Timer next;
+
+		Timer(Object key) {
+
+			this.key = key;
+
+		}
+
+		/**
+		 * Returns the key of the map entry this timer belongs to.
+		 *
+		 * @return the key of the map entry
+		 */
+		Object getKey() {
+
+			return key;
+
+		}
+
+		/**
+		 * Returns the time at which this timer expires.
+		 *
+		 * @return the expiration time, as returned by System.nanoTime()
+		 */
+		long getTime() {
+
+			return time;
+
+		}
+
+		/**
+		 * Returns true if this timer has expired at the specified time.
+		 *
+		 * @param now the current time, as returned by System.nanoTime()
+		 * @return true if this timer has expired
+		 */
+		boolean isExpired(long now) {
+
+			return time - now <= 0;
+
+		}
+
+		/**
+		 * Returns the lifetime by which every access extends this timer, or 0 if
+		 * accesses do not extend it.
+		 *
+		 * @return the lifetime given by an access in nanoseconds
+		 */
+		long getRefreshNanos() {
+
+			return refreshNanos;
+
+		}
+
+	}
+
+	/**
+	 * Constructs an empty PerformantTimerWheel starting at the current time.
+	 *
+	 * @param expirer the consumer of the timers that have expired
+	 */
+	PerformantTimerWheel(Consumer<Timer> expirer) {
+
+		this.expirer = expirer;
+
+		this.nanos = System.nanoTime();
+
+		wheel = new Timer[BUCKETS.length][];
+
+		for (int i = 0; i < BUCKETS.length; i++) {
+
+			wheel[i] = new Timer[BUCKETS[i]];
+
+			for (int j = 0; j < BUCKETS[i]; j++) {
+
+				Timer sentinel = new Timer(null);
+
+				sentinel.prev = sentinel;
+
+				sentinel.next = sentinel;
+
+				wheel[i][j] = sentinel;
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Schedules the specified timer, which may already be scheduled, to expire at
+	 * the specified time.
+	 *
+	 * @param timer        the timer
+	 * @param time         the expiration time, as returned by System.nanoTime()
+	 * @param refreshNanos the lifetime given by every access, or 0
+	 */
+	void schedule(Timer timer, long time, long refreshNanos) {
+
+		cancel(timer);
+
+		timer.time = time;
+
+		timer.refreshNanos = refreshNanos;
+
+		link(timer);
+
+	}
+
+	/**
+	 * Removes the specified timer from the wheel, if it is scheduled.
+	 *
+	 * @param timer the timer
+	 */
+	void cancel(Timer timer) {
+
+		if (timer.next != null) {
+
+			timer.prev.next = timer.next;
+
+			timer.next.prev = timer.prev;
+
+			timer.prev = null;
+
+			timer.next = null;
+
+		}
+
+	}
+
+	/**
+	 * Advances the wheel to the specified time and passes the timers that have
+	 * expired on the way to the expirer.
+	 *
+	 * @param now the current time, as returned by System.nanoTime()
+	 */
+	void advance(long now) {
+
+		long previousNanos = nanos;
+
+		if (now - previousNanos <= 0) {
+
+			return;
+
+		}
+
+		nanos = now;
+
+		for (int i = 0; i < SHIFT.length; i++) {
+
+			long previousTicks = previousNanos >>> SHIFT[i];
+
+			long delta = (now >>> SHIFT[i]) - previousTicks;
+
+			if (delta <= 0) {
+
+				break;
+
+			}
+
+			expire(i, previousTicks, delta);
+
+		}
+
+	}
+
+	/**
+	 * Removes all of the timers from the wheel.
+	 */
+	void clear() {
+
+		for (Timer[] buckets : wheel) {
+
+			for (Timer sentinel : buckets) {
+
+				Timer timer = sentinel.next;
+
+				while (timer != sentinel) {
+
+					Timer next = timer.next;
+
+					timer.prev = null;
+
+					timer.next = null;
+
+					timer = next;
+
+				}
+
+				sentinel.prev = sentinel;
+
+				sentinel.next = sentinel;
+
+			}
+
+		}
+
+	}
+
+	private void expire(int index, long previousTicks, long delta) {
+
+		Timer[] buckets = wheel[index];
+
+		int mask = buckets.length - 1;
+
+		int steps = (int) Math.min(delta + 1, buckets.length);
+
+		int start = (int) (previousTicks & mask);
+
+		for (int i = start; i < start + steps; i++) {
+
+			Timer sentinel = buckets[i & mask];
+
+			Timer timer = sentinel.next;
+
+			sentinel.prev = sentinel;
+
+			sentinel.next = sentinel;
+
+			while (timer != sentinel) {
+
+				Timer next = timer.next;
+
+				timer.prev = null;
+
+				timer.next = null;
+
+				if (timer.isExpired(nanos)) {
+
+					expirer.accept(timer);
+
+				} else {
+
+					link(timer);
+
+				}
+
+				timer = next;
+
+			}
+
+		}
+
+	}
+
+	private void link(Timer timer) {
+
+		Timer sentinel = findBucket(timer.time);
+
+		timer.prev = sentinel.prev;
+
+		timer.next = sentinel;
+
+		sentinel.prev.next = timer;
+
+		sentinel.prev = timer;
+
+	}
+
+	private Timer findBucket(long time) {
+
+		long duration = time - nanos;
+
+		int last = wheel.length - 1;
+
+		for (int i = 0; i < last; i++) {
+
+			if (duration < SPANS[i + 1]) {
+
+				int index = (int) ((time >>> SHIFT[i]) & (wheel[i].length - 1));
+
+				return wheel[i][index];
+
+			}
+
+		}
+
+		return wheel[last][0];
+
+	}
+
+	private static long getPowerOfTwoCeiling(long value) {
+
+		return 1L << -Long.numberOfLeadingZeros(value - 1);
+
+	}
+
+}
@@ -0,0 +1,617 @@
+package com.sparklingminds.adt.map;
+
+/**
+ * PerformantTreeBin is the index of a treeified bucket of the
+ * PerformantHashMap. Once the chain of a bucket grows beyond TREEIFY_THRESHOLD
+ * entries, the table slot of the bucket holds a tree bin instead of the head of
+ * the chain. <br>
+ * <br>
+ * The tree bin keeps the map entries of the bucket in their chain, linked
+ * through their next references, so that iteration, containsValue and the
+ * rehash walk them exactly like the entries of any other chain. No map entry is
+ * copied when its bucket is treeified or turned back into a chain, so an entry
+ * obtained from the entry set keeps writing through to the map and keeps its
+ * access count. <br>
+ * <br>
+ * Next to the chain, the bin holds an AVL tree with a node for every map entry.
+ * The nodes are ordered by the cached hash of the key, then by the class of the
+ * key, then by the natural order of keys of the same Comparable class, and
+ * finally by the identity hash code of the key and the order in which the nodes
+ * were added. A lookup in such a bucket takes O(log n) time even if all of its
+ * keys share one hash code, provided they are Comparable; otherwise both
+ * subtrees of the nodes that cannot be told apart from the key have to be
+ * searched. The nodes are also linked in the order of the chain, so that a map
+ * entry is unlinked from the chain in constant time. Once removals shrink the
+ * bin to UNTREEIFY_THRESHOLD entries, the table slot holds the chain again.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap
+ */
+final class PerformantTreeBin<K, V> {
+
+	/**
+	 * The chain length beyond which a bucket is converted to a tree.
+	 */
+	static final int TREEIFY_THRESHOLD = 8;
+
+	/**
+	 * The number of entries at which a tree is turned back into a chain.
+	 */
+	static final int UNTREEIFY_THRESHOLD = 6;
+
+	private Node<K, V> root;
+
+	private Node<K, V> head;
+
+	private int size;
+
+	private int sequence;
+
+	private PerformantTreeBin() {
+
+	}
+
+	/**
+	 * Returns true if the specified table slot holds a treeified bucket.
+	 *
+	 * @param slot the content of the table slot of the bucket
+	 * @return true if the bucket is a tree
+	 */
+	static boolean isTreeBin(Object slot) {
+
+		return slot instanceof PerformantTreeBin;
+
+	}
+
+	/**
+	 * Returns the head of the chain of the bucket held by the specified table
+	 * slot, whether or not the bucket is a tree.
+	 *
+	 * @param slot the content of the table slot of the bucket
+	 * @return the first entry of the bucket, or null if the bucket is empty
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> PerformantHashMapEntry<K, V> first(Object slot) {
+
+		if (slot instanceof PerformantTreeBin) {
+
+			return ((PerformantTreeBin<K, V>) slot).head.entry;
+
+		}
+
+		return (PerformantHashMapEntry<K, V>) slot;
+
+	}
+
+	/**
+	 * Returns the entry for the specified key in the treeified bucket held by the
+	 * specified table slot, or null if the bucket contains no entry for the key.
+	 *
+	 * @param slot the content of the table slot of the bucket
+	 * @param hash the hash of the key
+	 * @param key  the key to search for
+	 * @return the entry for the key, or null
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> PerformantHashMapEntry<K, V> find(Object slot, int hash, Object key) {
+
+		Node<K, V> node = findNode(((PerformantTreeBin<K, V>) slot).root, hash, key);
+
+		return node == null ? null : node.entry;
+
+	}
+
+	/**
+	 * Returns the number of nodes a lookup of the specified key compares with the
+	 * key, down to the node for the key or to a leaf. Among nodes with equal
+	 * hashes only the path to a node that is found is counted.
+	 *
+	 * @param slot the content of the table slot of the bucket
+	 * @param hash the hash of the key
+	 * @param key  the key to search for
+	 * @return the probe length of the lookup
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> int getProbeLength(Object slot, int hash, Object key) {
+
+		Node<K, V> p = ((PerformantTreeBin<K, V>) slot).root;
+
+		int probes = 0;
+
+		while (p != null) {
+
+			probes++;
+
+			int nodeHash = p.entry.getHash();
+
+			if (hash < nodeHash) {
+
+				p = p.left;
+
+			} else if (hash > nodeHash) {
+
+				p = p.right;
+
+			} else {
+
+				Node<K, V> node = findNode(p, hash, key);
+
+				while (node != null && p != node) {
+
+					p = compareNodes(node, p) < 0 ? p.left : p.right;
+
+					probes++;
+
+				}
+
+				break;
+
+			}
+
+		}
+
+		return probes;
+
+	}
+
+	/**
+	 * Converts the chain of the specified bucket into a tree. The entries stay in
+	 * the chain, in the same order.
+	 *
+	 * @param table the table holding the bucket
+	 * @param index the index of the bucket
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> void treeify(Object[] table, int index) {
+
+		PerformantTreeBin<K, V> bin = new PerformantTreeBin<K, V>();
+
+		Node<K, V> tail = null;
+
+		for (PerformantHashMapEntry<K, V> entry = (PerformantHashMapEntry<K, V>) table[index]; entry != null; entry = entry
+				.getNext()) {
+
+			Node<K, V> node = new Node<K, V>(entry, bin.sequence++);
+
+			if ((node.previous = tail) == null) {
+
+				bin.head = node;
+
+			} else {
+
+				tail.next = node;
+
+			}
+
+			tail = node;
+
+			bin.root = insert(bin.root, node);
+
+			bin.size++;
+
+		}
+
+		table[index] = bin;
+
+	}
+
+	/**
+	 * Turns the treeified bucket at the specified index back into its chain.
+	 *
+	 * @param table the table holding the bucket
+	 * @param index the index of the bucket
+	 */
+	static void untreeify(Object[] table, int index) {
+
+		table[index] = first(table[index]);
+
+	}
+
+	/**
+	 * Adds the specified entry to the head of the chain of the treeified bucket
+	 * and to its tree. The bucket must not contain an entry for the key of the
+	 * entry.
+	 *
+	 * @param table the table holding the bucket
+	 * @param index the index of the bucket
+	 * @param entry the entry to add
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> void addEntry(Object[] table, int index, PerformantHashMapEntry<K, V> entry) {
+
+		PerformantTreeBin<K, V> bin = (PerformantTreeBin<K, V>) table[index];
+
+		Node<K, V> node = new Node<K, V>(entry, bin.sequence++);
+
+		entry.setNext(bin.head.entry);
+
+		node.next = bin.head;
+
+		bin.head.previous = node;
+
+		bin.head = node;
+
+		bin.root = insert(bin.root, node);
+
+		bin.size++;
+
+	}
+
+	/**
+	 * Removes the entry for the specified key from the treeified bucket and
+	 * returns it, or returns null if the bucket contains no entry for the key.
+	 * If the tree becomes too small, the bucket is turned back into a chain.
+	 *
+	 * @param table the table holding the bucket
+	 * @param index the index of the bucket
+	 * @param hash  the hash of the key
+	 * @param key   the key whose entry is removed
+	 * @return the removed entry, or null
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> PerformantHashMapEntry<K, V> removeEntry(Object[] table, int index, int hash, Object key) {
+
+		PerformantTreeBin<K, V> bin = (PerformantTreeBin<K, V>) table[index];
+
+		Node<K, V> node = findNode(bin.root, hash, key);
+
+		if (node == null) {
+
+			return null;
+
+		}
+
+		if (node.previous == null) {
+
+			bin.head = node.next;
+
+		} else {
+
+			node.previous.entry.setNext(node.entry.getNext());
+
+			node.previous.next = node.next;
+
+		}
+
+		if (node.next != null) {
+
+			node.next.previous = node.previous;
+
+		}
+
+		bin.root = delete(bin.root, node);
+
+		if (--bin.size <= UNTREEIFY_THRESHOLD) {
+
+			untreeify(table, index);
+
+		}
+
+		return node.entry;
+
+	}
+
+	private static <K, V> Node<K, V> findNode(Node<K, V> p, int hash, Object key) {
+
+		while (p != null) {
+
+			int nodeHash = p.entry.getHash();
+
+			Object nodeKey = p.entry.getKey();
+
+			int order;
+
+			if (hash != nodeHash) {
+
+				p = hash < nodeHash ? p.left : p.right;
+
+			} else if (nodeKey == key || (key != null && key.equals(nodeKey))) {
+
+				return p;
+
+			} else if ((order = compareKeys(key, nodeKey)) != 0) {
+
+				p = order < 0 ? p.left : p.right;
+
+			} else {
+
+				// The key cannot be placed relative to this node, so it may be in
+				// either subtree.
+				Node<K, V> node = findNode(p.right, hash, key);
+
+				if (node != null) {
+
+					return node;
+
+				}
+
+				p = p.left;
+
+			}
+
+		}
+
+		return null;
+
+	}
+
+	/*
+	 * Compares two keys with equal hashes by their natural order, if they are of
+	 * the same Comparable class. Returns 0 if they are not, or if their natural
+	 * order does not tell them apart.
+	 */
+	@SuppressWarnings("unchecked")
+	private static int compareKeys(Object key, Object nodeKey) {
+
+		if (key == null || nodeKey == null || key.getClass() != nodeKey.getClass() || !(key instanceof Comparable)) {
+
+			return 0;
+
+		}
+
+		try {
+
+			return Integer.signum(((Comparable<Object>) key).compareTo(nodeKey));
+
+		} catch (ClassCastException e) {
+
+			// The class is comparable to some other class only.
+			return 0;
+
+		}
+
+	}
+
+	/*
+	 * The order of the nodes in the tree, which is total: two different nodes
+	 * never compare as equal, since their insertion sequence differs.
+	 */
+	private static int compareNodes(Node<?, ?> x, Node<?, ?> p) {
+
+		int hash = x.entry.getHash();
+
+		int nodeHash = p.entry.getHash();
+
+		if (hash != nodeHash) {
+
+			return hash < nodeHash ? -1 : 1;
+
+		}
+
+		Object key = x.entry.getKey();
+
+		Object nodeKey = p.entry.getKey();
+
+		int order = compareClasses(key == null ? null : key.getClass(), nodeKey == null ? null : nodeKey.getClass());
+
+		if (order == 0) {
+
+			order = compareKeys(key, nodeKey);
+
+		}
+
+		if (order == 0) {
+
+			order = Integer.compare(System.identityHashCode(key), System.identityHashCode(nodeKey));
+
+		}
+
+		return order != 0 ? order : Integer.compare(x.sequence, p.sequence);
+
+	}
+
+	private static int compareClasses(Class<?> keyClass, Class<?> nodeKeyClass) {
+
+		if (keyClass == nodeKeyClass) {
+
+			return 0;
+
+		}
+
+		String name = keyClass == null ? "" : keyClass.getName();
+
+		String nodeName = nodeKeyClass == null ? "" : nodeKeyClass.getName();
+
+		int order = name.compareTo(nodeName);
+
+		// Classes of the same name from different class loaders.
+		return order != 0 ? order : Integer.compare(System.identityHashCode(keyClass),
+				System.identityHashCode(nodeKeyClass));
+
+	}
+
+	private static <K, V> Node<K, V> insert(Node<K, V> p, Node<K, V> node) {
+
+		if (p == null) {
+
+			return node;
+
+		}
+
+		if (compareNodes(node, p) < 0) {
+
+			p.left = insert(p.left, node);
+
+		} else {
+
+			p.right = insert(p.right, node);
+
+		}
+
+		return rebalance(p);
+
+	}
+
+	private static <K, V> Node<K, V> delete(Node<K, V> p, Node<K, V> node) {
+
+		int order = compareNodes(node, p);
+
+		if (order < 0) {
+
+			p.left = delete(p.left, node);
+
+		} else if (order > 0) {
+
+			p.right = delete(p.right, node);
+
+		} else if (p.left == null) {
+
+			return p.right;
+
+		} else if (p.right == null) {
+
+			return p.left;
+
+		} else {
+
+			// The node is replaced by the leftmost node of its right subtree.
+			Node<K, V> successor = p.right;
+
+			while (successor.left != null) {
+
+				successor = successor.left;
+
+			}
+
+			successor.right = deleteLeftmost(p.right);
+
+			successor.left = p.left;
+
+			p = successor;
+
+		}
+
+		return rebalance(p);
+
+	}
+
+	private static <K, V> Node<K, V> deleteLeftmost(Node<K, V> p) {
+
+		if (p.left == null) {
+
+			return p.right;
+
+		}
+
+		p.left = deleteLeftmost(p.left);
+
+		return rebalance(p);
+
+	}
+
+	/*
+	 * Restores the AVL balance of a node whose subtrees differ in height by at
+	 * most two, and returns the root of the rebalanced subtree.
+	 */
+	private static <K, V> Node<K, V> rebalance(Node<K, V> p) {
+
+		int balance = getHeight(p.left) - getHeight(p.right);
+
+		if (balance > 1) {
+
+			if (getHeight(p.left.left) < getHeight(p.left.right)) {
+
+				p.left = rotateLeft(p.left);
+
+			}
+
+			return rotateRight(p);
+
+		}
+
+		if (balance < -1) {
+
+			if (getHeight(p.right.right) < getHeight(p.right.left)) {
+
+				p.right = rotateRight(p.right);
+
+			}
+
+			return rotateLeft(p);
+
+		}
+
+		updateHeight(p);
+
+		return p;
+
+	}
+
+	private static <K, V> Node<K, V> rotateLeft(Node<K, V> p) {
+
+		Node<K, V> right = p.right;
+
+		p.right = right.left;
+
+		right.left = p;
+
+		updateHeight(p);
+
+		updateHeight(right);
+
+		return right;
+
+	}
+
+	private static <K, V> Node<K, V> rotateRight(Node<K, V> p) {
+
+		Node<K, V> left = p.left;
+
+		p.left = left.right;
+
+		left.right = p;
+
+		updateHeight(p);
+
+		updateHeight(left);
+
+		return left;
+
+	}
+
+	private static int getHeight(Node<?, ?> node) {
+
+		return node == null ? 0 : node.height;
+
+	}
+
+	private static void updateHeight(Node<?, ?> node) {
+
+		node.height = 1 + Math.max(getHeight(node.left), getHeight(node.right));
+
+	}
+
+	/*
+	 * A node of the tree. Besides its children, it links the node of the previous
+	 * and the next map entry of the chain.
+	 */
+	private static final class Node<K, V> {
+
+		private final PerformantHashMapEntry<K, V> entry;
+
+		private final int sequence;
+
+		private Node<K, V> left;
+
+		private Node<K, V> right;
+
+		private Node<K, V> previous;
+
+		private Node<K, V> next;
+
+		private int height;
+
+		private Node(PerformantHashMapEntry<K, V> entry, int sequence) {
+
+			this.entry = entry;
+
+			this.sequence = sequence;
+
+			this.height = 1;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.sparklingminds.adt.map;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * RehashEvent is the flight recorder event of a resize of the table of a
+ * PerformantHashMap. <br>
+ * <br>
+ * The duration of the event is the time spent moving the map entries into the
+ * new table. For an incremental rehash the event starts when the new table is
+ * allocated and is committed when the last bucket of the old table has been
+ * moved, so its duration is the time the two tables were alive together rather
+ * than the time spent moving map entries. A threshold on the duration set in
+ * the recording settings leaves out the cheap resizes of small maps.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+@Name("com.sparklingminds.adt.map.Rehash")
+@Label("PerformantHashMap Rehash")
+@Category({ "Sparkling Minds", "PerformantHashMap" })
+@Description("A resize of the table of a PerformantHashMap")
+final class RehashEvent extends jdk.jfr.Event {
+
+	@Label("Old Capacity")
+	@Description("The number of buckets of the table before the resize")
+	int oldCapacity;
+
+	@Label("New Capacity")
+	@Description("The number of buckets of the table after the resize")
+	int newCapacity;
+
+	@Label("Entry Count")
+	@Description("The number of map entries moved into the new table")
+	int entryCount;
+
+	@Label("Incremental")
+	@Description("True if the map entries were moved a few buckets at a time by the operations on the map")
+	boolean incremental;
+
+}
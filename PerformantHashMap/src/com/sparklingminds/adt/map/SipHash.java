@@ -0,0 +1,144 @@
+package com.sparklingminds.adt.map;
+
+/**
+ * SipHash is the keyed hash function behind the seeded hashing of a
+ * PerformantHashMap. <br>
+ * <br>
+ * It computes SipHash-1-3 (one compression round per message word and three
+ * finalization rounds) of the UTF-16 code units of a String, taken as little
+ * endian bytes, under a 128-bit key. Unlike String.hashCode, whose collisions
+ * can be enumerated offline, the hash of a String under a secret random key
+ * cannot be predicted, so keys crafted to share a bucket of one map are spread
+ * over the buckets of every other. Four characters are packed into every
+ * message word, so hashing a String takes about one round per four characters
+ * and allocates no memory.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap#setSeededHash(boolean)
+ */
+final class SipHash {
+
+	private SipHash() {
+
+	}
+
+	/**
+	 * Returns the SipHash-1-3 of the characters of the specified String under the
+	 * key (k0, k1).
+	 *
+	 * @param k0 the first half of the key
+	 * @param k1 the second half of the key
+	 * @param s  the String to hash
+	 * @return the 64-bit hash of the String
+	 */
+	static long hash(long k0, long k1, String s) {
+
+		long v0 = k0 ^ 0x736f6d6570736575L;
+
+		long v1 = k1 ^ 0x646f72616e646f6dL;
+
+		long v2 = k0 ^ 0x6c7967656e657261L;
+
+		long v3 = k1 ^ 0x7465646279746573L;
+
+		int length = s.length();
+
+		int end = length & ~3;
+
+		// The last message word holds the remaining characters and, in its top
+		// byte, the length of the message in bytes.
+		for (int i = 0; i <= end; i += 4) {
+
+			long m;
+
+			if (i < end) {
+
+				m = s.charAt(i) | (long) s.charAt(i + 1) << 16 | (long) s.charAt(i + 2) << 32
+						| (long) s.charAt(i + 3) << 48;
+
+			} else {
+
+				m = (long) (length << 1) << 56;
+
+				for (int j = 0; j < length - end; j++) {
+
+					m |= (long) s.charAt(end + j) << (j << 4);
+
+				}
+
+			}
+
+			v3 ^= m;
+
+			v0 += v1;
+
+			v1 = Long.rotateLeft(v1, 13);
+
+			v1 ^= v0;
+
+			v0 = Long.rotateLeft(v0, 32);
+
+			v2 += v3;
+
+			v3 = Long.rotateLeft(v3, 16);
+
+			v3 ^= v2;
+
+			v0 += v3;
+
+			v3 = Long.rotateLeft(v3, 21);
+
+			v3 ^= v0;
+
+			v2 += v1;
+
+			v1 = Long.rotateLeft(v1, 17);
+
+			v1 ^= v2;
+
+			v2 = Long.rotateLeft(v2, 32);
+
+			v0 ^= m;
+
+		}
+
+		v2 ^= 0xff;
+
+		for (int i = 0; i < 3; i++) {
+
+			v0 += v1;
+
+			v1 = Long.rotateLeft(v1, 13);
+
+			v1 ^= v0;
+
+			v0 = Long.rotateLeft(v0, 32);
+
+			v2 += v3;
+
+			v3 = Long.rotateLeft(v3, 16);
+
+			v3 ^= v2;
+
+			v0 += v3;
+
+			v3 = Long.rotateLeft(v3, 21);
+
+			v3 ^= v0;
+
+			v2 += v1;
+
+			v1 = Long.rotateLeft(v1, 17);
+
+			v1 ^= v2;
+
+			v2 = Long.rotateLeft(v2, 32);
+
+		}
+
+		return v0 ^ v1 ^ v2 ^ v3;
+
+	}
+
+}
@@ -0,0 +1,1074 @@
+package com.sparklingminds.adt.map;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * SwissPerformantHashMap is an open addressing ("Swiss table") implementation
+ * of the Map interface. It is an alternative storage engine to the separate
+ * chaining used by PerformantHashMap and is selected simply by constructing
+ * this class instead of PerformantHashMap; both implement the same Map
+ * contract, so call sites that program against Map need no change. It permits
+ * null values and the null key and is not synchronized. <br>
+ * <br>
+ * Instead of an array of linked map entries, the SwissPerformantHashMap keeps
+ * two flat structures: a control byte array with one byte per slot, and a
+ * single object array in which the key and value of a slot are stored next to
+ * each other. A control byte is either EMPTY, DELETED (a tombstone left by a
+ * removal) or, for an occupied slot, the lowest 7 bits of the hash code of its
+ * key (the <i> fingerprint </i>). Slots are organised in groups of 8, and the
+ * 8 control bytes of a group are read as a single long and compared against
+ * the fingerprint of the searched key in a handful of word operations (SWAR).
+ * Only slots whose fingerprint matches are ever compared with equals, and a
+ * group containing an EMPTY byte terminates the probe sequence. A successful
+ * lookup therefore typically touches the 8 byte control word and the adjacent
+ * key/value pair, with no pointer chasing through separately allocated entry
+ * objects. <br>
+ * <br>
+ * Groups are probed with a triangular sequence over a power of two number of
+ * groups, which visits every group exactly once. The table is kept at most 7/8
+ * full (counting tombstones); when it runs out of room it is either rebuilt at
+ * the same capacity, if enough of the used slots are tombstones, or at twice
+ * the capacity. <br>
+ * <br>
+ * The iterators returned by all of this class's "collection view methods" are
+ * fail-fast on a best-effort basis, exactly as documented for
+ * PerformantHashMap.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ * @see PerformantHashMap
+ */
+public class SwissPerformantHashMap<K, V> extends AbstractMap<K, V>
+		implements java.util.Map<K, V>, java.io.Serializable, Cloneable {
+
+	private static final long serialVersionUID = 462498820763181265L;
+
+	private static final int GROUP_WIDTH = 8;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private static final byte EMPTY = (byte) 0x80;
+
+	private static final byte DELETED = (byte) 0xFE;
+
+	private static final long LSBS = 0x0101010101010101L;
+
+	private static final long MSBS = 0x8080808080808080L;
+
+	private static final VarHandle CONTROL_WORD = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	private static final Object NULL_KEY = new Object();
+
+	private transient byte[] control;
+
+	private transient Object[] slots;
+
+	private transient int groupMask;
+
+	private transient int mapEntrySize;
+
+	private transient int growthLeft;
+
+	private transient int modCount;
+
+	private transient Set<Map.Entry<K, V>> entrySet;
+
+	private transient Set<K> keySet;
+
+	private transient Collection<V> valueSet;
+
+	/**
+	 * Constructs an empty SwissPerformantHashMap with the default initial capacity
+	 * (16).
+	 */
+	public SwissPerformantHashMap() {
+
+		allocate(DEFAULT_CAPACITY);
+
+	}
+
+	/**
+	 * Constructs an empty SwissPerformantHashMap able to hold the specified number
+	 * of mappings without growing.
+	 *
+	 * @param initialCapacity the number of mappings to size the table for
+	 * @throws IllegalArgumentException if the initial capacity is negative
+	 */
+	public SwissPerformantHashMap(int initialCapacity) {
+
+		if (initialCapacity < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		allocate(capacityFor(initialCapacity));
+
+	}
+
+	/**
+	 * Constructs a new SwissPerformantHashMap with the same mappings as the
+	 * specified Map.
+	 *
+	 * @param m the map whose mappings are to be placed in this map
+	 * @throws NullPointerException if the specified map is null
+	 */
+	public SwissPerformantHashMap(Map<? extends K, ? extends V> m) {
+
+		if (m == null) {
+
+			throw new NullPointerException();
+
+		}
+
+		allocate(capacityFor(m.size()));
+
+		for (Entry<? extends K, ? extends V> me : m.entrySet()) {
+
+			put(me.getKey(), me.getValue());
+
+		}
+
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	@Override
+	public int size() {
+
+		return mapEntrySize;
+
+	}
+
+	/**
+	 * Returns true if this map contains no key-value mappings.
+	 *
+	 * @return true if this map contains no key-value mappings
+	 */
+	@Override
+	public boolean isEmpty() {
+
+		return mapEntrySize == 0;
+
+	}
+
+	/**
+	 * Returns true if this map contains a mapping for the specified key.
+	 *
+	 * @param key the key whose presence in this map is to be tested
+	 * @return true if this map contains a mapping for the specified key.
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+
+		return findSlot(maskNull(key)) >= 0;
+
+	}
+
+	/**
+	 * Returns true if this map maps one or more keys to the specified value.
+	 *
+	 * @param value whose presence in this map is to be tested
+	 * @return true if this map maps one or more keys to the specified value
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+
+		for (int i = 0; i < control.length; i++) {
+
+			if (control[i] >= 0) {
+
+				Object slotValue = slots[(i << 1) + 1];
+
+				if (value == null ? slotValue == null : value.equals(slotValue)) {
+
+					return true;
+
+				}
+
+			}
+
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this map
+	 * contains no mapping for the key.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the value to which the specified key is mapped, or null if this map
+	 *         contains no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+
+		int slot = findSlot(maskNull(key));
+
+		return slot < 0 ? null : (V) slots[(slot << 1) + 1];
+
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map. If the map
+	 * previously contained a mapping for the key, the old value is replaced.
+	 *
+	 * @param key   the key with which the specified value is to be associated
+	 * @param value the value to be associated with the specified key
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key. (A null return can also indicate that the map
+	 *         previously associated null with key.)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V put(K key, V value) {
+
+		Object maskedKey = maskNull(key);
+
+		int hash = hash(maskedKey);
+
+		int slot = findSlot(maskedKey, hash);
+
+		if (slot >= 0) {
+
+			V oldValue = (V) slots[(slot << 1) + 1];
+
+			slots[(slot << 1) + 1] = value;
+
+			return oldValue;
+
+		}
+
+		slot = findInsertSlot(hash);
+
+		if (growthLeft == 0 && control[slot] == EMPTY) {
+
+			resize();
+
+			slot = findInsertSlot(hash);
+
+		}
+
+		if (control[slot] == EMPTY) {
+
+			growthLeft--;
+
+		}
+
+		control[slot] = (byte) (hash & 0x7F);
+
+		slots[slot << 1] = maskedKey;
+
+		slots[(slot << 1) + 1] = value;
+
+		mapEntrySize++;
+
+		modCount++;
+
+		return null;
+
+	}
+
+	/**
+	 * Removes the mapping for the specified key from this map if present.
+	 *
+	 * @param key whose mapping is to be removed from the map
+	 * @return the previous value associated with key, or null if there was no
+	 *         mapping for key. (A null return can also indicate that the map
+	 *         previously associated null with key.)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V remove(Object key) {
+
+		int slot = findSlot(maskNull(key));
+
+		if (slot < 0) {
+
+			return null;
+
+		}
+
+		V oldValue = (V) slots[(slot << 1) + 1];
+
+		eraseSlot(slot);
+
+		return oldValue;
+
+	}
+
+	/**
+	 * Removes all of the mappings from this map. The map will be empty after this
+	 * call returns.
+	 */
+	@Override
+	public void clear() {
+
+		if (mapEntrySize > 0 || growthLeft != maxLoad(control.length)) {
+
+			Arrays.fill(control, EMPTY);
+
+			Arrays.fill(slots, null);
+
+			mapEntrySize = 0;
+
+			growthLeft = maxLoad(control.length);
+
+			modCount++;
+
+		}
+
+	}
+
+	/**
+	 * Returns a Set view of the keys contained in this map. The set is backed by
+	 * the map, so changes to the map are reflected in the set, and vice-versa. The
+	 * set supports element removal, which removes the corresponding mapping from
+	 * the map, via the Iterator.remove, Set.remove and clear operations. It does
+	 * not support the add or addAll operations.
+	 *
+	 * @return a set view of the keys contained in this map
+	 */
+	@Override
+	public Set<K> keySet() {
+
+		if (keySet == null) {
+
+			keySet = new SwissKeySet();
+
+		}
+
+		return keySet;
+
+	}
+
+	/**
+	 * Returns a Collection view of the values contained in this map. The collection
+	 * is backed by the map, so changes to the map are reflected in the collection,
+	 * and vice-versa. The collection supports element removal via the
+	 * Iterator.remove, Collection.remove and clear operations. It does not support
+	 * the add or addAll operations.
+	 *
+	 * @return a view of the values contained in this map
+	 */
+	@Override
+	public Collection<V> values() {
+
+		if (valueSet == null) {
+
+			valueSet = new SwissValueCollection();
+
+		}
+
+		return valueSet;
+
+	}
+
+	/**
+	 * Returns a Set view of the mappings contained in this map. The set is backed
+	 * by the map, so changes to the map are reflected in the set, and vice-versa.
+	 * The set supports element removal via the Iterator.remove, Set.remove and
+	 * clear operations. It does not support the add or addAll operations.
+	 *
+	 * @return a set view of the mappings contained in this map
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+
+		if (entrySet == null) {
+
+			entrySet = new SwissEntrySet();
+
+		}
+
+		return entrySet;
+
+	}
+
+	/**
+	 * Returns a shallow copy of this SwissPerformantHashMap instance: the keys and
+	 * values themselves are not cloned.
+	 *
+	 * @return a shallow copy of this map
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+
+		SwissPerformantHashMap<K, V> result = (SwissPerformantHashMap<K, V>) super.clone();
+
+		result.control = control.clone();
+
+		result.slots = slots.clone();
+
+		result.entrySet = null;
+
+		result.keySet = null;
+
+		result.valueSet = null;
+
+		result.modCount = 0;
+
+		return result;
+
+	}
+
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+
+		s.defaultWriteObject();
+
+		s.writeInt(mapEntrySize);
+
+		for (int i = 0; i < control.length; i++) {
+
+			if (control[i] >= 0) {
+
+				s.writeObject(unmaskNull(slots[i << 1]));
+
+				s.writeObject(slots[(i << 1) + 1]);
+
+			}
+
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+
+		s.defaultReadObject();
+
+		int entries = s.readInt();
+
+		if (entries < 0) {
+
+			throw new java.io.InvalidObjectException("Illegal mappings count: " + entries);
+
+		}
+
+		allocate(capacityFor(entries));
+
+		for (int i = 0; i < entries; i++) {
+
+			put((K) s.readObject(), (V) s.readObject());
+
+		}
+
+	}
+
+	private int findSlot(Object maskedKey) {
+
+		return findSlot(maskedKey, hash(maskedKey));
+
+	}
+
+	private int findSlot(Object maskedKey, int hash) {
+
+		long fingerprint = LSBS * (hash & 0x7F);
+
+		int group = (hash >>> 7) & groupMask;
+
+		int step = 0;
+
+		while (true) {
+
+			long word = (long) CONTROL_WORD.get(control, group << 3);
+
+			long x = word ^ fingerprint;
+
+			long matches = (x - LSBS) & ~x & MSBS;
+
+			while (matches != 0) {
+
+				int slot = (group << 3) + (Long.numberOfTrailingZeros(matches) >>> 3);
+
+				Object candidate = slots[slot << 1];
+
+				if (candidate == maskedKey || maskedKey.equals(candidate)) {
+
+					return slot;
+
+				}
+
+				matches &= matches - 1;
+
+			}
+
+			if (matchEmpty(word) != 0) {
+
+				return -1;
+
+			}
+
+			group = (group + ++step) & groupMask;
+
+		}
+
+	}
+
+	private int findInsertSlot(int hash) {
+
+		int group = (hash >>> 7) & groupMask;
+
+		int step = 0;
+
+		while (true) {
+
+			long word = (long) CONTROL_WORD.get(control, group << 3);
+
+			long available = word & (~word << 7) & MSBS;
+
+			if (available != 0) {
+
+				return (group << 3) + (Long.numberOfTrailingZeros(available) >>> 3);
+
+			}
+
+			group = (group + ++step) & groupMask;
+
+		}
+
+	}
+
+	private void eraseSlot(int slot) {
+
+		long word = (long) CONTROL_WORD.get(control, slot & ~(GROUP_WIDTH - 1));
+
+		// A group that still has an empty byte has never stopped a probe sequence
+		// from terminating, so the slot can go straight back to EMPTY.
+		if (matchEmpty(word) != 0) {
+
+			control[slot] = EMPTY;
+
+			growthLeft++;
+
+		} else {
+
+			control[slot] = DELETED;
+
+		}
+
+		slots[slot << 1] = null;
+
+		slots[(slot << 1) + 1] = null;
+
+		mapEntrySize--;
+
+		modCount++;
+
+	}
+
+	private void resize() {
+
+		int capacity = control.length;
+
+		// Rebuild in place when at least half of the used slots are tombstones,
+		// otherwise double the table.
+		if (mapEntrySize <= maxLoad(capacity) / 2) {
+
+			rebuild(capacity);
+
+		} else {
+
+			if (capacity >= MAXIMUM_CAPACITY) {
+
+				throw new IllegalStateException("SwissPerformantHashMap cannot grow beyond " + MAXIMUM_CAPACITY);
+
+			}
+
+			rebuild(capacity << 1);
+
+		}
+
+	}
+
+	private void rebuild(int newCapacity) {
+
+		byte[] oldControl = control;
+
+		Object[] oldSlots = slots;
+
+		allocate(newCapacity);
+
+		for (int i = 0; i < oldControl.length; i++) {
+
+			if (oldControl[i] >= 0) {
+
+				Object maskedKey = oldSlots[i << 1];
+
+				int hash = hash(maskedKey);
+
+				int slot = findInsertSlot(hash);
+
+				control[slot] = (byte) (hash & 0x7F);
+
+				slots[slot << 1] = maskedKey;
+
+				slots[(slot << 1) + 1] = oldSlots[(i << 1) + 1];
+
+				growthLeft--;
+
+				mapEntrySize++;
+
+			}
+
+		}
+
+		modCount++;
+
+	}
+
+	private void allocate(int capacity) {
+
+		control = new byte[capacity];
+
+		Arrays.fill(control, EMPTY);
+
+		slots = new Object[capacity << 1];
+
+		groupMask = (capacity / GROUP_WIDTH) - 1;
+
+		growthLeft = maxLoad(capacity);
+
+		mapEntrySize = 0;
+
+	}
+
+	private static long matchEmpty(long word) {
+
+		return word & (~word << 6) & MSBS;
+
+	}
+
+	private static int maxLoad(int capacity) {
+
+		return capacity - (capacity / GROUP_WIDTH);
+
+	}
+
+	private static int capacityFor(int expectedSize) {
+
+		long required = ((long) expectedSize * GROUP_WIDTH) / (GROUP_WIDTH - 1) + 1;
+
+		if (required >= MAXIMUM_CAPACITY) {
+
+			return MAXIMUM_CAPACITY;
+
+		}
+
+		int capacity = Integer.highestOneBit((int) required);
+
+		if (capacity < required) {
+
+			capacity <<= 1;
+
+		}
+
+		return Math.max(capacity, DEFAULT_CAPACITY);
+
+	}
+
+	private static int hash(Object maskedKey) {
+
+		int h = maskedKey.hashCode();
+
+		h ^= h >>> 16;
+
+		h *= 0x85ebca6b;
+
+		h ^= h >>> 13;
+
+		h *= 0xc2b2ae35;
+
+		return h ^ (h >>> 16);
+
+	}
+
+	private static Object maskNull(Object key) {
+
+		return key == null ? NULL_KEY : key;
+
+	}
+
+	private static Object unmaskNull(Object maskedKey) {
+
+		return maskedKey == NULL_KEY ? null : maskedKey;
+
+	}
+
+	final class SwissEntry implements Map.Entry<K, V> {
+
+		private final K key;
+
+		private V value;
+
+		private final int slot;
+
+		SwissEntry(K key, V value, int slot) {
+
+			this.key = key;
+
+			this.value = value;
+
+			this.slot = slot;
+
+		}
+
+		@Override
+		public K getKey() {
+
+			return key;
+
+		}
+
+		@Override
+		public V getValue() {
+
+			return value;
+
+		}
+
+		@Override
+		public V setValue(V value) {
+
+			V oldValue = this.value;
+
+			this.value = value;
+
+			if (slot < control.length && control[slot] >= 0 && slots[slot << 1] == maskNull(key)) {
+
+				slots[(slot << 1) + 1] = value;
+
+			} else {
+
+				put(key, value);
+
+			}
+
+			return oldValue;
+
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			if (!(o instanceof Map.Entry)) {
+
+				return false;
+
+			}
+
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+
+			return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+					&& (value == null ? e.getValue() == null : value.equals(e.getValue()));
+
+		}
+
+		@Override
+		public int hashCode() {
+
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+
+		}
+
+		@Override
+		public String toString() {
+
+			return key + "=" + value;
+
+		}
+
+	}
+
+	final class SwissEntrySet extends java.util.AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+
+			return new SwissIterator<Map.Entry<K, V>>() {
+
+				@Override
+				public Map.Entry<K, V> next() {
+
+					int slot = nextSlot();
+
+					return new SwissEntry(keyAt(slot), valueAt(slot), slot);
+
+				}
+
+			};
+
+		}
+
+		@Override
+		public boolean contains(Object o) {
+
+			if (!(o instanceof Map.Entry)) {
+
+				return false;
+
+			}
+
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+
+			int slot = findSlot(maskNull(e.getKey()));
+
+			if (slot < 0) {
+
+				return false;
+
+			}
+
+			Object slotValue = slots[(slot << 1) + 1];
+
+			return e.getValue() == null ? slotValue == null : e.getValue().equals(slotValue);
+
+		}
+
+		@Override
+		public boolean remove(Object o) {
+
+			if (!contains(o)) {
+
+				return false;
+
+			}
+
+			SwissPerformantHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+
+			return true;
+
+		}
+
+		@Override
+		public int size() {
+
+			return mapEntrySize;
+
+		}
+
+		@Override
+		public void clear() {
+
+			SwissPerformantHashMap.this.clear();
+
+		}
+
+	}
+
+	final class SwissKeySet extends java.util.AbstractSet<K> {
+
+		@Override
+		public Iterator<K> iterator() {
+
+			return new SwissIterator<K>() {
+
+				@Override
+				public K next() {
+
+					return keyAt(nextSlot());
+
+				}
+
+			};
+
+		}
+
+		@Override
+		public boolean contains(Object o) {
+
+			return containsKey(o);
+
+		}
+
+		@Override
+		public boolean remove(Object o) {
+
+			int slot = findSlot(maskNull(o));
+
+			if (slot < 0) {
+
+				return false;
+
+			}
+
+			eraseSlot(slot);
+
+			return true;
+
+		}
+
+		@Override
+		public int size() {
+
+			return mapEntrySize;
+
+		}
+
+		@Override
+		public void clear() {
+
+			SwissPerformantHashMap.this.clear();
+
+		}
+
+	}
+
+	final class SwissValueCollection extends java.util.AbstractCollection<V> {
+
+		@Override
+		public Iterator<V> iterator() {
+
+			return new SwissIterator<V>() {
+
+				@Override
+				public V next() {
+
+					return valueAt(nextSlot());
+
+				}
+
+			};
+
+		}
+
+		@Override
+		public boolean contains(Object o) {
+
+			return containsValue(o);
+
+		}
+
+		@Override
+		public int size() {
+
+			return mapEntrySize;
+
+		}
+
+		@Override
+		public void clear() {
+
+			SwissPerformantHashMap.this.clear();
+
+		}
+
+	}
+
+	abstract class SwissIterator<E> implements Iterator<E> {
+
+		private final byte[] table = control;
+
+		private int nextSlot = -1;
+
+		private int currentSlot = -1;
+
+		private int expectedModCount = modCount;
+
+		SwissIterator() {
+
+			advance();
+
+		}
+
+		@Override
+		public boolean hasNext() {
+
+			return nextSlot < table.length;
+
+		}
+
+		@Override
+		public void remove() {
+
+			if (currentSlot < 0) {
+
+				throw new IllegalStateException();
+
+			}
+
+			if (expectedModCount != modCount) {
+
+				throw new ConcurrentModificationException();
+
+			}
+
+			// Erasing only rewrites the control byte of the slot, it never moves
+			// other entries, so the iteration order is unaffected.
+			eraseSlot(currentSlot);
+
+			currentSlot = -1;
+
+			expectedModCount = modCount;
+
+		}
+
+		int nextSlot() {
+
+			if (expectedModCount != modCount) {
+
+				throw new ConcurrentModificationException();
+
+			}
+
+			if (nextSlot >= table.length) {
+
+				throw new NoSuchElementException();
+
+			}
+
+			currentSlot = nextSlot;
+
+			advance();
+
+			return currentSlot;
+
+		}
+
+		@SuppressWarnings("unchecked")
+		K keyAt(int slot) {
+
+			return (K) unmaskNull(slots[slot << 1]);
+
+		}
+
+		@SuppressWarnings("unchecked")
+		V valueAt(int slot) {
+
+			return (V) slots[(slot << 1) + 1];
+
+		}
+
+		private void advance() {
+
+			do {
+
+				nextSlot++;
+
+			} while (nextSlot < table.length && table[nextSlot] < 0);
+
+		}
+
+	}
+
+}
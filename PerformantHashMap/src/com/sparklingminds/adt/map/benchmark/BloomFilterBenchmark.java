@@ -0,0 +1,101 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Random;
+
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * BloomFilterBenchmark checks that the bloom filter pays for itself: a negative
+ * answer from mightContain has to be cheaper than the miss in get that it
+ * allows a caller to skip. For every map size it measures mightContain for
+ * absent keys on a map with the bloom filter enabled, get for the same absent
+ * keys on a map without the bloom filter, and get for the absent keys on the
+ * map with the bloom filter enabled, which consults the filter first.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class BloomFilterBenchmark {
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 1_000, 100_000, 1_000_000 };
+
+		for (int size : sizes) {
+
+			String[] keys = new String[size];
+
+			String[] missingKeys = new String[size];
+
+			Random random = new Random(size);
+
+			for (int i = 0; i < size; i++) {
+
+				keys[i] = "key-" + random.nextLong();
+
+				missingKeys[i] = "missing-" + random.nextLong();
+
+			}
+
+			PerformantHashMap<String, String> bloomMap = new PerformantHashMap<String, String>(16, 0.75f, true);
+
+			PerformantHashMap<String, String> plainMap = new PerformantHashMap<String, String>(16, 0.75f, false);
+
+			for (String key : keys) {
+
+				bloomMap.put(key, key);
+
+				plainMap.put(key, key);
+
+			}
+
+			MicroBenchmark.measure("mightContain miss          size=" + size, size, operations -> {
+
+				long count = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					count += bloomMap.mightContain(missingKeys[i]) ? 1 : 0;
+
+				}
+
+				return count;
+
+			});
+
+			MicroBenchmark.measure("get miss, no bloom filter  size=" + size, size, operations -> {
+
+				long count = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					count += plainMap.get(missingKeys[i]) == null ? 1 : 0;
+
+				}
+
+				return count;
+
+			});
+
+			MicroBenchmark.measure("get miss, bloom filter     size=" + size, size, operations -> {
+
+				long count = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					count += bloomMap.get(missingKeys[i]) == null ? 1 : 0;
+
+				}
+
+				return count;
+
+			});
+
+		}
+
+	}
+
+}
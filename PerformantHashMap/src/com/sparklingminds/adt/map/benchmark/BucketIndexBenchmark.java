@@ -0,0 +1,112 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Map;
+import java.util.Random;
+
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * BucketIndexBenchmark compares the default prime capacity PerformantHashMap,
+ * which selects a bucket with an integer division, against the power of two
+ * capacity mode, which selects a bucket with a bit mixing finalizer and a mask.
+ * For every map size it measures get for present keys, get for absent keys and
+ * put of new keys including all the rehashes needed to grow the table from its
+ * default capacity.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class BucketIndexBenchmark {
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 1_000, 100_000, 1_000_000 };
+
+		for (int size : sizes) {
+
+			Integer[] keys = new Integer[size];
+
+			Integer[] missingKeys = new Integer[size];
+
+			Random random = new Random(size);
+
+			for (int i = 0; i < size; i++) {
+
+				keys[i] = random.nextInt() & ~1;
+
+				missingKeys[i] = keys[i] | 1;
+
+			}
+
+			for (boolean isPowerOfTwoCapacity : new boolean[] { false, true }) {
+
+				String mode = isPowerOfTwoCapacity ? "power of two/mask" : "prime/modulo";
+
+				Map<Integer, Integer> map = newMap(isPowerOfTwoCapacity);
+
+				for (Integer key : keys) {
+
+					map.put(key, key);
+
+				}
+
+				MicroBenchmark.measure("get hit  " + mode + " size=" + size, size, operations -> {
+
+					long sum = 0;
+
+					for (int i = 0; i < operations; i++) {
+
+						Integer value = map.get(keys[i]);
+
+						sum += value == null ? 0 : value;
+
+					}
+
+					return sum;
+
+				});
+
+				MicroBenchmark.measure("get miss " + mode + " size=" + size, size, operations -> {
+
+					long sum = 0;
+
+					for (int i = 0; i < operations; i++) {
+
+						sum += map.get(missingKeys[i]) == null ? 1 : 0;
+
+					}
+
+					return sum;
+
+				});
+
+				MicroBenchmark.measure("put new  " + mode + " size=" + size, size, operations -> {
+
+					Map<Integer, Integer> growingMap = newMap(isPowerOfTwoCapacity);
+
+					for (int i = 0; i < operations; i++) {
+
+						growingMap.put(keys[i], keys[i]);
+
+					}
+
+					return growingMap.size();
+
+				});
+
+			}
+
+		}
+
+	}
+
+	private static Map<Integer, Integer> newMap(boolean isPowerOfTwoCapacity) {
+
+		return new PerformantHashMap<Integer, Integer>(16, 0.75f, false, false, isPowerOfTwoCapacity);
+
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * BulkLoadBenchmark compares the ways of loading a PerformantHashMap from a
+ * list of mappings:
+ * <ul>
+ * <li>put: a default sized map loaded one put at a time, rehashing as it
+ * grows</li>
+ * <li>bulkLoad: PerformantHashMap.bulkLoad on a sequential stream, which is
+ * filled in parallel by the common ForkJoinPool</li>
+ * <li>bulkLoad parallel: PerformantHashMap.bulkLoad on a parallel stream,
+ * which is also drained in parallel</li>
+ * </ul>
+ * The time is reported per loaded mapping. The allocation is only measured for
+ * the benchmarking thread, so it is not comparable between the put and the
+ * parallel loads.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class BulkLoadBenchmark {
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 100_000, 2_000_000 };
+
+		for (int size : sizes) {
+
+			Random random = new Random(size);
+
+			List<Map.Entry<String, Integer>> entries = new ArrayList<Map.Entry<String, Integer>>(size);
+
+			for (int i = 0; i < size; i++) {
+
+				entries.add(new AbstractMap.SimpleImmutableEntry<String, Integer>(
+						"key-" + Long.toHexString(random.nextLong()) + "-" + i, i));
+
+			}
+
+			MicroBenchmark.measure(String.format("%-24s size=%d", "put", size), size, operations -> {
+
+				PerformantHashMap<String, Integer> map = new PerformantHashMap<String, Integer>();
+
+				for (Map.Entry<String, Integer> entry : entries) {
+
+					map.put(entry.getKey(), entry.getValue());
+
+				}
+
+				return map.size();
+
+			});
+
+			MicroBenchmark.measure(String.format("%-24s size=%d", "bulkLoad", size), size, operations -> {
+
+				return PerformantHashMap.bulkLoad(entries.stream(), false).size();
+
+			});
+
+			MicroBenchmark.measure(String.format("%-24s size=%d", "bulkLoad parallel", size), size, operations -> {
+
+				return PerformantHashMap.bulkLoad(entries.parallelStream(), false).size();
+
+			});
+
+		}
+
+	}
+
+}
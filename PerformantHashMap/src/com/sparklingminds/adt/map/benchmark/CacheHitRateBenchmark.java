@@ -0,0 +1,153 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.sparklingminds.adt.map.PerformantCache;
+
+/**
+ * CacheHitRateBenchmark compares the hit rate of the W-TinyLFU eviction of the
+ * PerformantCache with a least recently used cache (an access ordered
+ * java.util.LinkedHashMap) of the same size. Every cache is read through: a key
+ * that misses is put into the cache. The caches hold 1 percent of the keys and
+ * are driven by two traces:
+ * <ul>
+ * <li>ZIPFIAN: keys with a Zipfian (theta 0.99) popularity, as in YCSB</li>
+ * <li>ZIPFIAN_SCAN: the same keys, interrupted by sequential scans over keys
+ * that are read only once, which flush an LRU cache</li>
+ * </ul>
+ * The hit rate of the optimal (Belady) policy on the Zipfian trace is close to
+ * the share of the lookups that go to the most popular 1 percent of the keys,
+ * which is printed for reference. Finally the time per get of the
+ * PerformantCache is measured.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class CacheHitRateBenchmark {
+
+	private static final int KEYS = 1_000_000;
+
+	private static final int CACHE_SIZE = KEYS / 100;
+
+	private static final int LOOKUPS = 10_000_000;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		Random random = new Random(KEYS);
+
+		PerformantMapBenchmarkSuite.ZipfianGenerator zipfian = new PerformantMapBenchmarkSuite.ZipfianGenerator(KEYS,
+				random);
+
+		int[] trace = new int[LOOKUPS];
+
+		int[] scanTrace = new int[LOOKUPS];
+
+		int popularLookups = 0;
+
+		int scanKey = KEYS;
+
+		for (int i = 0; i < LOOKUPS; i++) {
+
+			trace[i] = zipfian.next();
+
+			popularLookups += trace[i] < CACHE_SIZE ? 1 : 0;
+
+			// Every 100000 lookups, a scan reads twice as many new keys as the
+			// cache can hold.
+			scanTrace[i] = i % 100_000 < 2 * CACHE_SIZE ? scanKey++ : trace[i];
+
+		}
+
+		System.out.printf("%-28s %.4f%n", "top 1% share ZIPFIAN", (double) popularLookups / LOOKUPS);
+
+		for (int[] keys : new int[][] { trace, scanTrace }) {
+
+			String name = keys == trace ? "ZIPFIAN" : "ZIPFIAN_SCAN";
+
+			PerformantCache<Integer, Integer> cache = new PerformantCache<Integer, Integer>(CACHE_SIZE);
+
+			for (int key : keys) {
+
+				if (cache.get(key) == null) {
+
+					cache.put(key, key);
+
+				}
+
+			}
+
+			Map<Integer, Integer> lru = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+
+					return size() > CACHE_SIZE;
+
+				}
+
+			};
+
+			long lruHits = 0;
+
+			for (int key : keys) {
+
+				if (lru.get(key) == null) {
+
+					lru.put(key, key);
+
+				} else {
+
+					lruHits++;
+
+				}
+
+			}
+
+			System.out.printf("%-28s %.4f%n", "PerformantCache " + name, cache.getHitRate());
+
+			System.out.printf("%-28s %.4f%n", "LRU " + name, (double) lruHits / keys.length);
+
+		}
+
+		PerformantCache<Integer, Integer> cache = new PerformantCache<Integer, Integer>(CACHE_SIZE);
+
+		Integer[] boxedTrace = new Integer[1 << 20];
+
+		for (int i = 0; i < boxedTrace.length; i++) {
+
+			boxedTrace[i] = trace[i];
+
+		}
+
+		MicroBenchmark.measure("PerformantCache get+put on miss", boxedTrace.length, operations -> {
+
+			long hits = 0;
+
+			for (int i = 0; i < operations; i++) {
+
+				if (cache.get(boxedTrace[i]) == null) {
+
+					cache.put(boxedTrace[i], boxedTrace[i]);
+
+				} else {
+
+					hits++;
+
+				}
+
+			}
+
+			return hits;
+
+		});
+
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Random;
+
+import com.sparklingminds.adt.map.ChainReorderPolicy;
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * ChainReorderPolicyBenchmark compares the chain reorder policies of the
+ * PerformantHashMap on get for present keys. To give the policies chains to
+ * work on, the maps are filled with a load factor of 4, so a chain holds four
+ * map entries on average. The lookups follow three access patterns:
+ * <ul>
+ * <li>UNIFORM: every key is equally popular, so reordering only costs</li>
+ * <li>ZIPFIAN: a stable Zipfian (theta 0.99) popularity, as in YCSB</li>
+ * <li>SHIFTING_ZIPFIAN: the same popularity, but the set of popular keys moves
+ * to other keys four times per pass over the lookups</li>
+ * </ul>
+ * The map of every policy is warmed up with the lookups before it is measured,
+ * so the chains are measured in the order the policy converges to.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class ChainReorderPolicyBenchmark {
+
+	private static final int QUERIES = 1 << 20;
+
+	private static final float LOAD_FACTOR = 4f;
+
+	private enum Workload {
+
+		UNIFORM, ZIPFIAN, SHIFTING_ZIPFIAN
+
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 10_000, 1_000_000 };
+
+		for (int size : sizes) {
+
+			Random random = new Random(size);
+
+			String[] keys = new String[size];
+
+			for (int i = 0; i < size; i++) {
+
+				keys[i] = "key-" + Long.toHexString(random.nextLong()) + "-" + i;
+
+			}
+
+			for (Workload workload : Workload.values()) {
+
+				int[] queries = getQueries(workload, size, random);
+
+				for (ChainReorderPolicy policy : ChainReorderPolicy.values()) {
+
+					PerformantHashMap<String, String> map = new PerformantHashMap<String, String>(16, LOAD_FACTOR,
+							false);
+
+					for (String key : keys) {
+
+						map.put(key, key);
+
+					}
+
+					map.setChainReorderPolicy(policy);
+
+					MicroBenchmark.measure(String.format("%-16s %-16s get hit  size=%d", policy, workload, size),
+							queries.length, operations -> {
+
+								long length = 0;
+
+								for (int i = 0; i < operations; i++) {
+
+									length += map.get(keys[queries[i]]).length();
+
+								}
+
+								return length;
+
+							});
+
+				}
+
+			}
+
+		}
+
+	}
+
+	private static int[] getQueries(Workload workload, int size, Random random) {
+
+		int[] queries = new int[QUERIES];
+
+		if (workload == Workload.UNIFORM) {
+
+			for (int i = 0; i < QUERIES; i++) {
+
+				queries[i] = random.nextInt(size);
+
+			}
+
+			return queries;
+
+		}
+
+		PerformantMapBenchmarkSuite.ZipfianGenerator zipfian = new PerformantMapBenchmarkSuite.ZipfianGenerator(size,
+				random);
+
+		for (int i = 0; i < QUERIES; i++) {
+
+			int shift = workload == Workload.SHIFTING_ZIPFIAN ? (i / (QUERIES / 4)) * (size / 4) : 0;
+
+			queries[i] = (zipfian.next() + shift) % size;
+
+		}
+
+		return queries;
+
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sparklingminds.adt.map.ConcurrentPerformantHashMap;
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * ConcurrentReadBenchmark measures the throughput of a read mostly workload
+ * (90 percent get, 10 percent put) with an increasing number of threads, for a
+ * ConcurrentPerformantHashMap and for a PerformantHashMap behind a global lock
+ * (Collections.synchronizedMap). The throughput of the concurrent map is
+ * expected to grow with the number of threads, the throughput of the
+ * synchronized map is not.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class ConcurrentReadBenchmark {
+
+	private static final int KEYS = 1_000_000;
+
+	private static final long DURATION_MILLIS = 2_000;
+
+	/**
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+
+		for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+
+			Map<Integer, Integer> concurrentMap = new ConcurrentPerformantHashMap<Integer, Integer>(KEYS);
+
+			Map<Integer, Integer> synchronizedMap = Collections
+					.synchronizedMap(new PerformantHashMap<Integer, Integer>(KEYS * 2, 0.75f, false));
+
+			fill(concurrentMap);
+
+			fill(synchronizedMap);
+
+			System.out.println(String.format("%-40s threads=%2d %12.0f ops/s", "ConcurrentPerformantHashMap",
+					threads, run(concurrentMap, threads)));
+
+			System.out.println(String.format("%-40s threads=%2d %12.0f ops/s", "synchronized PerformantHashMap",
+					threads, run(synchronizedMap, threads)));
+
+		}
+
+	}
+
+	private static void fill(Map<Integer, Integer> map) {
+
+		for (int i = 0; i < KEYS; i++) {
+
+			map.put(i, i);
+
+		}
+
+	}
+
+	private static double run(Map<Integer, Integer> map, int threads) throws InterruptedException {
+
+		LongAdder operations = new LongAdder();
+
+		CountDownLatch start = new CountDownLatch(1);
+
+		CountDownLatch done = new CountDownLatch(threads);
+
+		long[] deadline = new long[1];
+
+		for (int t = 0; t < threads; t++) {
+
+			Thread worker = new Thread(() -> {
+
+				try {
+
+					start.await();
+
+				} catch (InterruptedException e) {
+
+					Thread.currentThread().interrupt();
+
+					return;
+
+				}
+
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+
+				long count = 0;
+
+				while (System.nanoTime() < deadline[0]) {
+
+					for (int i = 0; i < 1_000; i++) {
+
+						int key = random.nextInt(KEYS);
+
+						if (random.nextInt(10) == 0) {
+
+							map.put(key, i);
+
+						} else if (map.get(key) == null) {
+
+							throw new IllegalStateException();
+
+						}
+
+					}
+
+					count += 1_000;
+
+				}
+
+				operations.add(count);
+
+				done.countDown();
+
+			});
+
+			worker.start();
+
+		}
+
+		deadline[0] = System.nanoTime() + DURATION_MILLIS * 1_000_000L;
+
+		start.countDown();
+
+		done.await();
+
+		return operations.sum() * 1_000.0 / DURATION_MILLIS;
+
+	}
+
+}
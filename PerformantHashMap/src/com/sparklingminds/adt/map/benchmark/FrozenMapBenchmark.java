@@ -0,0 +1,134 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Random;
+
+import com.sparklingminds.adt.map.ChainReorderPolicy;
+import com.sparklingminds.adt.map.FrozenPerformantHashMap;
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * FrozenMapBenchmark compares get on a PerformantHashMap that is only read
+ * with get on the FrozenPerformantHashMap returned by its freeze method, for
+ * present and for absent keys. The PerformantHashMap does not reorder its
+ * chains, so both maps are only read. The time of freeze itself is reported
+ * per mapping.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class FrozenMapBenchmark {
+
+	private static final int QUERIES = 1 << 20;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 10_000, 1_000_000 };
+
+		for (int size : sizes) {
+
+			Random random = new Random(size);
+
+			String[] keys = new String[size];
+
+			String[] missingKeys = new String[size];
+
+			for (int i = 0; i < size; i++) {
+
+				keys[i] = "key-" + Long.toHexString(random.nextLong()) + "-" + i;
+
+				missingKeys[i] = "missing-" + Long.toHexString(random.nextLong()) + "-" + i;
+
+			}
+
+			int[] queries = new int[QUERIES];
+
+			for (int i = 0; i < QUERIES; i++) {
+
+				queries[i] = random.nextInt(size);
+
+			}
+
+			PerformantHashMap<String, String> map = new PerformantHashMap<String, String>();
+
+			map.setChainReorderPolicy(ChainReorderPolicy.NONE);
+
+			for (String key : keys) {
+
+				map.put(key, key);
+
+			}
+
+			MicroBenchmark.measure(String.format("%-28s size=%d", "freeze", size), size, operations -> {
+
+				return map.freeze().size();
+
+			});
+
+			FrozenPerformantHashMap<String, String> frozenMap = map.freeze();
+
+			MicroBenchmark.measure(String.format("%-28s size=%d", "PerformantHashMap get hit", size), QUERIES,
+					operations -> {
+
+						long length = 0;
+
+						for (int i = 0; i < operations; i++) {
+
+							length += map.get(keys[queries[i]]).length();
+
+						}
+
+						return length;
+
+					});
+
+			MicroBenchmark.measure(String.format("%-28s size=%d", "Frozen get hit", size), QUERIES, operations -> {
+
+				long length = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					length += frozenMap.get(keys[queries[i]]).length();
+
+				}
+
+				return length;
+
+			});
+
+			MicroBenchmark.measure(String.format("%-28s size=%d", "PerformantHashMap get miss", size), QUERIES,
+					operations -> {
+
+						long misses = 0;
+
+						for (int i = 0; i < operations; i++) {
+
+							misses += map.get(missingKeys[queries[i]]) == null ? 1 : 0;
+
+						}
+
+						return misses;
+
+					});
+
+			MicroBenchmark.measure(String.format("%-28s size=%d", "Frozen get miss", size), QUERIES, operations -> {
+
+				long misses = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					misses += frozenMap.get(missingKeys[queries[i]]) == null ? 1 : 0;
+
+				}
+
+				return misses;
+
+			});
+
+		}
+
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Random;
+
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * HashFloodingBenchmark compares the PerformantHashMap with and without seeded
+ * hashing on two sets of String keys of the same length:
+ * <ul>
+ * <li>BENIGN: random keys</li>
+ * <li>ADVERSARIAL: keys built from the blocks "Aa" and "BB", which have the
+ * same hashCode, so every key of the set has the same hashCode</li>
+ * </ul>
+ * Without a seed the adversarial keys all land in one bucket, which is
+ * treeified and searched by compareTo. With a seed they are spread like the
+ * benign keys, so both sets should run at about the same speed. The time is
+ * reported per put while loading an empty map and per get hit on the loaded
+ * map.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class HashFloodingBenchmark {
+
+	private static final int BLOCKS = 16;
+
+	private enum KeySet {
+
+		BENIGN, ADVERSARIAL
+
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int size = 1 << BLOCKS;
+
+		for (KeySet keySet : KeySet.values()) {
+
+			String[] keys = getKeys(keySet, size, new Random(size));
+
+			for (boolean isSeededHash : new boolean[] { false, true }) {
+
+				String name = String.format("%-12s seeded=%-5b", keySet, isSeededHash);
+
+				MicroBenchmark.measure(name + " put     size=" + size, size, operations -> {
+
+					PerformantHashMap<String, String> map = new PerformantHashMap<String, String>();
+
+					map.setSeededHash(isSeededHash);
+
+					for (String key : keys) {
+
+						map.put(key, key);
+
+					}
+
+					return map.size();
+
+				});
+
+				PerformantHashMap<String, String> map = new PerformantHashMap<String, String>();
+
+				map.setSeededHash(isSeededHash);
+
+				for (String key : keys) {
+
+					map.put(key, key);
+
+				}
+
+				MicroBenchmark.measure(name + " get hit size=" + size, size, operations -> {
+
+					long length = 0;
+
+					for (String key : keys) {
+
+						length += map.get(key).length();
+
+					}
+
+					return length;
+
+				});
+
+			}
+
+		}
+
+	}
+
+	private static String[] getKeys(KeySet keySet, int size, Random random) {
+
+		String[] keys = new String[size];
+
+		for (int i = 0; i < size; i++) {
+
+			StringBuilder key = new StringBuilder(2 * BLOCKS);
+
+			for (int block = 0; block < BLOCKS; block++) {
+
+				if (keySet == KeySet.ADVERSARIAL) {
+
+					key.append((i >>> block & 1) == 0 ? "Aa" : "BB");
+
+				} else {
+
+					key.append((char) ('a' + random.nextInt(26))).append((char) ('a' + random.nextInt(26)));
+
+				}
+
+			}
+
+			keys[i] = key.toString();
+
+		}
+
+		return keys;
+
+	}
+
+}
@@ -0,0 +1,199 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * MicroBenchmark is a minimal, dependency free benchmark harness used by the
+ * benchmark clients of this package. Every benchmark is run for a number of
+ * warm up rounds, so that the JIT compiler has settled, followed by a number
+ * of measured rounds, and the average time per operation of the measured
+ * rounds is reported. A round repeats the operation until it has run for at
+ * least the round time, 200 milliseconds unless the system property
+ * benchmark.roundMillis says otherwise. The value returned by an operation is
+ * consumed by the harness so that the JIT compiler cannot eliminate the
+ * measured work. <br>
+ * <br>
+ * Where the JVM supports it, the harness also reports the number of bytes
+ * allocated per operation by the benchmarking thread during the measured
+ * rounds, which is the same figure as the normalized allocation rate reported
+ * by the GC profiler of JMH.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public final class MicroBenchmark {
+
+	private static final int WARMUP_ROUNDS = 5;
+
+	private static final int MEASURED_ROUNDS = 5;
+
+	private static final long ROUND_NANOS = Long.getLong("benchmark.roundMillis", 200L) * 1_000_000L;
+
+	private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+
+	private static volatile long sink;
+
+	/**
+	 * Operation is a unit of benchmarked work. It performs the given number of
+	 * operations and returns a value derived from their results.
+	 */
+	@FunctionalInterface
+	public interface Operation {
+
+		/**
+		 * Performs the specified number of operations.
+		 * 
+		 * @param operations the number of operations to perform
+		 * @return a value derived from the results of the operations
+		 */
+		long run(int operations);
+
+		/**
+		 * Prepares the state for the next call of run. The time spent in this
+		 * method is not measured.
+		 */
+		default void setUp() {
+
+		}
+
+	}
+
+	/**
+	 * Result is the outcome of a benchmark.
+	 */
+	public static final class Result {
+
+		private final double nanosPerOperation;
+
+		private final double bytesPerOperation;
+
+		Result(double nanosPerOperation, double bytesPerOperation) {
+
+			this.nanosPerOperation = nanosPerOperation;
+
+			this.bytesPerOperation = bytesPerOperation;
+
+		}
+
+		/**
+		 * Returns the average time per operation in nanoseconds.
+		 * 
+		 * @return the average time per operation in nanoseconds
+		 */
+		public double getNanosPerOperation() {
+
+			return nanosPerOperation;
+
+		}
+
+		/**
+		 * Returns the average number of bytes allocated per operation, or NaN if the
+		 * JVM does not support measuring thread allocation.
+		 * 
+		 * @return the average number of bytes allocated per operation
+		 */
+		public double getBytesPerOperation() {
+
+			return bytesPerOperation;
+
+		}
+
+	}
+
+	private MicroBenchmark() {
+
+	}
+
+	/**
+	 * Runs the specified operation, prints and returns its result.
+	 * 
+	 * @param name       the name of the benchmark, printed along with the result
+	 * @param operations the number of operations per call of the operation
+	 * @param operation  the operation to benchmark
+	 * @return the result of the benchmark
+	 */
+	public static Result measure(String name, int operations, Operation operation) {
+
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+
+			runRound(operations, operation, new long[3]);
+
+		}
+
+		long[] totals = new long[3];
+
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+
+			runRound(operations, operation, totals);
+
+		}
+
+		double nanosPerOperation = (double) totals[0] / totals[1];
+
+		double bytesPerOperation = THREAD_BEAN == null ? Double.NaN : (double) totals[2] / totals[1];
+
+		System.out.println(String.format("%-72s %12.2f ns/op %12.2f B/op", name, nanosPerOperation,
+				bytesPerOperation));
+
+		return new Result(nanosPerOperation, bytesPerOperation);
+
+	}
+
+	/*
+	 * Adds the measured nanoseconds, operations and allocated bytes of one round
+	 * to totals[0], totals[1] and totals[2].
+	 */
+	private static void runRound(int operations, Operation operation, long[] totals) {
+
+		long deadline = System.nanoTime() + ROUND_NANOS;
+
+		do {
+
+			operation.setUp();
+
+			long allocatedBefore = getAllocatedBytes();
+
+			long start = System.nanoTime();
+
+			sink += operation.run(operations);
+
+			totals[0] += System.nanoTime() - start;
+
+			totals[2] += getAllocatedBytes() - allocatedBefore;
+
+			totals[1] += operations;
+
+		} while (System.nanoTime() < deadline);
+
+	}
+
+	private static long getAllocatedBytes() {
+
+		if (THREAD_BEAN == null) {
+
+			return 0;
+
+		}
+
+		return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+		if (bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+
+			((com.sun.management.ThreadMXBean) bean).setThreadAllocatedMemoryEnabled(true);
+
+			return (com.sun.management.ThreadMXBean) bean;
+
+		}
+
+		return null;
+
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import com.sparklingminds.adt.map.OffHeapPerformantHashMap;
+import com.sparklingminds.adt.map.PerformantCodec;
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * OffHeapGcBenchmark shows how the garbage collection time depends on the size
+ * of the map. For every map size it fills a PerformantHashMap and an
+ * OffHeapPerformantHashMap with the same String mappings and then measures the
+ * average time of a full garbage collection while the map is alive, as reported
+ * by the GarbageCollectorMXBeans. The collection time grows with the
+ * PerformantHashMap and stays flat with the OffHeapPerformantHashMap. Run it
+ * with a heap large enough for the biggest size, for example -Xmx4g.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class OffHeapGcBenchmark {
+
+	private static final int COLLECTIONS = 5;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 100_000, 1_000_000, 4_000_000 };
+
+		for (int size : sizes) {
+
+			PerformantHashMap<String, String> heapMap = new PerformantHashMap<String, String>(16, 0.75f, false);
+
+			report("PerformantHashMap         size=" + size, fill(heapMap, size));
+
+			heapMap = null;
+
+			try (OffHeapPerformantHashMap<String, String> offHeapMap = new OffHeapPerformantHashMap<String, String>(
+					PerformantCodec.STRING, PerformantCodec.STRING)) {
+
+				report("OffHeapPerformantHashMap  size=" + size, fill(offHeapMap, size));
+
+			}
+
+		}
+
+	}
+
+	private static Map<String, String> fill(Map<String, String> map, int size) {
+
+		for (int i = 0; i < size; i++) {
+
+			map.put("key-" + i, "value-" + i);
+
+		}
+
+		return map;
+
+	}
+
+	private static void report(String name, Map<String, String> map) {
+
+		System.gc();
+
+		long time = getCollectionTime();
+
+		for (int i = 0; i < COLLECTIONS; i++) {
+
+			System.gc();
+
+		}
+
+		double millis = (double) (getCollectionTime() - time) / COLLECTIONS;
+
+		System.out.println(String.format("%-48s %10.2f ms/full gc (%d mappings)", name, millis, map.size()));
+
+	}
+
+	private static long getCollectionTime() {
+
+		long time = 0;
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+
+			time += Math.max(0, collector.getCollectionTime());
+
+		}
+
+		return time;
+
+	}
+
+}
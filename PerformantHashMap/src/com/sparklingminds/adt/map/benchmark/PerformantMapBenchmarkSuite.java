@@ -0,0 +1,606 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.sparklingminds.adt.map.PerformantHashMap;
+import com.sparklingminds.adt.map.SwissPerformantHashMap;
+
+/**
+ * PerformantMapBenchmarkSuite is the benchmark suite of the PerformantHashMap.
+ * It measures the time and the bytes allocated per operation of get for
+ * present keys, get for absent keys, put of new keys (including the rehashes
+ * needed to grow from the default capacity), put over existing keys, remove,
+ * iteration over the entry set and containsValue for an absent value. Every
+ * operation is measured for the PerformantHashMap with and without the bloom
+ * filter, the SwissPerformantHashMap, java.util.HashMap and
+ * java.util.LinkedHashMap, for a range of map sizes and three key
+ * distributions:
+ * <ul>
+ * <li>UNIFORM: random string keys, looked up uniformly at random</li>
+ * <li>ZIPFIAN: random string keys, looked up with a Zipfian (theta 0.99)
+ * popularity, as in YCSB</li>
+ * <li>COLLIDING: string keys that all share the same hash code, looked up
+ * uniformly at random. Since such keys turn every lookup of a chained map into a
+ * linear scan, this distribution is limited to 10000 keys.</li>
+ * </ul>
+ * By default the sizes 10, 1000, 100000 and 1000000 are measured. Every
+ * dimension can be restricted from the command line, for example: <br>
+ * <br>
+ * <i> java -Xmx8g PerformantMapBenchmarkSuite --sizes=10,10000000
+ * --maps=PERFORMANT,HASH_MAP --distributions=ZIPFIAN --operations=GET_HIT
+ * </i> <br>
+ * <br>
+ * The system property benchmark.roundMillis sets the length of a measurement
+ * round (200 milliseconds by default). The same benchmarks are ported to JMH
+ * by PerformantMapBenchmark in the benchmarks module next to the sources,
+ * whose gc profiler measures the allocations of a forked JVM: <br>
+ * <br>
+ * <i> cd benchmarks; mvn -B package; java -jar target/benchmarks.jar
+ * PerformantMapBenchmark -prof gc </i>
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class PerformantMapBenchmarkSuite {
+
+	private static final int MAXIMUM_QUERIES = 1 << 20;
+
+	private static final int MAXIMUM_COLLIDING_SIZE = 10_000;
+
+	/**
+	 * The maps under benchmark.
+	 */
+	public enum MapType {
+
+		PERFORMANT("PerformantHashMap", () -> new PerformantHashMap<String, String>()),
+
+		PERFORMANT_BLOOM("PerformantHashMap+bloom", () -> new PerformantHashMap<String, String>(16, 0.75f, true)),
+
+		SWISS("SwissPerformantHashMap", () -> new SwissPerformantHashMap<String, String>()),
+
+		HASH_MAP("HashMap", () -> new HashMap<String, String>()),
+
+		LINKED_HASH_MAP("LinkedHashMap", () -> new LinkedHashMap<String, String>());
+
+		private final String label;
+
+		private final Supplier<Map<String, String>> factory;
+
+		MapType(String label, Supplier<Map<String, String>> factory) {
+
+			this.label = label;
+
+			this.factory = factory;
+
+		}
+
+		Map<String, String> create() {
+
+			return factory.get();
+
+		}
+
+	}
+
+	/**
+	 * The key distributions under benchmark.
+	 */
+	public enum KeyDistribution {
+
+		UNIFORM, ZIPFIAN, COLLIDING
+
+	}
+
+	/**
+	 * The operations under benchmark.
+	 */
+	public enum OperationType {
+
+		GET_HIT, GET_MISS, PUT_NEW, PUT_OVERWRITE, REMOVE, ITERATION, CONTAINS_VALUE
+
+	}
+
+	/**
+	 * @param args the optional --sizes, --maps, --distributions and --operations
+	 *             filters
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 10, 1_000, 100_000, 1_000_000 };
+
+		Set<MapType> maps = EnumSet.allOf(MapType.class);
+
+		Set<KeyDistribution> distributions = EnumSet.allOf(KeyDistribution.class);
+
+		Set<OperationType> operations = EnumSet.allOf(OperationType.class);
+
+		for (String arg : args) {
+
+			String[] option = arg.split("=", 2);
+
+			if (option.length != 2) {
+
+				throw new IllegalArgumentException("Unknown option: " + arg);
+
+			}
+
+			String[] values = option[1].split(",");
+
+			switch (option[0]) {
+
+			case "--sizes":
+
+				sizes = new int[values.length];
+
+				for (int i = 0; i < values.length; i++) {
+
+					sizes[i] = Integer.parseInt(values[i].trim());
+
+				}
+
+				break;
+
+			case "--maps":
+
+				maps = EnumSet.noneOf(MapType.class);
+
+				for (String value : values) {
+
+					maps.add(MapType.valueOf(value.trim()));
+
+				}
+
+				break;
+
+			case "--distributions":
+
+				distributions = EnumSet.noneOf(KeyDistribution.class);
+
+				for (String value : values) {
+
+					distributions.add(KeyDistribution.valueOf(value.trim()));
+
+				}
+
+				break;
+
+			case "--operations":
+
+				operations = EnumSet.noneOf(OperationType.class);
+
+				for (String value : values) {
+
+					operations.add(OperationType.valueOf(value.trim()));
+
+				}
+
+				break;
+
+			default:
+
+				throw new IllegalArgumentException("Unknown option: " + arg);
+
+			}
+
+		}
+
+		for (KeyDistribution distribution : distributions) {
+
+			for (int size : sizes) {
+
+				if (distribution == KeyDistribution.COLLIDING && size > MAXIMUM_COLLIDING_SIZE) {
+
+					System.out.println("Skipping " + distribution + " size=" + size + ", limited to "
+							+ MAXIMUM_COLLIDING_SIZE + " keys");
+
+					continue;
+
+				}
+
+				KeySet keySet = new KeySet(distribution, size);
+
+				for (MapType mapType : maps) {
+
+					for (OperationType operation : operations) {
+
+						run(mapType, keySet, operation);
+
+					}
+
+				}
+
+			}
+
+		}
+
+	}
+
+	private static void run(MapType mapType, KeySet keySet, OperationType operation) {
+
+		String[] keys = keySet.keys;
+
+		String[] missingKeys = keySet.missingKeys;
+
+		int[] queries = keySet.queries;
+
+		String name = String.format("%-24s %-9s size=%-9d %s", mapType.label, keySet.distribution, keys.length,
+				operation);
+
+		switch (operation) {
+
+		case GET_HIT: {
+
+			Map<String, String> map = fill(mapType.create(), keys);
+
+			MicroBenchmark.measure(name, queries.length, count -> {
+
+				long found = 0;
+
+				for (int i = 0; i < count; i++) {
+
+					found += map.get(keys[queries[i]]) != null ? 1 : 0;
+
+				}
+
+				return found;
+
+			});
+
+			break;
+
+		}
+
+		case GET_MISS: {
+
+			Map<String, String> map = fill(mapType.create(), keys);
+
+			MicroBenchmark.measure(name, queries.length, count -> {
+
+				long found = 0;
+
+				for (int i = 0; i < count; i++) {
+
+					found += map.get(missingKeys[queries[i]]) != null ? 1 : 0;
+
+				}
+
+				return found;
+
+			});
+
+			break;
+
+		}
+
+		case PUT_NEW: {
+
+			MicroBenchmark.measure(name, keys.length, new MicroBenchmark.Operation() {
+
+				private Map<String, String> map;
+
+				@Override
+				public void setUp() {
+
+					map = mapType.create();
+
+				}
+
+				@Override
+				public long run(int count) {
+
+					for (int i = 0; i < count; i++) {
+
+						map.put(keys[i], keys[i]);
+
+					}
+
+					return map.size();
+
+				}
+
+			});
+
+			break;
+
+		}
+
+		case PUT_OVERWRITE: {
+
+			Map<String, String> map = fill(mapType.create(), keys);
+
+			MicroBenchmark.measure(name, queries.length, count -> {
+
+				long previous = 0;
+
+				for (int i = 0; i < count; i++) {
+
+					String key = keys[queries[i]];
+
+					previous += map.put(key, key) != null ? 1 : 0;
+
+				}
+
+				return previous;
+
+			});
+
+			break;
+
+		}
+
+		case REMOVE: {
+
+			MicroBenchmark.measure(name, keys.length, new MicroBenchmark.Operation() {
+
+				private Map<String, String> map;
+
+				@Override
+				public void setUp() {
+
+					map = fill(mapType.create(), keys);
+
+				}
+
+				@Override
+				public long run(int count) {
+
+					long removed = 0;
+
+					for (int i = 0; i < count; i++) {
+
+						removed += map.remove(keys[i]) != null ? 1 : 0;
+
+					}
+
+					return removed;
+
+				}
+
+			});
+
+			break;
+
+		}
+
+		case ITERATION: {
+
+			Map<String, String> map = fill(mapType.create(), keys);
+
+			MicroBenchmark.measure(name, keys.length, count -> {
+
+				long sum = 0;
+
+				for (Map.Entry<String, String> entry : map.entrySet()) {
+
+					sum += entry.getValue().length();
+
+				}
+
+				return sum;
+
+			});
+
+			break;
+
+		}
+
+		case CONTAINS_VALUE: {
+
+			Map<String, String> map = fill(mapType.create(), keys);
+
+			MicroBenchmark.measure(name, 1, count -> map.containsValue(missingKeys[0]) ? 1 : 0);
+
+			break;
+
+		}
+
+		default:
+
+			throw new IllegalStateException();
+
+		}
+
+	}
+
+	private static Map<String, String> fill(Map<String, String> map, String[] keys) {
+
+		for (String key : keys) {
+
+			map.put(key, key);
+
+		}
+
+		return map;
+
+	}
+
+	/*
+	 * The present keys, the absent keys and the sequence of key indexes that are
+	 * looked up for one distribution and size.
+	 */
+	static final class KeySet {
+
+		final KeyDistribution distribution;
+
+		final String[] keys;
+
+		final String[] missingKeys;
+
+		final int[] queries;
+
+		KeySet(KeyDistribution distribution, int size) {
+
+			this.distribution = distribution;
+
+			Random random = new Random(31L * size + distribution.ordinal());
+
+			String[] allKeys = distribution == KeyDistribution.COLLIDING ? collidingKeys(2 * size)
+					: randomKeys(2 * size, random);
+
+			keys = new String[size];
+
+			missingKeys = new String[size];
+
+			System.arraycopy(allKeys, 0, keys, 0, size);
+
+			System.arraycopy(allKeys, size, missingKeys, 0, size);
+
+			queries = new int[Math.min(size, MAXIMUM_QUERIES)];
+
+			if (distribution == KeyDistribution.ZIPFIAN) {
+
+				ZipfianGenerator zipfian = new ZipfianGenerator(size, random);
+
+				for (int i = 0; i < queries.length; i++) {
+
+					queries[i] = zipfian.next();
+
+				}
+
+			} else {
+
+				for (int i = 0; i < queries.length; i++) {
+
+					queries[i] = random.nextInt(size);
+
+				}
+
+			}
+
+		}
+
+		private static String[] randomKeys(int count, Random random) {
+
+			Set<String> unique = new HashSet<String>();
+
+			List<String> keys = new ArrayList<String>(count);
+
+			while (keys.size() < count) {
+
+				String key = "key-" + Long.toHexString(random.nextLong());
+
+				if (unique.add(key)) {
+
+					keys.add(key);
+
+				}
+
+			}
+
+			return keys.toArray(new String[0]);
+
+		}
+
+		/*
+		 * "Aa" and "BB" have the same String hash code, so all strings made of the
+		 * same number of such blocks collide.
+		 */
+		private static String[] collidingKeys(int count) {
+
+			int blocks = Math.max(1, 32 - Integer.numberOfLeadingZeros(count - 1));
+
+			String[] keys = new String[count];
+
+			for (int i = 0; i < count; i++) {
+
+				StringBuilder key = new StringBuilder(blocks * 2);
+
+				for (int b = 0; b < blocks; b++) {
+
+					key.append(((i >>> b) & 1) == 0 ? "Aa" : "BB");
+
+				}
+
+				keys[i] = key.toString();
+
+			}
+
+			return keys;
+
+		}
+
+	}
+
+	/*
+	 * Zipfian index generator over [0, items) with the constant 0.99, after Gray
+	 * et al., "Quickly Generating Billion-Record Synthetic Databases", as used by
+	 * YCSB.
+	 */
+	static final class ZipfianGenerator {
+
+		private static final double THETA = 0.99;
+
+		private final int items;
+
+		private final double alpha;
+
+		private final double zetan;
+
+		private final double eta;
+
+		private final Random random;
+
+		ZipfianGenerator(int items, Random random) {
+
+			this.items = items;
+
+			this.random = random;
+
+			double zeta2 = zeta(2);
+
+			this.zetan = zeta(items);
+
+			this.alpha = 1.0 / (1.0 - THETA);
+
+			this.eta = (1 - Math.pow(2.0 / items, 1 - THETA)) / (1 - zeta2 / zetan);
+
+		}
+
+		int next() {
+
+			double u = random.nextDouble();
+
+			double uz = u * zetan;
+
+			if (uz < 1.0) {
+
+				return 0;
+
+			}
+
+			if (uz < 1.0 + Math.pow(0.5, THETA)) {
+
+				return Math.min(1, items - 1);
+
+			}
+
+			return Math.min(items - 1, (int) (items * Math.pow(eta * u - eta + 1, alpha)));
+
+		}
+
+		private static double zeta(long n) {
+
+			double sum = 0;
+
+			for (long i = 1; i <= n; i++) {
+
+				sum += 1 / Math.pow(i, THETA);
+
+			}
+
+			return sum;
+
+		}
+
+	}
+
+}
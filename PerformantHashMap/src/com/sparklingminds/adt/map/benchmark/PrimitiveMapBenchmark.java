@@ -0,0 +1,169 @@
+package com.sparklingminds.adt.map.benchmark;
+
+import java.util.Random;
+
+import com.sparklingminds.adt.map.LongLongPerformantHashMap;
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * PrimitiveMapBenchmark compares the LongLongPerformantHashMap with a
+ * PerformantHashMap&lt;Long, Long&gt; holding the same random long ids. For
+ * every map size it measures get for present keys, get for absent keys and put
+ * of new keys. The bytes allocated per operation show the boxing and the map
+ * entries that the primitive specialization avoids.
+ * 
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class PrimitiveMapBenchmark {
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		int[] sizes = { 1_000, 100_000, 1_000_000 };
+
+		for (int size : sizes) {
+
+			long[] keys = new long[size];
+
+			long[] missingKeys = new long[size];
+
+			Random random = new Random(size);
+
+			for (int i = 0; i < size; i++) {
+
+				keys[i] = random.nextLong() | 1L;
+
+				missingKeys[i] = random.nextLong() & ~1L;
+
+			}
+
+			LongLongPerformantHashMap primitiveMap = new LongLongPerformantHashMap();
+
+			PerformantHashMap<Long, Long> boxedMap = new PerformantHashMap<Long, Long>(16, 0.75f, false);
+
+			for (long key : keys) {
+
+				primitiveMap.put(key, key);
+
+				boxedMap.put(key, key);
+
+			}
+
+			MicroBenchmark.measure("LongLongPerformantHashMap get hit   size=" + size, size, operations -> {
+
+				long sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					sum += primitiveMap.get(keys[i]);
+
+				}
+
+				return sum;
+
+			});
+
+			MicroBenchmark.measure("PerformantHashMap<Long> get hit     size=" + size, size, operations -> {
+
+				long sum = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					sum += boxedMap.get(keys[i]);
+
+				}
+
+				return sum;
+
+			});
+
+			MicroBenchmark.measure("LongLongPerformantHashMap get miss  size=" + size, size, operations -> {
+
+				long count = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					count += primitiveMap.containsKey(missingKeys[i]) ? 0 : 1;
+
+				}
+
+				return count;
+
+			});
+
+			MicroBenchmark.measure("PerformantHashMap<Long> get miss    size=" + size, size, operations -> {
+
+				long count = 0;
+
+				for (int i = 0; i < operations; i++) {
+
+					count += boxedMap.get(missingKeys[i]) == null ? 1 : 0;
+
+				}
+
+				return count;
+
+			});
+
+			MicroBenchmark.measure("LongLongPerformantHashMap put new   size=" + size, size,
+					new MicroBenchmark.Operation() {
+
+						private LongLongPerformantHashMap map;
+
+						@Override
+						public void setUp() {
+
+							map = new LongLongPerformantHashMap();
+
+						}
+
+						@Override
+						public long run(int operations) {
+
+							for (int i = 0; i < operations; i++) {
+
+								map.put(keys[i], keys[i]);
+
+							}
+
+							return map.size();
+
+						}
+
+					});
+
+			MicroBenchmark.measure("PerformantHashMap<Long> put new     size=" + size, size,
+					new MicroBenchmark.Operation() {
+
+						private PerformantHashMap<Long, Long> map;
+
+						@Override
+						public void setUp() {
+
+							map = new PerformantHashMap<Long, Long>(16, 0.75f, false);
+
+						}
+
+						@Override
+						public long run(int operations) {
+
+							for (int i = 0; i < operations; i++) {
+
+								map.put(keys[i], keys[i]);
+
+							}
+
+							return map.size();
+
+						}
+
+					});
+
+		}
+
+	}
+
+}
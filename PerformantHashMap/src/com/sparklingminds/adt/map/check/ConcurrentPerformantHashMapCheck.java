@@ -0,0 +1,286 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.check;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sparklingminds.adt.map.ConcurrentPerformantHashMap;
+
+/**
+ * ConcurrentPerformantHashMapCheck checks the ConcurrentPerformantHashMap
+ * against a java.util.HashMap with random operations on a single thread, and
+ * checks the totals of put, remove and merge run by several threads at once.
+ * The multi-threaded maps start from the smallest capacity, so the threads
+ * keep racing with the resizes of the table:
+ * <ul>
+ * <li>every thread puts its own keys and removes half of them again, while
+ * readers look up keys that are never removed</li>
+ * <li>every thread merges increments into shared counters and, at the same
+ * time, puts and removes keys of its own</li>
+ * </ul>
+ * At the end, the size, every key and every counter have to match what the
+ * threads did, whatever their interleaving.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class ConcurrentPerformantHashMapCheck {
+
+	private static final int OPERATIONS = 200_000;
+
+	private static final int THREADS = 8;
+
+	private static final int KEYS_PER_THREAD = 50_000;
+
+	private static final int COUNTERS = 1_000;
+
+	private static final int ROUNDS = 5;
+
+	/**
+	 * @param args
+	 * @throws InterruptedException if the check is interrupted while it waits
+	 *                              for its threads
+	 * @throws ExecutionException   if a thread of the check fails
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the ConcurrentPerformantHashMap.
+	 *
+	 * @throws InterruptedException if the check is interrupted while it waits
+	 *                              for its threads
+	 * @throws ExecutionException   if a thread of the check fails, with the
+	 *                              AssertionError of the failed check as its
+	 *                              cause
+	 * @throws AssertionError       if the ConcurrentPerformantHashMap disagrees
+	 *                              with the java.util.HashMap or with the
+	 *                              totals of the threads
+	 */
+	public static void run() throws InterruptedException, ExecutionException {
+
+		MapCheck.checkOperations("ConcurrentPerformantHashMap", new ConcurrentPerformantHashMap<String, Integer>(),
+				MapCheck.stringKeys(2_000, false), false, true, new Random(1), OPERATIONS);
+
+		MapCheck.checkOperations("ConcurrentPerformantHashMap colliding keys",
+				new ConcurrentPerformantHashMap<Object, Integer>(), MapCheck.collidingKeys(600, 3), false, true,
+				new Random(2), OPERATIONS);
+
+		/*
+		 * The threads are daemons, so a failed check ends the process instead of
+		 * leaving the pool running.
+		 */
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS + 2, runnable -> {
+
+			Thread thread = new Thread(runnable);
+
+			thread.setDaemon(true);
+
+			return thread;
+
+		});
+
+		for (int round = 0; round < ROUNDS; round++) {
+
+			checkPutRemove(executor, round);
+
+			checkMerge(executor, round);
+
+		}
+
+		executor.shutdown();
+
+		System.out.println("OK ConcurrentPerformantHashMap");
+
+	}
+
+	/*
+	 * The threads write disjoint keys, key = i * THREADS + thread, and remove
+	 * the keys with an even i, so every key ends up present if and only if its
+	 * i is odd. Two readers check that the keys put before the threads start
+	 * are never missed while the table is resized under them.
+	 */
+	private static void checkPutRemove(ExecutorService executor, int round)
+			throws InterruptedException, ExecutionException {
+
+		String name = "ConcurrentPerformantHashMap put/remove round " + round;
+
+		ConcurrentPerformantHashMap<Integer, Integer> map = new ConcurrentPerformantHashMap<Integer, Integer>(1);
+
+		for (int i = 0; i < COUNTERS; i++) {
+
+			map.put(-1 - i, i);
+
+		}
+
+		AtomicBoolean isWriting = new AtomicBoolean(true);
+
+		List<Callable<Void>> writers = new ArrayList<Callable<Void>>();
+
+		for (int t = 0; t < THREADS; t++) {
+
+			int thread = t;
+
+			writers.add(() -> {
+
+				for (int i = 0; i < KEYS_PER_THREAD; i++) {
+
+					int key = i * THREADS + thread;
+
+					checkEqual(map.put(key, key), null, name + " put " + key);
+
+					checkEqual(map.get(key), key, name + " get after put " + key);
+
+				}
+
+				for (int i = 0; i < KEYS_PER_THREAD; i += 2) {
+
+					int key = i * THREADS + thread;
+
+					check(map.remove(key, key), name + " remove " + key);
+
+				}
+
+				return null;
+
+			});
+
+		}
+
+		List<Future<Void>> readers = new ArrayList<Future<Void>>();
+
+		for (int r = 0; r < 2; r++) {
+
+			readers.add(executor.submit(() -> {
+
+				while (isWriting.get()) {
+
+					for (int i = 0; i < COUNTERS; i++) {
+
+						checkEqual(map.get(-1 - i), i, name + " get during resize " + (-1 - i));
+
+					}
+
+				}
+
+				return null;
+
+			}));
+
+		}
+
+		List<Future<Void>> writerResults = executor.invokeAll(writers);
+
+		isWriting.set(false);
+
+		for (Future<Void> writer : writerResults) {
+
+			writer.get();
+
+		}
+
+		for (Future<Void> reader : readers) {
+
+			reader.get();
+
+		}
+
+		checkEqual(map.size(), COUNTERS + THREADS * KEYS_PER_THREAD / 2, name + " size");
+
+		for (int key = 0; key < THREADS * KEYS_PER_THREAD; key++) {
+
+			boolean isPresent = (key / THREADS) % 2 == 1;
+
+			checkEqual(map.get(key), isPresent ? key : null, name + " get " + key);
+
+		}
+
+		int iterated = 0;
+
+		for (Integer key : map.keySet()) {
+
+			check(key < 0 || (key / THREADS) % 2 == 1, name + " iterated removed key " + key);
+
+			iterated++;
+
+		}
+
+		checkEqual(iterated, map.size(), name + " iterated keys");
+
+	}
+
+	/*
+	 * Every thread merges 1 into each of the shared counters many times while
+	 * it puts and removes keys of its own, which keep the table resizing. The
+	 * counters must not lose a single increment.
+	 */
+	private static void checkMerge(ExecutorService executor, int round)
+			throws InterruptedException, ExecutionException {
+
+		String name = "ConcurrentPerformantHashMap merge round " + round;
+
+		ConcurrentPerformantHashMap<Integer, Integer> map = new ConcurrentPerformantHashMap<Integer, Integer>(1);
+
+		int increments = 20;
+
+		List<Callable<Void>> threads = new ArrayList<Callable<Void>>();
+
+		for (int t = 0; t < THREADS; t++) {
+
+			int thread = t;
+
+			threads.add(() -> {
+
+				for (int i = 0; i < increments * COUNTERS; i++) {
+
+					map.merge(i % COUNTERS, 1, Integer::sum);
+
+					int key = COUNTERS + i * THREADS + thread;
+
+					map.put(key, key);
+
+					if (i % 3 != 0) {
+
+						checkEqual(map.remove(key), key, name + " remove " + key);
+
+					}
+
+				}
+
+				return null;
+
+			});
+
+		}
+
+		for (Future<Void> thread : executor.invokeAll(threads)) {
+
+			thread.get();
+
+		}
+
+		for (int key = 0; key < COUNTERS; key++) {
+
+			checkEqual(map.get(key), THREADS * increments, name + " counter " + key);
+
+		}
+
+		int ownKeys = THREADS * ((increments * COUNTERS + 2) / 3);
+
+		checkEqual(map.size(), COUNTERS + ownKeys, name + " size");
+
+	}
+
+}
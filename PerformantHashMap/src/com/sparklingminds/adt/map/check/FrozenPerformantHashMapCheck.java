@@ -0,0 +1,243 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.check;
+import static com.sparklingminds.adt.map.check.MapCheck.checkContents;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.sparklingminds.adt.map.FrozenPerformantHashMap;
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * FrozenPerformantHashMapCheck checks the FrozenPerformantHashMap returned by
+ * PerformantHashMap.freeze against a java.util.HashMap, for a range of sizes
+ * and for string keys, keys whose hash codes are shared with other keys (which
+ * go to the overflow map) and integer keys with the null key. The source maps
+ * are incrementally rehashed, so some are frozen in the middle of a rehash.
+ * Every frozen map is compared for its lookups of present and absent keys,
+ * forEach, its hash code, its immutability and its serialized form.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class FrozenPerformantHashMapCheck {
+
+	private static final int[] SIZES = { 0, 1, 2, 3, 5, 17, 100, 1_000, 12_345, 100_000 };
+
+	private static final int KEY_KINDS = 3;
+
+	/**
+	 * @param args
+	 * @throws IOException            if a frozen map cannot be serialized
+	 * @throws ClassNotFoundException if a frozen map cannot be deserialized
+	 * @throws InterruptedException   if the check is interrupted while it waits
+	 *                                for a mapping to expire
+	 */
+	public static void main(String[] args) throws IOException, ClassNotFoundException, InterruptedException {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the FrozenPerformantHashMap.
+	 *
+	 * @throws IOException            if a frozen map cannot be serialized
+	 * @throws ClassNotFoundException if a frozen map cannot be deserialized
+	 * @throws InterruptedException   if the check is interrupted while it waits
+	 *                                for a mapping to expire
+	 * @throws AssertionError         if the FrozenPerformantHashMap disagrees
+	 *                                with the java.util.HashMap
+	 */
+	public static void run() throws IOException, ClassNotFoundException, InterruptedException {
+
+		Random random = new Random(5);
+
+		for (int size : SIZES) {
+
+			for (int keyKind = 0; keyKind < KEY_KINDS; keyKind++) {
+
+				checkFreeze("FrozenPerformantHashMap size=" + size + " keyKind=" + keyKind, size, keyKind, random);
+
+			}
+
+		}
+
+		String name = "FrozenPerformantHashMap expiration";
+
+		PerformantHashMap<String, Integer> expiringMap = new PerformantHashMap<String, Integer>();
+
+		expiringMap.put("expiring", 1, 1, TimeUnit.MILLISECONDS);
+
+		expiringMap.put("kept", 2);
+
+		Thread.sleep(10);
+
+		Map<String, Integer> reference = new HashMap<String, Integer>();
+
+		reference.put("kept", 2);
+
+		checkContents(name, expiringMap.freeze(), reference);
+
+		System.out.println("OK FrozenPerformantHashMap");
+
+	}
+
+	private static void checkFreeze(String name, int size, int keyKind, Random random)
+			throws IOException, ClassNotFoundException {
+
+		PerformantHashMap<Object, Integer> map = new PerformantHashMap<Object, Integer>(16, 0.75f, false, true);
+
+		Map<Object, Integer> reference = new HashMap<Object, Integer>();
+
+		for (int i = 0; i < size; i++) {
+
+			Object key = nextKey(keyKind, size, random);
+
+			Integer value = random.nextInt(20) == 0 ? null : i;
+
+			map.put(key, value);
+
+			reference.put(key, value);
+
+		}
+
+		FrozenPerformantHashMap<Object, Integer> frozenMap = map.freeze();
+
+		checkContents(name, frozenMap, reference);
+
+		checkEqual(frozenMap.hashCode(), reference.hashCode(), name + " hashCode");
+
+		for (int i = 0; i < 1_000; i++) {
+
+			Object key = "absent-" + i;
+
+			checkEqual(frozenMap.get(key), null, name + " get " + key);
+
+			check(!frozenMap.containsKey(key), name + " containsKey " + key);
+
+			checkEqual(frozenMap.getOrDefault(key, -1), -1, name + " getOrDefault " + key);
+
+			Object otherKey = nextKey(keyKind, size, random);
+
+			checkEqual(frozenMap.containsKey(otherKey), reference.containsKey(otherKey),
+					name + " containsKey " + otherKey);
+
+			checkEqual(frozenMap.get(otherKey), reference.get(otherKey), name + " get " + otherKey);
+
+		}
+
+		Map<Object, Integer> mappings = new HashMap<Object, Integer>();
+
+		int[] count = { 0 };
+
+		frozenMap.forEach((key, value) -> {
+
+			mappings.put(key, value);
+
+			count[0]++;
+
+		});
+
+		checkEqual(count[0], reference.size(), name + " forEach count");
+
+		checkEqual(mappings, reference, name + " forEach");
+
+		boolean isImmutable = false;
+
+		try {
+
+			frozenMap.put("key", 1);
+
+		} catch (UnsupportedOperationException e) {
+
+			isImmutable = true;
+
+		}
+
+		check(isImmutable, name + " put");
+
+		if (size > 0) {
+
+			isImmutable = false;
+
+			try {
+
+				frozenMap.entrySet().iterator().next().setValue(1);
+
+			} catch (UnsupportedOperationException e) {
+
+				isImmutable = true;
+
+			}
+
+			check(isImmutable, name + " setValue");
+
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+
+		output.writeObject(frozenMap);
+
+		output.close();
+
+		Object deserializedMap = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		check(deserializedMap.equals(reference), name + " deserialized");
+
+		checkContents(name + " source", map, reference);
+
+	}
+
+	/*
+	 * "Aa" and "BB" have the same String hash code, so all strings made of the
+	 * same number of such blocks share their hash code.
+	 */
+	private static Object nextKey(int keyKind, int size, Random random) {
+
+		switch (keyKind) {
+
+		case 0:
+
+			return "key-" + random.nextInt(3 * size + 1);
+
+		case 1:
+
+			if (random.nextInt(8) == 0) {
+
+				int blocks = random.nextInt(256);
+
+				StringBuilder key = new StringBuilder(16);
+
+				for (int b = 0; b < 8; b++) {
+
+					key.append(((blocks >>> b) & 1) == 0 ? "Aa" : "BB");
+
+				}
+
+				return key.toString();
+
+			}
+
+			return random.nextLong() >>> random.nextInt(64);
+
+		default:
+
+			return random.nextInt(50) == 0 ? null : Integer.valueOf(random.nextInt());
+
+		}
+
+	}
+
+}
@@ -0,0 +1,403 @@
+package com.sparklingminds.adt.map.check;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * MapCheck holds the assertions shared by the checks of the maps. A check
+ * gives a map and a java.util.HashMap the same sequence of random operations
+ * and fails with an AssertionError, naming the check, the operation and the
+ * key, as soon as the two disagree on a returned value or on their contents.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+final class MapCheck {
+
+	private static final int CHECKPOINTS = 10;
+
+	/*
+	 * A remapping function that removes the mapping for some values, so that
+	 * compute, computeIfPresent and merge are also checked when they remove.
+	 */
+	private static final BiFunction<Object, Integer, Integer> REMAPPING_FUNCTION = (key,
+			value) -> value == null || value % 5 == 0 ? null : value + 1;
+
+	private static final BiFunction<Integer, Integer, Integer> MERGE_FUNCTION = (value,
+			newValue) -> (value + newValue) % 7 == 0 ? null : value + newValue;
+
+	private MapCheck() {
+
+	}
+
+	/**
+	 * @param condition the condition that has to hold
+	 * @param message   the description of the condition
+	 * @throws AssertionError if the condition does not hold
+	 */
+	static void check(boolean condition, String message) {
+
+		if (!condition) {
+
+			throw new AssertionError(message);
+
+		}
+
+	}
+
+	/**
+	 * @param actual   the value returned by the map under check
+	 * @param expected the value returned by the java.util.HashMap
+	 * @param message  the description of the value
+	 * @throws AssertionError if the values are not equal
+	 */
+	static void checkEqual(Object actual, Object expected, String message) {
+
+		if (!Objects.equals(actual, expected)) {
+
+			throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+
+		}
+
+	}
+
+	/**
+	 * Checks that the map holds exactly the mappings of the reference, through
+	 * size, equals in both directions, get and containsKey of every key and an
+	 * iteration over the entry set that has to visit every mapping once. The hash
+	 * code of the map is not compared, since the map entries of the
+	 * PerformantHashMap do not define one.
+	 *
+	 * @param name      the name of the check
+	 * @param map       the map under check
+	 * @param reference the java.util.HashMap with the expected mappings
+	 */
+	static <K, V> void checkContents(String name, Map<K, V> map, Map<K, V> reference) {
+
+		checkEqual(map.size(), reference.size(), name + " size");
+
+		checkEqual(map.isEmpty(), reference.isEmpty(), name + " isEmpty");
+
+		check(map.equals(reference), name + " equals");
+
+		check(reference.equals(map), name + " equals of the reference");
+
+		for (Map.Entry<K, V> entry : reference.entrySet()) {
+
+			check(map.containsKey(entry.getKey()), name + " containsKey " + entry.getKey());
+
+			checkEqual(map.get(entry.getKey()), entry.getValue(), name + " get " + entry.getKey());
+
+		}
+
+		Set<K> iteratedKeys = new HashSet<K>();
+
+		for (Map.Entry<K, V> entry : map.entrySet()) {
+
+			check(iteratedKeys.add(entry.getKey()), name + " iterated twice " + entry.getKey());
+
+			check(reference.containsKey(entry.getKey()), name + " iterated absent key " + entry.getKey());
+
+			checkEqual(entry.getValue(), reference.get(entry.getKey()), name + " iterated value " + entry.getKey());
+
+		}
+
+		checkEqual(iteratedKeys.size(), reference.size(), name + " iterated mappings");
+
+	}
+
+	/**
+	 * Gives the map and a java.util.HashMap the same random sequence of put,
+	 * get, remove, the default methods of Map, iterator removals, entry value
+	 * replacements and clears, and compares every returned value and, at a few
+	 * checkpoints and at the end, the contents of both maps.
+	 *
+	 * @param name                       the name of the check
+	 * @param map                        the empty map under check
+	 * @param keys                       the generator of the keys
+	 * @param isNullValuePermitted       the flag for null values
+	 * @param isIteratorRemovalSupported the flag for removal through the
+	 *                                   iterators of the map
+	 * @param random                     the source of the operations
+	 * @param operations                 the number of operations
+	 */
+	static <K> void checkOperations(String name, Map<K, Integer> map, Function<Random, ? extends K> keys,
+			boolean isNullValuePermitted, boolean isIteratorRemovalSupported, Random random, int operations) {
+
+		Map<K, Integer> reference = new HashMap<K, Integer>();
+
+		int checkpoint = Math.max(1, operations / CHECKPOINTS);
+
+		for (int i = 0; i < operations; i++) {
+
+			K key = keys.apply(random);
+
+			Integer value = isNullValuePermitted && random.nextInt(20) == 0 ? null : random.nextInt(100);
+
+			Integer presentValue = random.nextInt(100);
+
+			String message = name + " operation " + i + " key " + key;
+
+			switch (random.nextInt(16)) {
+
+			case 0:
+			case 1:
+			case 2:
+			case 3:
+
+				checkEqual(map.put(key, value), reference.put(key, value), message + " put");
+
+				break;
+
+			case 4:
+			case 5:
+
+				checkEqual(map.remove(key), reference.remove(key), message + " remove");
+
+				break;
+
+			case 6:
+			case 7:
+
+				checkEqual(map.get(key), reference.get(key), message + " get");
+
+				break;
+
+			case 8:
+
+				checkEqual(map.containsKey(key), reference.containsKey(key), message + " containsKey");
+
+				checkEqual(map.getOrDefault(key, -1), reference.getOrDefault(key, -1), message + " getOrDefault");
+
+				break;
+
+			case 9:
+
+				checkEqual(map.putIfAbsent(key, value), reference.putIfAbsent(key, value), message + " putIfAbsent");
+
+				break;
+
+			case 10:
+
+				checkEqual(map.replace(key, value), reference.replace(key, value), message + " replace");
+
+				Integer oldValue = random.nextBoolean() && (isNullValuePermitted || reference.containsKey(key))
+						? reference.get(key)
+						: value;
+
+				checkEqual(map.replace(key, oldValue, presentValue), reference.replace(key, oldValue, presentValue),
+						message + " conditional replace");
+
+				break;
+
+			case 11:
+
+				checkEqual(map.remove(key, value), reference.remove(key, value), message + " conditional remove");
+
+				break;
+
+			case 12:
+
+				checkEqual(map.computeIfAbsent(key, k -> value), reference.computeIfAbsent(key, k -> value),
+						message + " computeIfAbsent");
+
+				break;
+
+			case 13:
+
+				checkEqual(map.computeIfPresent(key, REMAPPING_FUNCTION),
+						reference.computeIfPresent(key, REMAPPING_FUNCTION), message + " computeIfPresent");
+
+				checkEqual(map.compute(key, REMAPPING_FUNCTION), reference.compute(key, REMAPPING_FUNCTION),
+						message + " compute");
+
+				break;
+
+			case 14:
+
+				checkEqual(map.merge(key, presentValue, MERGE_FUNCTION),
+						reference.merge(key, presentValue, MERGE_FUNCTION), message + " merge");
+
+				break;
+
+			default:
+
+				checkEqual(map.size(), reference.size(), message + " size");
+
+				if (random.nextInt(100) == 0) {
+
+					checkEqual(map.containsValue(value), reference.containsValue(value), message + " containsValue");
+
+				}
+
+				if (random.nextInt(200) == 0) {
+
+					checkIteratorUpdates(message, map, reference, isIteratorRemovalSupported, random);
+
+				}
+
+				if (random.nextInt(1000) == 0) {
+
+					map.clear();
+
+					reference.clear();
+
+				}
+
+			}
+
+			if ((i + 1) % checkpoint == 0) {
+
+				checkContents(message, map, reference);
+
+			}
+
+		}
+
+		checkContents(name, map, reference);
+
+	}
+
+	/*
+	 * Removes some mappings through the iterator of the entry set, if it
+	 * supports removal, and replaces the values of others through their map
+	 * entries, and does the same to the reference by key.
+	 */
+	private static <K> void checkIteratorUpdates(String message, Map<K, Integer> map, Map<K, Integer> reference,
+			boolean isIteratorRemovalSupported, Random random) {
+
+		Iterator<Map.Entry<K, Integer>> iterator = map.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+
+			Map.Entry<K, Integer> entry = iterator.next();
+
+			int update = random.nextInt(4);
+
+			if (update == 0 && isIteratorRemovalSupported) {
+
+				iterator.remove();
+
+				reference.remove(entry.getKey());
+
+			} else if (update == 1) {
+
+				Integer newValue = random.nextInt(100);
+
+				checkEqual(entry.setValue(newValue), reference.put(entry.getKey(), newValue),
+						message + " setValue " + entry.getKey());
+
+			}
+
+		}
+
+		checkContents(message + " after iterator updates", map, reference);
+
+	}
+
+	/**
+	 * A key whose hash code only depends on its value modulo a small number of
+	 * buckets, so that the keys of a map pile up in a few buckets. The keys are
+	 * not Comparable.
+	 */
+	static class CollidingKey {
+
+		final int value;
+
+		private final int buckets;
+
+		CollidingKey(int value, int buckets) {
+
+			this.value = value;
+
+			this.buckets = buckets;
+
+		}
+
+		@Override
+		public int hashCode() {
+
+			return value % buckets;
+
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			return o != null && o.getClass() == getClass() && ((CollidingKey) o).value == value;
+
+		}
+
+		@Override
+		public String toString() {
+
+			return getClass().getSimpleName() + value;
+
+		}
+
+	}
+
+	/**
+	 * A CollidingKey that is Comparable. Only every other value compares as
+	 * distinct, so equal comparisons do not imply equal keys.
+	 */
+	static final class ComparableCollidingKey extends CollidingKey implements Comparable<ComparableCollidingKey> {
+
+		ComparableCollidingKey(int value, int buckets) {
+
+			super(value, buckets);
+
+		}
+
+		@Override
+		public int compareTo(ComparableCollidingKey o) {
+
+			return Integer.compare(value / 2, o.value / 2);
+
+		}
+
+	}
+
+	/**
+	 * Returns a generator of colliding keys drawn from the specified number of
+	 * values, half of them Comparable.
+	 *
+	 * @param values  the number of distinct values
+	 * @param buckets the number of distinct hash codes
+	 * @return the key generator
+	 */
+	static Function<Random, Object> collidingKeys(int values, int buckets) {
+
+		return random -> {
+
+			int value = random.nextInt(values);
+
+			return random.nextBoolean() ? new CollidingKey(value, buckets)
+					: new ComparableCollidingKey(value, buckets);
+
+		};
+
+	}
+
+	/**
+	 * Returns a generator of string keys drawn from the specified number of
+	 * values, with an occasional null key if it is permitted.
+	 *
+	 * @param values          the number of distinct values
+	 * @param isNullPermitted the flag for the null key
+	 * @return the key generator
+	 */
+	static Function<Random, String> stringKeys(int values, boolean isNullPermitted) {
+
+		return random -> isNullPermitted && random.nextInt(values) == 0 ? null : "key-" + random.nextInt(values);
+
+	}
+
+}
@@ -0,0 +1,320 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.check;
+import static com.sparklingminds.adt.map.check.MapCheck.checkContents;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.sparklingminds.adt.map.MappedPerformantHashMap;
+import com.sparklingminds.adt.map.PerformantCodec;
+import com.sparklingminds.adt.map.PerformantHashMap;
+
+/**
+ * MappedPerformantHashMapCheck checks the snapshots written by
+ * PerformantHashMap.snapshotTo and opened by PerformantHashMap.openSnapshot
+ * against a java.util.HashMap: snapshots of empty, small and large maps, of
+ * maps with keys sharing their hash codes and of maps in the middle of an
+ * incremental rehash, the replacement of an existing snapshot, the read-only
+ * and closed maps, and the rejection of truncated and foreign files.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class MappedPerformantHashMapCheck {
+
+	/**
+	 * @param args
+	 * @throws IOException if a snapshot cannot be written or opened
+	 */
+	public static void main(String[] args) throws IOException {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the MappedPerformantHashMap.
+	 *
+	 * @throws IOException    if a snapshot cannot be written or opened
+	 * @throws AssertionError if a snapshot disagrees with the java.util.HashMap
+	 */
+	public static void run() throws IOException {
+
+		Path directory = Files.createTempDirectory("MappedPerformantHashMapCheck");
+
+		try {
+
+			Random random = new Random(1);
+
+			for (int size : new int[] { 0, 1, 1_000, 200_000 }) {
+
+				checkSnapshot("MappedPerformantHashMap size " + size, directory.resolve("snapshot-" + size), size,
+						random);
+
+			}
+
+			checkReplace(directory.resolve("replaced"));
+
+			checkClose(directory.resolve("closed"));
+
+			checkInvalidFiles(directory);
+
+		} finally {
+
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+
+				for (Path file : files) {
+
+					Files.delete(file);
+
+				}
+
+			}
+
+			Files.delete(directory);
+
+		}
+
+		System.out.println("OK MappedPerformantHashMap");
+
+	}
+
+	/*
+	 * Snapshots an incrementally rehashed map while it grows, so that the
+	 * snapshot is taken with the old table still being migrated. One key in
+	 * eight is a string sharing its hash code with 63 others.
+	 */
+	private static void checkSnapshot(String name, Path path, int size, Random random) throws IOException {
+
+		PerformantHashMap<String, Integer> map = new PerformantHashMap<String, Integer>(16, 0.75f, true, true);
+
+		Map<String, Integer> reference = new HashMap<String, Integer>();
+
+		for (int i = 0; i < size; i++) {
+
+			String key = nextKey(random, size);
+
+			map.put(key, i);
+
+			reference.put(key, i);
+
+		}
+
+		map.snapshotTo(path, PerformantCodec.STRING, PerformantCodec.INTEGER);
+
+		checkContents(name + " source", map, reference);
+
+		try (MappedPerformantHashMap<String, Integer> snapshot = PerformantHashMap.openSnapshot(path,
+				PerformantCodec.STRING, PerformantCodec.INTEGER)) {
+
+			checkContents(name, snapshot, reference);
+
+			for (int i = 0; i < 1_000; i++) {
+
+				String key = "absent-" + i;
+
+				checkEqual(snapshot.get(key), null, name + " get " + key);
+
+				check(!snapshot.containsKey(key), name + " containsKey " + key);
+
+			}
+
+			boolean isReadOnly = false;
+
+			try {
+
+				snapshot.put("key", 1);
+
+			} catch (UnsupportedOperationException e) {
+
+				isReadOnly = true;
+
+			}
+
+			check(isReadOnly, name + " put");
+
+		}
+
+	}
+
+	private static void checkReplace(Path path) throws IOException {
+
+		String name = "MappedPerformantHashMap replace";
+
+		PerformantHashMap<String, Integer> map = new PerformantHashMap<String, Integer>();
+
+		for (int i = 0; i < 1_000; i++) {
+
+			map.put("key-" + i, i);
+
+		}
+
+		map.snapshotTo(path, PerformantCodec.STRING, PerformantCodec.INTEGER);
+
+		map.clear();
+
+		map.put("only", 1);
+
+		map.snapshotTo(path, PerformantCodec.STRING, PerformantCodec.INTEGER);
+
+		try (MappedPerformantHashMap<String, Integer> snapshot = PerformantHashMap.openSnapshot(path,
+				PerformantCodec.STRING, PerformantCodec.INTEGER)) {
+
+			checkContents(name, snapshot, new HashMap<String, Integer>(map));
+
+		}
+
+		map.put(null, 2);
+
+		boolean isRejected = false;
+
+		try {
+
+			map.snapshotTo(path, PerformantCodec.STRING, PerformantCodec.INTEGER);
+
+		} catch (NullPointerException e) {
+
+			isRejected = true;
+
+		}
+
+		check(isRejected, name + " null key");
+
+		try (MappedPerformantHashMap<String, Integer> snapshot = PerformantHashMap.openSnapshot(path,
+				PerformantCodec.STRING, PerformantCodec.INTEGER)) {
+
+			checkEqual(snapshot.get("only"), 1, name + " kept after a failed snapshot");
+
+		}
+
+	}
+
+	private static void checkClose(Path path) throws IOException {
+
+		String name = "MappedPerformantHashMap close";
+
+		PerformantHashMap<Long, Long> map = new PerformantHashMap<Long, Long>();
+
+		for (long key = 0; key < 10_000; key++) {
+
+			map.put(key, -key);
+
+		}
+
+		map.snapshotTo(path, PerformantCodec.LONG, PerformantCodec.LONG);
+
+		MappedPerformantHashMap<Long, Long> snapshot = PerformantHashMap.openSnapshot(path, PerformantCodec.LONG,
+				PerformantCodec.LONG);
+
+		checkEqual(snapshot.get(5L), -5L, name + " get");
+
+		snapshot.close();
+
+		snapshot.close();
+
+		boolean isClosed = false;
+
+		try {
+
+			snapshot.get(5L);
+
+		} catch (IllegalStateException e) {
+
+			isClosed = true;
+
+		}
+
+		check(isClosed, name + " get after close");
+
+	}
+
+	/*
+	 * A snapshot cut short and a file that is not a snapshot are both rejected
+	 * when they are opened, not on the first lookup.
+	 */
+	private static void checkInvalidFiles(Path directory) throws IOException {
+
+		String name = "MappedPerformantHashMap invalid files";
+
+		PerformantHashMap<String, Integer> map = new PerformantHashMap<String, Integer>();
+
+		for (int i = 0; i < 1_000; i++) {
+
+			map.put("key-" + i, i);
+
+		}
+
+		Path truncated = directory.resolve("truncated");
+
+		map.snapshotTo(truncated, PerformantCodec.STRING, PerformantCodec.INTEGER);
+
+		try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+
+			channel.truncate(channel.size() - 1);
+
+		}
+
+		Path foreign = directory.resolve("foreign");
+
+		Files.write(foreign, new byte[64]);
+
+		Path empty = directory.resolve("empty");
+
+		Files.write(empty, new byte[0]);
+
+		for (Path path : new Path[] { truncated, foreign, empty }) {
+
+			boolean isRejected = false;
+
+			try {
+
+				PerformantHashMap.openSnapshot(path, PerformantCodec.STRING, PerformantCodec.INTEGER).close();
+
+			} catch (IOException e) {
+
+				isRejected = true;
+
+			}
+
+			check(isRejected, name + " " + path.getFileName());
+
+		}
+
+	}
+
+	/*
+	 * "Aa" and "BB" have the same String hash code, so the strings made of six
+	 * such blocks all share their hash code.
+	 */
+	private static String nextKey(Random random, int size) {
+
+		if (random.nextInt(8) != 0) {
+
+			return "key-" + random.nextInt(2 * size + 1);
+
+		}
+
+		int blocks = random.nextInt(64);
+
+		StringBuilder key = new StringBuilder(12);
+
+		for (int b = 0; b < 6; b++) {
+
+			key.append(((blocks >>> b) & 1) == 0 ? "Aa" : "BB");
+
+		}
+
+		return key.toString();
+
+	}
+
+}
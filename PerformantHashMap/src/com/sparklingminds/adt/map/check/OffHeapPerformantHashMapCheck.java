@@ -0,0 +1,163 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.check;
+import static com.sparklingminds.adt.map.check.MapCheck.checkContents;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.sparklingminds.adt.map.OffHeapPerformantHashMap;
+import com.sparklingminds.adt.map.PerformantCodec;
+
+/**
+ * OffHeapPerformantHashMapCheck checks the OffHeapPerformantHashMap against a
+ * java.util.HashMap: random operations with small chunks, so that records
+ * span many chunks and the chunks are compacted, values that grow and shrink
+ * in place, records larger than a chunk, and the release of the direct memory
+ * by close.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class OffHeapPerformantHashMapCheck {
+
+	private static final int OPERATIONS = 200_000;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the OffHeapPerformantHashMap.
+	 *
+	 * @throws AssertionError if the OffHeapPerformantHashMap disagrees with the
+	 *                        java.util.HashMap
+	 */
+	public static void run() {
+
+		OffHeapPerformantHashMap<String, Integer> map = new OffHeapPerformantHashMap<String, Integer>(
+				PerformantCodec.STRING, PerformantCodec.INTEGER, 0, 4_096);
+
+		MapCheck.checkOperations("OffHeapPerformantHashMap", map, MapCheck.stringKeys(3_000, false), false, false,
+				new Random(1), OPERATIONS);
+
+		map.close();
+
+		checkRecords();
+
+		checkClose();
+
+		System.out.println("OK OffHeapPerformantHashMap");
+
+	}
+
+	/*
+	 * Replaces values with longer and shorter encodings, which are written in
+	 * place or appended as new records, including records larger than a chunk.
+	 */
+	private static void checkRecords() {
+
+		String name = "OffHeapPerformantHashMap records";
+
+		OffHeapPerformantHashMap<String, String> map = new OffHeapPerformantHashMap<String, String>(
+				PerformantCodec.STRING, PerformantCodec.STRING, 16, 4_096);
+
+		Map<String, String> reference = new HashMap<String, String>();
+
+		Random random = new Random(2);
+
+		for (int i = 0; i < OPERATIONS; i++) {
+
+			String key = "key-" + random.nextInt(2_000);
+
+			int length = random.nextInt(100) == 0 ? 5_000 + random.nextInt(5_000) : random.nextInt(40);
+
+			String value = "v".repeat(length) + i;
+
+			if (random.nextInt(4) == 0) {
+
+				checkEqual(map.remove(key), reference.remove(key), name + " remove " + key);
+
+			} else {
+
+				checkEqual(map.put(key, value), reference.put(key, value), name + " put " + key);
+
+			}
+
+			if (i % 20_000 == 0) {
+
+				checkContents(name + " operation " + i, map, reference);
+
+			}
+
+		}
+
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+
+			entry.setValue(entry.getValue() + "x".repeat(100));
+
+		}
+
+		reference.replaceAll((key, value) -> value + "x".repeat(100));
+
+		checkContents(name, map, reference);
+
+		check(map.getOffHeapBytes() > 0, name + " off heap bytes");
+
+		map.clear();
+
+		reference.clear();
+
+		checkContents(name + " clear", map, reference);
+
+		map.close();
+
+	}
+
+	private static void checkClose() {
+
+		String name = "OffHeapPerformantHashMap close";
+
+		OffHeapPerformantHashMap<Long, byte[]> map = new OffHeapPerformantHashMap<Long, byte[]>(PerformantCodec.LONG,
+				PerformantCodec.BYTE_ARRAY);
+
+		for (long key = 0; key < 100_000; key++) {
+
+			map.put(key, new byte[] { (byte) key });
+
+		}
+
+		for (long key = 0; key < 100_000; key++) {
+
+			checkEqual(map.get(key)[0], (byte) key, name + " get " + key);
+
+		}
+
+		map.close();
+
+		map.close();
+
+		boolean isClosed = false;
+
+		try {
+
+			map.get(1L);
+
+		} catch (IllegalStateException e) {
+
+			isClosed = true;
+
+		}
+
+		check(isClosed, name + " get after close");
+
+	}
+
+}
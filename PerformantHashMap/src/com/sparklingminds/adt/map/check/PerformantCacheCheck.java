@@ -0,0 +1,313 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.check;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.sparklingminds.adt.map.PerformantCache;
+
+/**
+ * PerformantCacheCheck checks the PerformantCache against a java.util.HashMap
+ * holding the last value put for every key. A key that the cache still holds
+ * has to map to that value, the cache must never exceed its maximum number or
+ * maximum total weight of entries, and its hit, miss and eviction counts have
+ * to add up. The hit rate of the cache on skewed traffic is compared with a
+ * least recently used cache of the same size, and the frequently accessed keys
+ * have to survive a scan of keys that are accessed only once.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class PerformantCacheCheck {
+
+	private static final int OPERATIONS = 500_000;
+
+	private static final int KEYS = 100_000;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the PerformantCache.
+	 *
+	 * @throws AssertionError if the PerformantCache disagrees with the
+	 *                        java.util.HashMap or exceeds its maximum
+	 */
+	public static void run() {
+
+		checkRandomOperations("PerformantCache size", new PerformantCache<Integer, String>(1_000), false,
+				new Random(1));
+
+		checkRandomOperations("PerformantCache small size", new PerformantCache<Integer, String>(3), false,
+				new Random(2));
+
+		checkRandomOperations("PerformantCache weight",
+				new PerformantCache<Integer, String>(10_000, (key, value) -> value.length()), true, new Random(3));
+
+		checkHitRate();
+
+		checkScan();
+
+		System.out.println("OK PerformantCache");
+
+	}
+
+	private static void checkRandomOperations(String name, PerformantCache<Integer, String> cache, boolean isWeighted,
+			Random random) {
+
+		Map<Integer, String> reference = new HashMap<Integer, String>();
+
+		long insertions = 0;
+
+		long removals = 0;
+
+		long gets = 0;
+
+		long hits = 0;
+
+		for (int i = 0; i < OPERATIONS; i++) {
+
+			Integer key = nextKey(random);
+
+			String message = name + " operation " + i + " key " + key;
+
+			switch (random.nextInt(10)) {
+
+			case 0:
+			case 1:
+			case 2:
+			case 3:
+
+				String value = isWeighted ? "v".repeat(random.nextInt(100)) + i : String.valueOf(i);
+
+				boolean isCached = cache.containsKey(key);
+
+				String oldValue = cache.put(key, value);
+
+				checkEqual(oldValue, isCached ? reference.get(key) : null, message + " put");
+
+				reference.put(key, value);
+
+				if (!isCached) {
+
+					insertions++;
+
+				}
+
+				break;
+
+			case 4:
+
+				String removedValue = cache.remove(key);
+
+				check(!cache.containsKey(key), message + " containsKey after remove");
+
+				if (removedValue != null) {
+
+					checkEqual(removedValue, reference.get(key), message + " remove");
+
+					removals++;
+
+				}
+
+				reference.remove(key);
+
+				break;
+
+			default:
+
+				String cachedValue = cache.get(key);
+
+				gets++;
+
+				if (cachedValue != null) {
+
+					checkEqual(cachedValue, reference.get(key), message + " get");
+
+					hits++;
+
+				}
+
+			}
+
+			check(cache.getWeightedSize() <= cache.getMaximum(), message + " weighted size "
+					+ cache.getWeightedSize() + " exceeds " + cache.getMaximum());
+
+			if (!isWeighted) {
+
+				checkEqual(cache.getWeightedSize(), (long) cache.size(), message + " weighted size");
+
+			}
+
+		}
+
+		checkEqual(cache.getHitCount(), hits, name + " hit count");
+
+		checkEqual(cache.getMissCount(), gets - hits, name + " miss count");
+
+		checkEqual(cache.getEvictionCount(), insertions - removals - cache.size(), name + " eviction count");
+
+		long weightedSize = 0;
+
+		int size = 0;
+
+		for (Map.Entry<Integer, String> entry : reference.entrySet()) {
+
+			if (cache.containsKey(entry.getKey())) {
+
+				weightedSize += isWeighted ? entry.getValue().length() : 1;
+
+				size++;
+
+			}
+
+		}
+
+		checkEqual(cache.size(), size, name + " size");
+
+		checkEqual(cache.getWeightedSize(), weightedSize, name + " weighted size");
+
+		cache.clear();
+
+		checkEqual(cache.size(), 0, name + " size after clear");
+
+		checkEqual(cache.getWeightedSize(), 0L, name + " weighted size after clear");
+
+		System.out.println("OK " + name);
+
+	}
+
+	/*
+	 * Reads a skewed trace through the cache and through a least recently used
+	 * cache of the same size. W-TinyLFU keeps the frequently read keys that LRU
+	 * loses to the keys read only once.
+	 */
+	private static void checkHitRate() {
+
+		String name = "PerformantCache hit rate";
+
+		int maximumSize = 1_000;
+
+		PerformantCache<Integer, Integer> cache = new PerformantCache<Integer, Integer>(maximumSize);
+
+		Map<Integer, Integer> lru = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+
+				return size() > maximumSize;
+
+			}
+
+		};
+
+		Random random = new Random(4);
+
+		long lruHits = 0;
+
+		for (int i = 0; i < OPERATIONS; i++) {
+
+			Integer key = nextKey(random);
+
+			if (cache.get(key) == null) {
+
+				cache.put(key, key);
+
+			}
+
+			if (lru.get(key) == null) {
+
+				lru.put(key, key);
+
+			} else {
+
+				lruHits++;
+
+			}
+
+		}
+
+		double lruHitRate = (double) lruHits / OPERATIONS;
+
+		check(cache.getHitRate() > lruHitRate,
+				name + " " + cache.getHitRate() + " is not above the LRU hit rate " + lruHitRate);
+
+		System.out.println("OK " + name + " " + String.format("%.3f", cache.getHitRate()) + " (LRU "
+				+ String.format("%.3f", lruHitRate) + ")");
+
+	}
+
+	/*
+	 * Reads a small set of hot keys until the sketch knows them, then scans ten
+	 * times as many keys as the cache holds, each read only once. The scanned
+	 * keys pass through the admission window but cannot displace the hot keys
+	 * from the main region; only the hot keys that were still in the window
+	 * when the scan started are lost with it.
+	 */
+	private static void checkScan() {
+
+		String name = "PerformantCache scan";
+
+		PerformantCache<Integer, Integer> cache = new PerformantCache<Integer, Integer>(1_000);
+
+		for (int round = 0; round < 20; round++) {
+
+			for (int key = 0; key < 500; key++) {
+
+				if (cache.get(key) == null) {
+
+					cache.put(key, key);
+
+				}
+
+			}
+
+		}
+
+		for (int key = KEYS; key < KEYS + 10_000; key++) {
+
+			cache.put(key, key);
+
+		}
+
+		int hotKeys = 0;
+
+		for (int key = 0; key < 500; key++) {
+
+			if (cache.containsKey(key)) {
+
+				hotKeys++;
+
+			}
+
+		}
+
+		check(hotKeys >= 490, name + " kept only " + hotKeys + " of 500 hot keys");
+
+		System.out.println("OK " + name + " hotKeys=" + hotKeys);
+
+	}
+
+	/*
+	 * Keys with a log-uniform popularity: a key below 10 is read about as often
+	 * as all the keys from 10_000 to 100_000 together.
+	 */
+	private static Integer nextKey(Random random) {
+
+		return (int) Math.pow(KEYS, random.nextDouble()) - 1;
+
+	}
+
+}
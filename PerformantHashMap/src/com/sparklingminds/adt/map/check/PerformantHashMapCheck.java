@@ -0,0 +1,1415 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.check;
+import static com.sparklingminds.adt.map.check.MapCheck.checkContents;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import com.sparklingminds.adt.map.ChainReorderPolicy;
+import com.sparklingminds.adt.map.CountingBloomFilter;
+import com.sparklingminds.adt.map.PerformantHashMap;
+import com.sparklingminds.adt.map.PerformantHashMapStats;
+import com.sparklingminds.adt.map.check.MapCheck.CollidingKey;
+import com.sparklingminds.adt.map.check.MapCheck.ComparableCollidingKey;
+
+/**
+ * PerformantHashMapCheck checks the PerformantHashMap against a
+ * java.util.HashMap:
+ * <ul>
+ * <li>random operations on string keys and on colliding keys, for every chain
+ * reorder policy and with and without the bloom filter, incremental rehashing
+ * and power of two capacity</li>
+ * <li>iterators, spliterators, forEach and replaceAll while an incremental
+ * rehash is in progress, interleaved with reads, value replacements and
+ * iterator removals</li>
+ * <li>tree bins: their creation and removal, and map entries that stay backed
+ * by the map across both</li>
+ * <li>the expiration of mappings after a write, after an access and after a
+ * time to live</li>
+ * <li>bulk loading from streams, iterators and spliterators with several
+ * mappings for a key</li>
+ * <li>the shrinking of the table on removal, ensureCapacity, trimToSize, and
+ * clear keeping the capacity and the load factor</li>
+ * <li>the statistics and the MXBean, read through the platform MBeanServer
+ * while the map is being filled</li>
+ * <li>the flight recorder events of rehashes, bloom filter rebuilds and long
+ * probes</li>
+ * <li>clones that share no table, bloom filter or timer wheel with the map,
+ * also while an incremental rehash is in progress</li>
+ * <li>serialization of every configuration and of the counting bloom filter,
+ * and the deserialized maps changing further</li>
+ * <li>seeded hashing of keys sharing their hash code, and deserialized maps
+ * drawing a new seed and building their bloom filter</li>
+ * </ul>
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class PerformantHashMapCheck {
+
+	private static final int OPERATIONS = 100_000;
+
+	/**
+	 * The configurations of the PerformantHashMap under check.
+	 */
+	public enum Configuration {
+
+		DEFAULT(() -> new PerformantHashMap<Object, Integer>()),
+
+		BLOOM_FILTER(() -> new PerformantHashMap<Object, Integer>(16, 0.75f, true)),
+
+		INCREMENTAL_REHASH(() -> new PerformantHashMap<Object, Integer>(16, 0.75f, false, true)),
+
+		INCREMENTAL_REHASH_BLOOM_FILTER(() -> new PerformantHashMap<Object, Integer>(16, 0.75f, true, true)),
+
+		POWER_OF_TWO(() -> new PerformantHashMap<Object, Integer>(16, 0.75f, false, false, true)),
+
+		INCREMENTAL_REHASH_POWER_OF_TWO(() -> new PerformantHashMap<Object, Integer>(16, 0.75f, true, true, true)),
+
+		HIGH_LOAD_FACTOR(() -> new PerformantHashMap<Object, Integer>(4, 8f, false));
+
+		private final Supplier<PerformantHashMap<Object, Integer>> factory;
+
+		Configuration(Supplier<PerformantHashMap<Object, Integer>> factory) {
+
+			this.factory = factory;
+
+		}
+
+		PerformantHashMap<Object, Integer> create() {
+
+			return factory.get();
+
+		}
+
+	}
+
+	/**
+	 * @param args
+	 * @throws IOException            if a map cannot be serialized or a flight
+	 *                                recording cannot be dumped
+	 * @throws ClassNotFoundException if a map cannot be deserialized
+	 * @throws InterruptedException   if the check is interrupted while it waits
+	 *                                for mappings to expire
+	 * @throws JMException            if the MXBean of a map cannot be registered
+	 *                                or read
+	 */
+	public static void main(String[] args) throws IOException, ClassNotFoundException, InterruptedException,
+			JMException {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the PerformantHashMap.
+	 *
+	 * @throws IOException            if a map cannot be serialized or a flight
+	 *                                recording cannot be dumped
+	 * @throws ClassNotFoundException if a map cannot be deserialized
+	 * @throws InterruptedException   if the check is interrupted while it waits
+	 *                                for mappings to expire
+	 * @throws JMException            if the MXBean of a map cannot be registered
+	 *                                or read
+	 * @throws AssertionError         if the PerformantHashMap disagrees with the
+	 *                                java.util.HashMap
+	 */
+	public static void run() throws IOException, ClassNotFoundException, InterruptedException,
+			JMException {
+
+		checkRandomOperations();
+
+		checkIncrementalRehash();
+
+		checkTreeBins();
+
+		checkExpiration();
+
+		checkBulkLoad();
+
+		checkShrinkAndClear();
+
+		checkStatistics();
+
+		checkFlightRecorderEvents();
+
+		checkClone();
+
+		checkSerialization();
+
+		checkSeededHash();
+
+	}
+
+	private static void checkRandomOperations() {
+
+		for (Configuration configuration : Configuration.values()) {
+
+			for (ChainReorderPolicy chainReorderPolicy : ChainReorderPolicy.values()) {
+
+				Random random = new Random(31L * configuration.ordinal() + chainReorderPolicy.ordinal());
+
+				PerformantHashMap<Object, Integer> map = configuration.create();
+
+				map.setChainReorderPolicy(chainReorderPolicy);
+
+				String name = "PerformantHashMap " + configuration + " " + chainReorderPolicy;
+
+				MapCheck.checkOperations(name + " string keys", map, MapCheck.stringKeys(2_000, true), true, true,
+						random, OPERATIONS);
+
+				map = configuration.create();
+
+				map.setChainReorderPolicy(chainReorderPolicy);
+
+				MapCheck.checkOperations(name + " colliding keys", map, MapCheck.collidingKeys(600, 3), true, true,
+						random, OPERATIONS);
+
+				System.out.println("OK " + name);
+
+			}
+
+		}
+
+	}
+
+	/*
+	 * Grows incrementally rehashed maps from their initial capacity and walks
+	 * them while the old table is still being migrated. The walks read, replace
+	 * values and remove through the iterator, so the NONE chain reorder policy
+	 * is used: TRANSPOSE moves keys between map entries on get, which lets an
+	 * iterator return a key twice.
+	 */
+	private static void checkIncrementalRehash() {
+
+		for (int configuration = 0; configuration < 4; configuration++) {
+
+			boolean isBloomFilter = (configuration & 1) != 0;
+
+			boolean isPowerOfTwoCapacity = (configuration & 2) != 0;
+
+			Random random = new Random(configuration);
+
+			PerformantHashMap<Integer, Integer> map = new PerformantHashMap<Integer, Integer>(16, 0.75f,
+					isBloomFilter, true, isPowerOfTwoCapacity);
+
+			map.setChainReorderPolicy(ChainReorderPolicy.NONE);
+
+			Map<Integer, Integer> reference = new HashMap<Integer, Integer>();
+
+			String name = "PerformantHashMap incremental rehash bloom=" + isBloomFilter + " powerOfTwo="
+					+ isPowerOfTwoCapacity;
+
+			int walks = 0;
+
+			for (int i = 0; i < 50_000; i++) {
+
+				Integer key = random.nextInt(100_000);
+
+				checkEqual(map.put(key, i), reference.put(key, i), name + " put " + key);
+
+				if (random.nextInt(7) == 0) {
+
+					Integer removedKey = random.nextInt(100_000);
+
+					checkEqual(map.remove(removedKey), reference.remove(removedKey), name + " remove " + removedKey);
+
+				}
+
+				if (random.nextInt(500) == 0) {
+
+					walk(name, map, reference, random);
+
+					walks++;
+
+				}
+
+				if (random.nextInt(2_000) == 0) {
+
+					checkBulkOperations(name, map, reference);
+
+				}
+
+			}
+
+			checkBulkOperations(name, map, reference);
+
+			System.out.println("OK " + name + " walks=" + walks);
+
+		}
+
+	}
+
+	/*
+	 * Checks the streams, forEach and replaceAll, which split or walk the old
+	 * and the new table while a rehash is in progress.
+	 */
+	private static void checkBulkOperations(String name, PerformantHashMap<Integer, Integer> map,
+			Map<Integer, Integer> reference) {
+
+		checkContents(name, map, reference);
+
+		checkEqual(map.keySet().stream().count(), (long) reference.size(), name + " stream count");
+
+		checkEqual(map.keySet().parallelStream().collect(Collectors.toSet()), reference.keySet(),
+				name + " parallel stream keys");
+
+		checkEqual(map.values().parallelStream().mapToLong(Integer::longValue).sum(),
+				reference.values().stream().mapToLong(Integer::longValue).sum(), name + " parallel stream values");
+
+		long[] sum = { 0 };
+
+		map.forEach((key, value) -> {
+
+			checkEqual(map.get(key), value, name + " forEach get " + key);
+
+			sum[0] += value;
+
+		});
+
+		checkEqual(sum[0], reference.values().stream().mapToLong(Integer::longValue).sum(), name + " forEach");
+
+		map.replaceAll((key, value) -> value + key);
+
+		reference.replaceAll((key, value) -> value + key);
+
+		checkContents(name + " replaceAll", map, reference);
+
+	}
+
+	/*
+	 * Walks the entry set once. Every mapping present when the walk starts has
+	 * to be returned exactly once, since the walk itself only replaces values
+	 * and removes the mapping it has just returned.
+	 */
+	private static void walk(String name, PerformantHashMap<Integer, Integer> map, Map<Integer, Integer> reference,
+			Random random) {
+
+		Set<Integer> expectedKeys = new HashSet<Integer>(reference.keySet());
+
+		Set<Integer> walkedKeys = new HashSet<Integer>();
+
+		Iterator<Map.Entry<Integer, Integer>> iterator = map.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+
+			Map.Entry<Integer, Integer> entry = iterator.next();
+
+			check(walkedKeys.add(entry.getKey()), name + " walked twice " + entry.getKey());
+
+			checkEqual(entry.getValue(), reference.get(entry.getKey()), name + " walked value " + entry.getKey());
+
+			Integer key = random.nextInt(100_000);
+
+			checkEqual(map.get(key), reference.get(key), name + " get during walk " + key);
+
+			checkEqual(map.containsKey(key), reference.containsKey(key), name + " containsKey during walk " + key);
+
+			if (random.nextInt(10) == 0 && reference.containsKey(key)) {
+
+				checkEqual(map.put(key, -1), reference.put(key, -1), name + " replace during walk " + key);
+
+			}
+
+			if (random.nextInt(20) == 0) {
+
+				iterator.remove();
+
+				reference.remove(entry.getKey());
+
+			}
+
+		}
+
+		checkEqual(walkedKeys, expectedKeys, name + " walked keys");
+
+		checkContents(name + " after walk", map, reference);
+
+	}
+
+	private static void checkTreeBins() {
+
+		String name = "PerformantHashMap tree bins";
+
+		PerformantHashMap<CollidingKey, Integer> map = new PerformantHashMap<CollidingKey, Integer>();
+
+		Map<CollidingKey, Integer> reference = new HashMap<CollidingKey, Integer>();
+
+		map.put(new CollidingKey(0, 1), 0);
+
+		reference.put(new CollidingKey(0, 1), 0);
+
+		Map.Entry<CollidingKey, Integer> firstEntry = map.entrySet().iterator().next();
+
+		for (int i = 1; i < 200; i++) {
+
+			map.put(new CollidingKey(i, 1), i);
+
+			reference.put(new CollidingKey(i, 1), i);
+
+		}
+
+		checkEqual(map.stats().getTreeBinCount(), 1, name + " tree bins after treeify");
+
+		checkEqual(firstEntry.setValue(-1), 0, name + " setValue after treeify");
+
+		reference.put(new CollidingKey(0, 1), -1);
+
+		checkContents(name + " treeified", map, reference);
+
+		for (int i = 1; i < 196; i++) {
+
+			checkEqual(map.remove(new CollidingKey(i, 1)), reference.remove(new CollidingKey(i, 1)),
+					name + " remove " + i);
+
+		}
+
+		checkEqual(map.stats().getTreeBinCount(), 0, name + " tree bins after untreeify");
+
+		checkEqual(firstEntry.setValue(-2), -1, name + " setValue after untreeify");
+
+		reference.put(new CollidingKey(0, 1), -2);
+
+		checkContents(name + " untreeified", map, reference);
+
+		/*
+		 * "Aa" and "BB" have the same hash code as the Integer and the Long 2112,
+		 * so keys of different classes, equal keys that are different instances
+		 * and the null key share a tree bin.
+		 */
+		PerformantHashMap<Object, Integer> mixedMap = new PerformantHashMap<Object, Integer>();
+
+		Map<Object, Integer> mixedReference = new HashMap<Object, Integer>();
+
+		Object[] mixedKeys = { "Aa", "BB", "AaAa".substring(2), 2112, 2112L, new CollidingKey(2112, 1 << 20),
+				new ComparableCollidingKey(2112, 1 << 20), new ComparableCollidingKey(2113, 1 << 20), null };
+
+		Random random = new Random(2112);
+
+		for (int i = 0; i < 10_000; i++) {
+
+			Object key = mixedKeys[random.nextInt(mixedKeys.length)];
+
+			if (random.nextInt(3) == 0) {
+
+				checkEqual(mixedMap.remove(key), mixedReference.remove(key), name + " mixed remove " + key);
+
+			} else {
+
+				checkEqual(mixedMap.put(key, i), mixedReference.put(key, i), name + " mixed put " + key);
+
+			}
+
+			checkEqual(mixedMap.get(key), mixedReference.get(key), name + " mixed get " + key);
+
+		}
+
+		checkContents(name + " mixed", mixedMap, mixedReference);
+
+		System.out.println("OK " + name);
+
+	}
+
+	/*
+	 * Mappings expire with a granularity of about a second, so a mapping that
+	 * has expired is never returned, but it is only guaranteed to be gone from
+	 * the size and the iterators of the map a little more than a second later.
+	 */
+	private static void checkExpiration() throws InterruptedException {
+
+		String name = "PerformantHashMap expiration";
+
+		for (int configuration = 0; configuration < 2; configuration++) {
+
+			PerformantHashMap<Object, Integer> map = configuration == 0 ? new PerformantHashMap<Object, Integer>()
+					: new PerformantHashMap<Object, Integer>(16, 0.75f, true, true);
+
+			Map<Object, Integer> reference = new HashMap<Object, Integer>();
+
+			Set<Object> expiringKeys = new HashSet<Object>();
+
+			Random random = new Random(configuration);
+
+			for (int i = 0; i < 20_000; i++) {
+
+				Object key = random.nextBoolean() ? "key-" + random.nextInt(2_000)
+						: new CollidingKey(random.nextInt(2_000), 4);
+
+				if (random.nextInt(4) == 0) {
+
+					map.put(key, i, 1, TimeUnit.MILLISECONDS);
+
+					reference.remove(key);
+
+					expiringKeys.add(key);
+
+				} else if (random.nextInt(4) == 0) {
+
+					if (expiringKeys.remove(key)) {
+
+						map.remove(key);
+
+					} else {
+
+						checkEqual(map.remove(key), reference.remove(key), name + " remove " + key);
+
+					}
+
+				} else {
+
+					map.put(key, i, 1, TimeUnit.HOURS);
+
+					reference.put(key, i);
+
+					expiringKeys.remove(key);
+
+				}
+
+			}
+
+			Thread.sleep(10);
+
+			for (Object key : expiringKeys) {
+
+				checkEqual(map.get(key), null, name + " get of expired " + key);
+
+				check(!map.containsKey(key), name + " containsKey of expired " + key);
+
+			}
+
+			for (Map.Entry<Object, Integer> entry : reference.entrySet()) {
+
+				checkEqual(map.get(entry.getKey()), entry.getValue(), name + " get " + entry.getKey());
+
+			}
+
+			Thread.sleep(2_100);
+
+			map.removeExpiredEntries();
+
+			checkContents(name + " configuration " + configuration, map, reference);
+
+		}
+
+		PerformantHashMap<String, Integer> writeMap = new PerformantHashMap<String, Integer>();
+
+		writeMap.setExpireAfterWrite(200, TimeUnit.MILLISECONDS);
+
+		PerformantHashMap<String, Integer> accessMap = new PerformantHashMap<String, Integer>();
+
+		accessMap.setExpireAfterAccess(200, TimeUnit.MILLISECONDS);
+
+		for (int i = 0; i < 1_000; i++) {
+
+			writeMap.put("key-" + i, i);
+
+			accessMap.put("key-" + i, i);
+
+		}
+
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(600);
+
+		while (System.nanoTime() < end) {
+
+			for (int i = 0; i < 10; i++) {
+
+				checkEqual(accessMap.get("key-" + i), i, name + " get of accessed key-" + i);
+
+			}
+
+			Thread.sleep(10);
+
+		}
+
+		for (int i = 0; i < 1_000; i++) {
+
+			checkEqual(writeMap.get("key-" + i), null, name + " get after write expiration key-" + i);
+
+			checkEqual(accessMap.get("key-" + i), i < 10 ? i : null, name + " get after access expiration key-" + i);
+
+		}
+
+		System.out.println("OK " + name);
+
+	}
+
+	/*
+	 * Loads maps from streams, iterators and spliterators holding several
+	 * mappings for many of their keys, which have to keep the last mapping in
+	 * encounter order, and keeps changing the loaded maps to check that their
+	 * tables and bloom filters are consistent.
+	 */
+	private static void checkBulkLoad() {
+
+		String name = "PerformantHashMap bulk load";
+
+		Random random = new Random(18);
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+
+		try {
+
+			for (int size : new int[] { 0, 1, 100, 10_000, 200_000 }) {
+
+				for (int keyKind = 0; keyKind < 2; keyKind++) {
+
+					List<Map.Entry<Object, Integer>> entries = new ArrayList<Map.Entry<Object, Integer>>();
+
+					Map<Object, Integer> reference = new HashMap<Object, Integer>();
+
+					for (int i = 0; i < size; i++) {
+
+						int value = random.nextInt(size);
+
+						Object key = keyKind == 0 ? Integer.valueOf(value) : new CollidingKey(value, 1 + size / 100);
+
+						entries.add(new AbstractMap.SimpleEntry<Object, Integer>(key, i));
+
+						reference.put(key, i);
+
+					}
+
+					String message = name + " size=" + size + " keyKind=" + keyKind;
+
+					checkLoadedMap(message + " parallel stream",
+							PerformantHashMap.bulkLoad(entries.parallelStream(), true), reference, random);
+
+					checkLoadedMap(message + " iterator",
+							PerformantHashMap.bulkLoad(entries.iterator(), size / 2, false), reference, random);
+
+					checkLoadedMap(message + " spliterator",
+							PerformantHashMap.bulkLoad(entries.spliterator(), 2L * size, 0.5f, true, true, pool),
+							reference, random);
+
+				}
+
+			}
+
+			List<Map.Entry<Object, Integer>> nullMapping = new ArrayList<Map.Entry<Object, Integer>>();
+
+			nullMapping.add(new AbstractMap.SimpleEntry<Object, Integer>(1, 1));
+
+			nullMapping.add(null);
+
+			boolean isRejected = false;
+
+			try {
+
+				PerformantHashMap.bulkLoad(nullMapping.stream(), false);
+
+			} catch (NullPointerException e) {
+
+				isRejected = true;
+
+			}
+
+			check(isRejected, name + " null mapping accepted");
+
+		} finally {
+
+			pool.shutdown();
+
+		}
+
+		System.out.println("OK " + name);
+
+	}
+
+	private static void checkLoadedMap(String name, PerformantHashMap<Object, Integer> map,
+			Map<Object, Integer> reference, Random random) {
+
+		checkContents(name, map, reference);
+
+		Map<Object, Integer> changedReference = new HashMap<Object, Integer>(reference);
+
+		List<Object> keys = new ArrayList<Object>(reference.keySet());
+
+		for (int i = 0; i < 1_000 && !keys.isEmpty(); i++) {
+
+			Object key = keys.get(random.nextInt(keys.size()));
+
+			if (random.nextBoolean()) {
+
+				checkEqual(map.remove(key), changedReference.remove(key), name + " remove " + key);
+
+			} else {
+
+				checkEqual(map.put(key, -i), changedReference.put(key, -i), name + " put " + key);
+
+			}
+
+		}
+
+		checkEqual(map.put("new key", 1), changedReference.put("new key", 1), name + " put new key");
+
+		checkContents(name + " changed", map, changedReference);
+
+	}
+
+	private static void checkShrinkAndClear() {
+
+		String name = "PerformantHashMap shrink and clear";
+
+		for (Configuration configuration : Configuration.values()) {
+
+			PerformantHashMap<Object, Integer> map = configuration.create();
+
+			Map<Object, Integer> reference = new HashMap<Object, Integer>();
+
+			for (int i = 0; i < 100_000; i++) {
+
+				map.put(i, i);
+
+				reference.put(i, i);
+
+			}
+
+			int grownCapacity = map.stats().getCapacity();
+
+			for (int i = 100; i < 100_000; i++) {
+
+				checkEqual(map.remove(i), reference.remove(i), name + " " + configuration + " remove " + i);
+
+			}
+
+			int shrunkCapacity = map.stats().getCapacity();
+
+			check(shrunkCapacity < grownCapacity,
+					name + " " + configuration + " capacity " + shrunkCapacity + " not below " + grownCapacity);
+
+			checkContents(name + " " + configuration + " shrunk", map, reference);
+
+			map.ensureCapacity(50_000);
+
+			int reservedCapacity = map.stats().getCapacity();
+
+			for (int i = 0; i < 100; i++) {
+
+				checkEqual(map.remove(i), reference.remove(i), name + " " + configuration + " remove " + i);
+
+			}
+
+			checkEqual(map.stats().getCapacity(), reservedCapacity, name + " " + configuration + " reserved capacity");
+
+			for (int i = 0; i < 10_000; i++) {
+
+				map.put(i, i);
+
+			}
+
+			map.clear();
+
+			checkEqual(map.stats().getCapacity(), reservedCapacity,
+					name + " " + configuration + " capacity after clear");
+
+			map.put(1, 1);
+
+			map.trimToSize();
+
+			check(map.stats().getCapacity() < reservedCapacity, name + " " + configuration + " trimToSize");
+
+			checkEqual(map.get(1), 1, name + " " + configuration + " get after trimToSize");
+
+			/*
+			 * After clear, the map has to grow exactly as a new map with the same
+			 * initial capacity and load factor.
+			 */
+			PerformantHashMap<Object, Integer> clearedMap = configuration.create();
+
+			for (int i = 0; i < 10_000; i++) {
+
+				clearedMap.put(i, i);
+
+			}
+
+			clearedMap.clear();
+
+			PerformantHashMap<Object, Integer> newMap = configuration.create();
+
+			for (int i = 0; i < 10_000; i++) {
+
+				clearedMap.put(i, i);
+
+				newMap.put(i, i);
+
+				checkEqual(clearedMap.stats().getCapacity(), newMap.stats().getCapacity(),
+						name + " " + configuration + " capacity after clear with " + (i + 1) + " mappings");
+
+			}
+
+			/*
+			 * Removing every mapping through an iterator does not shrink the table
+			 * under the iterator.
+			 */
+			int removed = 0;
+
+			for (Iterator<Object> iterator = clearedMap.keySet().iterator(); iterator.hasNext(); removed++) {
+
+				iterator.next();
+
+				iterator.remove();
+
+			}
+
+			checkEqual(removed, 10_000, name + " " + configuration + " iterator removals");
+
+			check(clearedMap.isEmpty(), name + " " + configuration + " empty after iterator removals");
+
+		}
+
+		System.out.println("OK " + name);
+
+	}
+
+	/*
+	 * Fills an incrementally rehashed map with its statistics enabled and its
+	 * MXBean registered. The bucket occupancy accounts for every mapping, also
+	 * right after a resize, when most of them are still in the old table. A
+	 * thread reads the attributes of the MXBean through the MBeanServer while
+	 * the map is being filled, as a JMX client would.
+	 */
+	private static void checkStatistics() throws JMException, InterruptedException {
+
+		String name = "PerformantHashMap statistics";
+
+		PerformantHashMap<Integer, Integer> map = new PerformantHashMap<Integer, Integer>(16, 0.75f, true, true);
+
+		map.setStatisticsEnabled(true);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		ObjectName objectName = map.registerMBean(name);
+
+		check(server.isRegistered(objectName), name + " registered");
+
+		boolean isRejected = false;
+
+		try {
+
+			new PerformantHashMap<Integer, Integer>().registerMBean(name);
+
+		} catch (InstanceAlreadyExistsException e) {
+
+			isRejected = true;
+
+		}
+
+		check(isRejected, name + " name registered twice");
+
+		String[] attributes = { "Size", "Capacity", "StatisticsEnabled", "GetProbeHistogram", "PutProbeHistogram",
+				"RemoveProbeHistogram", "MeanGetProbeLength", "MeanPutProbeLength", "MeanRemoveProbeLength",
+				"RehashCount", "RehashTimeNanos", "BucketOccupancy", "TreeBinCount", "BloomFilterNegatives",
+				"BloomFilterFalsePositives" };
+
+		AtomicBoolean isFilled = new AtomicBoolean();
+
+		AtomicReference<Exception> readFailure = new AtomicReference<Exception>();
+
+		Thread reader = new Thread(() -> {
+
+			try {
+
+				while (!isFilled.get()) {
+
+					server.getAttributes(objectName, attributes);
+
+				}
+
+			} catch (Exception e) {
+
+				readFailure.set(e);
+
+			}
+
+		});
+
+		reader.start();
+
+		int resizes = 0;
+
+		int capacity = map.stats().getCapacity();
+
+		for (int i = 0; i < 20_000; i++) {
+
+			map.put(i, i);
+
+			checkEqual(map.get(i), i, name + " get " + i);
+
+			if (map.stats().getCapacity() != capacity) {
+
+				capacity = map.stats().getCapacity();
+
+				resizes++;
+
+				long[] bucketOccupancy = map.stats().getBucketOccupancy();
+
+				long mappings = 0;
+
+				for (int entries = 0; entries < bucketOccupancy.length; entries++) {
+
+					mappings += entries * bucketOccupancy[entries];
+
+				}
+
+				checkEqual(mappings, (long) map.size(), name + " bucket occupancy after resize " + resizes);
+
+			}
+
+		}
+
+		isFilled.set(true);
+
+		reader.join();
+
+		checkEqual(readFailure.get(), null, name + " concurrent attribute reads");
+
+		check(resizes > 0, name + " resizes");
+
+		PerformantHashMapStats stats = map.stats();
+
+		checkEqual(server.getAttribute(objectName, "Size"), map.size(), name + " Size");
+
+		checkEqual(server.getAttribute(objectName, "Capacity"), stats.getCapacity(), name + " Capacity");
+
+		checkEqual(server.getAttribute(objectName, "StatisticsEnabled"), true, name + " StatisticsEnabled");
+
+		checkEqual(Arrays.stream((long[]) server.getAttribute(objectName, "GetProbeHistogram")).sum(), 20_000L,
+				name + " GetProbeHistogram");
+
+		checkEqual(server.getAttribute(objectName, "RehashCount"), stats.getRehashCount(), name + " RehashCount");
+
+		checkEqual(Arrays.toString((long[]) server.getAttribute(objectName, "BucketOccupancy")),
+				Arrays.toString(stats.getBucketOccupancy()), name + " BucketOccupancy");
+
+		checkEqual(server.getAttribute(objectName, "TreeBinCount"), stats.getTreeBinCount(), name + " TreeBinCount");
+
+		server.invoke(objectName, "resetStats", null, null);
+
+		checkEqual(map.stats().getRehashCount(), 0L, name + " RehashCount after resetStats");
+
+		checkEqual(map.stats().getGetProbeHistogram()[1], 0L, name + " GetProbeHistogram after resetStats");
+
+		map.unregisterMBean();
+
+		check(!server.isRegistered(objectName), name + " unregistered");
+
+		System.out.println("OK " + name);
+
+	}
+
+	/*
+	 * Records the flight recorder events of the map without duration thresholds,
+	 * so that every rehash and bloom filter rebuild is committed. The eagerly
+	 * rehashed map commits one event per resize. The chain of five colliding keys
+	 * is shorter than the treeify threshold, so it is only walked again for the
+	 * long probe event because the threshold is lowered to two.
+	 */
+	private static void checkFlightRecorderEvents() throws IOException {
+
+		String name = "PerformantHashMap flight recorder events";
+
+		PerformantHashMap<Integer, Integer> eagerMap = new PerformantHashMap<Integer, Integer>();
+
+		eagerMap.setStatisticsEnabled(true);
+
+		PerformantHashMap<Integer, Integer> incrementalMap = new PerformantHashMap<Integer, Integer>(16, 0.75f, true,
+				true);
+
+		PerformantHashMap<CollidingKey, Integer> collidingMap = new PerformantHashMap<CollidingKey, Integer>();
+
+		collidingMap.setLongProbeThreshold(2);
+
+		List<RecordedEvent> events;
+
+		try (Recording recording = new Recording()) {
+
+			recording.enable("com.sparklingminds.adt.map.Rehash").withoutThreshold();
+
+			recording.enable("com.sparklingminds.adt.map.BloomFilterRebuild").withoutThreshold();
+
+			recording.enable("com.sparklingminds.adt.map.LongProbe");
+
+			recording.start();
+
+			for (int i = 0; i < 10_000; i++) {
+
+				eagerMap.put(i, i);
+
+				incrementalMap.put(i, i);
+
+			}
+
+			for (int i = 0; i < 5; i++) {
+
+				collidingMap.put(new CollidingKey(i, 1), i);
+
+			}
+
+			checkEqual(collidingMap.get(new CollidingKey(5, 1)), null, name + " absent colliding key");
+
+			recording.stop();
+
+			Path file = Files.createTempFile("PerformantHashMapCheck", ".jfr");
+
+			try {
+
+				recording.dump(file);
+
+				events = RecordingFile.readAllEvents(file);
+
+			} finally {
+
+				Files.delete(file);
+
+			}
+
+		}
+
+		int eagerRehashes = 0;
+
+		int incrementalRehashes = 0;
+
+		int bloomFilterRebuilds = 0;
+
+		int longGetProbes = 0;
+
+		for (RecordedEvent event : events) {
+
+			String type = event.getEventType().getName();
+
+			if (type.equals("com.sparklingminds.adt.map.Rehash")) {
+
+				check(event.getInt("newCapacity") > event.getInt("oldCapacity"), name + " rehash grows " + event);
+
+				if (event.getBoolean("incremental")) {
+
+					incrementalRehashes++;
+
+				} else {
+
+					eagerRehashes++;
+
+				}
+
+			} else if (type.equals("com.sparklingminds.adt.map.BloomFilterRebuild")) {
+
+				check(event.getInt("newExpectedInsertions") > event.getInt("oldExpectedInsertions"),
+						name + " bloom filter rebuild grows " + event);
+
+				bloomFilterRebuilds++;
+
+			} else if (type.equals("com.sparklingminds.adt.map.LongProbe") && event.getString("operation").equals("get")) {
+
+				checkEqual(event.getInt("probeLength"), 5, name + " long probe length");
+
+				checkEqual(event.getInt("threshold"), 2, name + " long probe threshold");
+
+				check(!event.getBoolean("treeBin"), name + " long probe in a chain");
+
+				longGetProbes++;
+
+			}
+
+		}
+
+		checkEqual((long) eagerRehashes, eagerMap.stats().getRehashCount(), name + " eager rehashes");
+
+		check(incrementalRehashes > 0, name + " incremental rehashes");
+
+		check(bloomFilterRebuilds > 0, name + " bloom filter rebuilds");
+
+		checkEqual(longGetProbes, 1, name + " long probes of get");
+
+		System.out.println("OK " + name + " rehashes=" + (eagerRehashes + incrementalRehashes)
+				+ " bloomFilterRebuilds=" + bloomFilterRebuilds);
+
+	}
+
+	/*
+	 * Clones maps in the middle of filling them, so that the incremental rehashes
+	 * are caught in progress, and changes the clones and the maps independently.
+	 * A clone sharing the bloom filter with its map would make the map lose the
+	 * keys that are removed from the clone.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void checkClone() throws InterruptedException {
+
+		String name = "PerformantHashMap clone";
+
+		for (Configuration configuration : Configuration.values()) {
+
+			PerformantHashMap<Object, Integer> map = configuration.create();
+
+			Map<Object, Integer> reference = new HashMap<Object, Integer>();
+
+			for (int i = 0; i < 20_000; i++) {
+
+				Object key = i % 100 < 10 ? new CollidingKey(i, 1) : i;
+
+				map.put(key, i);
+
+				reference.put(key, i);
+
+				if (i % 4_999 != 0) {
+
+					continue;
+
+				}
+
+				String message = name + " " + configuration + " " + i;
+
+				PerformantHashMap<Object, Integer> clone;
+
+				try {
+
+					clone = (PerformantHashMap<Object, Integer>) map.clone();
+
+				} catch (CloneNotSupportedException e) {
+
+					throw new AssertionError(message, e);
+
+				}
+
+				checkContents(message, clone, reference);
+
+				Map<Object, Integer> cloneReference = new HashMap<Object, Integer>(reference);
+
+				for (Object cloneKey : reference.keySet()) {
+
+					if (cloneKey.hashCode() % 2 == 0) {
+
+						checkEqual(clone.remove(cloneKey), cloneReference.remove(cloneKey),
+								message + " remove " + cloneKey);
+
+					}
+
+				}
+
+				clone.put(-1, -1);
+
+				cloneReference.put(-1, -1);
+
+				checkContents(message + " changed clone", clone, cloneReference);
+
+				checkContents(message + " map after clone changed", map, reference);
+
+			}
+
+		}
+
+		PerformantHashMap<String, Integer> map = new PerformantHashMap<String, Integer>(16, 0.75f, true, true);
+
+		for (int i = 0; i < 1_000; i++) {
+
+			map.put("key-" + i, i, i % 2 == 0 ? 1 : 60_000, TimeUnit.MILLISECONDS);
+
+		}
+
+		PerformantHashMap<String, Integer> clone;
+
+		try {
+
+			clone = (PerformantHashMap<String, Integer>) map.clone();
+
+		} catch (CloneNotSupportedException e) {
+
+			throw new AssertionError(name + " expiration", e);
+
+		}
+
+		map.clear();
+
+		Thread.sleep(10);
+
+		for (int i = 0; i < 1_000; i++) {
+
+			checkEqual(clone.get("key-" + i), i % 2 == 0 ? null : i, name + " expiration get key-" + i);
+
+		}
+
+		checkEqual(clone.size(), 500, name + " expiration size");
+
+		System.out.println("OK " + name);
+
+	}
+
+	/*
+	 * Deserializes maps of every configuration, with keys sharing their hash
+	 * codes in tree bins, and keeps changing them. The table of a deserialized
+	 * map is sized from its mappings, whatever capacity the stream carries.
+	 */
+	private static void checkSerialization() throws IOException, ClassNotFoundException {
+
+		String name = "PerformantHashMap serialization";
+
+		for (Configuration configuration : Configuration.values()) {
+
+			String message = name + " " + configuration;
+
+			Random random = new Random(configuration.ordinal());
+
+			PerformantHashMap<Object, Integer> map = configuration.create();
+
+			Map<Object, Integer> reference = new HashMap<Object, Integer>();
+
+			for (int i = 0; i < 20_000; i++) {
+
+				Object key = nextCollidingString(random);
+
+				if (random.nextInt(4) == 0) {
+
+					checkEqual(map.remove(key), reference.remove(key), message + " remove " + key);
+
+				} else {
+
+					checkEqual(map.put(key, i), reference.put(key, i), message + " put " + key);
+
+				}
+
+			}
+
+			PerformantHashMap<Object, Integer> deserializedMap = serializedCopy(map);
+
+			checkContents(message + " deserialized", deserializedMap, reference);
+
+			List<Object> keys = new ArrayList<Object>(reference.keySet());
+
+			for (int i = 0; i < keys.size(); i += 2) {
+
+				checkEqual(deserializedMap.remove(keys.get(i)), reference.remove(keys.get(i)),
+						message + " remove " + keys.get(i));
+
+			}
+
+			for (int i = 0; i < 10_000; i++) {
+
+				checkEqual(deserializedMap.put(i, i), reference.put(i, i), message + " put " + i);
+
+			}
+
+			checkContents(message + " changed", deserializedMap, reference);
+
+			MapCheck.checkOperations(message + " empty", serializedCopy(configuration.create()),
+					MapCheck.stringKeys(2_000, true), true, true, random, OPERATIONS / 10);
+
+		}
+
+		CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+
+		for (int i = 0; i < 10_000; i++) {
+
+			filter.add(i);
+
+		}
+
+		CountingBloomFilter deserializedFilter = serializedCopy(filter);
+
+		for (int i = 0; i < 10_000; i++) {
+
+			check(deserializedFilter.contains(i), name + " counting bloom filter contains " + i);
+
+		}
+
+		for (int i = 0; i < 10_000; i += 2) {
+
+			deserializedFilter.remove(i);
+
+		}
+
+		for (int i = 1; i < 10_000; i += 2) {
+
+			check(deserializedFilter.contains(i), name + " counting bloom filter contains " + i + " after removals");
+
+		}
+
+		System.out.println("OK " + name);
+
+	}
+
+	/*
+	 * The 1024 strings made of ten "Aa" and "BB" blocks share their hash code, so
+	 * without a seed they fill a single tree bin, which the last slot of the
+	 * bucket occupancy counts. Under a seed they spread over the table, although
+	 * at a load factor of 8 a bucket may still hold 15 of them by chance. A
+	 * deserialized map draws a seed of its own, so it orders its keys
+	 * differently from the map it was written from, and it has to build its
+	 * bloom filter from the keys.
+	 */
+	private static void checkSeededHash() throws IOException, ClassNotFoundException {
+
+		String name = "PerformantHashMap seeded hash";
+
+		for (Configuration configuration : Configuration.values()) {
+
+			String message = name + " " + configuration;
+
+			Random random = new Random(configuration.ordinal());
+
+			PerformantHashMap<Object, Integer> map = configuration.create();
+
+			PerformantHashMap<Object, Integer> unseededMap = configuration.create();
+
+			map.setSeededHash(true);
+
+			check(map.isSeededHash(), message + " isSeededHash");
+
+			Map<Object, Integer> reference = new HashMap<Object, Integer>();
+
+			for (int blocks = 0; blocks < 1_024; blocks++) {
+
+				StringBuilder key = new StringBuilder(20);
+
+				for (int b = 0; b < 10; b++) {
+
+					key.append(((blocks >>> b) & 1) == 0 ? "Aa" : "BB");
+
+				}
+
+				checkEqual(map.put(key.toString(), blocks), reference.put(key.toString(), blocks),
+						message + " put " + key);
+
+				unseededMap.put(key.toString(), blocks);
+
+			}
+
+			int lastSlot = PerformantHashMapStats.HISTOGRAM_SIZE - 1;
+
+			checkEqual(unseededMap.stats().getBucketOccupancy()[lastSlot], 1L, message + " unseeded occupancy");
+
+			if (configuration != Configuration.HIGH_LOAD_FACTOR) {
+
+				checkEqual(map.stats().getBucketOccupancy()[lastSlot], 0L, message + " seeded occupancy");
+
+			}
+
+			checkContents(message, map, reference);
+
+			for (int i = 0; i < 10_000; i++) {
+
+				Object key = nextCollidingString(random);
+
+				if (random.nextInt(4) == 0) {
+
+					checkEqual(map.remove(key), reference.remove(key), message + " remove " + key);
+
+				} else {
+
+					checkEqual(map.put(key, i), reference.put(key, i), message + " put " + key);
+
+				}
+
+			}
+
+			checkContents(message + " changed", map, reference);
+
+			PerformantHashMap<Object, Integer> deserializedMap = serializedCopy(map);
+
+			check(deserializedMap.isSeededHash(), message + " deserialized isSeededHash");
+
+			checkContents(message + " deserialized", deserializedMap, reference);
+
+			check(!new ArrayList<Object>(deserializedMap.keySet()).equals(new ArrayList<Object>(map.keySet())),
+					message + " deserialized with a new seed");
+
+			List<Object> keys = new ArrayList<Object>(reference.keySet());
+
+			for (int i = 0; i < keys.size(); i += 2) {
+
+				checkEqual(deserializedMap.remove(keys.get(i)), reference.remove(keys.get(i)),
+						message + " deserialized remove " + keys.get(i));
+
+			}
+
+			checkContents(message + " deserialized changed", deserializedMap, reference);
+
+			deserializedMap.setSeededHash(true);
+
+			checkContents(message + " reseeded", deserializedMap, reference);
+
+			deserializedMap.setSeededHash(false);
+
+			check(!deserializedMap.isSeededHash(), message + " disabled");
+
+			checkContents(message + " disabled", deserializedMap, reference);
+
+		}
+
+		System.out.println("OK " + name);
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T serializedCopy(T object) throws IOException, ClassNotFoundException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+
+		output.writeObject(object);
+
+		output.close();
+
+		return (T) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+	}
+
+	/*
+	 * "Aa" and "BB" have the same String hash code, so the strings made of six
+	 * such blocks all share their hash code.
+	 */
+	private static String nextCollidingString(Random random) {
+
+		if (random.nextInt(8) != 0) {
+
+			return "key-" + random.nextInt(5_000);
+
+		}
+
+		int blocks = random.nextInt(64);
+
+		StringBuilder key = new StringBuilder(12);
+
+		for (int b = 0; b < 6; b++) {
+
+			key.append(((blocks >>> b) & 1) == 0 ? "Aa" : "BB");
+
+		}
+
+		return key.toString();
+
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.sparklingminds.adt.map.check;
+
+/**
+ * PerformantMapCheckSuite runs the checks of all the maps against
+ * java.util.HashMap: the PerformantHashMap, the SwissPerformantHashMap, the
+ * primitive maps, the OffHeapPerformantHashMap, the MappedPerformantHashMap,
+ * the PerformantCache, the FrozenPerformantHashMap and the
+ * ConcurrentPerformantHashMap. Every check prints a line starting with OK
+ * once it has passed. The first check that fails throws an AssertionError
+ * describing the operation and the key on which the map disagreed with
+ * java.util.HashMap, which ends the suite with a non-zero exit status: <br>
+ * <br>
+ * <i> java PerformantMapCheckSuite </i>
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class PerformantMapCheckSuite {
+
+	/**
+	 * @param args
+	 * @throws Exception if a check fails
+	 */
+	public static void main(String[] args) throws Exception {
+
+		PerformantHashMapCheck.run();
+
+		SwissPerformantHashMapCheck.run();
+
+		PrimitivePerformantHashMapCheck.run();
+
+		OffHeapPerformantHashMapCheck.run();
+
+		MappedPerformantHashMapCheck.run();
+
+		PerformantCacheCheck.run();
+
+		FrozenPerformantHashMapCheck.run();
+
+		ConcurrentPerformantHashMapCheck.run();
+
+		System.out.println("All checks passed");
+
+	}
+
+}
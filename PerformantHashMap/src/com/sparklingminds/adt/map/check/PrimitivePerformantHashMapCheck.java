@@ -0,0 +1,273 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.check;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.sparklingminds.adt.map.IntIntPerformantHashMap;
+import com.sparklingminds.adt.map.LongLongPerformantHashMap;
+import com.sparklingminds.adt.map.LongObjectPerformantHashMap;
+
+/**
+ * PrimitivePerformantHashMapCheck checks the IntIntPerformantHashMap, the
+ * LongLongPerformantHashMap and the LongObjectPerformantHashMap against a
+ * java.util.HashMap, with and without the bloom filter. The keys include 0,
+ * which is stored outside of the table, negative keys and the extreme values
+ * of the key types. Since a primitive value cannot be null, an absent key is
+ * expected to return 0 from get, put and remove.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class PrimitivePerformantHashMapCheck {
+
+	private static final int OPERATIONS = 500_000;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the primitive maps.
+	 *
+	 * @throws AssertionError if a primitive map disagrees with the
+	 *                        java.util.HashMap
+	 */
+	public static void run() {
+
+		for (int configuration = 0; configuration < 4; configuration++) {
+
+			boolean isBloomFilter = (configuration & 1) != 0;
+
+			int initialCapacity = (configuration & 2) != 0 ? 0 : 16;
+
+			checkRandomOperations("bloom=" + isBloomFilter + " initialCapacity=" + initialCapacity, initialCapacity,
+					isBloomFilter, new Random(configuration));
+
+		}
+
+		System.out.println("OK primitive maps");
+
+	}
+
+	private static void checkRandomOperations(String configuration, int initialCapacity, boolean isBloomFilter,
+			Random random) {
+
+		IntIntPerformantHashMap intIntMap = new IntIntPerformantHashMap(initialCapacity, 0.75f, isBloomFilter);
+
+		LongLongPerformantHashMap longLongMap = new LongLongPerformantHashMap(initialCapacity, isBloomFilter);
+
+		LongObjectPerformantHashMap<String> longObjectMap = new LongObjectPerformantHashMap<String>(initialCapacity,
+				isBloomFilter);
+
+		Map<Long, Long> reference = new HashMap<Long, Long>();
+
+		for (int i = 0; i < OPERATIONS; i++) {
+
+			long key = nextKey(random);
+
+			long value = random.nextInt(1_000) - 500;
+
+			Long expected;
+
+			String message = "primitive maps " + configuration + " operation " + i + " key " + key;
+
+			switch (random.nextInt(10)) {
+
+			case 0:
+			case 1:
+			case 2:
+			case 3:
+
+				expected = reference.put(key, value);
+
+				checkEqual(intIntMap.put((int) key, (int) value), expected == null ? 0 : expected.intValue(),
+						message + " IntInt put");
+
+				checkEqual(longLongMap.put(key, value), expected == null ? 0 : expected, message + " LongLong put");
+
+				checkEqual(longObjectMap.put(key, String.valueOf(value)), expected == null ? null : expected.toString(),
+						message + " LongObject put");
+
+				break;
+
+			case 4:
+			case 5:
+			case 6:
+
+				expected = reference.remove(key);
+
+				checkEqual(intIntMap.remove((int) key), expected == null ? 0 : expected.intValue(),
+						message + " IntInt remove");
+
+				checkEqual(longLongMap.remove(key), expected == null ? 0 : expected, message + " LongLong remove");
+
+				checkEqual(longObjectMap.remove(key), expected == null ? null : expected.toString(),
+						message + " LongObject remove");
+
+				break;
+
+			default:
+
+				expected = reference.get(key);
+
+				checkEqual(intIntMap.get((int) key), expected == null ? 0 : expected.intValue(),
+						message + " IntInt get");
+
+				checkEqual(intIntMap.getOrDefault((int) key, Integer.MIN_VALUE),
+						expected == null ? Integer.MIN_VALUE : expected.intValue(), message + " IntInt getOrDefault");
+
+				checkEqual(longLongMap.getOrDefault(key, Long.MIN_VALUE), expected == null ? Long.MIN_VALUE : expected,
+						message + " LongLong getOrDefault");
+
+				checkEqual(longObjectMap.get(key), expected == null ? null : expected.toString(),
+						message + " LongObject get");
+
+				checkEqual(intIntMap.containsKey((int) key), expected != null, message + " IntInt containsKey");
+
+				checkEqual(longLongMap.containsKey(key), expected != null, message + " LongLong containsKey");
+
+				checkEqual(longObjectMap.containsKey(key), expected != null, message + " LongObject containsKey");
+
+				if (isBloomFilter && expected != null) {
+
+					check(intIntMap.mightContain((int) key) && longLongMap.mightContain(key)
+							&& longObjectMap.mightContain(key), message + " mightContain");
+
+				}
+
+			}
+
+			checkEqual(intIntMap.size(), reference.size(), message + " IntInt size");
+
+			checkEqual(longLongMap.size(), reference.size(), message + " LongLong size");
+
+			checkEqual(longObjectMap.size(), reference.size(), message + " LongObject size");
+
+			if (i % 50_000 == 0) {
+
+				checkContents(message, intIntMap, longLongMap, longObjectMap, reference, value);
+
+			}
+
+			if (i == OPERATIONS / 2) {
+
+				intIntMap.clear();
+
+				longLongMap.clear();
+
+				longObjectMap.clear();
+
+				reference.clear();
+
+			}
+
+		}
+
+		checkContents("primitive maps " + configuration, intIntMap, longLongMap, longObjectMap, reference, 0);
+
+	}
+
+	/*
+	 * The keys stay within the int range, so the int map is given the same keys
+	 * as the long maps.
+	 */
+	private static long nextKey(Random random) {
+
+		switch (random.nextInt(100)) {
+
+		case 0:
+
+			return 0;
+
+		case 1:
+
+			return Integer.MIN_VALUE;
+
+		case 2:
+
+			return Integer.MAX_VALUE;
+
+		default:
+
+			return random.nextInt(5_000) - 1_000;
+
+		}
+
+	}
+
+	private static void checkContents(String message, IntIntPerformantHashMap intIntMap,
+			LongLongPerformantHashMap longLongMap, LongObjectPerformantHashMap<String> longObjectMap,
+			Map<Long, Long> reference, long value) {
+
+		checkEqual(intIntMap.isEmpty(), reference.isEmpty(), message + " isEmpty");
+
+		checkEqual(longLongMap.containsValue(value), reference.containsValue(value), message + " containsValue");
+
+		checkEqual(intIntMap.containsValue((int) value), reference.containsValue(value),
+				message + " IntInt containsValue");
+
+		checkEqual(longObjectMap.containsValue(String.valueOf(value)), reference.containsValue(value),
+				message + " LongObject containsValue");
+
+		Set<Long> keys = new HashSet<Long>();
+
+		for (int key : intIntMap.keys()) {
+
+			check(keys.add((long) key), message + " IntInt key twice " + key);
+
+		}
+
+		checkEqual(keys, reference.keySet(), message + " IntInt keys");
+
+		keys.clear();
+
+		for (long key : longLongMap.keys()) {
+
+			check(keys.add(key), message + " LongLong key twice " + key);
+
+		}
+
+		checkEqual(keys, reference.keySet(), message + " LongLong keys");
+
+		keys.clear();
+
+		for (long key : longObjectMap.keys()) {
+
+			check(keys.add(key), message + " LongObject key twice " + key);
+
+		}
+
+		checkEqual(keys, reference.keySet(), message + " LongObject keys");
+
+		Map<Long, Long> mappings = new HashMap<Long, Long>();
+
+		intIntMap.forEach((key, mappedValue) -> mappings.put((long) key, (long) mappedValue));
+
+		checkEqual(mappings, reference, message + " IntInt forEach");
+
+		mappings.clear();
+
+		longLongMap.forEach((key, mappedValue) -> mappings.put(key, mappedValue));
+
+		checkEqual(mappings, reference, message + " LongLong forEach");
+
+		mappings.clear();
+
+		longObjectMap.forEach((key, mappedValue) -> mappings.put(key, Long.valueOf(mappedValue)));
+
+		checkEqual(mappings, reference, message + " LongObject forEach");
+
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.sparklingminds.adt.map.check;
+
+import static com.sparklingminds.adt.map.check.MapCheck.checkContents;
+import static com.sparklingminds.adt.map.check.MapCheck.checkEqual;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.sparklingminds.adt.map.SwissPerformantHashMap;
+
+/**
+ * SwissPerformantHashMapCheck checks the SwissPerformantHashMap against a
+ * java.util.HashMap with random operations on string keys, on colliding keys,
+ * which share their fingerprints and probe sequences, and on a churn of
+ * insertions and removals that fills the table with tombstones.
+ *
+ * @author Gaive Gandhi
+ * @version 1.0
+ */
+public class SwissPerformantHashMapCheck {
+
+	private static final int OPERATIONS = 200_000;
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		run();
+
+	}
+
+	/**
+	 * Runs all the checks of the SwissPerformantHashMap.
+	 *
+	 * @throws AssertionError if the SwissPerformantHashMap disagrees with the
+	 *                        java.util.HashMap
+	 */
+	public static void run() {
+
+		Random random = new Random(1);
+
+		MapCheck.checkOperations("SwissPerformantHashMap string keys", new SwissPerformantHashMap<String, Integer>(),
+				MapCheck.stringKeys(2_000, true), true, true, random, OPERATIONS);
+
+		MapCheck.checkOperations("SwissPerformantHashMap colliding keys", new SwissPerformantHashMap<Object, Integer>(),
+				MapCheck.collidingKeys(600, 3), true, true, random, OPERATIONS);
+
+		MapCheck.checkOperations("SwissPerformantHashMap small capacity",
+				new SwissPerformantHashMap<String, Integer>(0), MapCheck.stringKeys(20, true), true, true, random,
+				OPERATIONS);
+
+		checkTombstones(random);
+
+		System.out.println("OK SwissPerformantHashMap");
+
+	}
+
+	/*
+	 * Keeps the number of mappings flat while every key is new, so the table
+	 * runs out of empty slots through tombstones alone and has to be rebuilt at
+	 * the same capacity.
+	 */
+	private static void checkTombstones(Random random) {
+
+		String name = "SwissPerformantHashMap tombstones";
+
+		SwissPerformantHashMap<Integer, Integer> map = new SwissPerformantHashMap<Integer, Integer>();
+
+		Map<Integer, Integer> reference = new HashMap<Integer, Integer>();
+
+		for (int i = 0; i < OPERATIONS; i++) {
+
+			checkEqual(map.put(i, i), reference.put(i, i), name + " put " + i);
+
+			if (i >= 1_000) {
+
+				Integer key = i - 1_000 + random.nextInt(1_000);
+
+				checkEqual(map.remove(key), reference.remove(key), name + " remove " + key);
+
+			}
+
+		}
+
+		checkContents(name, map, reference);
+
+	}
+
+}